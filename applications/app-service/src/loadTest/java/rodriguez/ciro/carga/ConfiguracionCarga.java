@@ -0,0 +1,50 @@
+package rodriguez.ciro.carga;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Parámetros de la prueba de carga, leídos de las propiedades de sistema {@code loadtest.*}
+ * (desde Gradle: {@code -Ploadtest.tasa=500}).
+ * <p>
+ * La latencia y los errores del doble de usuarios se pueden ajustar para todas las rutas
+ * ({@code loadtest.usuarios.mediana}) o por ruta ({@code loadtest.usuarios.documento.mediana}),
+ * con las rutas {@code documento}, {@code email} y {@code registro}.
+ */
+record ConfiguracionCarga(double tasa, Duration duracion, Duration calentamiento,
+                          int usuariosExistentes, double proporcionExistentes, double errorMaximo,
+                          PerfilRuta documento, PerfilRuta email, PerfilRuta registro, Path reportes) {
+
+    private static final String PREFIJO = "loadtest.";
+
+    static ConfiguracionCarga desdePropiedades() {
+        return new ConfiguracionCarga(
+                Double.parseDouble(propiedad("tasa", "200")),
+                duracion("duracion", "30s"),
+                duracion("calentamiento", "5s"),
+                Integer.parseInt(propiedad("usuarios.existentes", "1000")),
+                Double.parseDouble(propiedad("proporcion-existentes", "0.8")),
+                Double.parseDouble(propiedad("error-maximo", "0.01")),
+                perfil("documento"),
+                perfil("email"),
+                perfil("registro"),
+                Path.of(propiedad("reportes", "build/reports/loadtest")));
+    }
+
+    private static PerfilRuta perfil(String ruta) {
+        return new PerfilRuta(
+                duracion("usuarios." + ruta + ".mediana", propiedad("usuarios.mediana", "5ms")),
+                duracion("usuarios." + ruta + ".p99", propiedad("usuarios.p99", "50ms")),
+                Double.parseDouble(propiedad("usuarios." + ruta + ".errores", propiedad("usuarios.errores", "0"))));
+    }
+
+    private static Duration duracion(String nombre, String porDefecto) {
+        return DurationStyle.detectAndParse(propiedad(nombre, porDefecto));
+    }
+
+    private static String propiedad(String nombre, String porDefecto) {
+        return System.getProperty(PREFIJO + nombre, porDefecto);
+    }
+}
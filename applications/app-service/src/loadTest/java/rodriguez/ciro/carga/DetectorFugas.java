@@ -0,0 +1,75 @@
+package rodriguez.ciro.carga;
+
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.util.ResourceLeakDetector;
+import io.netty.util.ResourceLeakDetectorFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Registra las fugas de buffers que reporta Netty para que la prueba falle en lugar de solo dejarlas en el log.
+ * <p>
+ * Debe instalarse antes de que Netty cree su primer buffer: los detectores se crean al inicializar las clases.
+ */
+final class DetectorFugas {
+
+    private static final int ASIGNACIONES_POR_REVISION = 256;
+    private static final List<String> FUGAS = new CopyOnWriteArrayList<>();
+
+    private DetectorFugas() {
+    }
+
+    static void instalar() {
+        ResourceLeakDetector.setLevel(ResourceLeakDetector.Level.PARANOID);
+        ResourceLeakDetectorFactory.setResourceLeakDetectorFactory(new Fabrica());
+    }
+
+    /**
+     * Netty solo revisa las referencias recolectadas al asignar un buffer nuevo, así que se fuerza la
+     * recolección y unas cuantas asignaciones antes de leer las fugas.
+     */
+    static List<String> recolectar() throws InterruptedException {
+        for (int ronda = 0; ronda < 5; ronda++) {
+            System.gc();
+            Thread.sleep(100);
+            for (int i = 0; i < ASIGNACIONES_POR_REVISION; i++) {
+                ByteBufAllocator.DEFAULT.buffer(16).release();
+            }
+        }
+        return List.copyOf(FUGAS);
+    }
+
+    private static final class Fabrica extends ResourceLeakDetectorFactory {
+        @Override
+        @SuppressWarnings("deprecation")
+        public <T> ResourceLeakDetector<T> newResourceLeakDetector(Class<T> recurso, int intervaloMuestreo,
+                                                                   long maximoActivos) {
+            return new Detector<>(recurso, intervaloMuestreo);
+        }
+    }
+
+    private static final class Detector<T> extends ResourceLeakDetector<T> {
+
+        private Detector(Class<?> recurso, int intervaloMuestreo) {
+            super(recurso, intervaloMuestreo);
+        }
+
+        @Override
+        protected boolean needReport() {
+            return true;
+        }
+
+        @Override
+        protected void reportTracedLeak(String tipoRecurso, String registros) {
+            FUGAS.add(tipoRecurso + registros);
+            super.reportTracedLeak(tipoRecurso, registros);
+        }
+
+        @Override
+        protected void reportUntracedLeak(String tipoRecurso) {
+            FUGAS.add(tipoRecurso);
+            super.reportUntracedLeak(tipoRecurso);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package rodriguez.ciro.carga;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import org.HdrHistogram.Recorder;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Generador de carga de modelo abierto: las solicitudes se envían a la tasa objetivo sin esperar las respuestas
+ * anteriores, así que la saturación del servicio se ve como latencia y no reduce la carga ofrecida.
+ * <p>
+ * La latencia se mide desde el instante programado de cada envío (no desde el envío real) para no ocultar
+ * las demoras del propio generador. Solo se miden las solicitudes programadas después del calentamiento.
+ */
+final class GeneradorCarga {
+
+    private static final Duration TIEMPO_RESPUESTA = Duration.ofSeconds(10);
+    private static final Duration ESPERA_PENDIENTES = Duration.ofSeconds(30);
+    private static final long NANOS_POR_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    private final String url;
+    private final String ruta;
+    private final double tasa;
+    private final Duration duracion;
+    private final Duration calentamiento;
+    private final Supplier<String> cuerpos;
+
+    private final Recorder latencias = new Recorder(3);
+    private final LongAdder exitosas = new LongAdder();
+    private final Map<String, LongAdder> porResultado = new ConcurrentHashMap<>();
+
+    GeneradorCarga(String url, String ruta, double tasa, Duration duracion, Duration calentamiento,
+                   Supplier<String> cuerpos) {
+        this.url = url;
+        this.ruta = ruta;
+        this.tasa = tasa;
+        this.duracion = duracion;
+        this.calentamiento = calentamiento;
+        this.cuerpos = cuerpos;
+    }
+
+    ResultadoCarga ejecutar() throws InterruptedException {
+        ConnectionProvider conexiones = ConnectionProvider.builder("carga")
+                .maxConnections(2048)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        LoopResources hilos = LoopResources.create("carga");
+        HttpClient cliente = HttpClient.create(conexiones)
+                .runOn(hilos)
+                .baseUrl(url)
+                .headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON))
+                .responseTimeout(TIEMPO_RESPUESTA);
+
+        long sinMedir = solicitudesEn(calentamiento);
+        long total = sinMedir + solicitudesEn(duracion);
+        CountDownLatch medidasPendientes = new CountDownLatch((int) (total - sinMedir));
+        AtomicLong programadas = new AtomicLong();
+        long inicio = System.nanoTime();
+
+        ScheduledExecutorService reloj = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "carga-reloj");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            reloj.scheduleAtFixedRate(() -> {
+                long debidas = Math.min(total, solicitudesEn(Duration.ofNanos(System.nanoTime() - inicio)));
+                for (long i = programadas.get(); i < debidas; i = programadas.incrementAndGet()) {
+                    long instante = inicio + (long) (i * NANOS_POR_SEGUNDO / tasa);
+                    enviar(cliente, instante, i >= sinMedir ? medidasPendientes : null);
+                }
+            }, 0, 1, TimeUnit.MILLISECONDS);
+
+            long limite = calentamiento.plus(duracion).plus(ESPERA_PENDIENTES).toMillis();
+            medidasPendientes.await(limite, TimeUnit.MILLISECONDS);
+        } finally {
+            reloj.shutdownNow();
+            conexiones.disposeLater().block(ESPERA_PENDIENTES);
+            hilos.disposeLater().block(ESPERA_PENDIENTES);
+        }
+
+        Map<String, Long> conteo = new TreeMap<>();
+        porResultado.forEach((resultado, cantidad) -> conteo.put(resultado, cantidad.sum()));
+        return new ResultadoCarga(tasa, duracion, latencias.getIntervalHistogram(), total - sinMedir,
+                exitosas.sum(), medidasPendientes.getCount(), conteo);
+    }
+
+    private void enviar(HttpClient cliente, long instante, CountDownLatch medidas) {
+        cliente.post()
+                .uri(ruta)
+                .send(ByteBufFlux.fromString(Mono.just(cuerpos.get())))
+                .responseSingle((respuesta, cuerpo) -> cuerpo.asString()
+                        .then(Mono.just(respuesta.status().code())))
+                .subscribe(
+                        codigo -> {
+                            if (medidas != null) {
+                                registrar(instante, String.valueOf(codigo), codigo >= 200 && codigo < 300);
+                                medidas.countDown();
+                            }
+                        },
+                        error -> {
+                            if (medidas != null) {
+                                registrar(instante, error.getClass().getSimpleName(), false);
+                                medidas.countDown();
+                            }
+                        });
+    }
+
+    private void registrar(long instante, String resultado, boolean exitosa) {
+        latencias.recordValue(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - instante));
+        porResultado.computeIfAbsent(resultado, clave -> new LongAdder()).increment();
+        if (exitosa) {
+            exitosas.increment();
+        }
+    }
+
+    private long solicitudesEn(Duration intervalo) {
+        return (long) (intervalo.toNanos() * tasa / NANOS_POR_SEGUNDO);
+    }
+}
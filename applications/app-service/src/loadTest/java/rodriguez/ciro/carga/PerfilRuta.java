@@ -0,0 +1,26 @@
+package rodriguez.ciro.carga;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Comportamiento de una ruta del doble del servicio de usuarios: latencia log-normal definida por su mediana
+ * y su percentil 99, y la fracción de llamadas que responden 503.
+ */
+record PerfilRuta(Duration mediana, Duration p99, double errores) {
+
+    private static final double Z_P99 = 2.3263;
+
+    Duration demora() {
+        long mediana = this.mediana.toNanos();
+        if (mediana <= 0 || p99.compareTo(this.mediana) <= 0) {
+            return this.mediana;
+        }
+        double sigma = Math.log((double) p99.toNanos() / mediana) / Z_P99;
+        return Duration.ofNanos((long) (mediana * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian())));
+    }
+
+    boolean falla() {
+        return errores > 0 && ThreadLocalRandom.current().nextDouble() < errores;
+    }
+}
@@ -0,0 +1,64 @@
+package rodriguez.ciro.carga;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resultado de la ventana de medición: latencias en microsegundos, contadas desde el instante en que cada
+ * solicitud debía enviarse, y conteo de respuestas por código HTTP o tipo de excepción.
+ */
+record ResultadoCarga(double tasaObjetivo, Duration duracion, Histogram latencias,
+                      long enviadas, long exitosas, long sinRespuesta, Map<String, Long> porResultado) {
+
+    private static final double MICROS_POR_MILI = 1000.0;
+
+    long fallidas() {
+        return enviadas - exitosas;
+    }
+
+    double throughput() {
+        return exitosas / (duracion.toNanos() / 1e9);
+    }
+
+    double tasaErrores() {
+        return enviadas == 0 ? 0 : (double) fallidas() / enviadas;
+    }
+
+    String resumen() {
+        return String.format(Locale.ROOT, """
+                        Tasa objetivo: %.1f sol/s durante %s (sin calentamiento)
+                        Enviadas: %d  exitosas: %d  fallidas: %d  sin respuesta: %d
+                        Throughput: %.1f sol/s  tasa de error: %.2f%%
+                        Latencia (ms): p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f
+                        Por resultado: %s""",
+                tasaObjetivo, duracion, enviadas, exitosas, fallidas(), sinRespuesta,
+                throughput(), tasaErrores() * 100,
+                percentil(50), percentil(90), percentil(99), percentil(99.9),
+                latencias.getMaxValue() / MICROS_POR_MILI,
+                porResultado);
+    }
+
+    /**
+     * Escribe el resumen y la distribución de percentiles en formato {@code .hgrm}, en milisegundos.
+     */
+    void escribir(Path directorio) throws IOException {
+        Files.createDirectories(directorio);
+        Files.writeString(directorio.resolve("resumen.txt"), resumen() + System.lineSeparator());
+        try (PrintStream salida = new PrintStream(Files.newOutputStream(directorio.resolve("latencias.hgrm")),
+                false, StandardCharsets.UTF_8)) {
+            latencias.outputPercentileDistribution(salida, MICROS_POR_MILI);
+        }
+    }
+
+    private double percentil(double percentil) {
+        return latencias.getValueAtPercentile(percentil) / MICROS_POR_MILI;
+    }
+}
@@ -0,0 +1,123 @@
+package rodriguez.ciro.carga;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import rodriguez.ciro.MainApplication;
+import rodriguez.ciro.r2dbc.config.PostgresqlConnectionProperties;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Carga extremo a extremo sobre {@code POST /api/v1/solicitud} con la aplicación completa, el servicio de usuarios
+ * reemplazado por {@link UsuariosStandIn} y Postgres por H2 en memoria. Se ejecuta con {@code gradle loadTest}.
+ */
+@SpringBootTest(classes = MainApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("carga")
+@Import(SolicitudesLoadTest.BaseDeDatosEnMemoria.class)
+class SolicitudesLoadTest {
+
+    static {
+        DetectorFugas.instalar();
+    }
+
+    private static final ConfiguracionCarga CONFIGURACION = ConfiguracionCarga.desdePropiedades();
+    private static final UsuariosStandIn USUARIOS = new UsuariosStandIn(
+            CONFIGURACION.documento(), CONFIGURACION.email(), CONFIGURACION.registro());
+    private static final long PRIMER_DOCUMENTO_NUEVO = 50_000_000L;
+    private static final String CUERPO = """
+            {"monto":15000.00,"plazo":24,"idTipoPrestamo":1,"usuario":{"nombres":"Carga","apellidos":"Prueba",\
+            "tipoDocumento":"CC","numeroDocumento":"%s","correoElectronico":"%s","fechaNacimiento":"1990-05-15",\
+            "direccion":"Calle 1 # 2-3","telefono":"3000000000","salarioBase":3000000.00,"idRol":2}}""";
+
+    @LocalServerPort
+    private int puerto;
+
+    @DynamicPropertySource
+    static void propiedades(DynamicPropertyRegistry registro) {
+        registro.add("adapter.restconsumer.url", USUARIOS::url);
+    }
+
+    @AfterAll
+    static void detenerUsuarios() {
+        USUARIOS.close();
+    }
+
+    @Test
+    void registrarSolicitudesATasaConstante() throws Exception {
+        USUARIOS.sembrar(CONFIGURACION.usuariosExistentes());
+
+        ResultadoCarga resultado = new GeneradorCarga("http://127.0.0.1:" + puerto, "/api/v1/solicitud",
+                CONFIGURACION.tasa(), CONFIGURACION.duracion(), CONFIGURACION.calentamiento(), cuerpos())
+                .ejecutar();
+        resultado.escribir(CONFIGURACION.reportes());
+        System.out.println(resultado.resumen());
+
+        List<String> fugas = DetectorFugas.recolectar();
+        assertTrue(fugas.isEmpty(), () -> "Netty reportó " + fugas.size() + " fugas de buffers:\n"
+                + String.join("\n", fugas));
+        assertTrue(resultado.tasaErrores() <= CONFIGURACION.errorMaximo(), () -> String.format(Locale.ROOT,
+                "La tasa de error supera el máximo de %.2f%%%n%s", CONFIGURACION.errorMaximo() * 100, resultado.resumen()));
+    }
+
+    /**
+     * Mezcla solicitantes ya registrados en el doble con solicitantes nuevos, que se registran en la misma solicitud.
+     */
+    private static Supplier<String> cuerpos() {
+        AtomicLong nuevos = new AtomicLong(PRIMER_DOCUMENTO_NUEVO);
+        return () -> {
+            ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+            if (CONFIGURACION.usuariosExistentes() > 0 && aleatorio.nextDouble() < CONFIGURACION.proporcionExistentes()) {
+                int indice = aleatorio.nextInt(CONFIGURACION.usuariosExistentes());
+                return CUERPO.formatted(UsuariosStandIn.documentoExistente(indice), UsuariosStandIn.emailExistente(indice));
+            }
+            long documento = nuevos.getAndIncrement();
+            return CUERPO.formatted(documento, "nuevo" + documento + "@carga.test");
+        };
+    }
+
+    @TestConfiguration
+    static class BaseDeDatosEnMemoria {
+
+        /**
+         * Reemplaza al pool de Postgres, que nunca llega a abrir conexiones, con un pool del mismo tamaño sobre H2.
+         * Liquibase crea el esquema en la misma base por JDBC, así que ambos usan las mismas credenciales.
+         */
+        @Bean(destroyMethod = "dispose")
+        @Primary
+        ConnectionPool baseDeDatosEnMemoria(@Value("${carga.r2dbc.url}") String url,
+                                            @Value("${spring.liquibase.user}") String usuario,
+                                            @Value("${spring.liquibase.password}") String clave,
+                                            PostgresqlConnectionProperties propiedades) {
+            ConnectionFactory h2 = ConnectionFactories.get(ConnectionFactoryOptions.parse(url).mutate()
+                    .option(ConnectionFactoryOptions.USER, usuario)
+                    .option(ConnectionFactoryOptions.PASSWORD, clave)
+                    .build());
+            return new ConnectionPool(ConnectionPoolConfiguration.builder(h2)
+                    .name("carga-h2")
+                    .initialSize(propiedades.pool().initialSize())
+                    .maxSize(propiedades.pool().maxSize())
+                    .build());
+        }
+    }
+}
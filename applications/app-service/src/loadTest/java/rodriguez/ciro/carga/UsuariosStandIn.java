@@ -0,0 +1,194 @@
+package rodriguez.ciro.carga;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpHeaderValues;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.LoopResources;
+import rodriguez.ciro.consumer.api.model.DocumentoUsuarioRequest;
+import rodriguez.ciro.consumer.api.model.RegistrarUsuarioRequest;
+import rodriguez.ciro.consumer.api.model.UsuarioResponse;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Doble en proceso del servicio de usuarios con las rutas que consume {@code UsuariosApi}, incluida la búsqueda
+ * por documento en lote.
+ * <p>
+ * Guarda los usuarios en memoria; cada ruta responde con la latencia y la tasa de errores de su {@link PerfilRuta}.
+ */
+final class UsuariosStandIn implements AutoCloseable {
+
+    private static final String TIPO_DOCUMENTO = "CC";
+    private static final long PRIMER_DOCUMENTO_EXISTENTE = 1_000_000L;
+
+    private final Map<String, UsuarioResponse> porDocumento = new ConcurrentHashMap<>();
+    private final Map<String, UsuarioResponse> porEmail = new ConcurrentHashMap<>();
+    private final AtomicLong ids = new AtomicLong();
+    private final ObjectMapper mapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+    // Hilos propios: Spring reemplaza los recursos globales de reactor-netty al arrancar
+    private final LoopResources hilos = LoopResources.create("usuarios-standin");
+    private final DisposableServer servidor;
+
+    UsuariosStandIn(PerfilRuta documento, PerfilRuta email, PerfilRuta registro) {
+        this.servidor = HttpServer.create()
+                .runOn(hilos)
+                .host("127.0.0.1")
+                .port(0)
+                .route(rutas -> rutas
+                        .get("/api/v1/usuarios/documento/{tipoDocumento}/{numeroDocumento}",
+                                (solicitud, respuesta) -> responder(respuesta, documento, HttpResponseStatus.OK,
+                                        () -> porDocumento.get(claveDocumento(
+                                                decodificar(solicitud.param("tipoDocumento")),
+                                                decodificar(solicitud.param("numeroDocumento"))))))
+                        .post("/api/v1/usuarios/documento/_bulk",
+                                (solicitud, respuesta) -> solicitud.receive().aggregate().asString()
+                                        .flatMap(cuerpo -> responderLote(respuesta, documento, leerDocumentos(cuerpo))))
+                        .get("/api/v1/usuarios/email/{correoElectronico}",
+                                (solicitud, respuesta) -> responder(respuesta, email, HttpResponseStatus.OK,
+                                        () -> porEmail.get(decodificar(solicitud.param("correoElectronico")))))
+                        .post("/api/v1/usuarios",
+                                (solicitud, respuesta) -> solicitud.receive().aggregate().asString()
+                                        .flatMap(cuerpo -> responder(respuesta, registro, HttpResponseStatus.CREATED,
+                                                () -> registrar(leer(cuerpo))))))
+                .bindNow();
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + servidor.port();
+    }
+
+    /**
+     * Registra {@code cantidad} usuarios, con documento {@link #documentoExistente(int)} y email
+     * {@link #emailExistente(int)} para los índices de 0 a {@code cantidad - 1}.
+     */
+    void sembrar(int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            RegistrarUsuarioRequest usuario = new RegistrarUsuarioRequest();
+            usuario.setNombres("Existente");
+            usuario.setApellidos("Carga");
+            usuario.setTipoDocumento(TIPO_DOCUMENTO);
+            usuario.setNumeroDocumento(documentoExistente(i));
+            usuario.setCorreoElectronico(emailExistente(i));
+            usuario.setFechaNacimiento(LocalDate.of(1990, 5, 15));
+            usuario.setDireccion("Calle 1 # 2-3");
+            usuario.setTelefono("3000000000");
+            usuario.setSalarioBase(new BigDecimal("3000000.00"));
+            registrar(usuario);
+        }
+    }
+
+    static String documentoExistente(int indice) {
+        return String.valueOf(PRIMER_DOCUMENTO_EXISTENTE + indice);
+    }
+
+    static String emailExistente(int indice) {
+        return "existente" + indice + "@carga.test";
+    }
+
+    @Override
+    public void close() {
+        servidor.disposeNow();
+        hilos.dispose();
+    }
+
+    private Mono<Void> responder(HttpServerResponse respuesta, PerfilRuta perfil, HttpResponseStatus estadoExito,
+                                 Supplier<UsuarioResponse> accion) {
+        return Mono.delay(perfil.demora())
+                .then(Mono.defer(() -> {
+                    if (perfil.falla()) {
+                        return respuesta.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send().then();
+                    }
+                    UsuarioResponse usuario = accion.get();
+                    if (usuario == null) {
+                        return respuesta.status(HttpResponseStatus.NOT_FOUND).send().then();
+                    }
+                    return respuesta.status(estadoExito)
+                            .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                            .sendString(Mono.just(escribir(usuario)))
+                            .then();
+                }));
+    }
+
+    /**
+     * Responde solo los usuarios que existen, con la latencia y los errores de la ruta por documento.
+     */
+    private Mono<Void> responderLote(HttpServerResponse respuesta, PerfilRuta perfil,
+                                     List<DocumentoUsuarioRequest> documentos) {
+        return Mono.delay(perfil.demora())
+                .then(Mono.defer(() -> {
+                    if (perfil.falla()) {
+                        return respuesta.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send().then();
+                    }
+                    List<UsuarioResponse> encontrados = documentos.stream()
+                            .map(documento -> porDocumento.get(claveDocumento(documento.getTipoDocumento(),
+                                    documento.getNumeroDocumento())))
+                            .filter(Objects::nonNull)
+                            .toList();
+                    return respuesta.status(HttpResponseStatus.OK)
+                            .header(HttpHeaderNames.CONTENT_TYPE, HttpHeaderValues.APPLICATION_JSON)
+                            .sendString(Mono.just(escribir(encontrados)))
+                            .then();
+                }));
+    }
+
+    private UsuarioResponse registrar(RegistrarUsuarioRequest request) {
+        UsuarioResponse usuario = new UsuarioResponse(ids.incrementAndGet(), request.getNombres(),
+                request.getApellidos(), request.getTipoDocumento(), request.getNumeroDocumento(),
+                request.getFechaNacimiento(), request.getDireccion(), request.getTelefono(),
+                request.getCorreoElectronico(), request.getSalarioBase(), request.getRol());
+        porDocumento.put(claveDocumento(usuario.getTipoDocumento(), usuario.getNumeroDocumento()), usuario);
+        porEmail.put(usuario.getCorreoElectronico(), usuario);
+        return usuario;
+    }
+
+    private RegistrarUsuarioRequest leer(String cuerpo) {
+        try {
+            return mapper.readValue(cuerpo, RegistrarUsuarioRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<DocumentoUsuarioRequest> leerDocumentos(String cuerpo) {
+        try {
+            return mapper.readValue(cuerpo, new TypeReference<>() {
+            });
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String escribir(Object usuario) {
+        try {
+            return mapper.writeValueAsString(usuario);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String claveDocumento(String tipoDocumento, String numeroDocumento) {
+        return tipoDocumento + "/" + numeroDocumento;
+    }
+
+    private static String decodificar(String segmento) {
+        return segmento == null ? null : QueryStringDecoder.decodeComponent(segmento);
+    }
+}
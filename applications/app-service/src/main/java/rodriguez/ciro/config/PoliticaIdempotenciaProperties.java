@@ -0,0 +1,42 @@
+package rodriguez.ciro.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Política de las claves de idempotencia de {@code POST /api/v1/solicitud}; ver
+ * {@link rodriguez.ciro.model.idempotencia.PoliticaIdempotencia}.
+ */
+@ConfigurationProperties(prefix = "solicitudes.idempotencia")
+public record PoliticaIdempotenciaProperties(
+        Duration vigencia,
+        Integer capacidadMemoria,
+        Duration esperaMaxima,
+        Duration intervaloEspera,
+        Duration margenReserva) {
+
+    public static final Duration DEFAULT_VIGENCIA = Duration.ofHours(24);
+    public static final int DEFAULT_CAPACIDAD_MEMORIA = 10_000;
+    public static final Duration DEFAULT_ESPERA_MAXIMA = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_INTERVALO_ESPERA = Duration.ofMillis(100);
+    public static final Duration DEFAULT_MARGEN_RESERVA = Duration.ofSeconds(10);
+
+    public PoliticaIdempotenciaProperties {
+        if (vigencia == null || vigencia.isZero() || vigencia.isNegative()) {
+            vigencia = DEFAULT_VIGENCIA;
+        }
+        if (capacidadMemoria == null || capacidadMemoria < 0) {
+            capacidadMemoria = DEFAULT_CAPACIDAD_MEMORIA;
+        }
+        if (esperaMaxima == null || esperaMaxima.isNegative()) {
+            esperaMaxima = DEFAULT_ESPERA_MAXIMA;
+        }
+        if (intervaloEspera == null || intervaloEspera.isZero() || intervaloEspera.isNegative()) {
+            intervaloEspera = DEFAULT_INTERVALO_ESPERA;
+        }
+        if (margenReserva == null || margenReserva.isNegative()) {
+            margenReserva = DEFAULT_MARGEN_RESERVA;
+        }
+    }
+}
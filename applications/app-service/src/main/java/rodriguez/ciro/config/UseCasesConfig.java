@@ -1,8 +1,13 @@
 package rodriguez.ciro.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.FilterType;
+import rodriguez.ciro.model.idempotencia.PoliticaIdempotencia;
+import rodriguez.ciro.model.tipoprestamo.ValidacionTipoPrestamo;
 
 @Configuration
 @ComponentScan(basePackages = "rodriguez.ciro.usecase",
@@ -10,5 +15,23 @@ import org.springframework.context.annotation.FilterType;
                 @ComponentScan.Filter(type = FilterType.REGEX, pattern = "^.+UseCase$")
         },
         useDefaultFilters = false)
+@EnableConfigurationProperties(PoliticaIdempotenciaProperties.class)
 public class UseCasesConfig {
+
+    @Bean
+    public ValidacionTipoPrestamo validacionTipoPrestamo(
+            @Value("${solicitudes.validacion-tipo-prestamo:PREVIA}") ValidacionTipoPrestamo validacion) {
+        return validacion;
+    }
+
+    @Bean
+    public PoliticaIdempotencia politicaIdempotencia(PoliticaIdempotenciaProperties properties) {
+        return PoliticaIdempotencia.builder()
+                .vigencia(properties.vigencia())
+                .capacidadMemoria(properties.capacidadMemoria())
+                .esperaMaxima(properties.esperaMaxima())
+                .intervaloEspera(properties.intervaloEspera())
+                .margenReserva(properties.margenReserva())
+                .build();
+    }
 }
@@ -0,0 +1,125 @@
+package rodriguez.ciro.changelog;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Ejecuta el changelog completo en Postgres y comprueba que los triggers de {@code solicitudes} mantienen
+ * {@code solicitudes_resumen_diario}.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ResumenDiarioTriggersTest {
+
+    private static final String HOY = "(CURRENT_TIMESTAMP AT TIME ZONE 'UTC')::date";
+    private static final String INSERT = "INSERT INTO solicitudes (monto, plazo, email, id_estado, id_tipo_prestamo) ";
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @BeforeAll
+    static void migrar() throws Exception {
+        PGSimpleDataSource dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(POSTGRES.getJdbcUrl());
+        dataSource.setUser(POSTGRES.getUsername());
+        dataSource.setPassword(POSTGRES.getPassword());
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:db/changelog/db.changelog-master.xml");
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    @BeforeEach
+    void limpiar() throws SQLException {
+        ejecutar("DELETE FROM solicitudes", "DELETE FROM solicitudes_resumen_diario");
+    }
+
+    @Test
+    void insertMultiFilaSumaPorEstadoYTipo() throws SQLException {
+        ejecutar(INSERT + "VALUES (1000.50, 12, 'a@example.com', 1, 1)",
+                INSERT + "VALUES (2000.00, 12, 'b@example.com', 1, 1), (3000.25, 24, 'c@example.com', 1, 2), "
+                        + "(4000.00, 24, 'd@example.com', 1, 1)");
+
+        assertEquals(List.of(new Fila(1, 1, 3, new BigDecimal("7000.50")),
+                new Fila(1, 2, 1, new BigDecimal("3000.25"))), resumenDeHoy());
+    }
+
+    @Test
+    void cambioDeEstadoMueveLaSolicitudDeCombinacion() throws SQLException {
+        ejecutar(INSERT + "VALUES (1000.00, 12, 'a@example.com', 1, 1), (2000.00, 12, 'b@example.com', 1, 1)",
+                "UPDATE solicitudes SET id_estado = 2 WHERE email = 'a@example.com'",
+                // Sin cambios en estado, tipo o monto no se escribe nada
+                "UPDATE solicitudes SET plazo = 36");
+
+        assertEquals(List.of(new Fila(1, 1, 1, new BigDecimal("2000.00")),
+                new Fila(2, 1, 1, new BigDecimal("1000.00"))), resumenDeHoy());
+    }
+
+    @Test
+    void deleteRestaLasSolicitudesEliminadas() throws SQLException {
+        ejecutar(INSERT + "VALUES (1000.00, 12, 'a@example.com', 1, 1), (2000.00, 12, 'b@example.com', 1, 1)",
+                "DELETE FROM solicitudes WHERE email = 'a@example.com'");
+
+        assertEquals(List.of(new Fila(1, 1, 1, new BigDecimal("2000.00"))), resumenDeHoy());
+    }
+
+    @Test
+    void solicitudesSinFechaDeCreacionQuedanFueraDelResumen() throws SQLException {
+        // Como las filas que existían antes de agregar la columna
+        ejecutar("INSERT INTO solicitudes (monto, plazo, email, id_estado, id_tipo_prestamo, fecha_creacion) "
+                        + "VALUES (5000.00, 12, 'antigua@example.com', 1, 1, NULL)",
+                INSERT + "VALUES (1000.00, 12, 'a@example.com', 1, 1)",
+                "UPDATE solicitudes SET id_estado = 2",
+                "DELETE FROM solicitudes WHERE email = 'antigua@example.com'");
+
+        assertEquals(List.of(new Fila(2, 1, 1, new BigDecimal("1000.00"))), resumenDeHoy());
+    }
+
+    private static List<Fila> resumenDeHoy() throws SQLException {
+        try (Connection conexion = conectar();
+             Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("SELECT id_estado, id_tipo_prestamo, SUM(cantidad), "
+                     + "SUM(monto_total) FROM solicitudes_resumen_diario WHERE dia = " + HOY
+                     + " GROUP BY id_estado, id_tipo_prestamo HAVING SUM(cantidad) <> 0 "
+                     + "ORDER BY id_estado, id_tipo_prestamo")) {
+            List<Fila> resultado = new ArrayList<>();
+            while (filas.next()) {
+                resultado.add(new Fila(filas.getLong(1), filas.getLong(2), filas.getLong(3), filas.getBigDecimal(4)));
+            }
+            return resultado;
+        }
+    }
+
+    private static void ejecutar(String... sentencias) throws SQLException {
+        try (Connection conexion = conectar(); Statement sentencia = conexion.createStatement()) {
+            for (String sql : sentencias) {
+                sentencia.execute(sql);
+            }
+        }
+    }
+
+    private static Connection conectar() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    private record Fila(long idEstado, long idTipoPrestamo, long cantidad, BigDecimal montoTotal) {
+    }
+}
@@ -5,11 +5,19 @@ import org.springframework.context.annotation.AnnotationConfigApplicationContext
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import rodriguez.ciro.model.estado.gateways.EstadoRepository;
+import rodriguez.ciro.model.estadistica.gateways.EstadisticasSolicitudesGateway;
+import rodriguez.ciro.model.idempotencia.PoliticaIdempotencia;
+import rodriguez.ciro.model.idempotencia.gateways.IdempotenciaGateway;
+import rodriguez.ciro.model.metrica.gateways.MetricasRegistroGateway;
+import rodriguez.ciro.model.solicitud.gateways.ExportacionSolicitudesGateway;
 import rodriguez.ciro.model.solicitud.gateways.SolicitudRepository;
+import rodriguez.ciro.model.tipoprestamo.ValidacionTipoPrestamo;
 import rodriguez.ciro.model.tipoprestamo.gateways.TipoPrestamoRepository;
 import rodriguez.ciro.model.usuario.gateways.UsuarioGateway;
 import rodriguez.ciro.usecase.registrarsolicitud.RegistrarSolicitudUseCase;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
@@ -34,6 +42,9 @@ public class UseCasesConfigTest {
             // Verify that the specific use case bean can be retrieved
             RegistrarSolicitudUseCase useCase = context.getBean(RegistrarSolicitudUseCase.class);
             assertNotNull(useCase, "RegistrarSolicitudUseCase bean should be available");
+            assertEquals(ValidacionTipoPrestamo.PREVIA, context.getBean(ValidacionTipoPrestamo.class));
+            assertEquals(PoliticaIdempotenciaProperties.DEFAULT_VIGENCIA,
+                    context.getBean(PoliticaIdempotencia.class).getVigencia());
         }
     }
 
@@ -46,6 +57,21 @@ public class UseCasesConfigTest {
             return mock(SolicitudRepository.class);
         }
 
+        @Bean
+        public ExportacionSolicitudesGateway exportacionSolicitudesGateway() {
+            return mock(ExportacionSolicitudesGateway.class);
+        }
+
+        @Bean
+        public EstadisticasSolicitudesGateway estadisticasSolicitudesGateway() {
+            return mock(EstadisticasSolicitudesGateway.class);
+        }
+
+        @Bean
+        public IdempotenciaGateway idempotenciaGateway() {
+            return mock(IdempotenciaGateway.class);
+        }
+
         @Bean
         public TipoPrestamoRepository tipoPrestamoRepository() {
             return mock(TipoPrestamoRepository.class);
@@ -55,5 +81,15 @@ public class UseCasesConfigTest {
         public UsuarioGateway usuarioGateway() {
             return mock(UsuarioGateway.class);
         }
+
+        @Bean
+        public EstadoRepository estadoRepository() {
+            return mock(EstadoRepository.class);
+        }
+
+        @Bean
+        public MetricasRegistroGateway metricasRegistroGateway() {
+            return mock(MetricasRegistroGateway.class);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,62 @@
+package rodriguez.ciro.benchmarks.api;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rodriguez.ciro.api.dto.RegistrarSolicitudRequest;
+import rodriguez.ciro.api.dto.SolicitudResponse;
+import rodriguez.ciro.api.mapper.SolicitudApiMapper;
+import rodriguez.ciro.benchmarks.usecase.GatewaysEnMemoria;
+import rodriguez.ciro.model.solicitud.Solicitud;
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mappers de {@code SolicitudController}: request → dominio y dominio → response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerMapeoBenchmark {
+
+    private RegistrarSolicitudRequest request;
+    private Solicitud solicitudGuardada;
+    private Usuario usuarioRegistrado;
+
+    @Setup
+    public void setUp() {
+        request = Solicitudes.request();
+        usuarioRegistrado = SolicitudApiMapper.mapToUsuario(request).toBuilder().idUsuario(1L).build();
+        solicitudGuardada = SolicitudApiMapper.mapToSolicitud(request).toBuilder()
+                .idSolicitud(1L)
+                .email(usuarioRegistrado.getCorreoElectronico())
+                .idEstado(GatewaysEnMemoria.PENDIENTE.getIdEstado())
+                .build();
+    }
+
+    @Benchmark
+    public Usuario mapToUsuario() {
+        return SolicitudApiMapper.mapToUsuario(request);
+    }
+
+    @Benchmark
+    public Solicitud mapToSolicitud() {
+        return SolicitudApiMapper.mapToSolicitud(request);
+    }
+
+    @Benchmark
+    public SolicitudResponse mapToResponse() {
+        return SolicitudApiMapper.mapToResponse(solicitudGuardada, usuarioRegistrado, GatewaysEnMemoria.PENDIENTE);
+    }
+}
@@ -0,0 +1,69 @@
+package rodriguez.ciro.benchmarks.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import rodriguez.ciro.api.dto.RegistrarSolicitudRequest;
+import rodriguez.ciro.api.dto.SolicitudResponse;
+import rodriguez.ciro.api.mapper.SolicitudApiMapper;
+import rodriguez.ciro.benchmarks.usecase.GatewaysEnMemoria;
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * (De)serialización de los cuerpos de {@code POST /api/v1/solicitud} con la misma configuración de Jackson
+ * que usa Spring ({@link Jackson2ObjectMapperBuilder}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonBenchmark {
+
+    private ObjectReader requestReader;
+    private ObjectWriter responseWriter;
+    private byte[] requestJson;
+    private SolicitudResponse response;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        requestReader = objectMapper.readerFor(RegistrarSolicitudRequest.class);
+        responseWriter = objectMapper.writerFor(SolicitudResponse.class);
+
+        RegistrarSolicitudRequest request = Solicitudes.request();
+        requestJson = objectMapper.writeValueAsBytes(request);
+        Usuario usuario = SolicitudApiMapper.mapToUsuario(request).toBuilder().idUsuario(1L).build();
+        response = SolicitudApiMapper.mapToResponse(SolicitudApiMapper.mapToSolicitud(request).toBuilder()
+                        .idSolicitud(1L)
+                        .email(usuario.getCorreoElectronico())
+                        .idEstado(1L)
+                        .build(),
+                usuario, GatewaysEnMemoria.PENDIENTE);
+    }
+
+    @Benchmark
+    public RegistrarSolicitudRequest leerRequest() throws IOException {
+        return requestReader.readValue(requestJson);
+    }
+
+    @Benchmark
+    public byte[] escribirResponse() throws IOException {
+        return responseWriter.writeValueAsBytes(response);
+    }
+}
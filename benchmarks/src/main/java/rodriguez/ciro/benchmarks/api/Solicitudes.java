@@ -0,0 +1,36 @@
+package rodriguez.ciro.benchmarks.api;
+
+import rodriguez.ciro.api.dto.RegistrarSolicitudRequest;
+import rodriguez.ciro.api.dto.UsuarioRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Datos de ejemplo compartidos por los benchmarks de la capa web.
+ */
+final class Solicitudes {
+
+    private Solicitudes() {
+    }
+
+    static RegistrarSolicitudRequest request() {
+        return RegistrarSolicitudRequest.builder()
+                .monto(new BigDecimal("10000"))
+                .plazo(12)
+                .idTipoPrestamo(1L)
+                .usuario(UsuarioRequest.builder()
+                        .nombres("Juan Carlos")
+                        .apellidos("García López")
+                        .tipoDocumento("CC")
+                        .numeroDocumento("12345678")
+                        .correoElectronico("juan@example.com")
+                        .fechaNacimiento(LocalDate.of(1990, 5, 15))
+                        .direccion("Calle 123 #45-67")
+                        .telefono("3001234567")
+                        .salarioBase(new BigDecimal("3000000"))
+                        .idRol(2L)
+                        .build())
+                .build();
+    }
+}
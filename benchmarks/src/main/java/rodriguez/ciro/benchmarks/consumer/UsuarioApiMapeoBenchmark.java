@@ -0,0 +1,57 @@
+package rodriguez.ciro.benchmarks.consumer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rodriguez.ciro.consumer.api.model.RegistrarUsuarioRequest;
+import rodriguez.ciro.consumer.api.model.RolDto;
+import rodriguez.ciro.consumer.api.model.UsuarioResponse;
+import rodriguez.ciro.consumer.mapper.UsuarioApiMapper;
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo de las respuestas del servicio de usuarios que hace {@code UsuarioRestAdapter}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsuarioApiMapeoBenchmark {
+
+    private UsuarioResponse response;
+    private Usuario usuario;
+
+    @Setup
+    public void setUp() {
+        RolDto rol = new RolDto();
+        rol.setIdRol(2L);
+        rol.setNombre("CLIENTE");
+        response = new UsuarioResponse(1L, "Juan Carlos", "García López", "CC", "12345678",
+                LocalDate.of(1990, 5, 15), "Calle 123 #45-67", "3001234567", "juan@example.com",
+                new BigDecimal("3000000"), rol);
+        usuario = UsuarioApiMapper.mapToUsuario(response);
+    }
+
+    @Benchmark
+    public Usuario mapToUsuario() {
+        return UsuarioApiMapper.mapToUsuario(response);
+    }
+
+    @Benchmark
+    public RegistrarUsuarioRequest mapToRegistrarUsuarioRequest() {
+        return UsuarioApiMapper.mapToRegistrarUsuarioRequest(usuario);
+    }
+}
@@ -0,0 +1,79 @@
+package rodriguez.ciro.benchmarks.r2dbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import rodriguez.ciro.r2dbc.helper.WriteCoalescer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Inserciones por fila contra group commit, con una base simulada: cada sentencia cuesta un viaje de ida y
+ * vuelta ({@code viajeMicros}) y a lo sumo {@link #CONEXIONES} sentencias corren a la vez, como en el pool.
+ * Cada invocación guarda {@link #CONCURRENTES} solicitudes concurrentes; el resultado se reporta por fila.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    static final int CONEXIONES = 15;
+    static final int CONCURRENTES = 256;
+
+    @Param({"500"})
+    public long viajeMicros;
+
+    private final AtomicLong secuencia = new AtomicLong();
+    private WriteCoalescer<Long, Long> coalescer;
+
+    @Setup
+    public void setUp() {
+        coalescer = new WriteCoalescer<>("benchmark", 64, Duration.ofMillis(2),
+                this::insertarGrupo, this::insertarFila, Schedulers.parallel(), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENTES)
+    public Long porFila() {
+        return Flux.range(0, CONCURRENTES)
+                .flatMap(i -> insertarFila((long) i), CONEXIONES)
+                .blockLast();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CONCURRENTES)
+    public Long agrupado() {
+        return Flux.range(0, CONCURRENTES)
+                .flatMap(i -> coalescer.escribir((long) i), CONCURRENTES)
+                .blockLast();
+    }
+
+    private Mono<Long> insertarFila(Long valor) {
+        return Mono.delay(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(viajeMicros)))
+                .map(tick -> secuencia.incrementAndGet());
+    }
+
+    private Flux<Long> insertarGrupo(List<Long> valores) {
+        return Mono.delay(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(viajeMicros)))
+                .flatMapMany(tick -> Flux.fromIterable(valores).map(valor -> secuencia.incrementAndGet()));
+    }
+}
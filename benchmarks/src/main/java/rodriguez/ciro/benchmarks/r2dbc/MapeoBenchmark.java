@@ -0,0 +1,80 @@
+package rodriguez.ciro.benchmarks.r2dbc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.reactivecommons.utils.ObjectMapper;
+import org.reactivecommons.utils.ObjectMapperImp;
+import rodriguez.ciro.model.solicitud.Solicitud;
+import rodriguez.ciro.model.tipoprestamo.TipoPrestamo;
+import rodriguez.ciro.r2dbc.entity.SolicitudEntity;
+import rodriguez.ciro.r2dbc.entity.TipoPrestamoEntity;
+import rodriguez.ciro.r2dbc.mapper.SolicitudDataMapper;
+import rodriguez.ciro.r2dbc.mapper.TipoPrestamoDataMapper;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapeo reflexivo ({@link ObjectMapperImp}) contra los mappers escritos a mano de los adaptadores R2DBC.
+ * Para ver bytes/op ejecutar con {@code -Pjmh.profilers=gc} (gc.alloc.rate.norm).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeoBenchmark {
+
+    private ObjectMapper reflexivo;
+    private Solicitud solicitud;
+    private TipoPrestamoEntity tipoPrestamoEntity;
+
+    @Setup
+    public void setUp() {
+        reflexivo = new ObjectMapperImp();
+        solicitud = Solicitud.builder()
+                .monto(new BigDecimal("10000"))
+                .plazo(12)
+                .email("juan@example.com")
+                .idEstado(1L)
+                .idTipoPrestamo(1L)
+                .build();
+        tipoPrestamoEntity = new TipoPrestamoEntity(1L, "PERSONAL", new BigDecimal("1000.00"),
+                new BigDecimal("50000.00"), new BigDecimal("5.00"), true);
+    }
+
+    /**
+     * Ida y vuelta de {@code guardar}: dominio → fila → dominio.
+     */
+    @Benchmark
+    public Solicitud solicitudReflexivo() {
+        return reflexivo.map(reflexivo.map(solicitud, SolicitudEntity.class), Solicitud.class);
+    }
+
+    @Benchmark
+    public Solicitud solicitudEspecializado() {
+        return SolicitudDataMapper.INSTANCE.toEntity(SolicitudDataMapper.INSTANCE.toData(solicitud));
+    }
+
+    /**
+     * Fila → dominio, como en cada recarga del catálogo.
+     */
+    @Benchmark
+    public TipoPrestamo tipoPrestamoReflexivo() {
+        return reflexivo.map(tipoPrestamoEntity, TipoPrestamo.class);
+    }
+
+    @Benchmark
+    public TipoPrestamo tipoPrestamoEspecializado() {
+        return TipoPrestamoDataMapper.INSTANCE.toEntity(tipoPrestamoEntity);
+    }
+}
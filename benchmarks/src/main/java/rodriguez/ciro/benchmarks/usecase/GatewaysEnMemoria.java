@@ -0,0 +1,168 @@
+package rodriguez.ciro.benchmarks.usecase;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.estado.Estado;
+import rodriguez.ciro.model.estado.gateways.EstadoRepository;
+import rodriguez.ciro.model.metrica.gateways.MetricasRegistroGateway;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
+import rodriguez.ciro.model.solicitud.Solicitud;
+import rodriguez.ciro.model.solicitud.gateways.SolicitudRepository;
+import rodriguez.ciro.model.tipoprestamo.TipoPrestamo;
+import rodriguez.ciro.model.tipoprestamo.gateways.TipoPrestamoRepository;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.gateways.UsuarioGateway;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementaciones en memoria de los gateways, sin latencia, para medir solo el costo del caso de uso.
+ */
+public final class GatewaysEnMemoria {
+
+    public static final Estado PENDIENTE = Estado.builder()
+            .idEstado(1L)
+            .nombre("PENDIENTE_REVISION")
+            .descripcion("El estado inicial, pendiente de revisión.")
+            .build();
+
+    public static final TipoPrestamo PERSONAL = TipoPrestamo.builder()
+            .idTipoPrestamo(1L)
+            .nombre("PERSONAL")
+            .montoMinimo(new BigDecimal("1000.00"))
+            .montoMaximo(new BigDecimal("50000.00"))
+            .tasaInteres(new BigDecimal("5.00"))
+            .validacionAutomatica(true)
+            .build();
+
+    private GatewaysEnMemoria() {
+    }
+
+    public static SolicitudRepository solicitudes() {
+        AtomicLong secuencia = new AtomicLong();
+        return new SolicitudRepository() {
+            @Override
+            public Mono<Solicitud> guardar(Solicitud solicitud) {
+                return Mono.just(solicitud.toBuilder().idSolicitud(secuencia.incrementAndGet()).build());
+            }
+
+            @Override
+            public Flux<Solicitud> guardarTodos(List<Solicitud> solicitudes) {
+                return Flux.fromIterable(solicitudes)
+                        .map(solicitud -> solicitud.toBuilder().idSolicitud(secuencia.incrementAndGet()).build());
+            }
+
+            @Override
+            public Flux<Solicitud> listar(FiltroSolicitudes filtro, Long despuesDe, int limite) {
+                return Flux.empty();
+            }
+
+            @Override
+            public Mono<Long> estimarTotal(FiltroSolicitudes filtro) {
+                return Mono.empty();
+            }
+        };
+    }
+
+    public static TipoPrestamoRepository tiposPrestamo() {
+        return new TipoPrestamoRepository() {
+            @Override
+            public Mono<Boolean> existePorId(Long idTipoPrestamo) {
+                return Mono.just(PERSONAL.getIdTipoPrestamo().equals(idTipoPrestamo));
+            }
+
+            @Override
+            public Mono<TipoPrestamo> buscarPorId(Long idTipoPrestamo) {
+                return PERSONAL.getIdTipoPrestamo().equals(idTipoPrestamo) ? Mono.just(PERSONAL) : Mono.empty();
+            }
+        };
+    }
+
+    public static EstadoRepository estados() {
+        return new EstadoRepository() {
+            @Override
+            public Mono<Boolean> existePorId(Long idEstado) {
+                return Mono.just(PENDIENTE.getIdEstado().equals(idEstado));
+            }
+
+            @Override
+            public Mono<Estado> buscarPorId(Long idEstado) {
+                return PENDIENTE.getIdEstado().equals(idEstado) ? Mono.just(PENDIENTE) : Mono.empty();
+            }
+        };
+    }
+
+    /**
+     * Descarta las mediciones, para que el benchmark no incluya el costo del registro de métricas.
+     */
+    public static MetricasRegistroGateway metricas() {
+        return (etapa, resultado, duracionNanos) -> {
+        };
+    }
+
+    /**
+     * Servicio de usuarios vacío: toda búsqueda responde "no existe" y todo registro se acepta.
+     */
+    public static UsuarioGateway usuariosNuevos() {
+        AtomicLong secuencia = new AtomicLong();
+        return new UsuarioGateway() {
+            @Override
+            public Mono<Usuario> registrarUsuario(Usuario usuario) {
+                return Mono.just(usuario.toBuilder().idUsuario(secuencia.incrementAndGet()).build());
+            }
+
+            @Override
+            public Mono<Usuario> buscarUsuarioPorDocumento(String tipoDocumento, String numeroDocumento) {
+                return Mono.empty();
+            }
+
+            @Override
+            public Mono<Usuario> buscarUsuarioPorEmail(String correoElectronico) {
+                return Mono.empty();
+            }
+        };
+    }
+
+    /**
+     * Servicio de usuarios donde el solicitante ya existe: la búsqueda por documento lo encuentra.
+     */
+    public static UsuarioGateway usuariosExistentes(Usuario existente) {
+        return new UsuarioGateway() {
+            @Override
+            public Mono<Usuario> registrarUsuario(Usuario usuario) {
+                return Mono.error(new IllegalStateException("El usuario ya existe"));
+            }
+
+            @Override
+            public Mono<Usuario> buscarUsuarioPorDocumento(String tipoDocumento, String numeroDocumento) {
+                return Mono.just(existente);
+            }
+
+            @Override
+            public Mono<Usuario> buscarUsuarioPorEmail(String correoElectronico) {
+                return Mono.just(existente);
+            }
+        };
+    }
+
+    public static Usuario solicitante() {
+        return Usuario.builder()
+                .nombres("Juan Carlos")
+                .apellidos("García López")
+                .tipoDocumento("CC")
+                .numeroDocumento("12345678")
+                .correoElectronico("juan@example.com")
+                .salarioBase(new BigDecimal("3000000"))
+                .build();
+    }
+
+    public static Solicitud solicitud() {
+        return Solicitud.builder()
+                .monto(new BigDecimal("10000"))
+                .plazo(12)
+                .idTipoPrestamo(PERSONAL.getIdTipoPrestamo())
+                .build();
+    }
+}
@@ -0,0 +1,106 @@
+package rodriguez.ciro.benchmarks.usecase;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.solicitud.Solicitud;
+import rodriguez.ciro.model.tipoprestamo.ValidacionTipoPrestamo;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.model.usuario.gateways.UsuarioGateway;
+import rodriguez.ciro.usecase.registrarsolicitud.RegistrarSolicitudUseCase;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Camino de un solicitante nuevo (no existe por documento ni por email).
+ * <p>
+ * Los dos lados ejecutan el mismo {@link RegistrarSolicitudUseCase}; solo cambia cómo el gateway de usuarios
+ * resuelve el 404. En {@code despuesVacio} la ausencia es un {@code Mono.empty()}. En {@code antes404ConExcepcion}
+ * cada búsqueda construye la {@link WebClientResponseException} del 404 y la reconoce buscando "404 Not Found" en el
+ * mensaje, como hacía el flujo anterior, antes de completar vacía.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NuevoSolicitanteBenchmark {
+
+    private RegistrarSolicitudUseCase vacio;
+    private RegistrarSolicitudUseCase conExcepcion;
+    private Usuario solicitante;
+    private Solicitud solicitud;
+
+    @Setup
+    public void setUp() {
+        vacio = useCase(GatewaysEnMemoria.usuariosNuevos());
+        conExcepcion = useCase(con404(GatewaysEnMemoria.usuariosNuevos()));
+        solicitante = GatewaysEnMemoria.solicitante();
+        solicitud = GatewaysEnMemoria.solicitud();
+    }
+
+    @Benchmark
+    public Object despuesVacio() {
+        return vacio.registrarSolicitudConUsuario(solicitante, solicitud).block();
+    }
+
+    @Benchmark
+    public Object antes404ConExcepcion() {
+        return conExcepcion.registrarSolicitudConUsuario(solicitante, solicitud).block();
+    }
+
+    private static RegistrarSolicitudUseCase useCase(UsuarioGateway usuarios) {
+        return new RegistrarSolicitudUseCase(GatewaysEnMemoria.solicitudes(), GatewaysEnMemoria.tiposPrestamo(),
+                usuarios, GatewaysEnMemoria.estados(), GatewaysEnMemoria.metricas(),
+                ValidacionTipoPrestamo.PREVIA);
+    }
+
+    /**
+     * Las búsquedas fallan con el 404 de WebClient y lo traducen a vacío por el mensaje; el registro no cambia.
+     */
+    private static UsuarioGateway con404(UsuarioGateway usuarios) {
+        return new UsuarioGateway() {
+            @Override
+            public Mono<Usuario> registrarUsuario(Usuario usuario) {
+                return usuarios.registrarUsuario(usuario);
+            }
+
+            @Override
+            public Mono<Usuario> buscarUsuarioPorDocumento(String tipoDocumento, String numeroDocumento) {
+                return noEncontradoComoVacio();
+            }
+
+            @Override
+            public Mono<Usuario> buscarUsuarioPorEmail(String correoElectronico) {
+                return noEncontradoComoVacio();
+            }
+        };
+    }
+
+    private static Mono<Usuario> noEncontradoComoVacio() {
+        return Mono.<Usuario>defer(() -> Mono.error(noEncontrado()))
+                .onErrorResume(error -> error.getMessage() != null && error.getMessage().contains("404 Not Found")
+                        ? Mono.empty()
+                        : Mono.error(error));
+    }
+
+    /**
+     * Equivalente a lo que WebClient construye ante un 404: excepción con stack trace y mensaje formateado.
+     */
+    private static WebClientResponseException noEncontrado() {
+        return WebClientResponseException.create(404, "Not Found", HttpHeaders.EMPTY,
+                "{\"message\":\"Usuario no encontrado\"}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+    }
+}
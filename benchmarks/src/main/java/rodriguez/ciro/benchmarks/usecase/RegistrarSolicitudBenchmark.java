@@ -0,0 +1,62 @@
+package rodriguez.ciro.benchmarks.usecase;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rodriguez.ciro.model.solicitud.Solicitud;
+import rodriguez.ciro.model.tipoprestamo.ValidacionTipoPrestamo;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.usecase.registrarsolicitud.RegistrarSolicitudUseCase;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link RegistrarSolicitudUseCase} contra gateways en memoria: mide solo la composición reactiva del caso de uso.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistrarSolicitudBenchmark {
+
+    @Param({"PREVIA", "OPTIMISTA"})
+    private ValidacionTipoPrestamo validacion;
+
+    private RegistrarSolicitudUseCase usuarioNuevo;
+    private RegistrarSolicitudUseCase usuarioExistente;
+    private Usuario solicitante;
+    private Solicitud solicitud;
+
+    @Setup
+    public void setUp() {
+        solicitante = GatewaysEnMemoria.solicitante();
+        solicitud = GatewaysEnMemoria.solicitud();
+        usuarioNuevo = new RegistrarSolicitudUseCase(GatewaysEnMemoria.solicitudes(),
+                GatewaysEnMemoria.tiposPrestamo(), GatewaysEnMemoria.usuariosNuevos(), GatewaysEnMemoria.estados(),
+                GatewaysEnMemoria.metricas(), validacion);
+        usuarioExistente = new RegistrarSolicitudUseCase(GatewaysEnMemoria.solicitudes(),
+                GatewaysEnMemoria.tiposPrestamo(),
+                GatewaysEnMemoria.usuariosExistentes(solicitante.toBuilder().idUsuario(1L).build()),
+                GatewaysEnMemoria.estados(), GatewaysEnMemoria.metricas(), validacion);
+    }
+
+    @Benchmark
+    public RegistrarSolicitudUseCase.SolicitudConUsuarioResult usuarioNuevo() {
+        return usuarioNuevo.registrarSolicitudConUsuario(solicitante, solicitud).block();
+    }
+
+    @Benchmark
+    public RegistrarSolicitudUseCase.SolicitudConUsuarioResult usuarioExistente() {
+        return usuarioExistente.registrarSolicitudConUsuario(solicitante, solicitud).block();
+    }
+}
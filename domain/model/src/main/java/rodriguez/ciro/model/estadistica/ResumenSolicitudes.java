@@ -0,0 +1,22 @@
+package rodriguez.ciro.model.estadistica;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Cantidad de solicitudes y monto total de un día (UTC) para un estado y un tipo de préstamo.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class ResumenSolicitudes {
+    private LocalDate dia;
+    private Long idEstado;
+    private Long idTipoPrestamo;
+    private long cantidad;
+    private BigDecimal montoTotal;
+}
@@ -0,0 +1,15 @@
+package rodriguez.ciro.model.estadistica.gateways;
+
+import reactor.core.publisher.Flux;
+import rodriguez.ciro.model.estadistica.ResumenSolicitudes;
+
+import java.time.LocalDate;
+
+public interface EstadisticasSolicitudesGateway {
+
+    /**
+     * Resúmenes de los días entre {@code desde} y {@code hasta}, ambos incluidos, ordenados por día, estado y tipo.
+     * Solo se emiten las combinaciones con solicitudes.
+     */
+    Flux<ResumenSolicitudes> resumenDiario(LocalDate desde, LocalDate hasta);
+}
@@ -1,7 +1,10 @@
 package rodriguez.ciro.model.estado.gateways;
 
 import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.estado.Estado;
 
 public interface EstadoRepository {
     Mono<Boolean> existePorId(Long idEstado);
+
+    Mono<Estado> buscarPorId(Long idEstado);
 }
@@ -0,0 +1,10 @@
+package rodriguez.ciro.model.exception;
+
+/**
+ * La clave de idempotencia ya se usó con una petición de contenido distinto.
+ */
+public class ClaveIdempotenciaReutilizadaException extends IllegalArgumentException {
+    public ClaveIdempotenciaReutilizadaException(String clave) {
+        super("La clave de idempotencia " + clave + " ya se usó con una petición distinta");
+    }
+}
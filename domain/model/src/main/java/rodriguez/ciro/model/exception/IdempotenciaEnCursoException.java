@@ -0,0 +1,10 @@
+package rodriguez.ciro.model.exception;
+
+/**
+ * La primera ejecución de la clave sigue en curso después de la espera máxima.
+ */
+public class IdempotenciaEnCursoException extends RuntimeException {
+    public IdempotenciaEnCursoException(String clave) {
+        super("La petición con clave de idempotencia " + clave + " todavía está en proceso");
+    }
+}
@@ -0,0 +1,21 @@
+package rodriguez.ciro.model.exception;
+
+import java.time.Duration;
+
+/**
+ * La llamada al servicio de usuarios se rechazó sin hacerse: el circuito está abierto o no quedan llamadas
+ * concurrentes disponibles. {@code reintentarEn} es el tiempo sugerido antes de volver a intentar.
+ */
+public class ServicioUsuariosNoDisponibleException extends RuntimeException {
+
+    private final Duration reintentarEn;
+
+    public ServicioUsuariosNoDisponibleException(String mensaje, Duration reintentarEn, Throwable causa) {
+        super(mensaje, causa);
+        this.reintentarEn = reintentarEn;
+    }
+
+    public Duration getReintentarEn() {
+        return reintentarEn;
+    }
+}
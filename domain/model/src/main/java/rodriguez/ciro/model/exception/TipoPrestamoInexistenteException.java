@@ -0,0 +1,11 @@
+package rodriguez.ciro.model.exception;
+
+/**
+ * El tipo de préstamo de la solicitud no existe. Extiende {@link IllegalArgumentException} para que los clientes
+ * reciban el mismo error tanto si lo detecta la validación previa como la llave foránea al guardar.
+ */
+public class TipoPrestamoInexistenteException extends IllegalArgumentException {
+    public TipoPrestamoInexistenteException(Long idTipoPrestamo) {
+        super("El tipo de préstamo con ID " + idTipoPrestamo + " no existe");
+    }
+}
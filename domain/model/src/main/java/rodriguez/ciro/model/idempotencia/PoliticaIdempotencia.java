@@ -0,0 +1,28 @@
+package rodriguez.ciro.model.idempotencia;
+
+import lombok.*;
+
+import java.time.Duration;
+
+/**
+ * {@code vigencia} es cuánto se recuerda la respuesta de una clave, {@code capacidadMemoria} cuántas respuestas
+ * se guardan además en memoria, y {@code esperaMaxima} cuánto espera una petición repetida a que termine la
+ * primera ejecución, consultando cada {@code intervaloEspera}.
+ * <p>
+ * Una clave en curso queda reservada {@code esperaMaxima} más {@code margenReserva}; pasado ese tiempo sin
+ * respuesta guardada, la siguiente petición con la clave la toma y vuelve a ejecutar.
+ */
+@Getter
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class PoliticaIdempotencia {
+    private final Duration vigencia;
+    private final int capacidadMemoria;
+    private final Duration esperaMaxima;
+    private final Duration intervaloEspera;
+    private final Duration margenReserva;
+
+    public Duration getDuracionReserva() {
+        return esperaMaxima.plus(margenReserva);
+    }
+}
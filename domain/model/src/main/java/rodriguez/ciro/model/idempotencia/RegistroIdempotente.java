@@ -0,0 +1,21 @@
+package rodriguez.ciro.model.idempotencia;
+
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Ejecución registrada para una clave de idempotencia. {@code respuesta} es nula mientras la primera ejecución
+ * sigue en curso; {@code huella} identifica el contenido de la petición que reservó la clave.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class RegistroIdempotente {
+    private String clave;
+    private String huella;
+    private String respuesta;
+    private Instant expiraEn;
+}
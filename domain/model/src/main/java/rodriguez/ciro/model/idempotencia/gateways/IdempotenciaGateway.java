@@ -0,0 +1,29 @@
+package rodriguez.ciro.model.idempotencia.gateways;
+
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.idempotencia.RegistroIdempotente;
+
+import java.time.Instant;
+
+public interface IdempotenciaGateway {
+
+    /**
+     * Registro vigente de la clave, en curso o completado; vacío si no existe o ya expiró.
+     */
+    Mono<RegistroIdempotente> buscar(String clave);
+
+    /**
+     * Reserva la clave para una nueva ejecución. Emite {@code false} si otra ejecución vigente ya la tiene.
+     */
+    Mono<Boolean> reservar(RegistroIdempotente registro);
+
+    /**
+     * Guarda la respuesta de la ejecución y extiende la vigencia de la clave hasta {@code expiraEn}.
+     */
+    Mono<Void> completar(String clave, String respuesta, Instant expiraEn);
+
+    /**
+     * Libera la reserva de una ejecución que falló, para que un reintento pueda volver a ejecutarse.
+     */
+    Mono<Void> liberar(String clave);
+}
@@ -0,0 +1,14 @@
+package rodriguez.ciro.model.metrica;
+
+/**
+ * Etapas del registro de una solicitud con usuario. {@link #TOTAL} cubre el registro completo.
+ */
+public enum EtapaRegistro {
+    VALIDAR_TIPO_PRESTAMO,
+    BUSCAR_USUARIO,
+    VALIDAR_EMAIL,
+    REGISTRAR_USUARIO,
+    GUARDAR_SOLICITUD,
+    CONSULTAR_ESTADO,
+    TOTAL
+}
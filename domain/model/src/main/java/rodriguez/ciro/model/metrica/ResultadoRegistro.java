@@ -0,0 +1,12 @@
+package rodriguez.ciro.model.metrica;
+
+/**
+ * Desenlace del registro al que pertenece cada medición de etapa.
+ */
+public enum ResultadoRegistro {
+    USUARIO_EXISTENTE,
+    USUARIO_NUEVO,
+    EMAIL_EN_USO,
+    TIPO_INEXISTENTE,
+    ERROR
+}
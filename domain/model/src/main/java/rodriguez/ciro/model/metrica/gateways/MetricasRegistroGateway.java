@@ -0,0 +1,12 @@
+package rodriguez.ciro.model.metrica.gateways;
+
+import rodriguez.ciro.model.metrica.EtapaRegistro;
+import rodriguez.ciro.model.metrica.ResultadoRegistro;
+
+/**
+ * Se invoca una vez por etapa ejecutada cuando el registro termina, así que las implementaciones
+ * no deben bloquear ni crear objetos por llamada.
+ */
+public interface MetricasRegistroGateway {
+    void registrar(EtapaRegistro etapa, ResultadoRegistro resultado, long duracionNanos);
+}
@@ -0,0 +1,25 @@
+package rodriguez.ciro.model.solicitud;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Criterios del listado de solicitudes; los campos nulos no filtran. El rango de monto incluye ambos extremos.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+public class FiltroSolicitudes {
+    private Long idEstado;
+    private Long idTipoPrestamo;
+    private String email;
+    private BigDecimal montoMinimo;
+    private BigDecimal montoMaximo;
+
+    public boolean rangoMontoValido() {
+        return montoMinimo == null || montoMaximo == null || montoMinimo.compareTo(montoMaximo) <= 0;
+    }
+}
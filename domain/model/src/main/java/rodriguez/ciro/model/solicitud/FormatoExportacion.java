@@ -0,0 +1,12 @@
+package rodriguez.ciro.model.solicitud;
+
+public enum FormatoExportacion {
+    /**
+     * Un objeto JSON por línea.
+     */
+    NDJSON,
+    /**
+     * Valores separados por comas, con una línea de encabezado.
+     */
+    CSV
+}
@@ -0,0 +1,16 @@
+package rodriguez.ciro.model.solicitud.gateways;
+
+import reactor.core.publisher.Flux;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
+import rodriguez.ciro.model.solicitud.FormatoExportacion;
+
+import java.nio.ByteBuffer;
+
+public interface ExportacionSolicitudesGateway {
+
+    /**
+     * Emite las solicitudes que cumplen el filtro, en orden de id, ya codificadas en el formato pedido (UTF-8).
+     * Las filas se leen a medida que se consumen los bloques, así que la memoria usada no depende del total.
+     */
+    Flux<ByteBuffer> exportar(FiltroSolicitudes filtro, FormatoExportacion formato);
+}
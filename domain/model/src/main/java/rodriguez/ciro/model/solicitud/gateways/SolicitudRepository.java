@@ -1,8 +1,29 @@
 package rodriguez.ciro.model.solicitud.gateways;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
 import rodriguez.ciro.model.solicitud.Solicitud;
 
+import java.util.List;
+
 public interface SolicitudRepository {
     Mono<Solicitud> guardar(Solicitud solicitud);
+
+    /**
+     * Guarda el grupo en una sola operación y emite las solicitudes guardadas en el mismo orden recibido.
+     */
+    Flux<Solicitud> guardarTodos(List<Solicitud> solicitudes);
+
+    /**
+     * Solicitudes que cumplen el filtro, de la más reciente a la más antigua, empezando después de
+     * {@code despuesDe} (el id de la última solicitud de la página anterior, o nulo para la primera página).
+     */
+    Flux<Solicitud> listar(FiltroSolicitudes filtro, Long despuesDe, int limite);
+
+    /**
+     * Cantidad aproximada de solicitudes que cumplen el filtro, según las estadísticas de la base de datos;
+     * vacío si no se puede estimar.
+     */
+    Mono<Long> estimarTotal(FiltroSolicitudes filtro);
 }
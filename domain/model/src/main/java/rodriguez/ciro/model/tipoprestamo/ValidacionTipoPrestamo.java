@@ -0,0 +1,17 @@
+package rodriguez.ciro.model.tipoprestamo;
+
+/**
+ * Cómo se valida que el tipo de préstamo exista antes de guardar una solicitud.
+ */
+public enum ValidacionTipoPrestamo {
+    /**
+     * Se consulta el tipo antes de guardar.
+     */
+    PREVIA,
+    /**
+     * No se consulta si el solicitante ya existe: la llave foránea de la solicitud rechaza un tipo inexistente y
+     * el repositorio lo informa con {@code TipoPrestamoInexistenteException}. Para un solicitante nuevo se sigue
+     * consultando antes de registrarlo, para no crear usuarios de solicitudes que no se pueden guardar.
+     */
+    OPTIMISTA
+}
@@ -1,7 +1,10 @@
 package rodriguez.ciro.model.tipoprestamo.gateways;
 
 import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.tipoprestamo.TipoPrestamo;
 
 public interface TipoPrestamoRepository {
     Mono<Boolean> existePorId(Long idTipoPrestamo);
+
+    Mono<TipoPrestamo> buscarPorId(Long idTipoPrestamo);
 }
@@ -3,10 +3,13 @@ package rodriguez.ciro.model.usuario.gateways;
 import reactor.core.publisher.Mono;
 import rodriguez.ciro.model.usuario.Usuario;
 
+/**
+ * Las búsquedas completan vacías cuando el usuario no existe; un error siempre es un fallo real.
+ */
 public interface UsuarioGateway {
     Mono<Usuario> registrarUsuario(Usuario usuario);
-    
+
     Mono<Usuario> buscarUsuarioPorDocumento(String tipoDocumento, String numeroDocumento);
-    
+
     Mono<Usuario> buscarUsuarioPorEmail(String correoElectronico);
 }
@@ -0,0 +1,34 @@
+package rodriguez.ciro.usecase.consultarestadisticas;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import rodriguez.ciro.model.estadistica.ResumenSolicitudes;
+import rodriguez.ciro.model.estadistica.gateways.EstadisticasSolicitudesGateway;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+@RequiredArgsConstructor
+public class ConsultarEstadisticasUseCase {
+
+    public static final int MAXIMO_DIAS = 366;
+
+    private final EstadisticasSolicitudesGateway estadisticasGateway;
+
+    /**
+     * Cantidad y monto total de solicitudes por día, estado y tipo de préstamo entre {@code desde} y
+     * {@code hasta}, ambos incluidos, con un rango de hasta {@link #MAXIMO_DIAS} días.
+     */
+    public Flux<ResumenSolicitudes> resumenDiario(LocalDate desde, LocalDate hasta) {
+        return Flux.defer(() -> {
+            if (desde.isAfter(hasta)) {
+                return Flux.error(new IllegalArgumentException("La fecha inicial no puede ser posterior a la final"));
+            }
+            if (ChronoUnit.DAYS.between(desde, hasta) >= MAXIMO_DIAS) {
+                return Flux.error(new IllegalArgumentException(
+                        "El rango de fechas no puede superar " + MAXIMO_DIAS + " días"));
+            }
+            return estadisticasGateway.resumenDiario(desde, hasta);
+        });
+    }
+}
@@ -0,0 +1,71 @@
+package rodriguez.ciro.usecase.consultarsolicitudes;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
+import rodriguez.ciro.model.solicitud.Solicitud;
+import rodriguez.ciro.model.solicitud.gateways.SolicitudRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class ConsultarSolicitudesUseCase {
+
+    public static final int LIMITE_POR_DEFECTO = 20;
+    public static final int LIMITE_MAXIMO = 100;
+
+    private final SolicitudRepository solicitudRepository;
+
+    /**
+     * Devuelve una página del listado paginado por llave: la página siguiente se pide con el id de la última
+     * solicitud recibida, así que su costo no crece con la cantidad de páginas ya recorridas. Se lee una fila
+     * de más para saber si hay otra página sin contarlas.
+     * <p>
+     * Con {@code incluirTotal} la página trae además la estimación del total, consultada en paralelo.
+     */
+    public Mono<Pagina> consultar(FiltroSolicitudes filtro, Long despuesDe, Integer limite, boolean incluirTotal) {
+        return Mono.defer(() -> {
+            validar(filtro, despuesDe, limite);
+            int tamano = limite != null ? Math.min(limite, LIMITE_MAXIMO) : LIMITE_POR_DEFECTO;
+            Mono<List<Solicitud>> filas = solicitudRepository.listar(filtro, despuesDe, tamano + 1).collectList();
+            Mono<Optional<Long>> total = incluirTotal
+                    ? solicitudRepository.estimarTotal(filtro).map(Optional::of).defaultIfEmpty(Optional.empty())
+                    : Mono.just(Optional.empty());
+            return Mono.zip(filas, total)
+                    .map(resultado -> construirPagina(resultado.getT1(), tamano, resultado.getT2().orElse(null)));
+        });
+    }
+
+    private static void validar(FiltroSolicitudes filtro, Long despuesDe, Integer limite) {
+        if (limite != null && limite < 1) {
+            throw new IllegalArgumentException("El límite debe ser mayor que cero");
+        }
+        if (despuesDe != null && despuesDe < 1) {
+            throw new IllegalArgumentException("El cursor debe ser un ID de solicitud válido");
+        }
+        if (!filtro.rangoMontoValido()) {
+            throw new IllegalArgumentException("El monto mínimo no puede ser mayor que el monto máximo");
+        }
+    }
+
+    private static Pagina construirPagina(List<Solicitud> filas, int tamano, Long totalEstimado) {
+        if (filas.size() <= tamano) {
+            return new Pagina(filas, null, totalEstimado);
+        }
+        List<Solicitud> solicitudes = filas.subList(0, tamano);
+        return new Pagina(solicitudes, solicitudes.get(tamano - 1).getIdSolicitud(), totalEstimado);
+    }
+
+    /**
+     * Una página del listado. {@code siguiente} es el cursor de la página siguiente (nulo en la última) y
+     * {@code totalEstimado} la aproximación del total, nula si no se pidió o no se pudo estimar.
+     */
+    @lombok.RequiredArgsConstructor
+    @lombok.Getter
+    public static class Pagina {
+        private final List<Solicitud> solicitudes;
+        private final Long siguiente;
+        private final Long totalEstimado;
+    }
+}
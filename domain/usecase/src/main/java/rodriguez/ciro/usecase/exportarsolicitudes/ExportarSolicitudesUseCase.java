@@ -0,0 +1,28 @@
+package rodriguez.ciro.usecase.exportarsolicitudes;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
+import rodriguez.ciro.model.solicitud.FormatoExportacion;
+import rodriguez.ciro.model.solicitud.gateways.ExportacionSolicitudesGateway;
+
+import java.nio.ByteBuffer;
+
+@RequiredArgsConstructor
+public class ExportarSolicitudesUseCase {
+
+    private final ExportacionSolicitudesGateway exportacionGateway;
+
+    /**
+     * Exporta las solicitudes que cumplen el filtro. El contenido se emite a medida que el cliente lo consume.
+     */
+    public Flux<ByteBuffer> exportar(FiltroSolicitudes filtro, FormatoExportacion formato) {
+        return Flux.defer(() -> {
+            if (!filtro.rangoMontoValido()) {
+                return Flux.error(new IllegalArgumentException(
+                        "El monto mínimo no puede ser mayor que el monto máximo"));
+            }
+            return exportacionGateway.exportar(filtro, formato);
+        });
+    }
+}
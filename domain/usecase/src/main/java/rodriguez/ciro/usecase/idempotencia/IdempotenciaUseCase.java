@@ -0,0 +1,177 @@
+package rodriguez.ciro.usecase.idempotencia;
+
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.exception.ClaveIdempotenciaReutilizadaException;
+import rodriguez.ciro.model.exception.IdempotenciaEnCursoException;
+import rodriguez.ciro.model.idempotencia.PoliticaIdempotencia;
+import rodriguez.ciro.model.idempotencia.RegistroIdempotente;
+import rodriguez.ciro.model.idempotencia.gateways.IdempotenciaGateway;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta una operación a lo sumo una vez por clave de idempotencia mientras la clave esté vigente.
+ * <p>
+ * Las respuestas se buscan primero en memoria, entre las últimas {@link PoliticaIdempotencia#getCapacidadMemoria()}
+ * completadas en esta instancia, y después en el {@link IdempotenciaGateway}, que las comparte entre instancias. La
+ * memoria descarta primero las más antiguas, que son también las primeras en vencer.
+ * Las peticiones repetidas que llegan mientras la primera sigue en curso se unen a ella si es de esta instancia, o
+ * consultan el gateway hasta que termine si es de otra. Una ejecución fallida libera la clave para que el
+ * reintento vuelva a ejecutarse.
+ * <p>
+ * La reserva dura solo {@link PoliticaIdempotencia#getDuracionReserva()}: si la instancia que la tiene cae o no
+ * logra guardar la respuesta, la siguiente petición con la clave la toma al vencer. La vigencia completa se
+ * aplica al guardar la respuesta.
+ */
+public class IdempotenciaUseCase {
+
+    private final IdempotenciaGateway idempotenciaGateway;
+    private final PoliticaIdempotencia politica;
+
+    private final Map<String, RegistroIdempotente> completadas = new ConcurrentHashMap<>();
+    private final Queue<String> ordenCompletadas = new ConcurrentLinkedQueue<>();
+    private final Map<String, EnCurso> enCurso = new ConcurrentHashMap<>();
+
+    public IdempotenciaUseCase(IdempotenciaGateway idempotenciaGateway, PoliticaIdempotencia politica) {
+        this.idempotenciaGateway = idempotenciaGateway;
+        this.politica = politica;
+    }
+
+    /**
+     * Devuelve la respuesta de {@code ejecucion} para la clave, ejecutándola solo si la clave no tiene una
+     * respuesta guardada. {@code huella} resume el contenido de la petición: reutilizar la clave con otro
+     * contenido falla con {@link ClaveIdempotenciaReutilizadaException}.
+     * <p>
+     * La ejecución continúa aunque el cliente que la inició cancele, para que su reintento encuentre la respuesta.
+     */
+    public Mono<Resultado> ejecutar(String clave, String huella, Supplier<Mono<String>> ejecucion) {
+        return Mono.defer(() -> {
+            RegistroIdempotente enMemoria = completadas.get(clave);
+            if (enMemoria != null && enMemoria.getExpiraEn().isAfter(Instant.now())) {
+                return repetida(enMemoria, huella);
+            }
+            EnCurso propia = new EnCurso(clave, huella, ejecucion);
+            EnCurso existente = enCurso.putIfAbsent(clave, propia);
+            if (existente == null) {
+                return propia.resultado();
+            }
+            if (!existente.huella().equals(huella)) {
+                return Mono.error(new ClaveIdempotenciaReutilizadaException(clave));
+            }
+            return existente.resultado().map(resultado -> new Resultado(resultado.getRespuesta(), true));
+        });
+    }
+
+    private Mono<Resultado> ejecutarUnaVez(String clave, String huella, Supplier<Mono<String>> ejecucion) {
+        return idempotenciaGateway.buscar(clave)
+                .flatMap(registro -> registro.getRespuesta() != null || !registro.getHuella().equals(huella)
+                        ? repetida(registro, huella)
+                        : esperar(clave, huella))
+                .switchIfEmpty(Mono.defer(() -> {
+                    RegistroIdempotente reserva = RegistroIdempotente.builder()
+                            .clave(clave)
+                            .huella(huella)
+                            .expiraEn(Instant.now().plus(politica.getDuracionReserva()))
+                            .build();
+                    return idempotenciaGateway.reservar(reserva)
+                            .flatMap(reservada -> reservada
+                                    ? ejecutarReservada(reserva, ejecucion)
+                                    : esperar(clave, huella));
+                }));
+    }
+
+    private Mono<Resultado> ejecutarReservada(RegistroIdempotente reserva, Supplier<Mono<String>> ejecucion) {
+        return Mono.defer(ejecucion)
+                .onErrorResume(error -> idempotenciaGateway.liberar(reserva.getClave())
+                        .onErrorResume(errorLiberar -> Mono.empty())
+                        .then(Mono.error(error)))
+                .flatMap(respuesta -> {
+                    RegistroIdempotente completado = reserva.toBuilder()
+                            .respuesta(respuesta)
+                            .expiraEn(Instant.now().plus(politica.getVigencia()))
+                            .build();
+                    // La operación ya se hizo: si la respuesta no se puede guardar (el gateway lo registra), se
+                    // responde igual y la reserva queda en curso hasta vencer
+                    return idempotenciaGateway.completar(completado.getClave(), respuesta, completado.getExpiraEn())
+                            .onErrorResume(error -> Mono.empty())
+                            .thenReturn(completado);
+                })
+                .map(completado -> {
+                    recordar(completado);
+                    return new Resultado(completado.getRespuesta(), false);
+                });
+    }
+
+    /**
+     * Espera a que la ejecución en curso en otra instancia guarde su respuesta.
+     */
+    private Mono<Resultado> esperar(String clave, String huella) {
+        return Mono.defer(() -> idempotenciaGateway.buscar(clave))
+                .filter(registro -> registro.getRespuesta() != null || !registro.getHuella().equals(huella))
+                .repeatWhenEmpty(intentos -> intentos.delayElements(politica.getIntervaloEspera()))
+                .timeout(politica.getEsperaMaxima(), Mono.error(() -> new IdempotenciaEnCursoException(clave)))
+                .flatMap(registro -> repetida(registro, huella));
+    }
+
+    private Mono<Resultado> repetida(RegistroIdempotente registro, String huella) {
+        if (!registro.getHuella().equals(huella)) {
+            return Mono.error(new ClaveIdempotenciaReutilizadaException(registro.getClave()));
+        }
+        recordar(registro);
+        return Mono.just(new Resultado(registro.getRespuesta(), true));
+    }
+
+    private void recordar(RegistroIdempotente registro) {
+        if (completadas.put(registro.getClave(), registro) != null) {
+            return;
+        }
+        ordenCompletadas.add(registro.getClave());
+        while (completadas.size() > politica.getCapacidadMemoria()) {
+            String masAntigua = ordenCompletadas.poll();
+            if (masAntigua == null) {
+                return;
+            }
+            completadas.remove(masAntigua);
+        }
+    }
+
+    /**
+     * Al terminar libera la clave solo si sigue siendo suya: una ejecución posterior con la misma clave pudo
+     * ocupar su lugar.
+     */
+    private final class EnCurso {
+
+        private final String huella;
+        private final Mono<Resultado> resultado;
+
+        private EnCurso(String clave, String huella, Supplier<Mono<String>> ejecucion) {
+            this.huella = huella;
+            this.resultado = Mono.defer(() -> ejecutarUnaVez(clave, huella, ejecucion))
+                    .doFinally(senal -> enCurso.remove(clave, this))
+                    .cache();
+        }
+
+        String huella() {
+            return huella;
+        }
+
+        Mono<Resultado> resultado() {
+            return resultado;
+        }
+    }
+
+    /**
+     * {@code repetida} indica que la respuesta es la de una ejecución anterior con la misma clave.
+     */
+    @lombok.RequiredArgsConstructor
+    @lombok.Getter
+    public static class Resultado {
+        private final String respuesta;
+        private final boolean repetida;
+    }
+}
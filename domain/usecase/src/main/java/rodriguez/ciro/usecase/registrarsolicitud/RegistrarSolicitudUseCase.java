@@ -1,52 +1,205 @@
 package rodriguez.ciro.usecase.registrarsolicitud;
 
 import lombok.RequiredArgsConstructor;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import rodriguez.ciro.model.estado.Estado;
+import rodriguez.ciro.model.estado.gateways.EstadoRepository;
 import rodriguez.ciro.model.exception.EmailEnUsoException;
+import rodriguez.ciro.model.exception.TipoPrestamoInexistenteException;
+import rodriguez.ciro.model.metrica.EtapaRegistro;
+import rodriguez.ciro.model.metrica.ResultadoRegistro;
+import rodriguez.ciro.model.metrica.gateways.MetricasRegistroGateway;
 import rodriguez.ciro.model.solicitud.Solicitud;
 import rodriguez.ciro.model.solicitud.gateways.SolicitudRepository;
+import rodriguez.ciro.model.tipoprestamo.ValidacionTipoPrestamo;
 import rodriguez.ciro.model.tipoprestamo.gateways.TipoPrestamoRepository;
 import rodriguez.ciro.model.usuario.Usuario;
 import rodriguez.ciro.model.usuario.gateways.UsuarioGateway;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
 @RequiredArgsConstructor
 public class RegistrarSolicitudUseCase {
 
     private final SolicitudRepository solicitudRepository;
     private final TipoPrestamoRepository tipoPrestamoRepository;
     private final UsuarioGateway usuarioGateway;
+    private final EstadoRepository estadoRepository;
+    private final MetricasRegistroGateway metricasGateway;
+    private final ValidacionTipoPrestamo validacionTipoPrestamo;
 
     private static final Long ESTADO_PENDIENTE_REVISION = 1L;
+    // Lo que se responde si el catálogo no tiene el estado inicial: una solicitud registrada siempre queda en él
+    private static final Estado ESTADO_INICIAL = Estado.builder()
+            .idEstado(ESTADO_PENDIENTE_REVISION)
+            .nombre("PENDIENTE_REVISION")
+            .build();
+    private static final Duration ESPERA_MAXIMA_GRUPO = Duration.ofMillis(20);
 
     public Mono<Solicitud> registrarSolicitud(Solicitud solicitud) {
-        return validarTipoPrestamo(solicitud.getIdTipoPrestamo())
+        return (optimista() ? Mono.<Void>empty() : validarTipoPrestamo(solicitud.getIdTipoPrestamo()))
                 .then(Mono.just(solicitud))
                 .map(this::asignarEstadoInicial)
                 .flatMap(solicitudRepository::guardar);
     }
 
+    /**
+     * Valida el tipo de préstamo y busca al usuario por documento en paralelo. La validación del email
+     * arranca de forma especulativa junto con la búsqueda por documento y solo se espera si el usuario
+     * no existe; el registro del usuario y de la solicitud siguen esperando a que el tipo sea válido.
+     * Si cualquier rama falla, las demás se cancelan.
+     * <p>
+     * Con validación {@link ValidacionTipoPrestamo#OPTIMISTA} el tipo solo se consulta para un usuario nuevo;
+     * para uno existente lo valida la llave foránea al guardar.
+     * <p>
+     * Al terminar se publica la duración de cada etapa ejecutada, con el desenlace del registro.
+     */
     public Mono<SolicitudConUsuarioResult> registrarSolicitudConUsuario(Usuario usuario, Solicitud solicitudConDatos) {
-        return validarTipoPrestamo(solicitudConDatos.getIdTipoPrestamo())
-                .then(Mono.defer(() -> {
-                    // Primero intentar buscar usuario existente por documento
-                    return usuarioGateway.buscarUsuarioPorDocumento(usuario.getTipoDocumento(), usuario.getNumeroDocumento())
-                            .doOnNext(usuarioExistente -> System.out.println("UseCase - Usuario ya existe: idUsuario=" + usuarioExistente.getIdUsuario()))
-                            // Si no existe por documento, validar que el email no esté en uso
-                            .onErrorResume(throwable -> {
-                                System.out.println("UseCase - Usuario no existe por documento, validando email");
-                                return validarEmailNoEnUso(usuario)
-                                        .then(Mono.defer(() -> {
-                                            System.out.println("UseCase - Email disponible, registrando nuevo usuario");
-                                            return usuarioGateway.registrarUsuario(usuario)
-                                                    .doOnNext(usuarioRegistrado -> System.out.println("UseCase - Usuario registrado: idUsuario=" + usuarioRegistrado.getIdUsuario()));
-                                        }));
-                            });
-                }))
-                .flatMap(usuarioFinal -> registrarSolicitudParaUsuario(solicitudConDatos, usuarioFinal)
-                        .map(solicitud -> new SolicitudConUsuarioResult(solicitud, usuarioFinal)));
+        return Mono.defer(() -> {
+            Registro registro = iniciarRegistro(usuario);
+            return publicarAlTerminar(resolverUsuario(usuario, solicitudConDatos, registro, optimista())
+                    .flatMap(usuarioFinal -> medir(solicitudRepository.guardar(construirSolicitud(solicitudConDatos, usuarioFinal)),
+                                    registro, EtapaRegistro.GUARDAR_SOLICITUD)
+                            .flatMap(solicitud -> medir(construirResultado(solicitud, usuarioFinal),
+                                    registro, EtapaRegistro.CONSULTAR_ESTADO))), registro, true);
+        });
+    }
+
+    /**
+     * Registra un lote de solicitudes. Cada elemento pasa por las mismas validaciones que
+     * {@link #registrarSolicitudConUsuario}, con a lo sumo {@code concurrencia} elementos en proceso; las
+     * solicitudes listas se guardan en grupos de hasta {@code tamanoGrupo}. Los resultados se emiten a medida
+     * que cada grupo termina y el fallo de un elemento queda en su resultado sin detener el lote.
+     * <p>
+     * Las etapas de cada elemento se publican al resolver su usuario; el guardado es por grupo y no se mide por elemento.
+     * El tipo de préstamo siempre se valida antes: un tipo inexistente haría fallar el INSERT de todo el grupo.
+     */
+    public Flux<ResultadoLote> registrarLote(Flux<ElementoLote> elementos, int concurrencia, int tamanoGrupo) {
+        return elementos
+                .flatMap(elemento -> Mono.defer(() -> {
+                            Registro registro = iniciarRegistro(elemento.getUsuario());
+                            return publicarAlTerminar(resolverUsuario(elemento.getUsuario(), elemento.getSolicitud(),
+                                            registro, false),
+                                    registro, false);
+                        })
+                        .map(usuarioFinal -> new Pendiente(elemento.getLinea(), usuarioFinal,
+                                construirSolicitud(elemento.getSolicitud(), usuarioFinal), null))
+                        .onErrorResume(error -> Mono.just(new Pendiente(elemento.getLinea(), null, null, error))),
+                        concurrencia)
+                .bufferTimeout(tamanoGrupo, ESPERA_MAXIMA_GRUPO, true)
+                .concatMap(this::guardarGrupo);
+    }
+
+    /**
+     * Devuelve el usuario existente por documento o el recién registrado. Sin {@code optimista}, el tipo de
+     * préstamo se valida en paralelo con la búsqueda; con {@code optimista}, solo antes de registrar un usuario
+     * nuevo, en paralelo con la espera del email.
+     */
+    private Mono<Usuario> resolverUsuario(Usuario usuario, Solicitud solicitudConDatos, Registro registro,
+                                          boolean optimista) {
+        // Diferida: en modo optimista solo se consulta si el usuario es nuevo
+        Mono<Void> tipoValido = medir(Mono.defer(() -> validarTipoPrestamo(solicitudConDatos.getIdTipoPrestamo())),
+                registro, EtapaRegistro.VALIDAR_TIPO_PRESTAMO);
+        Mono<Optional<Usuario>> existente = medir(buscarUsuarioExistente(usuario), registro, EtapaRegistro.BUSCAR_USUARIO);
+        Mono<Usuario> resuelto = optimista
+                ? existente.flatMap(encontrado -> encontrado
+                        .map(Mono::just)
+                        .orElseGet(() -> registrarSiDisponible(usuario, registro,
+                                Mono.when(tipoValido, registro.emailDisponible()))))
+                : Mono.zip(tipoValido.thenReturn(Boolean.TRUE), existente)
+                        .flatMap(validaciones -> validaciones.getT2()
+                                .map(Mono::just)
+                                .orElseGet(() -> registrarSiDisponible(usuario, registro, registro.emailDisponible())));
+        return resuelto.doFinally(signal -> registro.cancelarEspeculacion());
+    }
+
+    private Mono<Usuario> registrarSiDisponible(Usuario usuario, Registro registro, Mono<Void> validaciones) {
+        return validaciones.then(Mono.defer(() -> medir(registrarNuevoUsuario(usuario),
+                registro, EtapaRegistro.REGISTRAR_USUARIO)));
+    }
+
+    private Registro iniciarRegistro(Usuario usuario) {
+        return new Registro(Mono.defer(() -> validarEmailNoEnUso(usuario)));
+    }
+
+    /**
+     * Mide desde la suscripción hasta que la etapa termina; una etapa cancelada no se registra.
+     */
+    private static <T> Mono<T> medir(Mono<T> etapa, Registro registro, EtapaRegistro nombre) {
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            return etapa.doOnTerminate(() -> registro.medido(nombre, System.nanoTime() - inicio));
+        });
+    }
+
+    private <T> Mono<T> publicarAlTerminar(Mono<T> enCurso, Registro registro, boolean incluirTotal) {
+        return enCurso
+                .doOnSuccess(valor -> registro.publicar(metricasGateway, registro.resultadoExitoso(), incluirTotal))
+                .doOnError(error -> registro.publicar(metricasGateway, resultadoFallido(error), incluirTotal));
+    }
+
+    private static ResultadoRegistro resultadoFallido(Throwable error) {
+        if (error instanceof EmailEnUsoException) {
+            return ResultadoRegistro.EMAIL_EN_USO;
+        }
+        // Por el tipo y no por IllegalArgumentException: otros rechazos también la extienden
+        if (error instanceof TipoPrestamoInexistenteException) {
+            return ResultadoRegistro.TIPO_INEXISTENTE;
+        }
+        return ResultadoRegistro.ERROR;
+    }
+
+    private Flux<ResultadoLote> guardarGrupo(List<Pendiente> grupo) {
+        List<Pendiente> listos = grupo.stream().filter(pendiente -> pendiente.error() == null).toList();
+        Flux<ResultadoLote> fallidos = Flux.fromIterable(grupo)
+                .filter(pendiente -> pendiente.error() != null)
+                .map(pendiente -> ResultadoLote.fallido(pendiente.linea(), pendiente.error()));
+        if (listos.isEmpty()) {
+            return fallidos;
+        }
+        Flux<ResultadoLote> guardados = Mono.defer(() -> solicitudRepository.guardarTodos(
+                        listos.stream().map(Pendiente::solicitud).toList()).collectList())
+                .flatMapMany(solicitudes -> {
+                    // Sin una fila por línea no se puede saber cuál quedó guardada: el grupo falla antes de emitir
+                    if (solicitudes.size() != listos.size()) {
+                        return Flux.error(new IllegalStateException("El grupo guardó " + solicitudes.size()
+                                + " solicitudes de " + listos.size()));
+                    }
+                    return Flux.range(0, listos.size())
+                            .concatMap(i -> construirResultado(solicitudes.get(i), listos.get(i).usuario())
+                                    .map(resultado -> ResultadoLote.exitoso(listos.get(i).linea(), resultado))
+                                    .onErrorResume(error -> Mono.just(ResultadoLote.fallido(listos.get(i).linea(), error))));
+                })
+                // Si falla el insert del grupo, ninguna de sus solicitudes quedó guardada
+                .onErrorResume(error -> Flux.fromIterable(listos)
+                        .map(pendiente -> ResultadoLote.fallido(pendiente.linea(), error)));
+        return Flux.concat(fallidos, guardados);
+    }
+
+    private Mono<Optional<Usuario>> buscarUsuarioExistente(Usuario usuario) {
+        return Mono.defer(() -> usuarioGateway.buscarUsuarioPorDocumento(usuario.getTipoDocumento(), usuario.getNumeroDocumento()))
+                .map(Optional::of)
+                // Si no existe por documento, se validará que el email no esté en uso
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    private Mono<Usuario> registrarNuevoUsuario(Usuario usuario) {
+        return usuarioGateway.registrarUsuario(usuario);
+    }
+
+    private Mono<SolicitudConUsuarioResult> construirResultado(Solicitud solicitud, Usuario usuario) {
+        return estadoRepository.buscarPorId(solicitud.getIdEstado())
+                .defaultIfEmpty(ESTADO_INICIAL)
+                .map(estado -> new SolicitudConUsuarioResult(solicitud, usuario, estado));
     }
 
     private Mono<Void> validarEmailNoEnUso(Usuario usuario) {
+        // Si no encontramos usuario con ese email, está disponible
         return usuarioGateway.buscarUsuarioPorEmail(usuario.getCorreoElectronico())
                 .flatMap(usuarioExistente -> {
                     // Si encontramos un usuario con ese email, verificar si es el mismo documento
@@ -58,49 +211,152 @@ public class RegistrarSolicitudUseCase {
                     }
                     return Mono.empty();
                 })
-                .onErrorResume(throwable -> {
-                    // Si no encontramos usuario con ese email, está disponible
-                    if (throwable.getMessage() != null && 
-                        (throwable.getMessage().contains("Usuario no encontrado") ||
-                         throwable.getMessage().contains("404 Not Found"))) {
-                        return Mono.empty();
-                    }
-                    // Si es otro tipo de error, lo propagamos
-                    return Mono.error(throwable);
-                })
                 .then();
     }
 
-    private Mono<Solicitud> registrarSolicitudParaUsuario(Solicitud solicitudConDatos, Usuario usuario) {
-        Solicitud solicitud = Solicitud.builder()
+    private Solicitud construirSolicitud(Solicitud solicitudConDatos, Usuario usuario) {
+        return Solicitud.builder()
                 .monto(solicitudConDatos.getMonto())
                 .plazo(solicitudConDatos.getPlazo())
                 .email(usuario.getCorreoElectronico())
                 .idTipoPrestamo(solicitudConDatos.getIdTipoPrestamo())
                 .idEstado(ESTADO_PENDIENTE_REVISION)
                 .build();
-
-        return solicitudRepository.guardar(solicitud);
     }
 
     private Mono<Void> validarTipoPrestamo(Long idTipoPrestamo) {
         return tipoPrestamoRepository.existePorId(idTipoPrestamo)
                 .filter(existe -> existe)
-                .switchIfEmpty(Mono.error(new IllegalArgumentException(
-                        "El tipo de préstamo con ID " + idTipoPrestamo + " no existe")))
+                .switchIfEmpty(Mono.error(new TipoPrestamoInexistenteException(idTipoPrestamo)))
                 .then();
     }
 
+    private boolean optimista() {
+        return validacionTipoPrestamo == ValidacionTipoPrestamo.OPTIMISTA;
+    }
+
     private Solicitud asignarEstadoInicial(Solicitud solicitud) {
         return solicitud.toBuilder()
                 .idEstado(ESTADO_PENDIENTE_REVISION)
                 .build();
     }
 
+    /**
+     * Estado de un registro en curso. La validación del email se ejecuta desde antes de saber si su resultado
+     * hará falta: se conserva para quien lo pida después y {@link #cancelarEspeculacion()} la detiene si ya no
+     * se necesita. Las duraciones de las etapas se guardan como primitivos para no crear objetos por medición;
+     * cada campo lo escribe una sola etapa y se lee después de que el registro termina.
+     */
+    private static final class Registro {
+        private static final long SIN_MEDIR = -1;
+
+        private final long inicio = System.nanoTime();
+        private final Sinks.Empty<Void> emailDisponible = Sinks.empty();
+        private final Disposable especulacion;
+
+        private long validarTipoPrestamo = SIN_MEDIR;
+        private long buscarUsuario = SIN_MEDIR;
+        private long validarEmail = SIN_MEDIR;
+        private long registrarUsuario = SIN_MEDIR;
+        private long guardarSolicitud = SIN_MEDIR;
+        private long consultarEstado = SIN_MEDIR;
+        private boolean usuarioNuevo;
+
+        private Registro(Mono<Void> validacionEmail) {
+            this.especulacion = validacionEmail.subscribe(null, emailDisponible::tryEmitError, emailDisponible::tryEmitEmpty);
+        }
+
+        /**
+         * Solo se pide cuando el usuario no existe; la etapa dura desde el arranque especulativo hasta el resultado.
+         */
+        private Mono<Void> emailDisponible() {
+            usuarioNuevo = true;
+            return emailDisponible.asMono()
+                    .doOnTerminate(() -> medido(EtapaRegistro.VALIDAR_EMAIL, System.nanoTime() - inicio));
+        }
+
+        private void cancelarEspeculacion() {
+            especulacion.dispose();
+        }
+
+        private void medido(EtapaRegistro etapa, long duracionNanos) {
+            switch (etapa) {
+                case VALIDAR_TIPO_PRESTAMO -> validarTipoPrestamo = duracionNanos;
+                case BUSCAR_USUARIO -> buscarUsuario = duracionNanos;
+                case VALIDAR_EMAIL -> validarEmail = duracionNanos;
+                case REGISTRAR_USUARIO -> registrarUsuario = duracionNanos;
+                case GUARDAR_SOLICITUD -> guardarSolicitud = duracionNanos;
+                case CONSULTAR_ESTADO -> consultarEstado = duracionNanos;
+                case TOTAL -> throw new IllegalArgumentException("El total se calcula al publicar");
+            }
+        }
+
+        private ResultadoRegistro resultadoExitoso() {
+            return usuarioNuevo ? ResultadoRegistro.USUARIO_NUEVO : ResultadoRegistro.USUARIO_EXISTENTE;
+        }
+
+        private void publicar(MetricasRegistroGateway metricas, ResultadoRegistro resultado, boolean incluirTotal) {
+            publicar(metricas, EtapaRegistro.VALIDAR_TIPO_PRESTAMO, validarTipoPrestamo, resultado);
+            publicar(metricas, EtapaRegistro.BUSCAR_USUARIO, buscarUsuario, resultado);
+            publicar(metricas, EtapaRegistro.VALIDAR_EMAIL, validarEmail, resultado);
+            publicar(metricas, EtapaRegistro.REGISTRAR_USUARIO, registrarUsuario, resultado);
+            publicar(metricas, EtapaRegistro.GUARDAR_SOLICITUD, guardarSolicitud, resultado);
+            publicar(metricas, EtapaRegistro.CONSULTAR_ESTADO, consultarEstado, resultado);
+            if (incluirTotal) {
+                metricas.registrar(EtapaRegistro.TOTAL, resultado, System.nanoTime() - inicio);
+            }
+        }
+
+        private static void publicar(MetricasRegistroGateway metricas, EtapaRegistro etapa, long duracionNanos,
+                                     ResultadoRegistro resultado) {
+            if (duracionNanos != SIN_MEDIR) {
+                metricas.registrar(etapa, resultado, duracionNanos);
+            }
+        }
+    }
+
     @lombok.RequiredArgsConstructor
     @lombok.Getter
     public static class SolicitudConUsuarioResult {
         private final Solicitud solicitud;
         private final Usuario usuario;
+        private final Estado estado;
+    }
+
+    /**
+     * Elemento de un lote: la línea de origen y los datos ya mapeados al dominio.
+     */
+    @lombok.RequiredArgsConstructor
+    @lombok.Getter
+    public static class ElementoLote {
+        private final long linea;
+        private final Usuario usuario;
+        private final Solicitud solicitud;
+    }
+
+    /**
+     * Resultado de un elemento del lote: trae el registro si tuvo éxito o el error que lo impidió.
+     */
+    @lombok.RequiredArgsConstructor(access = lombok.AccessLevel.PRIVATE)
+    @lombok.Getter
+    public static class ResultadoLote {
+        private final long linea;
+        private final SolicitudConUsuarioResult resultado;
+        private final Throwable error;
+
+        public static ResultadoLote exitoso(long linea, SolicitudConUsuarioResult resultado) {
+            return new ResultadoLote(linea, resultado, null);
+        }
+
+        public static ResultadoLote fallido(long linea, Throwable error) {
+            return new ResultadoLote(linea, null, error);
+        }
+
+        public boolean isExitoso() {
+            return error == null;
+        }
+    }
+
+    private record Pendiente(long linea, Usuario usuario, Solicitud solicitud, Throwable error) {
     }
 }
@@ -0,0 +1,59 @@
+package rodriguez.ciro.usecase.consultarestadisticas;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.estadistica.ResumenSolicitudes;
+import rodriguez.ciro.model.estadistica.gateways.EstadisticasSolicitudesGateway;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultarEstadisticasUseCaseTest {
+
+    @Mock
+    private EstadisticasSolicitudesGateway estadisticasGateway;
+
+    @InjectMocks
+    private ConsultarEstadisticasUseCase consultarEstadisticasUseCase;
+
+    @Test
+    void resumenDiario_DelegaElRangoEnElGateway() {
+        // Given
+        LocalDate dia = LocalDate.of(2026, 10, 1);
+        ResumenSolicitudes resumen = ResumenSolicitudes.builder()
+                .dia(dia).idEstado(1L).idTipoPrestamo(1L).cantidad(3).montoTotal(new BigDecimal("30000.00"))
+                .build();
+        when(estadisticasGateway.resumenDiario(dia, dia.plusDays(6))).thenReturn(Flux.just(resumen));
+
+        // When & Then
+        StepVerifier.create(consultarEstadisticasUseCase.resumenDiario(dia, dia.plusDays(6)))
+                .expectNext(resumen)
+                .verifyComplete();
+    }
+
+    @Test
+    void resumenDiario_RechazaRangosInvertidosOMuyLargos() {
+        LocalDate dia = LocalDate.of(2026, 10, 1);
+
+        StepVerifier.create(consultarEstadisticasUseCase.resumenDiario(dia, dia.minusDays(1)))
+                .expectErrorMessage("La fecha inicial no puede ser posterior a la final")
+                .verify();
+        StepVerifier.create(consultarEstadisticasUseCase.resumenDiario(dia,
+                        dia.plusDays(ConsultarEstadisticasUseCase.MAXIMO_DIAS)))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(estadisticasGateway, never()).resumenDiario(any(), any());
+    }
+}
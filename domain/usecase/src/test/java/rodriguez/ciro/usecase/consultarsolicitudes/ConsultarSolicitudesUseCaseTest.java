@@ -0,0 +1,112 @@
+package rodriguez.ciro.usecase.consultarsolicitudes;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
+import rodriguez.ciro.model.solicitud.Solicitud;
+import rodriguez.ciro.model.solicitud.gateways.SolicitudRepository;
+
+import java.math.BigDecimal;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConsultarSolicitudesUseCaseTest {
+
+    @Mock
+    private SolicitudRepository solicitudRepository;
+
+    @InjectMocks
+    private ConsultarSolicitudesUseCase consultarSolicitudesUseCase;
+
+    private final FiltroSolicitudes filtro = FiltroSolicitudes.builder().idEstado(1L).build();
+
+    @Test
+    void consultar_PideUnaFilaDeMasYDevuelveElCursorDeLaPaginaSiguiente() {
+        // Given - hay más filas que el límite
+        when(solicitudRepository.listar(filtro, 100L, 4)).thenReturn(solicitudes(99, 96));
+
+        // When & Then
+        StepVerifier.create(consultarSolicitudesUseCase.consultar(filtro, 100L, 3, false))
+                .expectNextMatches(pagina -> pagina.getSolicitudes().size() == 3
+                        && pagina.getSiguiente() == 97L
+                        && pagina.getTotalEstimado() == null)
+                .verifyComplete();
+
+        verify(solicitudRepository, never()).estimarTotal(any());
+    }
+
+    @Test
+    void consultar_UltimaPaginaNoTraeCursor() {
+        // Given
+        when(solicitudRepository.listar(filtro, null, ConsultarSolicitudesUseCase.LIMITE_POR_DEFECTO + 1))
+                .thenReturn(solicitudes(2, 1));
+
+        // When & Then
+        StepVerifier.create(consultarSolicitudesUseCase.consultar(filtro, null, null, false))
+                .expectNextMatches(pagina -> pagina.getSolicitudes().size() == 2 && pagina.getSiguiente() == null)
+                .verifyComplete();
+    }
+
+    @Test
+    void consultar_AcotaElLimiteEIncluyeElTotalEstimado() {
+        // Given
+        when(solicitudRepository.listar(filtro, null, ConsultarSolicitudesUseCase.LIMITE_MAXIMO + 1))
+                .thenReturn(Flux.empty());
+        when(solicitudRepository.estimarTotal(filtro)).thenReturn(Mono.just(1500L));
+
+        // When & Then
+        StepVerifier.create(consultarSolicitudesUseCase.consultar(filtro, null, 10_000, true))
+                .expectNextMatches(pagina -> pagina.getSolicitudes().isEmpty() && pagina.getTotalEstimado() == 1500L)
+                .verifyComplete();
+    }
+
+    @Test
+    void consultar_TotalNuloCuandoNoSePuedeEstimar() {
+        // Given
+        when(solicitudRepository.listar(filtro, null, ConsultarSolicitudesUseCase.LIMITE_POR_DEFECTO + 1))
+                .thenReturn(solicitudes(1, 1));
+        when(solicitudRepository.estimarTotal(filtro)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(consultarSolicitudesUseCase.consultar(filtro, null, null, true))
+                .expectNextMatches(pagina -> pagina.getSolicitudes().size() == 1 && pagina.getTotalEstimado() == null)
+                .verifyComplete();
+    }
+
+    @Test
+    void consultar_RechazaRangoDeMontoInvertidoYLimiteInvalido() {
+        FiltroSolicitudes rangoInvertido = FiltroSolicitudes.builder()
+                .montoMinimo(new BigDecimal("5000"))
+                .montoMaximo(new BigDecimal("1000"))
+                .build();
+
+        StepVerifier.create(consultarSolicitudesUseCase.consultar(rangoInvertido, null, null, false))
+                .expectErrorMessage("El monto mínimo no puede ser mayor que el monto máximo")
+                .verify();
+        StepVerifier.create(consultarSolicitudesUseCase.consultar(filtro, null, 0, false))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(consultarSolicitudesUseCase.consultar(filtro, 0L, null, false))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(solicitudRepository, never()).listar(any(), any(), anyInt());
+    }
+
+    private static Flux<Solicitud> solicitudes(long desde, long hasta) {
+        return Flux.fromStream(LongStream.iterate(desde, id -> id >= hasta, id -> id - 1)
+                .mapToObj(id -> Solicitud.builder().idSolicitud(id).idEstado(1L).build()));
+    }
+}
@@ -0,0 +1,60 @@
+package rodriguez.ciro.usecase.exportarsolicitudes;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
+import rodriguez.ciro.model.solicitud.FormatoExportacion;
+import rodriguez.ciro.model.solicitud.gateways.ExportacionSolicitudesGateway;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ExportarSolicitudesUseCaseTest {
+
+    @Mock
+    private ExportacionSolicitudesGateway exportacionGateway;
+
+    @InjectMocks
+    private ExportarSolicitudesUseCase exportarSolicitudesUseCase;
+
+    @Test
+    void exportar_DelegaEnElGateway() {
+        // Given
+        FiltroSolicitudes filtro = FiltroSolicitudes.builder().idEstado(1L).build();
+        ByteBuffer fila = ByteBuffer.wrap("{\"idSolicitud\":1}\n".getBytes(StandardCharsets.UTF_8));
+        when(exportacionGateway.exportar(filtro, FormatoExportacion.NDJSON)).thenReturn(Flux.just(fila));
+
+        // When & Then
+        StepVerifier.create(exportarSolicitudesUseCase.exportar(filtro, FormatoExportacion.NDJSON))
+                .expectNext(fila)
+                .verifyComplete();
+    }
+
+    @Test
+    void exportar_RechazaRangoDeMontoInvertido() {
+        // Given
+        FiltroSolicitudes filtro = FiltroSolicitudes.builder()
+                .montoMinimo(new BigDecimal("5000"))
+                .montoMaximo(new BigDecimal("1000"))
+                .build();
+
+        // When & Then
+        StepVerifier.create(exportarSolicitudesUseCase.exportar(filtro, FormatoExportacion.CSV))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(exportacionGateway, never()).exportar(any(), any());
+    }
+}
@@ -0,0 +1,251 @@
+package rodriguez.ciro.usecase.idempotencia;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.exception.ClaveIdempotenciaReutilizadaException;
+import rodriguez.ciro.model.exception.IdempotenciaEnCursoException;
+import rodriguez.ciro.model.idempotencia.PoliticaIdempotencia;
+import rodriguez.ciro.model.idempotencia.RegistroIdempotente;
+import rodriguez.ciro.model.idempotencia.gateways.IdempotenciaGateway;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotenciaUseCaseTest {
+
+    private static final String CLAVE = "clave-1";
+    private static final String HUELLA = "huella-1";
+
+    @Mock
+    private IdempotenciaGateway idempotenciaGateway;
+
+    private IdempotenciaUseCase idempotenciaUseCase;
+
+    @BeforeEach
+    void setUp() {
+        idempotenciaUseCase = new IdempotenciaUseCase(idempotenciaGateway, PoliticaIdempotencia.builder()
+                .vigencia(Duration.ofHours(24))
+                .capacidadMemoria(100)
+                .esperaMaxima(Duration.ofMillis(300))
+                .intervaloEspera(Duration.ofMillis(10))
+                .margenReserva(Duration.ofSeconds(1))
+                .build());
+    }
+
+    @Test
+    void ejecutar_ClaveNuevaEjecutaUnaVezYLuegoRespondeDesdeMemoria() {
+        // Given
+        when(idempotenciaGateway.buscar(CLAVE)).thenReturn(Mono.empty());
+        when(idempotenciaGateway.reservar(any(RegistroIdempotente.class))).thenReturn(Mono.just(true));
+        when(idempotenciaGateway.completar(eq(CLAVE), eq("{\"id\":1}"), any(Instant.class))).thenReturn(Mono.empty());
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        // When & Then
+        StepVerifier.create(idempotenciaUseCase.ejecutar(CLAVE, HUELLA,
+                        () -> Mono.fromCallable(() -> "{\"id\":" + ejecuciones.incrementAndGet() + "}")))
+                .expectNextMatches(resultado -> resultado.getRespuesta().equals("{\"id\":1}") && !resultado.isRepetida())
+                .verifyComplete();
+        StepVerifier.create(idempotenciaUseCase.ejecutar(CLAVE, HUELLA,
+                        () -> Mono.fromCallable(() -> "{\"id\":" + ejecuciones.incrementAndGet() + "}")))
+                .expectNextMatches(resultado -> resultado.getRespuesta().equals("{\"id\":1}") && resultado.isRepetida())
+                .verifyComplete();
+
+        assertEquals(1, ejecuciones.get());
+        verify(idempotenciaGateway, times(1)).buscar(CLAVE);
+    }
+
+    @Test
+    void ejecutar_ReservaConPlazoCortoYVigenciaCompletaAlGuardar() {
+        // Given
+        when(idempotenciaGateway.buscar(CLAVE)).thenReturn(Mono.empty());
+        when(idempotenciaGateway.reservar(any(RegistroIdempotente.class))).thenReturn(Mono.just(true));
+        when(idempotenciaGateway.completar(eq(CLAVE), eq("{\"id\":1}"), any(Instant.class))).thenReturn(Mono.empty());
+        ArgumentCaptor<RegistroIdempotente> reserva = ArgumentCaptor.forClass(RegistroIdempotente.class);
+        ArgumentCaptor<Instant> expiraEn = ArgumentCaptor.forClass(Instant.class);
+        Instant antes = Instant.now();
+
+        // When
+        StepVerifier.create(idempotenciaUseCase.ejecutar(CLAVE, HUELLA, () -> Mono.just("{\"id\":1}")))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Then - la reserva dura la espera máxima más el margen; la respuesta, la vigencia
+        verify(idempotenciaGateway).reservar(reserva.capture());
+        verify(idempotenciaGateway).completar(eq(CLAVE), eq("{\"id\":1}"), expiraEn.capture());
+        assertTrue(reserva.getValue().getExpiraEn().isBefore(Instant.now().plus(Duration.ofMillis(1300))));
+        assertTrue(expiraEn.getValue().isAfter(antes.plus(Duration.ofHours(23))));
+    }
+
+    @Test
+    void ejecutar_SiNoSeGuardaLaRespuestaSeRespondeIgual() {
+        // Given
+        when(idempotenciaGateway.buscar(CLAVE)).thenReturn(Mono.empty());
+        when(idempotenciaGateway.reservar(any(RegistroIdempotente.class))).thenReturn(Mono.just(true));
+        when(idempotenciaGateway.completar(eq(CLAVE), eq("{\"id\":1}"), any(Instant.class)))
+                .thenReturn(Mono.error(new IllegalStateException("conexión cerrada")));
+
+        // When & Then
+        StepVerifier.create(idempotenciaUseCase.ejecutar(CLAVE, HUELLA, () -> Mono.just("{\"id\":1}")))
+                .expectNextMatches(resultado -> resultado.getRespuesta().equals("{\"id\":1}") && !resultado.isRepetida())
+                .verifyComplete();
+
+        verify(idempotenciaGateway, never()).liberar(anyString());
+    }
+
+    @Test
+    void ejecutar_RespuestaGuardadaNoVuelveAEjecutar() {
+        // Given - otra instancia ya completó la clave
+        when(idempotenciaGateway.buscar(CLAVE)).thenReturn(Mono.just(completado(HUELLA)));
+
+        // When & Then
+        StepVerifier.create(idempotenciaUseCase.ejecutar(CLAVE, HUELLA, () -> Mono.error(new AssertionError())))
+                .expectNextMatches(resultado -> resultado.getRespuesta().equals("{\"id\":7}") && resultado.isRepetida())
+                .verifyComplete();
+
+        verify(idempotenciaGateway, never()).reservar(any());
+    }
+
+    @Test
+    void ejecutar_ClaveConOtroContenidoSeRechaza() {
+        // Given
+        when(idempotenciaGateway.buscar(CLAVE)).thenReturn(Mono.just(completado("otra-huella")));
+
+        // When & Then
+        StepVerifier.create(idempotenciaUseCase.ejecutar(CLAVE, HUELLA, () -> Mono.just("{}")))
+                .expectError(ClaveIdempotenciaReutilizadaException.class)
+                .verify();
+    }
+
+    @Test
+    void ejecutar_DuplicadosConcurrentesEsperanLaPrimeraEjecucion() {
+        // Given
+        when(idempotenciaGateway.buscar(CLAVE)).thenReturn(Mono.empty());
+        when(idempotenciaGateway.reservar(any(RegistroIdempotente.class))).thenReturn(Mono.just(true));
+        when(idempotenciaGateway.completar(eq(CLAVE), eq("{\"id\":1}"), any(Instant.class))).thenReturn(Mono.empty());
+        Sinks.One<String> respuesta = Sinks.one();
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        // When
+        Mono<IdempotenciaUseCase.Resultado> primera = idempotenciaUseCase.ejecutar(CLAVE, HUELLA, () -> {
+            ejecuciones.incrementAndGet();
+            return respuesta.asMono();
+        });
+        Mono<IdempotenciaUseCase.Resultado> repetida = idempotenciaUseCase.ejecutar(CLAVE, HUELLA, () -> {
+            ejecuciones.incrementAndGet();
+            return Mono.just("{\"id\":2}");
+        });
+
+        // Then
+        StepVerifier.create(Mono.zip(primera, repetida))
+                .then(() -> respuesta.tryEmitValue("{\"id\":1}"))
+                .expectNextMatches(resultados -> !resultados.getT1().isRepetida()
+                        && resultados.getT2().isRepetida()
+                        && resultados.getT2().getRespuesta().equals("{\"id\":1}"))
+                .verifyComplete();
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void ejecutar_FalloLiberaLaClaveYElReintentoVuelveAEjecutar() {
+        // Given
+        when(idempotenciaGateway.buscar(CLAVE)).thenReturn(Mono.empty());
+        when(idempotenciaGateway.reservar(any(RegistroIdempotente.class))).thenReturn(Mono.just(true));
+        when(idempotenciaGateway.liberar(CLAVE)).thenReturn(Mono.empty());
+        when(idempotenciaGateway.completar(anyString(), anyString(), any(Instant.class))).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(idempotenciaUseCase.ejecutar(CLAVE, HUELLA,
+                        () -> Mono.error(new IllegalStateException("servicio caído"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(idempotenciaUseCase.ejecutar(CLAVE, HUELLA, () -> Mono.just("{\"id\":2}")))
+                .expectNextMatches(resultado -> !resultado.isRepetida())
+                .verifyComplete();
+
+        verify(idempotenciaGateway).liberar(CLAVE);
+    }
+
+    @Test
+    void ejecutar_MemoriaLlenaDescartaLaRespuestaMasAntigua() {
+        // Given
+        idempotenciaUseCase = new IdempotenciaUseCase(idempotenciaGateway, PoliticaIdempotencia.builder()
+                .vigencia(Duration.ofHours(24))
+                .capacidadMemoria(2)
+                .esperaMaxima(Duration.ofMillis(300))
+                .intervaloEspera(Duration.ofMillis(10))
+                .margenReserva(Duration.ofSeconds(1))
+                .build());
+        when(idempotenciaGateway.buscar(anyString())).thenReturn(Mono.empty());
+        when(idempotenciaGateway.reservar(any(RegistroIdempotente.class))).thenReturn(Mono.just(true));
+        when(idempotenciaGateway.completar(anyString(), anyString(), any(Instant.class))).thenReturn(Mono.empty());
+
+        // When
+        for (String clave : new String[]{"clave-1", "clave-2", "clave-3", "clave-2", "clave-3"}) {
+            StepVerifier.create(idempotenciaUseCase.ejecutar(clave, HUELLA, () -> Mono.just("{}")))
+                    .expectNextCount(1)
+                    .verifyComplete();
+        }
+
+        // Then - clave-1 salió de memoria y vuelve al gateway; las otras dos se respondieron desde memoria
+        StepVerifier.create(idempotenciaUseCase.ejecutar("clave-1", HUELLA, () -> Mono.just("{}")))
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(idempotenciaGateway, times(2)).buscar("clave-1");
+        verify(idempotenciaGateway, times(1)).buscar("clave-2");
+        verify(idempotenciaGateway, times(1)).buscar("clave-3");
+    }
+
+    @Test
+    void ejecutar_ReservaDeOtraInstanciaEsperaSuRespuesta() {
+        // Given - la reserva la ganó otra instancia, que completa después de dos consultas
+        RegistroIdempotente enCurso = completado(HUELLA).toBuilder().respuesta(null).build();
+        when(idempotenciaGateway.buscar(CLAVE))
+                .thenReturn(Mono.empty(), Mono.just(enCurso), Mono.just(enCurso), Mono.just(completado(HUELLA)));
+        when(idempotenciaGateway.reservar(any(RegistroIdempotente.class))).thenReturn(Mono.just(false));
+
+        // When & Then
+        StepVerifier.create(idempotenciaUseCase.ejecutar(CLAVE, HUELLA, () -> Mono.error(new AssertionError())))
+                .expectNextMatches(resultado -> resultado.getRespuesta().equals("{\"id\":7}") && resultado.isRepetida())
+                .verifyComplete();
+    }
+
+    @Test
+    void ejecutar_EjecucionEnCursoQueNoTerminaAgotaLaEspera() {
+        // Given
+        RegistroIdempotente enCurso = completado(HUELLA).toBuilder().respuesta(null).build();
+        when(idempotenciaGateway.buscar(CLAVE)).thenReturn(Mono.just(enCurso));
+
+        // When & Then
+        StepVerifier.create(idempotenciaUseCase.ejecutar(CLAVE, HUELLA, () -> Mono.error(new AssertionError())))
+                .expectError(IdempotenciaEnCursoException.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private static RegistroIdempotente completado(String huella) {
+        return RegistroIdempotente.builder()
+                .clave(CLAVE)
+                .huella(huella)
+                .respuesta("{\"id\":7}")
+                .expiraEn(Instant.now().plus(Duration.ofHours(1)))
+                .build();
+    }
+}
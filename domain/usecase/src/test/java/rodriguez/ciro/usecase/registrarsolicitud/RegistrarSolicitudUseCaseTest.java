@@ -3,23 +3,44 @@ package rodriguez.ciro.usecase.registrarsolicitud;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+import rodriguez.ciro.model.estado.Estado;
+import rodriguez.ciro.model.estado.gateways.EstadoRepository;
 import rodriguez.ciro.model.exception.EmailEnUsoException;
+import rodriguez.ciro.model.exception.TipoPrestamoInexistenteException;
+import rodriguez.ciro.model.metrica.EtapaRegistro;
+import rodriguez.ciro.model.metrica.ResultadoRegistro;
+import rodriguez.ciro.model.metrica.gateways.MetricasRegistroGateway;
 import rodriguez.ciro.model.solicitud.Solicitud;
 import rodriguez.ciro.model.solicitud.gateways.SolicitudRepository;
+import rodriguez.ciro.model.tipoprestamo.ValidacionTipoPrestamo;
 import rodriguez.ciro.model.tipoprestamo.gateways.TipoPrestamoRepository;
 import rodriguez.ciro.model.usuario.Rol;
 import rodriguez.ciro.model.usuario.Usuario;
 import rodriguez.ciro.model.usuario.gateways.UsuarioGateway;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDate;
-
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.longThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,16 +55,24 @@ class RegistrarSolicitudUseCaseTest {
     @Mock
     private UsuarioGateway usuarioGateway;
 
-    @InjectMocks
+    @Mock
+    private EstadoRepository estadoRepository;
+
+    @Mock
+    private MetricasRegistroGateway metricasGateway;
+
     private RegistrarSolicitudUseCase registrarSolicitudUseCase;
 
     private Usuario usuario;
     private Solicitud solicitud;
     private Usuario usuarioRegistrado;
     private Solicitud solicitudGuardada;
+    private Estado estadoPendiente;
 
     @BeforeEach
     void setUp() {
+        registrarSolicitudUseCase = conValidacion(ValidacionTipoPrestamo.PREVIA);
+
         usuario = Usuario.builder()
                 .nombres("Juan Carlos")
                 .apellidos("García López")
@@ -72,6 +101,12 @@ class RegistrarSolicitudUseCaseTest {
                 .email("juan@example.com")
                 .idEstado(1L)
                 .build();
+
+        estadoPendiente = Estado.builder()
+                .idEstado(1L)
+                .nombre("PENDIENTE_REVISION")
+                .descripcion("El estado inicial, pendiente de revisión.")
+                .build();
     }
 
     @Test
@@ -112,11 +147,12 @@ class RegistrarSolicitudUseCaseTest {
         // Given - Usuario no existe, se registra nuevo
         when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
         when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
-                .thenReturn(Mono.error(new RuntimeException("Usuario no encontrado")));
+                .thenReturn(Mono.empty());
         when(usuarioGateway.buscarUsuarioPorEmail("juan@example.com"))
-                .thenReturn(Mono.error(new RuntimeException("Usuario no encontrado")));
+                .thenReturn(Mono.empty());
         when(usuarioGateway.registrarUsuario(usuario)).thenReturn(Mono.just(usuarioRegistrado));
         when(solicitudRepository.guardar(any(Solicitud.class))).thenReturn(Mono.just(solicitudGuardada));
+        when(estadoRepository.buscarPorId(1L)).thenReturn(Mono.just(estadoPendiente));
 
         // When & Then
         StepVerifier.create(registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
@@ -155,9 +191,9 @@ class RegistrarSolicitudUseCaseTest {
         // Given - Usuario no existe y falla al registrarlo
         when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
         when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
-                .thenReturn(Mono.error(new RuntimeException("Usuario no encontrado")));
+                .thenReturn(Mono.empty());
         when(usuarioGateway.buscarUsuarioPorEmail("juan@example.com"))
-                .thenReturn(Mono.error(new RuntimeException("Usuario no encontrado")));
+                .thenReturn(Mono.empty());
         when(usuarioGateway.registrarUsuario(usuario)).thenReturn(Mono.error(new RuntimeException("Error al registrar usuario")));
 
         // When & Then
@@ -181,6 +217,7 @@ class RegistrarSolicitudUseCaseTest {
         when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
                 .thenReturn(Mono.just(usuarioRegistrado));
         when(solicitudRepository.guardar(any(Solicitud.class))).thenReturn(Mono.just(solicitudGuardada));
+        when(estadoRepository.buscarPorId(1L)).thenReturn(Mono.just(estadoPendiente));
 
         // When & Then
         StepVerifier.create(registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
@@ -196,13 +233,48 @@ class RegistrarSolicitudUseCaseTest {
         verify(solicitudRepository).guardar(any(Solicitud.class));
     }
 
+    @Test
+    void registrarSolicitudConUsuario_DeberiaIncluirEstadoDelCatalogo() {
+        // Given - Usuario ya existe y el estado inicial está en el catálogo
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
+                .thenReturn(Mono.just(usuarioRegistrado));
+        when(solicitudRepository.guardar(any(Solicitud.class))).thenReturn(Mono.just(solicitudGuardada));
+        when(estadoRepository.buscarPorId(1L)).thenReturn(Mono.just(estadoPendiente));
+
+        // When & Then
+        StepVerifier.create(registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
+                .expectNextMatches(result ->
+                    result.getEstado() == estadoPendiente &&
+                    result.getSolicitud().getIdEstado().equals(1L))
+                .verifyComplete();
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_DeberiaResponderElEstadoInicialCuandoNoEstaEnCatalogo() {
+        // Given - El estado no está en el catálogo
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
+                .thenReturn(Mono.just(usuarioRegistrado));
+        when(solicitudRepository.guardar(any(Solicitud.class))).thenReturn(Mono.just(solicitudGuardada));
+        when(estadoRepository.buscarPorId(1L)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
+                .expectNextMatches(result ->
+                    result.getEstado().getIdEstado().equals(1L) &&
+                    "PENDIENTE_REVISION".equals(result.getEstado().getNombre()) &&
+                    result.getSolicitud().getIdSolicitud().equals(1L))
+                .verifyComplete();
+    }
+
 
     @Test
     void registrarSolicitudConUsuario_DeberiaFallarCuandoEmailEstaEnUsoConDocumentoDiferente() {
         // Given - Usuario no existe por documento, pero email está en uso con documento diferente
         when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
         when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
-                .thenReturn(Mono.error(new RuntimeException("Usuario no encontrado")));
+                .thenReturn(Mono.empty());
         
         // Usuario existente con mismo email pero documento diferente
         Usuario usuarioExistente = usuarioRegistrado.toBuilder()
@@ -227,4 +299,416 @@ class RegistrarSolicitudUseCaseTest {
         verify(usuarioGateway, never()).registrarUsuario(any());
         verify(solicitudRepository, never()).guardar(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void registrarSolicitudConUsuario_DeberiaPropagarErrorDeBusquedaPorDocumento() {
+        // Given - El servicio de usuarios falla: no debe interpretarse como usuario inexistente
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
+                .thenReturn(Mono.error(new IllegalStateException("Servicio de usuarios no disponible")));
+
+        // When & Then
+        StepVerifier.create(registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
+                .expectErrorMatches(throwable ->
+                    throwable instanceof IllegalStateException &&
+                    throwable.getMessage().equals("Servicio de usuarios no disponible"))
+                .verify();
+
+        verify(usuarioGateway, never()).registrarUsuario(any());
+        verify(solicitudRepository, never()).guardar(any());
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_DeberiaPropagarErrorDeBusquedaPorEmail() {
+        // Given - El usuario no existe por documento y la búsqueda por email falla
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678")).thenReturn(Mono.empty());
+        when(usuarioGateway.buscarUsuarioPorEmail("juan@example.com"))
+                .thenReturn(Mono.error(new IllegalStateException("Servicio de usuarios no disponible")));
+
+        // When & Then
+        StepVerifier.create(registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(usuarioGateway, never()).registrarUsuario(any());
+        verify(solicitudRepository, never()).guardar(any());
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_ValidaTipoYBuscaDocumentoYEmailEnParalelo() {
+        // Given - Cada llamada tarda 100 ms; el usuario no existe y se registra
+        Map<String, Long> inicios = new ConcurrentHashMap<>();
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(lento("tipo", inicios, Mono.just(true)));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
+                .thenReturn(lento("documento", inicios, Mono.empty()));
+        when(usuarioGateway.buscarUsuarioPorEmail("juan@example.com"))
+                .thenReturn(lento("email", inicios, Mono.empty()));
+        when(usuarioGateway.registrarUsuario(usuario)).thenReturn(lento("registro", inicios, Mono.just(usuarioRegistrado)));
+        when(solicitudRepository.guardar(any(Solicitud.class))).thenReturn(lento("guardar", inicios, Mono.just(solicitudGuardada)));
+        when(estadoRepository.buscarPorId(1L)).thenReturn(Mono.just(estadoPendiente));
+
+        // When & Then - tipo, documento y email se solapan: 3 pasos de 100 ms en lugar de 5
+        StepVerifier.withVirtualTime(() -> registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(299))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNextMatches(result -> result.getUsuario().getIdUsuario().equals(1L))
+                .verifyComplete();
+
+        assertEquals(0L, inicios.get("tipo"));
+        assertEquals(0L, inicios.get("documento"));
+        assertEquals(0L, inicios.get("email"));
+        assertEquals(100L, inicios.get("registro"));
+        assertEquals(200L, inicios.get("guardar"));
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_NoEsperaEmailCuandoUsuarioExistePorDocumento() {
+        // Given - El usuario existe; la validación especulativa del email es más lenta
+        Map<String, Long> inicios = new ConcurrentHashMap<>();
+        AtomicBoolean emailCancelado = new AtomicBoolean();
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(lento("tipo", inicios, Mono.just(true)));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
+                .thenReturn(lento("documento", inicios, Mono.just(usuarioRegistrado)));
+        when(usuarioGateway.buscarUsuarioPorEmail("juan@example.com"))
+                .thenReturn(Mono.defer(() -> Mono.delay(Duration.ofSeconds(5))).then(Mono.just(usuarioRegistrado))
+                        .doOnCancel(() -> emailCancelado.set(true)));
+        when(solicitudRepository.guardar(any(Solicitud.class))).thenReturn(lento("guardar", inicios, Mono.just(solicitudGuardada)));
+        when(estadoRepository.buscarPorId(1L)).thenReturn(Mono.just(estadoPendiente));
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(200))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        assertTrue(emailCancelado.get());
+        assertEquals(100L, inicios.get("guardar"));
+        verify(usuarioGateway, never()).registrarUsuario(any());
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_CancelaRamasPendientesCuandoTipoNoExiste() {
+        // Given - El tipo falla a los 50 ms mientras las búsquedas siguen en curso
+        AtomicBoolean documentoCancelado = new AtomicBoolean();
+        AtomicBoolean emailCancelado = new AtomicBoolean();
+        when(tipoPrestamoRepository.existePorId(1L))
+                .thenReturn(Mono.defer(() -> Mono.delay(Duration.ofMillis(50))).thenReturn(false));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
+                .thenReturn(Mono.defer(() -> Mono.delay(Duration.ofMillis(100))).then(Mono.just(usuarioRegistrado))
+                        .doOnCancel(() -> documentoCancelado.set(true)));
+        when(usuarioGateway.buscarUsuarioPorEmail("juan@example.com"))
+                .thenReturn(Mono.defer(() -> Mono.delay(Duration.ofMillis(100))).then(Mono.just(usuarioRegistrado))
+                        .doOnCancel(() -> emailCancelado.set(true)));
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(50))
+                .expectErrorMatches(throwable ->
+                    throwable instanceof IllegalArgumentException &&
+                    throwable.getMessage().contains("El tipo de préstamo con ID 1 no existe"))
+                .verify();
+
+        assertTrue(documentoCancelado.get());
+        assertTrue(emailCancelado.get());
+        verify(usuarioGateway, never()).registrarUsuario(any());
+        verify(solicitudRepository, never()).guardar(any());
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_NoRegistraUsuarioAntesDeValidarTipo() {
+        // Given - Documento y email responden antes que la validación del tipo, que falla
+        when(tipoPrestamoRepository.existePorId(1L))
+                .thenReturn(Mono.defer(() -> Mono.delay(Duration.ofMillis(100))).thenReturn(false));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
+                .thenReturn(Mono.empty());
+        when(usuarioGateway.buscarUsuarioPorEmail("juan@example.com"))
+                .thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.withVirtualTime(() -> registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
+                .expectSubscription()
+                .thenAwait(Duration.ofMillis(100))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(usuarioGateway, never()).registrarUsuario(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void registrarLote_DeberiaGuardarLasSolicitudesValidasEnUnSoloGrupo() {
+        // Given
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678")).thenReturn(Mono.just(usuarioRegistrado));
+        when(solicitudRepository.guardarTodos(anyList())).thenAnswer(invocation -> Flux.fromIterable(
+                invocation.<List<Solicitud>>getArgument(0))
+                .index((i, s) -> s.toBuilder().idSolicitud(100 + i).build()));
+        when(estadoRepository.buscarPorId(1L)).thenReturn(Mono.just(estadoPendiente));
+
+        Flux<RegistrarSolicitudUseCase.ElementoLote> elementos = Flux.range(1, 3)
+                .map(linea -> new RegistrarSolicitudUseCase.ElementoLote(linea, usuario, solicitud));
+
+        // When & Then
+        StepVerifier.create(registrarSolicitudUseCase.registrarLote(elementos, 2, 10).collectList())
+                .assertNext(resultados -> {
+                    assertEquals(3, resultados.size());
+                    assertTrue(resultados.stream().allMatch(RegistrarSolicitudUseCase.ResultadoLote::isExitoso));
+                    assertTrue(resultados.stream().allMatch(r -> r.getResultado().getUsuario().getIdUsuario().equals(1L)
+                            && r.getResultado().getEstado() == estadoPendiente));
+                })
+                .verifyComplete();
+
+        ArgumentCaptor<List<Solicitud>> grupo = ArgumentCaptor.forClass(List.class);
+        verify(solicitudRepository).guardarTodos(grupo.capture());
+        assertEquals(3, grupo.getValue().size());
+        assertTrue(grupo.getValue().stream().allMatch(s -> "juan@example.com".equals(s.getEmail()) && s.getIdEstado().equals(1L)));
+        verify(solicitudRepository, never()).guardar(any(Solicitud.class));
+    }
+
+    @Test
+    void registrarLote_DeberiaReportarElementoInvalidoSinDetenerElLote() {
+        // Given
+        Solicitud solicitudTipoInvalido = solicitud.toBuilder().idTipoPrestamo(99L).build();
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
+        when(tipoPrestamoRepository.existePorId(99L)).thenReturn(Mono.just(false));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678")).thenReturn(Mono.just(usuarioRegistrado));
+        when(solicitudRepository.guardarTodos(anyList())).thenReturn(Flux.just(solicitudGuardada));
+        when(estadoRepository.buscarPorId(1L)).thenReturn(Mono.just(estadoPendiente));
+
+        Flux<RegistrarSolicitudUseCase.ElementoLote> elementos = Flux.just(
+                new RegistrarSolicitudUseCase.ElementoLote(1, usuario, solicitudTipoInvalido),
+                new RegistrarSolicitudUseCase.ElementoLote(2, usuario, solicitud));
+
+        // When & Then
+        StepVerifier.create(registrarSolicitudUseCase.registrarLote(elementos, 1, 10))
+                .assertNext(resultado -> {
+                    assertEquals(1, resultado.getLinea());
+                    assertTrue(resultado.getError() instanceof IllegalArgumentException);
+                })
+                .assertNext(resultado -> {
+                    assertEquals(2, resultado.getLinea());
+                    assertEquals(1L, resultado.getResultado().getSolicitud().getIdSolicitud());
+                })
+                .verifyComplete();
+
+        verify(solicitudRepository).guardarTodos(argThat(grupo -> grupo.size() == 1));
+    }
+
+    @Test
+    void registrarLote_DeberiaMarcarTodoElGrupoCuandoFallaElInsert() {
+        // Given
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678")).thenReturn(Mono.just(usuarioRegistrado));
+        when(solicitudRepository.guardarTodos(anyList())).thenReturn(Flux.error(new IllegalStateException("conexión cerrada")));
+
+        Flux<RegistrarSolicitudUseCase.ElementoLote> elementos = Flux.range(1, 4)
+                .map(linea -> new RegistrarSolicitudUseCase.ElementoLote(linea, usuario, solicitud));
+
+        // When & Then
+        StepVerifier.create(registrarSolicitudUseCase.registrarLote(elementos, 4, 2).collectList())
+                .assertNext(resultados -> {
+                    assertEquals(4, resultados.size());
+                    assertTrue(resultados.stream().allMatch(r -> r.getError() instanceof IllegalStateException
+                            && r.getResultado() == null));
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void registrarLote_DeberiaFallarElGrupoUnaVezCuandoVuelvenMenosFilas() {
+        // Given - el insert devuelve una fila menos de las enviadas
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678")).thenReturn(Mono.just(usuarioRegistrado));
+        when(solicitudRepository.guardarTodos(anyList())).thenReturn(Flux.just(solicitudGuardada, solicitudGuardada));
+
+        Flux<RegistrarSolicitudUseCase.ElementoLote> elementos = Flux.range(1, 3)
+                .map(linea -> new RegistrarSolicitudUseCase.ElementoLote(linea, usuario, solicitud));
+
+        // When & Then - cada línea aparece una sola vez y ninguna como exitosa
+        StepVerifier.create(registrarSolicitudUseCase.registrarLote(elementos, 3, 10).collectList())
+                .assertNext(resultados -> {
+                    assertEquals(List.of(1L, 2L, 3L), resultados.stream()
+                            .map(RegistrarSolicitudUseCase.ResultadoLote::getLinea).sorted().toList());
+                    assertTrue(resultados.stream().allMatch(r -> r.getError() instanceof IllegalStateException
+                            && r.getResultado() == null));
+                })
+                .verifyComplete();
+
+        verify(estadoRepository, never()).buscarPorId(anyLong());
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_DeberiaPublicarEtapasConUsuarioExistente() {
+        // Given
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678")).thenReturn(Mono.just(usuarioRegistrado));
+        when(usuarioGateway.buscarUsuarioPorEmail("juan@example.com")).thenReturn(Mono.empty());
+        when(solicitudRepository.guardar(any(Solicitud.class))).thenReturn(Mono.just(solicitudGuardada));
+        when(estadoRepository.buscarPorId(1L)).thenReturn(Mono.just(estadoPendiente));
+
+        // When
+        StepVerifier.create(registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Then - la validación especulativa del email no se usó y no se publica
+        for (EtapaRegistro etapa : List.of(EtapaRegistro.VALIDAR_TIPO_PRESTAMO, EtapaRegistro.BUSCAR_USUARIO,
+                EtapaRegistro.GUARDAR_SOLICITUD, EtapaRegistro.CONSULTAR_ESTADO, EtapaRegistro.TOTAL)) {
+            verify(metricasGateway).registrar(eq(etapa), eq(ResultadoRegistro.USUARIO_EXISTENTE), longThat(d -> d >= 0));
+        }
+        verifyNoMoreInteractions(metricasGateway);
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_DeberiaPublicarEtapasConUsuarioNuevo() {
+        // Given
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678")).thenReturn(Mono.empty());
+        when(usuarioGateway.buscarUsuarioPorEmail("juan@example.com")).thenReturn(Mono.empty());
+        when(usuarioGateway.registrarUsuario(usuario)).thenReturn(Mono.just(usuarioRegistrado));
+        when(solicitudRepository.guardar(any(Solicitud.class))).thenReturn(Mono.just(solicitudGuardada));
+        when(estadoRepository.buscarPorId(1L)).thenReturn(Mono.just(estadoPendiente));
+
+        // When
+        StepVerifier.create(registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Then
+        for (EtapaRegistro etapa : EtapaRegistro.values()) {
+            verify(metricasGateway).registrar(eq(etapa), eq(ResultadoRegistro.USUARIO_NUEVO), anyLong());
+        }
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_DeberiaPublicarDesenlaceDeLosFallos() {
+        // Given - el tipo 99 no existe y el email de otro documento ya está en uso
+        Solicitud solicitudTipoInvalido = solicitud.toBuilder().idTipoPrestamo(99L).build();
+        Usuario otroDocumento = usuarioRegistrado.toBuilder().numeroDocumento("87654321").build();
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
+        when(tipoPrestamoRepository.existePorId(99L)).thenReturn(Mono.just(false));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678")).thenReturn(Mono.empty());
+        when(usuarioGateway.buscarUsuarioPorEmail("juan@example.com")).thenReturn(Mono.just(otroDocumento));
+
+        // When
+        StepVerifier.create(registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitudTipoInvalido))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
+                .expectError(EmailEnUsoException.class)
+                .verify();
+
+        // Then
+        verify(metricasGateway).registrar(eq(EtapaRegistro.TOTAL), eq(ResultadoRegistro.TIPO_INEXISTENTE), anyLong());
+        verify(metricasGateway).registrar(eq(EtapaRegistro.VALIDAR_EMAIL), eq(ResultadoRegistro.EMAIL_EN_USO), anyLong());
+        verify(metricasGateway).registrar(eq(EtapaRegistro.TOTAL), eq(ResultadoRegistro.EMAIL_EN_USO), anyLong());
+        verify(metricasGateway, never()).registrar(eq(EtapaRegistro.REGISTRAR_USUARIO), any(), anyLong());
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_OtroIllegalArgumentExceptionSePublicaComoError() {
+        // Given
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(true));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
+                .thenReturn(Mono.just(usuarioRegistrado));
+        when(solicitudRepository.guardar(any(Solicitud.class)))
+                .thenReturn(Mono.error(new IllegalArgumentException("monto fuera de rango")));
+
+        // When & Then
+        StepVerifier.create(registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(metricasGateway).registrar(eq(EtapaRegistro.TOTAL), eq(ResultadoRegistro.ERROR), anyLong());
+        verify(metricasGateway, never()).registrar(any(), eq(ResultadoRegistro.TIPO_INEXISTENTE), anyLong());
+    }
+
+    @Test
+    void registrarSolicitud_OptimistaNoConsultaElTipoYPropagaElRechazoDelRepositorio() {
+        // Given - la llave foránea rechaza el tipo al guardar
+        when(solicitudRepository.guardar(any(Solicitud.class)))
+                .thenReturn(Mono.error(new TipoPrestamoInexistenteException(1L)));
+
+        // When & Then
+        StepVerifier.create(conValidacion(ValidacionTipoPrestamo.OPTIMISTA).registrarSolicitud(solicitud))
+                .expectErrorMatches(throwable ->
+                    throwable instanceof IllegalArgumentException &&
+                    throwable.getMessage().equals("El tipo de préstamo con ID 1 no existe"))
+                .verify();
+
+        verify(tipoPrestamoRepository, never()).existePorId(anyLong());
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_OptimistaNoConsultaElTipoConUsuarioExistente() {
+        // Given
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
+                .thenReturn(Mono.just(usuarioRegistrado));
+        when(solicitudRepository.guardar(any(Solicitud.class))).thenReturn(Mono.just(solicitudGuardada));
+        when(estadoRepository.buscarPorId(1L)).thenReturn(Mono.just(estadoPendiente));
+
+        // When & Then
+        StepVerifier.create(conValidacion(ValidacionTipoPrestamo.OPTIMISTA)
+                        .registrarSolicitudConUsuario(usuario, solicitud))
+                .expectNextMatches(result -> result.getSolicitud().getIdSolicitud().equals(1L))
+                .verifyComplete();
+
+        verify(tipoPrestamoRepository, never()).existePorId(anyLong());
+        verify(metricasGateway, never()).registrar(eq(EtapaRegistro.VALIDAR_TIPO_PRESTAMO), any(), anyLong());
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_OptimistaPublicaTipoInexistenteCuandoLoRechazaElRepositorio() {
+        // Given
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
+                .thenReturn(Mono.just(usuarioRegistrado));
+        when(solicitudRepository.guardar(any(Solicitud.class)))
+                .thenReturn(Mono.error(new TipoPrestamoInexistenteException(1L)));
+
+        // When & Then
+        StepVerifier.create(conValidacion(ValidacionTipoPrestamo.OPTIMISTA)
+                        .registrarSolicitudConUsuario(usuario, solicitud))
+                .expectError(TipoPrestamoInexistenteException.class)
+                .verify();
+
+        verify(metricasGateway).registrar(eq(EtapaRegistro.TOTAL), eq(ResultadoRegistro.TIPO_INEXISTENTE), anyLong());
+    }
+
+    @Test
+    void registrarSolicitudConUsuario_OptimistaValidaElTipoAntesDeRegistrarUsuarioNuevo() {
+        // Given
+        when(tipoPrestamoRepository.existePorId(1L)).thenReturn(Mono.just(false));
+        when(usuarioGateway.buscarUsuarioPorDocumento("CC", "12345678"))
+                .thenReturn(Mono.empty());
+        when(usuarioGateway.buscarUsuarioPorEmail("juan@example.com"))
+                .thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(conValidacion(ValidacionTipoPrestamo.OPTIMISTA)
+                        .registrarSolicitudConUsuario(usuario, solicitud))
+                .expectError(TipoPrestamoInexistenteException.class)
+                .verify();
+
+        verify(usuarioGateway, never()).registrarUsuario(any());
+        verify(solicitudRepository, never()).guardar(any());
+    }
+
+    private RegistrarSolicitudUseCase conValidacion(ValidacionTipoPrestamo validacion) {
+        return new RegistrarSolicitudUseCase(solicitudRepository, tipoPrestamoRepository, usuarioGateway,
+                estadoRepository, metricasGateway, validacion);
+    }
+
+    /**
+     * Respuesta que tarda 100 ms en tiempo virtual y registra el instante en que se suscribió.
+     */
+    private static <T> Mono<T> lento(String paso, Map<String, Long> inicios, Mono<T> respuesta) {
+        return Mono.defer(() -> {
+            inicios.put(paso, VirtualTimeScheduler.get().now(TimeUnit.MILLISECONDS));
+            return Mono.delay(Duration.ofMillis(100)).then(respuesta);
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package rodriguez.ciro.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import rodriguez.ciro.model.metrica.EtapaRegistro;
+import rodriguez.ciro.model.metrica.ResultadoRegistro;
+import rodriguez.ciro.model.metrica.gateways.MetricasRegistroGateway;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publica la duración de cada etapa del registro como {@code solicitudes.registro.etapa}, con las etiquetas
+ * {@code etapa} y {@code resultado}.
+ * <p>
+ * Los timers se registran al arrancar, uno por combinación, y se buscan por ordinal: registrar una medición
+ * no construye etiquetas ni consulta el {@link MeterRegistry}.
+ */
+@Component
+public class MetricasRegistroAdapter implements MetricasRegistroGateway {
+
+    public static final String METRICA = "solicitudes.registro.etapa";
+
+    static final Duration[] SLO = {
+            Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+            Duration.ofMillis(2500)
+    };
+
+    private final Timer[][] timers;
+
+    public MetricasRegistroAdapter(MeterRegistry meterRegistry) {
+        EtapaRegistro[] etapas = EtapaRegistro.values();
+        ResultadoRegistro[] resultados = ResultadoRegistro.values();
+        this.timers = new Timer[etapas.length][resultados.length];
+        for (EtapaRegistro etapa : etapas) {
+            for (ResultadoRegistro resultado : resultados) {
+                timers[etapa.ordinal()][resultado.ordinal()] = Timer.builder(METRICA)
+                        .description("Duración de cada etapa del registro de una solicitud con usuario")
+                        .tag("etapa", etiqueta(etapa))
+                        .tag("resultado", etiqueta(resultado))
+                        .publishPercentileHistogram()
+                        .serviceLevelObjectives(SLO)
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    @Override
+    public void registrar(EtapaRegistro etapa, ResultadoRegistro resultado, long duracionNanos) {
+        timers[etapa.ordinal()][resultado.ordinal()].record(duracionNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String etiqueta(Enum<?> valor) {
+        return valor.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,58 @@
+package rodriguez.ciro.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import rodriguez.ciro.model.metrica.EtapaRegistro;
+import rodriguez.ciro.model.metrica.ResultadoRegistro;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricasRegistroAdapterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MetricasRegistroAdapter adapter = new MetricasRegistroAdapter(registry);
+
+    @Test
+    void deberiaRegistrarTodasLasCombinacionesAlArrancar() {
+        assertEquals(EtapaRegistro.values().length * ResultadoRegistro.values().length,
+                registry.find(MetricasRegistroAdapter.METRICA).timers().size());
+    }
+
+    @Test
+    void deberiaRegistrarLaDuracionEnElTimerDeLaEtapaYResultado() {
+        adapter.registrar(EtapaRegistro.BUSCAR_USUARIO, ResultadoRegistro.USUARIO_NUEVO, TimeUnit.MILLISECONDS.toNanos(7));
+
+        Timer timer = registry.get(MetricasRegistroAdapter.METRICA)
+                .tag("etapa", "buscar_usuario")
+                .tag("resultado", "usuario_nuevo")
+                .timer();
+        assertEquals(1, timer.count());
+        assertEquals(7, timer.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(0, registry.get(MetricasRegistroAdapter.METRICA)
+                .tag("etapa", "buscar_usuario")
+                .tag("resultado", "usuario_existente")
+                .timer().count());
+    }
+
+    @Test
+    void deberiaPublicarLosBucketsDeSlo() {
+        adapter.registrar(EtapaRegistro.TOTAL, ResultadoRegistro.USUARIO_EXISTENTE, TimeUnit.MILLISECONDS.toNanos(30));
+
+        CountAtBucket[] buckets = registry.get(MetricasRegistroAdapter.METRICA)
+                .tag("etapa", "total")
+                .tag("resultado", "usuario_existente")
+                .timer().takeSnapshot().histogramCounts();
+        CountAtBucket bucket50ms = Arrays.stream(buckets)
+                .filter(b -> b.bucket(TimeUnit.MILLISECONDS) == 50)
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, bucket50ms.count());
+        assertTrue(Arrays.stream(buckets).anyMatch(b -> b.bucket(TimeUnit.MILLISECONDS) == 25 && b.count() == 0));
+    }
+}
@@ -0,0 +1,20 @@
+package rodriguez.ciro.r2dbc.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * {@code refreshInterval} es cada cuánto se recarga el resumen del día en curso que se sirve desde memoria.
+ */
+@ConfigurationProperties(prefix = "adapters.r2dbc.estadisticas")
+public record EstadisticasProperties(Duration refreshInterval) {
+
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofSeconds(10);
+
+    public EstadisticasProperties {
+        if (refreshInterval == null || refreshInterval.isZero() || refreshInterval.isNegative()) {
+            refreshInterval = DEFAULT_REFRESH_INTERVAL;
+        }
+    }
+}
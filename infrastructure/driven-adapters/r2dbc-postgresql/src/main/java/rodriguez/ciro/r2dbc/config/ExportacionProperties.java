@@ -0,0 +1,18 @@
+package rodriguez.ciro.r2dbc.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * {@code fetchSize} son las filas que el driver pide por vez al cursor de la exportación.
+ */
+@ConfigurationProperties(prefix = "adapters.r2dbc.exportacion")
+public record ExportacionProperties(Integer fetchSize) {
+
+    public static final int DEFAULT_FETCH_SIZE = 1000;
+
+    public ExportacionProperties {
+        if (fetchSize == null || fetchSize < 1) {
+            fetchSize = DEFAULT_FETCH_SIZE;
+        }
+    }
+}
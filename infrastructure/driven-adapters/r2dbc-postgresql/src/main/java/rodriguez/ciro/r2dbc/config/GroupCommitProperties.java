@@ -0,0 +1,24 @@
+package rodriguez.ciro.r2dbc.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.r2dbc.group-commit")
+public record GroupCommitProperties(
+        boolean enabled,
+        Integer maxBatchSize,
+        Duration window) {
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 64;
+    public static final Duration DEFAULT_WINDOW = Duration.ofMillis(2);
+
+    public GroupCommitProperties {
+        if (maxBatchSize == null || maxBatchSize < 1) {
+            maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        }
+        if (window == null) {
+            window = DEFAULT_WINDOW;
+        }
+    }
+}
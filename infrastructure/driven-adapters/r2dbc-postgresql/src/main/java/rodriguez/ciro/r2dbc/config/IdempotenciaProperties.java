@@ -0,0 +1,25 @@
+package rodriguez.ciro.r2dbc.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cada {@code purgeInterval} se borran las claves de idempotencia vencidas, en lotes de {@code purgeBatchSize}
+ * filas para no retener bloqueos sobre muchas filas en una sola sentencia.
+ */
+@ConfigurationProperties(prefix = "adapters.r2dbc.idempotencia")
+public record IdempotenciaProperties(Duration purgeInterval, Integer purgeBatchSize) {
+
+    public static final Duration DEFAULT_PURGE_INTERVAL = Duration.ofMinutes(5);
+    public static final int DEFAULT_PURGE_BATCH_SIZE = 1000;
+
+    public IdempotenciaProperties {
+        if (purgeInterval == null || purgeInterval.isZero() || purgeInterval.isNegative()) {
+            purgeInterval = DEFAULT_PURGE_INTERVAL;
+        }
+        if (purgeBatchSize == null || purgeBatchSize < 1) {
+            purgeBatchSize = DEFAULT_PURGE_BATCH_SIZE;
+        }
+    }
+}
@@ -1,23 +1,23 @@
 package rodriguez.ciro.r2dbc.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import io.r2dbc.pool.ConnectionPool;
 import io.r2dbc.pool.ConnectionPoolConfiguration;
 import io.r2dbc.postgresql.PostgresqlConnectionConfiguration;
 import io.r2dbc.postgresql.PostgresqlConnectionFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-
-import java.time.Duration;
+import rodriguez.ciro.r2dbc.helper.AdjustableAllocationStrategy;
+import rodriguez.ciro.r2dbc.helper.ConnectionPoolMetricsRecorder;
+import rodriguez.ciro.r2dbc.helper.InstrumentedConnectionPool;
 
 @Configuration
 public class PostgreSQLConnectionPool {
-    public static final int INITIAL_SIZE = 12;
-    public static final int MAX_SIZE = 15;
-    public static final int MAX_IDLE_TIME = 30;
+    public static final String POOL_NAME = "api-postgres-connection-pool";
     public static final int DEFAULT_PORT = 5432;
 
 	@Bean
-	public ConnectionPool getConnectionConfig(PostgresqlConnectionProperties properties) {
+	public ConnectionPool getConnectionConfig(PostgresqlConnectionProperties properties, MeterRegistry meterRegistry) {
 		PostgresqlConnectionConfiguration dbConfiguration = PostgresqlConnectionConfiguration.builder()
                 .host(properties.host())
                 .port(properties.port())
@@ -25,17 +25,35 @@ public class PostgreSQLConnectionPool {
                 .schema(properties.schema())
                 .username(properties.username())
                 .password(properties.password())
+                .preparedStatementCacheQueries(properties.preparedStatementCacheQueries())
+                .fetchSize(properties.fetchSize())
                 .build();
 
-        ConnectionPoolConfiguration poolConfiguration = ConnectionPoolConfiguration.builder()
+        PostgresqlConnectionProperties.Pool pool = properties.pool();
+        ConnectionPoolMetricsRecorder recorder = new ConnectionPoolMetricsRecorder(POOL_NAME, meterRegistry);
+        ConnectionPoolConfiguration.Builder poolConfiguration = ConnectionPoolConfiguration.builder()
                 .connectionFactory(new PostgresqlConnectionFactory(dbConfiguration))
-                .name("api-postgres-connection-pool")
-                .initialSize(INITIAL_SIZE)
-                .maxSize(MAX_SIZE)
-                .maxIdleTime(Duration.ofMinutes(MAX_IDLE_TIME))
-                .validationQuery("SELECT 1")
-                .build();
+                .name(POOL_NAME)
+                .initialSize(pool.initialSize())
+                .maxSize(pool.maxSize())
+                .maxIdleTime(pool.maxIdleTime())
+                .validationQuery(pool.validationQuery())
+                .metricsRecorder(recorder);
+        if (pool.maxAcquireTime() != null) {
+            poolConfiguration.maxAcquireTime(pool.maxAcquireTime());
+        }
 
-		return new ConnectionPool(poolConfiguration);
+        PostgresqlConnectionProperties.Adaptive adaptive = pool.adaptive();
+        if (!adaptive.enabled()) {
+            return new InstrumentedConnectionPool(poolConfiguration.build(), recorder);
+        }
+        // El máximo inicial es maxSize, acotado a los límites del ajuste
+        int maximoInicial = Math.clamp(pool.maxSize(), adaptive.minSize(), adaptive.maxSize());
+        AdjustableAllocationStrategy strategy = new AdjustableAllocationStrategy(
+                Math.min(pool.initialSize(), maximoInicial), maximoInicial);
+        poolConfiguration.customizer(builder -> builder.allocationStrategy(strategy));
+        return new InstrumentedConnectionPool(poolConfiguration.build(), recorder, strategy,
+                new InstrumentedConnectionPool.AdaptiveLimits(adaptive.minSize(), adaptive.maxSize(),
+                        adaptive.interval()));
 	}
-}
\ No newline at end of file
+}
@@ -2,6 +2,12 @@ package rodriguez.ciro.r2dbc.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+
+/**
+ * {@code preparedStatementCacheQueries} es el tamaño de la cache de sentencias preparadas del driver por conexión
+ * (-1 sin límite, 0 desactivada) y {@code fetchSize} las filas por lote al leer consultas (0 trae todo de una vez).
+ */
 @ConfigurationProperties(prefix = "adapters.r2dbc")
 public record PostgresqlConnectionProperties(
         String host,
@@ -9,5 +15,85 @@ public record PostgresqlConnectionProperties(
         String database,
         String schema,
         String username,
-        String password) {
+        String password,
+        Integer preparedStatementCacheQueries,
+        Integer fetchSize,
+        Pool pool) {
+
+    public static final int DEFAULT_PREPARED_STATEMENT_CACHE_QUERIES = -1;
+    public static final int DEFAULT_FETCH_SIZE = 0;
+
+    public PostgresqlConnectionProperties {
+        if (preparedStatementCacheQueries == null || preparedStatementCacheQueries < -1) {
+            preparedStatementCacheQueries = DEFAULT_PREPARED_STATEMENT_CACHE_QUERIES;
+        }
+        if (fetchSize == null || fetchSize < 0) {
+            fetchSize = DEFAULT_FETCH_SIZE;
+        }
+        if (pool == null) {
+            pool = new Pool(null, null, null, null, null, null);
+        }
+    }
+
+    /**
+     * Tamaño y tiempos del pool de conexiones. {@code maxAcquireTime} nulo espera sin límite.
+     */
+    public record Pool(
+            Integer initialSize,
+            Integer maxSize,
+            Duration maxIdleTime,
+            Duration maxAcquireTime,
+            String validationQuery,
+            Adaptive adaptive) {
+
+        public static final int DEFAULT_INITIAL_SIZE = 12;
+        public static final int DEFAULT_MAX_SIZE = 15;
+        public static final Duration DEFAULT_MAX_IDLE_TIME = Duration.ofMinutes(30);
+        public static final String DEFAULT_VALIDATION_QUERY = "SELECT 1";
+
+        public Pool {
+            if (initialSize == null || initialSize < 0) {
+                initialSize = DEFAULT_INITIAL_SIZE;
+            }
+            if (maxSize == null || maxSize < 1) {
+                maxSize = DEFAULT_MAX_SIZE;
+            }
+            if (maxIdleTime == null) {
+                maxIdleTime = DEFAULT_MAX_IDLE_TIME;
+            }
+            if (validationQuery == null) {
+                validationQuery = DEFAULT_VALIDATION_QUERY;
+            }
+            if (adaptive == null) {
+                adaptive = new Adaptive(false, null, null, null);
+            }
+        }
+    }
+
+    /**
+     * Ajuste automático del tamaño máximo del pool entre {@code minSize} y {@code maxSize}, revisado cada
+     * {@code interval}.
+     */
+    public record Adaptive(
+            boolean enabled,
+            Integer minSize,
+            Integer maxSize,
+            Duration interval) {
+
+        public static final int DEFAULT_MIN_SIZE = 4;
+        public static final int DEFAULT_MAX_SIZE = 50;
+        public static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(5);
+
+        public Adaptive {
+            if (minSize == null || minSize < 1) {
+                minSize = DEFAULT_MIN_SIZE;
+            }
+            if (maxSize == null || maxSize < minSize) {
+                maxSize = Math.max(DEFAULT_MAX_SIZE, minSize);
+            }
+            if (interval == null) {
+                interval = DEFAULT_INTERVAL;
+            }
+        }
+    }
 }
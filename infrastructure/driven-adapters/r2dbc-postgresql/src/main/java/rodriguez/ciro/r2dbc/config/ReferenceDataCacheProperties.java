@@ -0,0 +1,23 @@
+package rodriguez.ciro.r2dbc.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import rodriguez.ciro.r2dbc.helper.ReferenceDataCache;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "adapters.r2dbc.cache")
+public record ReferenceDataCacheProperties(
+        Duration refreshInterval,
+        Duration missRefreshInterval) {
+
+    public static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofMinutes(5);
+
+    public ReferenceDataCacheProperties {
+        if (refreshInterval == null) {
+            refreshInterval = DEFAULT_REFRESH_INTERVAL;
+        }
+        if (missRefreshInterval == null || missRefreshInterval.isNegative()) {
+            missRefreshInterval = ReferenceDataCache.DEFAULT_MISS_REFRESH_INTERVAL;
+        }
+    }
+}
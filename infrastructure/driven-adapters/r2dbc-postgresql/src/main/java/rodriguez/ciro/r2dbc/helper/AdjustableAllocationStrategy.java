@@ -0,0 +1,90 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import reactor.pool.AllocationStrategy;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Estrategia de asignación de reactor-pool cuyo máximo se puede cambiar en caliente.
+ * <p>
+ * Sigue las reglas de {@code AllocationStrategies.allocatingMax}: concede hasta completar {@code minimo} aunque
+ * se pidan menos permisos y nunca supera el máximo vigente. Reducir el máximo no cierra conexiones: solo deja
+ * de conceder permisos hasta que las conexiones sobrantes se devuelven o expiran.
+ */
+public class AdjustableAllocationStrategy implements AllocationStrategy {
+
+    private final int minimo;
+    private final AtomicInteger otorgados = new AtomicInteger();
+    private volatile int maximo;
+
+    public AdjustableAllocationStrategy(int minimo, int maximo) {
+        if (minimo < 0 || maximo < 1 || minimo > maximo) {
+            throw new IllegalArgumentException("Límites inválidos: mínimo " + minimo + ", máximo " + maximo);
+        }
+        this.minimo = minimo;
+        this.maximo = maximo;
+    }
+
+    /**
+     * El nuevo máximo no puede quedar por debajo del mínimo.
+     */
+    public void ajustarMaximo(int nuevoMaximo) {
+        this.maximo = Math.max(Math.max(minimo, 1), nuevoMaximo);
+    }
+
+    @Override
+    public int estimatePermitCount() {
+        return Math.max(0, maximo - otorgados.get());
+    }
+
+    @Override
+    public int getPermits(int deseados) {
+        if (deseados < 0) {
+            return 0;
+        }
+        for (;;) {
+            int actuales = otorgados.get();
+            int disponibles = Math.max(0, maximo - actuales);
+            int concedidos;
+            if (deseados >= disponibles) {
+                concedidos = disponibles;
+            } else if (actuales < minimo) {
+                concedidos = Math.min(disponibles, Math.max(deseados, minimo - actuales));
+            } else {
+                concedidos = deseados;
+            }
+            if (otorgados.compareAndSet(actuales, actuales + concedidos)) {
+                return concedidos;
+            }
+        }
+    }
+
+    @Override
+    public int permitGranted() {
+        return otorgados.get();
+    }
+
+    @Override
+    public int permitMinimum() {
+        return minimo;
+    }
+
+    @Override
+    public int permitMaximum() {
+        return maximo;
+    }
+
+    @Override
+    public void returnPermits(int devueltos) {
+        for (;;) {
+            int actuales = otorgados.get();
+            if (devueltos > actuales) {
+                throw new IllegalArgumentException("Se devolvieron " + devueltos + " permisos y solo había "
+                        + actuales + " concedidos");
+            }
+            if (otorgados.compareAndSet(actuales, actuales - devueltos)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.pool.PoolMetricsRecorder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Timers del pool de conexiones, etiquetados con {@code name}:
+ * <ul>
+ *     <li>{@code r2dbc.pool.acquire}: desde que se pide una conexión hasta recibirla validada.</li>
+ *     <li>{@code r2dbc.pool.acquire.pending}: espera en cola cuando no había conexión libre ni permiso para abrir
+ *     otra. reactor-pool la reporta en milisegundos.</li>
+ *     <li>{@code r2dbc.pool.validation}: adquisiciones que encontraron una conexión libre y nadie en cola, cuyo
+ *     tiempo es casi todo la consulta de validación; sirve como latencia de ida y vuelta a la base.</li>
+ *     <li>{@code r2dbc.pool.allocation}: apertura de conexiones nuevas, con {@code resultado}.</li>
+ * </ul>
+ * Los gauges (adquiridas, libres, en cola, máximo) los publica el binder de r2dbc-pool de Spring Boot Actuator.
+ * <p>
+ * Además acumula, por ventana, lo que necesita {@link PoolSizeController}.
+ */
+public class ConnectionPoolMetricsRecorder implements PoolMetricsRecorder {
+
+    private static final Duration[] SLO = {
+            Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofSeconds(1)
+    };
+
+    private final Timer adquisicion;
+    private final Timer esperaEnCola;
+    private final Timer validacion;
+    private final Timer aperturaExitosa;
+    private final Timer aperturaFallida;
+
+    private final LongAdder esperas = new LongAdder();
+    private final LongAdder esperaMillis = new LongAdder();
+    private final LongAdder validaciones = new LongAdder();
+    private final LongAdder validacionNanos = new LongAdder();
+    private final AtomicInteger picoAdquiridas = new AtomicInteger();
+
+    public ConnectionPoolMetricsRecorder(String nombre, MeterRegistry meterRegistry) {
+        this.adquisicion = timer("r2dbc.pool.acquire", "Tiempo hasta obtener una conexión validada",
+                nombre, meterRegistry);
+        this.esperaEnCola = timer("r2dbc.pool.acquire.pending", "Espera en cola por una conexión libre",
+                nombre, meterRegistry);
+        this.validacion = timer("r2dbc.pool.validation", "Adquisiciones sin espera: validación de la conexión",
+                nombre, meterRegistry);
+        this.aperturaExitosa = Timer.builder("r2dbc.pool.allocation")
+                .description("Apertura de conexiones nuevas")
+                .tag("name", nombre)
+                .tag("resultado", "exito")
+                .register(meterRegistry);
+        this.aperturaFallida = Timer.builder("r2dbc.pool.allocation")
+                .description("Apertura de conexiones nuevas")
+                .tag("name", nombre)
+                .tag("resultado", "error")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param inmediata    si al pedirla había una conexión libre y nadie en cola
+     * @param adquiridas   conexiones en uso justo después de esta adquisición
+     */
+    public void registrarAdquisicion(long nanos, boolean inmediata, int adquiridas) {
+        adquisicion.record(nanos, TimeUnit.NANOSECONDS);
+        if (inmediata) {
+            validacion.record(nanos, TimeUnit.NANOSECONDS);
+            validaciones.increment();
+            validacionNanos.add(nanos);
+        }
+        picoAdquiridas.accumulateAndGet(adquiridas, Math::max);
+    }
+
+    /**
+     * Devuelve lo acumulado desde la ventana anterior y empieza una nueva con {@code adquiridasActuales}
+     * como pico inicial.
+     */
+    public Ventana tomarVentana(int adquiridasActuales) {
+        long cantidadEsperas = esperas.sumThenReset();
+        long totalEsperaMillis = esperaMillis.sumThenReset();
+        long cantidadValidaciones = validaciones.sumThenReset();
+        long totalValidacionNanos = validacionNanos.sumThenReset();
+        int pico = picoAdquiridas.getAndSet(adquiridasActuales);
+        return new Ventana(cantidadEsperas,
+                cantidadEsperas == 0 ? 0 : TimeUnit.MILLISECONDS.toNanos(totalEsperaMillis) / cantidadEsperas,
+                cantidadValidaciones,
+                cantidadValidaciones == 0 ? 0 : totalValidacionNanos / cantidadValidaciones,
+                Math.max(pico, adquiridasActuales));
+    }
+
+    @Override
+    public void recordPendingSuccessAndLatency(long latencyMs) {
+        esperaEnCola.record(latencyMs, TimeUnit.MILLISECONDS);
+        esperas.increment();
+        esperaMillis.add(latencyMs);
+    }
+
+    @Override
+    public void recordPendingFailureAndLatency(long latencyMs) {
+        recordPendingSuccessAndLatency(latencyMs);
+    }
+
+    @Override
+    public void recordAllocationSuccessAndLatency(long latencyMs) {
+        aperturaExitosa.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordAllocationFailureAndLatency(long latencyMs) {
+        aperturaFallida.record(latencyMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void recordResetLatency(long latencyMs) {
+        // Sin métrica: el reset de r2dbc-pool es el preRelease, que no se usa
+    }
+
+    @Override
+    public void recordDestroyLatency(long latencyMs) {
+        // Sin métrica
+    }
+
+    @Override
+    public void recordRecycled() {
+        // Sin métrica
+    }
+
+    @Override
+    public void recordLifetimeDuration(long millisecondsSinceAllocation) {
+        // Sin métrica
+    }
+
+    @Override
+    public void recordIdleTime(long millisecondsIdle) {
+        // Sin métrica
+    }
+
+    @Override
+    public void recordSlowPath() {
+        // Sin métrica
+    }
+
+    @Override
+    public void recordFastPath() {
+        // Sin métrica
+    }
+
+    private static Timer timer(String nombreMetrica, String descripcion, String nombrePool, MeterRegistry registry) {
+        return Timer.builder(nombreMetrica)
+                .description(descripcion)
+                .tag("name", nombrePool)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(SLO)
+                .register(registry);
+    }
+
+    /**
+     * Resumen de una ventana: esperas en cola, validaciones sin espera y el mayor número de conexiones en uso.
+     */
+    public record Ventana(long esperas, long esperaMediaNanos, long validaciones, long validacionMediaNanos,
+                          int picoAdquiridas) {
+    }
+}
@@ -0,0 +1,122 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import org.springframework.stereotype.Component;
+import rodriguez.ciro.model.solicitud.Solicitud;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contador en proceso de las solicitudes que esta instancia guarda en el día en curso (UTC), por estado y tipo de
+ * préstamo. Cada combinación acumula en {@link LongAdder}, que reparte los incrementos concurrentes en celdas en
+ * lugar de competir por un solo valor, así que registrar una escritura no bloquea ni llega a la base de datos.
+ * <p>
+ * {@link ResumenDiarioCache} lo concilia con la tabla de resumen: cada recarga cierra el periodo en curso antes de
+ * consultar y lo descarta cuando la consulta termina, porque la tabla ya incluye esas solicitudes.
+ */
+@Component
+public class ContadorSolicitudesDelDia {
+
+    private final Clock reloj;
+    private final AtomicReference<Periodo> periodo;
+
+    public ContadorSolicitudesDelDia() {
+        this(Clock.systemUTC());
+    }
+
+    ContadorSolicitudesDelDia(Clock reloj) {
+        this.reloj = reloj;
+        this.periodo = new AtomicReference<>(new Periodo(hoy()));
+    }
+
+    public LocalDate hoy() {
+        return LocalDate.now(reloj);
+    }
+
+    /**
+     * Suma una solicitud ya confirmada en la base de datos.
+     */
+    public void registrar(Solicitud solicitud) {
+        periodoDeHoy().acumular(new Combinacion(solicitud.getIdEstado(), solicitud.getIdTipoPrestamo()), 1,
+                centavos(solicitud.getMonto()));
+    }
+
+    Periodo periodoActual() {
+        return periodoDeHoy();
+    }
+
+    /**
+     * Empieza un periodo vacío y devuelve el anterior, que ya no recibe registros nuevos salvo los que estaban
+     * en curso al cerrarlo.
+     */
+    Periodo cerrarPeriodo() {
+        return periodo.getAndSet(new Periodo(hoy()));
+    }
+
+    /**
+     * Devuelve al periodo en curso lo acumulado en uno cerrado cuya conciliación no terminó.
+     */
+    void reabrir(Periodo cerrado) {
+        Periodo actual = periodoDeHoy();
+        if (actual.dia().equals(cerrado.dia())) {
+            cerrado.acumulados().forEach((combinacion, acumulado) ->
+                    actual.acumular(combinacion, acumulado.cantidad(), acumulado.centavos()));
+        }
+    }
+
+    private Periodo periodoDeHoy() {
+        LocalDate hoy = hoy();
+        Periodo actual = periodo.get();
+        while (!actual.dia().equals(hoy)) {
+            Periodo nuevo = new Periodo(hoy);
+            if (periodo.compareAndSet(actual, nuevo)) {
+                return nuevo;
+            }
+            actual = periodo.get();
+        }
+        return actual;
+    }
+
+    private static long centavos(BigDecimal monto) {
+        return monto == null ? 0 : monto.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    record Combinacion(Long idEstado, Long idTipoPrestamo) {
+    }
+
+    record Periodo(LocalDate dia, Map<Combinacion, Acumulado> acumulados) {
+
+        Periodo(LocalDate dia) {
+            this(dia, new ConcurrentHashMap<>());
+        }
+
+        void acumular(Combinacion combinacion, long cantidad, long centavos) {
+            acumulados.computeIfAbsent(combinacion, c -> new Acumulado()).sumar(cantidad, centavos);
+        }
+    }
+
+    static final class Acumulado {
+
+        private final LongAdder cantidad = new LongAdder();
+        private final LongAdder centavos = new LongAdder();
+
+        void sumar(long cantidad, long centavos) {
+            this.cantidad.add(cantidad);
+            this.centavos.add(centavos);
+        }
+
+        long cantidad() {
+            return cantidad.sum();
+        }
+
+        long centavos() {
+            return centavos.sum();
+        }
+    }
+}
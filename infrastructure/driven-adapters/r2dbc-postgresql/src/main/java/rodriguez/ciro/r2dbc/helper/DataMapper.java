@@ -0,0 +1,27 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import java.util.function.Function;
+
+/**
+ * Conversión entre el objeto de dominio {@code E} y la fila {@code D} de un adaptador.
+ */
+public interface DataMapper<E, D> {
+
+    D toData(E entity);
+
+    E toEntity(D data);
+
+    static <E, D> DataMapper<E, D> of(Function<E, D> toData, Function<D, E> toEntity) {
+        return new DataMapper<>() {
+            @Override
+            public D toData(E entity) {
+                return toData.apply(entity);
+            }
+
+            @Override
+            public E toEntity(D data) {
+                return toEntity.apply(data);
+            }
+        };
+    }
+}
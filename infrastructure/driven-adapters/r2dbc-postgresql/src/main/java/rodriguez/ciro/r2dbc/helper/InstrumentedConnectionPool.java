@@ -0,0 +1,87 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.pool.PoolMetrics;
+import io.r2dbc.spi.Connection;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * {@link ConnectionPool} que mide cada adquisición en {@link ConnectionPoolMetricsRecorder} y, si recibe un
+ * {@link PoolSizeController}, lo arranca con el pool y lo detiene al cerrarlo.
+ * <p>
+ * Una adquisición cuenta como inmediata si al pedirla había conexiones libres y nadie en cola; con muchas
+ * solicitudes simultáneas la clasificación es aproximada.
+ */
+public class InstrumentedConnectionPool extends ConnectionPool {
+
+    private final ConnectionPoolMetricsRecorder metricas;
+    private final PoolMetrics estado;
+    private final PoolSizeController controlador;
+
+    public InstrumentedConnectionPool(ConnectionPoolConfiguration configuracion,
+                                      ConnectionPoolMetricsRecorder metricas) {
+        this(configuracion, metricas, null, null);
+    }
+
+    /**
+     * Con {@code estrategia} no nula se crea un {@link PoolSizeController} que ajusta su máximo; la estrategia
+     * debe ser la que se instaló en el {@code customizer} de {@code configuracion}.
+     */
+    public InstrumentedConnectionPool(ConnectionPoolConfiguration configuracion,
+                                      ConnectionPoolMetricsRecorder metricas,
+                                      AdjustableAllocationStrategy estrategia,
+                                      AdaptiveLimits limites) {
+        super(configuracion);
+        this.metricas = metricas;
+        this.estado = getMetrics().orElse(null);
+        if (estrategia != null) {
+            this.controlador = new PoolSizeController(estrategia, metricas, this::adquiridas,
+                    limites.minimo(), limites.maximo(), limites.intervalo());
+            this.controlador.start();
+        } else {
+            this.controlador = null;
+        }
+    }
+
+    @Override
+    public Mono<Connection> create() {
+        return Mono.defer(() -> {
+            boolean inmediata = estado == null || (estado.idleSize() > 0 && estado.pendingAcquireSize() == 0);
+            long inicio = System.nanoTime();
+            return super.create()
+                    .doOnSuccess(conexion -> metricas.registrarAdquisicion(System.nanoTime() - inicio, inmediata,
+                            adquiridas()));
+        });
+    }
+
+    @Override
+    public Mono<Void> disposeLater() {
+        detenerControlador();
+        return super.disposeLater();
+    }
+
+    @Override
+    public void dispose() {
+        detenerControlador();
+        super.dispose();
+    }
+
+    private void detenerControlador() {
+        if (controlador != null) {
+            controlador.stop();
+        }
+    }
+
+    private int adquiridas() {
+        return estado == null ? 0 : estado.acquiredSize();
+    }
+
+    /**
+     * Límites del ajuste automático del máximo.
+     */
+    public record AdaptiveLimits(int minimo, int maximo, Duration intervalo) {
+    }
+}
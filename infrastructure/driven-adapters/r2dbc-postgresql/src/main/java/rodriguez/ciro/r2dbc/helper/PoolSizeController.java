@@ -0,0 +1,84 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.function.IntSupplier;
+
+/**
+ * Ajusta el máximo del pool comparando, en cada ventana, la espera media en cola con la latencia de ida y vuelta
+ * a la base (la validación de las adquisiciones sin espera).
+ * <p>
+ * Si esperar una conexión cuesta más que usarla, agregar conexiones reduce la latencia y el máximo crece un 25 %.
+ * Si en la ventana nadie esperó y el pico de conexiones en uso quedó lejos del máximo, baja de a una conexión.
+ * Siempre dentro de {@code [minimo, maximo]}. Mientras no haya una latencia de referencia, cualquier espera
+ * cuenta como saturación.
+ */
+@Slf4j
+public class PoolSizeController {
+
+    private final AdjustableAllocationStrategy estrategia;
+    private final ConnectionPoolMetricsRecorder metricas;
+    private final IntSupplier adquiridas;
+    private final int minimo;
+    private final int maximo;
+    private final Duration intervalo;
+
+    private long latenciaBaseNanos;
+    private Disposable tarea;
+
+    public PoolSizeController(AdjustableAllocationStrategy estrategia, ConnectionPoolMetricsRecorder metricas,
+                              IntSupplier adquiridas, int minimo, int maximo, Duration intervalo) {
+        this.estrategia = estrategia;
+        this.metricas = metricas;
+        this.adquiridas = adquiridas;
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.intervalo = intervalo;
+    }
+
+    public synchronized void start() {
+        if (tarea != null) {
+            return;
+        }
+        metricas.tomarVentana(adquiridas.getAsInt());
+        tarea = Flux.interval(intervalo, intervalo)
+                .onBackpressureDrop()
+                .subscribe(tick -> revisar());
+    }
+
+    public synchronized void stop() {
+        if (tarea != null) {
+            tarea.dispose();
+            tarea = null;
+        }
+    }
+
+    /**
+     * Cierra la ventana actual y decide el nuevo máximo. Devuelve el máximo vigente.
+     */
+    synchronized int revisar() {
+        ConnectionPoolMetricsRecorder.Ventana ventana = metricas.tomarVentana(adquiridas.getAsInt());
+        if (ventana.validaciones() > 0) {
+            latenciaBaseNanos = ventana.validacionMediaNanos();
+        }
+        int actual = estrategia.permitMaximum();
+        int paso = Math.max(1, actual / 4);
+        int nuevo = actual;
+        if (ventana.esperas() > 0 && ventana.esperaMediaNanos() > latenciaBaseNanos) {
+            nuevo = Math.min(maximo, actual + paso);
+        } else if (ventana.esperas() == 0 && ventana.picoAdquiridas() + paso < actual) {
+            nuevo = Math.max(minimo, actual - 1);
+        }
+        if (nuevo != actual) {
+            estrategia.ajustarMaximo(nuevo);
+            log.info("Máximo del pool de conexiones ajustado de {} a {} (espera media {} µs en {} adquisiciones, "
+                            + "latencia base {} µs, pico en uso {})", actual, nuevo,
+                    ventana.esperaMediaNanos() / 1000, ventana.esperas(), latenciaBaseNanos / 1000,
+                    ventana.picoAdquiridas());
+        }
+        return estrategia.permitMaximum();
+    }
+}
@@ -12,25 +12,30 @@ import java.util.function.Function;
 
 public abstract class ReactiveAdapterOperations<E, D, I, R extends ReactiveCrudRepository<D, I> & ReactiveQueryByExampleExecutor<D>> {
     protected R repository;
-    protected ObjectMapper mapper;
-    private final Class<D> dataClass;
-    private final Function<D, E> toEntityFn;
+    private final DataMapper<E, D> dataMapper;
 
+    protected ReactiveAdapterOperations(R repository, DataMapper<E, D> dataMapper) {
+        this.repository = repository;
+        this.dataMapper = dataMapper;
+    }
+
+    /**
+     * Variante reflexiva: copia hacia {@code D} con el {@link ObjectMapper}. Preferir un {@link DataMapper} propio.
+     */
     @SuppressWarnings("unchecked")
     protected ReactiveAdapterOperations(R repository, ObjectMapper mapper, Function<D, E> toEntityFn) {
         this.repository = repository;
-        this.mapper = mapper;
         ParameterizedType genericSuperclass = (ParameterizedType) this.getClass().getGenericSuperclass();
-        this.dataClass = (Class<D>) genericSuperclass.getActualTypeArguments()[1];
-        this.toEntityFn = toEntityFn;
+        Class<D> dataClass = (Class<D>) genericSuperclass.getActualTypeArguments()[1];
+        this.dataMapper = DataMapper.of(entity -> mapper.map(entity, dataClass), toEntityFn);
     }
 
     protected D toData(E entity) {
-        return mapper.map(entity, dataClass);
+        return dataMapper.toData(entity);
     }
 
     protected E toEntity(D data) {
-        return data != null ? toEntityFn.apply(data) : null;
+        return data != null ? dataMapper.toEntity(data) : null;
     }
 
     public Mono<E> save(E entity) {
@@ -0,0 +1,140 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Cache en memoria para catálogos pequeños (estados, tipos de préstamo).
+ * <p>
+ * Mantiene una instantánea inmutable indexada por id que se reemplaza completa en cada recarga.
+ * Las recargas concurrentes comparten una sola consulta a la base de datos y, si una recarga
+ * falla, se conserva la última instantánea válida. Un id que no está en la instantánea provoca una
+ * recarga antes de responder vacío, como mucho una vez cada {@code missRefreshInterval}, para que un
+ * elemento recién insertado no se rechace hasta la siguiente recarga periódica.
+ */
+@Slf4j
+public class ReferenceDataCache<K, V> {
+
+    public static final Duration DEFAULT_MISS_REFRESH_INTERVAL = Duration.ofSeconds(1);
+
+    private final String nombre;
+    private final Supplier<Flux<V>> loader;
+    private final Function<V, K> keyExtractor;
+    private final Duration refreshInterval;
+    private final Duration missRefreshInterval;
+
+    private final AtomicLong proximaRecargaPorFallo = new AtomicLong(System.nanoTime());
+    private final AtomicReference<Map<K, V>> snapshot = new AtomicReference<>();
+    private final AtomicReference<Mono<Map<K, V>>> cargaEnCurso = new AtomicReference<>();
+    private Disposable refreshTask;
+
+    public ReferenceDataCache(String nombre, Supplier<Flux<V>> loader,
+                              Function<V, K> keyExtractor, Duration refreshInterval) {
+        this(nombre, loader, keyExtractor, refreshInterval, DEFAULT_MISS_REFRESH_INTERVAL);
+    }
+
+    public ReferenceDataCache(String nombre, Supplier<Flux<V>> loader, Function<V, K> keyExtractor,
+                              Duration refreshInterval, Duration missRefreshInterval) {
+        this.nombre = nombre;
+        this.loader = loader;
+        this.keyExtractor = keyExtractor;
+        this.refreshInterval = refreshInterval;
+        this.missRefreshInterval = missRefreshInterval;
+    }
+
+    /**
+     * Carga el catálogo de inmediato y programa las recargas periódicas.
+     */
+    public synchronized void start() {
+        if (refreshTask != null) {
+            return;
+        }
+        refreshTask = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh().onErrorResume(error -> Mono.empty()))
+                .subscribe();
+    }
+
+    public synchronized void stop() {
+        if (refreshTask != null) {
+            refreshTask.dispose();
+            refreshTask = null;
+        }
+    }
+
+    /**
+     * Busca un elemento por id. Solo consulta la base de datos si el catálogo aún no se ha cargado o si el id no
+     * está y ya pasó {@code missRefreshInterval} desde la última recarga.
+     */
+    public Mono<V> get(K key) {
+        if (key == null) {
+            return Mono.empty();
+        }
+        Map<K, V> actual = snapshot.get();
+        if (actual == null) {
+            return refresh().flatMap(valores -> Mono.justOrEmpty(valores.get(key)));
+        }
+        V valor = actual.get(key);
+        if (valor != null || !reservarRecargaPorFallo()) {
+            return Mono.justOrEmpty(valor);
+        }
+        return refresh()
+                .onErrorResume(error -> Mono.empty())
+                .flatMap(valores -> Mono.justOrEmpty(valores.get(key)));
+    }
+
+    public Mono<Map<K, V>> refresh() {
+        return Mono.defer(this::cargaCompartida);
+    }
+
+    boolean isLoaded() {
+        return snapshot.get() != null;
+    }
+
+    private boolean reservarRecargaPorFallo() {
+        long ahora = System.nanoTime();
+        long proxima = proximaRecargaPorFallo.get();
+        return ahora - proxima >= 0
+                && proximaRecargaPorFallo.compareAndSet(proxima, ahora + missRefreshInterval.toNanos());
+    }
+
+    private Mono<Map<K, V>> cargaCompartida() {
+        for (;;) {
+            Mono<Map<K, V>> enCurso = cargaEnCurso.get();
+            if (enCurso != null) {
+                return enCurso;
+            }
+            Sinks.One<Map<K, V>> resultado = Sinks.one();
+            Mono<Map<K, V>> compartida = resultado.asMono();
+            if (cargaEnCurso.compareAndSet(null, compartida)) {
+                cargar()
+                        .doFinally(signal -> cargaEnCurso.set(null))
+                        .subscribe(resultado::tryEmitValue, resultado::tryEmitError);
+                return compartida;
+            }
+        }
+    }
+
+    private Mono<Map<K, V>> cargar() {
+        return loader.get()
+                .collect(Collectors.toMap(keyExtractor, Function.identity()))
+                .<Map<K, V>>map(Map::copyOf)
+                .doOnNext(valores -> {
+                    snapshot.set(valores);
+                    proximaRecargaPorFallo.set(System.nanoTime() + missRefreshInterval.toNanos());
+                    log.debug("Catálogo {} recargado con {} elementos", nombre, valores.size());
+                })
+                .doOnError(error -> log.warn("No fue posible recargar el catálogo {}: {}", nombre, error.getMessage()));
+    }
+}
@@ -0,0 +1,164 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.estadistica.ResumenSolicitudes;
+import rodriguez.ciro.r2dbc.helper.ContadorSolicitudesDelDia.Acumulado;
+import rodriguez.ciro.r2dbc.helper.ContadorSolicitudesDelDia.Combinacion;
+import rodriguez.ciro.r2dbc.helper.ContadorSolicitudesDelDia.Periodo;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Resumen del día en curso en memoria: la última lectura de la tabla de resumen más lo que
+ * {@link ContadorSolicitudesDelDia} registró desde entonces, así que las consultas de los tableros no llegan a la
+ * base de datos y las solicitudes guardadas por esta instancia se ven de inmediato. Las de otras instancias y los
+ * cambios de estado se ven tras la siguiente recarga.
+ * <p>
+ * Cada recarga cierra el periodo del contador antes de consultar y lo sigue sumando hasta que la consulta termina;
+ * entonces lo descarta, porque la tabla ya incluye esas solicitudes. Una solicitud confirmada entre el cierre y la
+ * lectura de la tabla queda en ambos lados hasta la recarga siguiente, que lo corrige. Si una recarga falla se
+ * conserva la lectura anterior y el periodo cerrado vuelve al contador.
+ */
+@Slf4j
+public class ResumenDiarioCache {
+
+    private static final Comparator<ResumenSolicitudes> ORDEN = Comparator
+            .comparing(ResumenSolicitudes::getIdEstado)
+            .thenComparing(ResumenSolicitudes::getIdTipoPrestamo);
+
+    private final Function<LocalDate, Flux<ResumenSolicitudes>> loader;
+    private final ContadorSolicitudesDelDia contador;
+    private final Duration refreshInterval;
+
+    private final AtomicReference<Lectura> lectura = new AtomicReference<>();
+    private final AtomicReference<Mono<Lectura>> recargaEnCurso = new AtomicReference<>();
+    private volatile Periodo enConciliacion;
+    private Disposable refreshTask;
+
+    public ResumenDiarioCache(Function<LocalDate, Flux<ResumenSolicitudes>> loader,
+                              ContadorSolicitudesDelDia contador, Duration refreshInterval) {
+        this.loader = loader;
+        this.contador = contador;
+        this.refreshInterval = refreshInterval;
+    }
+
+    public synchronized void start() {
+        if (refreshTask != null) {
+            return;
+        }
+        refreshTask = Flux.interval(Duration.ZERO, refreshInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> refresh().onErrorResume(error -> Mono.empty()))
+                .subscribe();
+    }
+
+    public synchronized void stop() {
+        if (refreshTask != null) {
+            refreshTask.dispose();
+            refreshTask = null;
+        }
+    }
+
+    public LocalDate hoy() {
+        return contador.hoy();
+    }
+
+    /**
+     * Resúmenes del día en curso, desde la última lectura si es de hoy más lo registrado después.
+     */
+    public Flux<ResumenSolicitudes> resumenDeHoy() {
+        return Mono.defer(() -> {
+                    Lectura actual = lectura.get();
+                    return actual != null && actual.dia().equals(hoy()) ? Mono.just(actual) : refresh();
+                })
+                .flatMapIterable(this::conRegistrados);
+    }
+
+    /**
+     * Una sola recarga a la vez: las llamadas concurrentes reciben la que está en curso.
+     */
+    Mono<Lectura> refresh() {
+        return Mono.defer(() -> {
+            AtomicReference<Mono<Lectura>> propia = new AtomicReference<>();
+            propia.set(recargar()
+                    .doFinally(senal -> recargaEnCurso.compareAndSet(propia.get(), null))
+                    .cache());
+            Mono<Lectura> existente = recargaEnCurso.compareAndExchange(null, propia.get());
+            return existente != null ? existente : propia.get();
+        });
+    }
+
+    private Mono<Lectura> recargar() {
+        return Mono.defer(() -> {
+            LocalDate dia = hoy();
+            Periodo cerrado = contador.cerrarPeriodo();
+            enConciliacion = cerrado;
+            return loader.apply(dia)
+                    .collectList()
+                    .map(resumenes -> new Lectura(dia, List.copyOf(resumenes)))
+                    .doOnNext(nueva -> {
+                        lectura.set(nueva);
+                        enConciliacion = null;
+                        log.debug("Resumen del {} recargado con {} combinaciones", dia, nueva.resumenes().size());
+                    })
+                    .doOnError(error -> {
+                        contador.reabrir(cerrado);
+                        enConciliacion = null;
+                        log.warn("No fue posible recargar el resumen del {}: {}", dia, error.getMessage());
+                    });
+        });
+    }
+
+    private List<ResumenSolicitudes> conRegistrados(Lectura base) {
+        Map<Combinacion, Acumulado> registrados = new HashMap<>();
+        Periodo cerrado = enConciliacion;
+        if (cerrado != null) {
+            sumar(registrados, cerrado, base.dia());
+        }
+        sumar(registrados, contador.periodoActual(), base.dia());
+        if (registrados.isEmpty()) {
+            return base.resumenes();
+        }
+        List<ResumenSolicitudes> resultado = new ArrayList<>(base.resumenes().size() + registrados.size());
+        for (ResumenSolicitudes resumen : base.resumenes()) {
+            Acumulado registrado = registrados.remove(
+                    new Combinacion(resumen.getIdEstado(), resumen.getIdTipoPrestamo()));
+            resultado.add(registrado == null ? resumen : resumen.toBuilder()
+                    .cantidad(resumen.getCantidad() + registrado.cantidad())
+                    .montoTotal(resumen.getMontoTotal().add(BigDecimal.valueOf(registrado.centavos(), 2)))
+                    .build());
+        }
+        registrados.forEach((combinacion, registrado) -> resultado.add(ResumenSolicitudes.builder()
+                .dia(base.dia())
+                .idEstado(combinacion.idEstado())
+                .idTipoPrestamo(combinacion.idTipoPrestamo())
+                .cantidad(registrado.cantidad())
+                .montoTotal(BigDecimal.valueOf(registrado.centavos(), 2))
+                .build()));
+        resultado.sort(ORDEN);
+        return resultado;
+    }
+
+    private static void sumar(Map<Combinacion, Acumulado> registrados, Periodo periodo, LocalDate dia) {
+        if (periodo.dia().equals(dia)) {
+            periodo.acumulados().forEach((combinacion, acumulado) -> registrados
+                    .computeIfAbsent(combinacion, c -> new Acumulado())
+                    .sumar(acumulado.cantidad(), acumulado.centavos()));
+        }
+    }
+
+    record Lectura(LocalDate dia, List<ResumenSolicitudes> resumenes) {
+    }
+}
@@ -0,0 +1,130 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Agrupa escrituras concurrentes ("group commit").
+ * <p>
+ * Las llamadas que llegan dentro de {@code ventana}, o hasta completar {@code tamanoMaximo}, se escriben
+ * juntas con {@code escrituraGrupal}, que debe emitir un resultado por valor y en el mismo orden. Cada
+ * llamador recibe solo su resultado. Si la escritura del grupo falla, cada valor se reintenta por separado
+ * con {@code escrituraIndividual}, de modo que un valor inválido solo hace fallar a su propio llamador.
+ * Cancelar la suscripción no retira un valor que ya está en cola.
+ */
+@Slf4j
+public class WriteCoalescer<T, R> {
+
+    private final int tamanoMaximo;
+    private final Duration ventana;
+    private final Function<List<T>, Flux<R>> escrituraGrupal;
+    private final Function<T, Mono<R>> escrituraIndividual;
+    private final Scheduler scheduler;
+
+    private final Queue<Pendiente<T, R>> cola = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger enCola = new AtomicInteger();
+
+    private final DistributionSummary tamanoGrupo;
+    private final Timer esperaEnCola;
+
+    public WriteCoalescer(String nombre, int tamanoMaximo, Duration ventana,
+                          Function<List<T>, Flux<R>> escrituraGrupal, Function<T, Mono<R>> escrituraIndividual,
+                          Scheduler scheduler, MeterRegistry meterRegistry) {
+        this.tamanoMaximo = tamanoMaximo;
+        this.ventana = ventana;
+        this.escrituraGrupal = escrituraGrupal;
+        this.escrituraIndividual = escrituraIndividual;
+        this.scheduler = scheduler;
+        this.tamanoGrupo = DistributionSummary.builder("r2dbc.group.commit.batch.size")
+                .description("Filas escritas por cada sentencia agrupada")
+                .tag("nombre", nombre)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.esperaEnCola = Timer.builder("r2dbc.group.commit.queue.wait")
+                .description("Tiempo que una escritura espera en cola antes de enviarse")
+                .tag("nombre", nombre)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    public Mono<R> escribir(T valor) {
+        return Mono.defer(() -> {
+            Pendiente<T, R> pendiente = new Pendiente<>(valor, Sinks.one(), System.nanoTime());
+            cola.add(pendiente);
+            int total = enCola.incrementAndGet();
+            if (total >= tamanoMaximo) {
+                drenar();
+            } else if (total == 1) {
+                programarDrenado();
+            }
+            return pendiente.resultado().asMono();
+        });
+    }
+
+    private void programarDrenado() {
+        scheduler.schedule(this::drenar, ventana.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void drenar() {
+        List<Pendiente<T, R>> grupo = new ArrayList<>(tamanoMaximo);
+        Pendiente<T, R> pendiente;
+        while (grupo.size() < tamanoMaximo && (pendiente = cola.poll()) != null) {
+            grupo.add(pendiente);
+        }
+        if (grupo.isEmpty()) {
+            return;
+        }
+        if (enCola.addAndGet(-grupo.size()) > 0) {
+            // Lo que quedó en cola no tiene temporizador propio
+            programarDrenado();
+        }
+        enviar(grupo);
+    }
+
+    private void enviar(List<Pendiente<T, R>> grupo) {
+        long ahora = System.nanoTime();
+        grupo.forEach(p -> esperaEnCola.record(ahora - p.encolado(), TimeUnit.NANOSECONDS));
+        tamanoGrupo.record(grupo.size());
+
+        Mono.defer(() -> escrituraGrupal.apply(grupo.stream().map(Pendiente::valor).toList()).collectList())
+                .subscribe(resultados -> {
+                    if (resultados.size() != grupo.size()) {
+                        IllegalStateException error = new IllegalStateException("La escritura agrupada devolvió "
+                                + resultados.size() + " resultados para " + grupo.size() + " valores");
+                        grupo.forEach(p -> p.resultado().tryEmitError(error));
+                        return;
+                    }
+                    for (int i = 0; i < grupo.size(); i++) {
+                        grupo.get(i).resultado().tryEmitValue(resultados.get(i));
+                    }
+                }, error -> {
+                    log.warn("Falló la escritura agrupada de {} valores, se reintentan por separado: {}",
+                            grupo.size(), error.getMessage());
+                    grupo.forEach(this::enviarIndividual);
+                });
+    }
+
+    private void enviarIndividual(Pendiente<T, R> pendiente) {
+        Mono.defer(() -> escrituraIndividual.apply(pendiente.valor()))
+                .subscribe(pendiente.resultado()::tryEmitValue, pendiente.resultado()::tryEmitError,
+                        pendiente.resultado()::tryEmitEmpty);
+    }
+
+    private record Pendiente<T, R>(T valor, Sinks.One<R> resultado, long encolado) {
+    }
+}
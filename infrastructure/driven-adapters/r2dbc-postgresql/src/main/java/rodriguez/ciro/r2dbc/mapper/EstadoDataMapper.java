@@ -0,0 +1,29 @@
+package rodriguez.ciro.r2dbc.mapper;
+
+import rodriguez.ciro.model.estado.Estado;
+import rodriguez.ciro.r2dbc.entity.EstadoEntity;
+import rodriguez.ciro.r2dbc.helper.DataMapper;
+
+public final class EstadoDataMapper implements DataMapper<Estado, EstadoEntity> {
+
+    public static final EstadoDataMapper INSTANCE = new EstadoDataMapper();
+
+    private EstadoDataMapper() {
+    }
+
+    @Override
+    public EstadoEntity toData(Estado estado) {
+        if (estado == null) {
+            return null;
+        }
+        return new EstadoEntity(estado.getIdEstado(), estado.getNombre(), estado.getDescripcion());
+    }
+
+    @Override
+    public Estado toEntity(EstadoEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        return new Estado(entity.getIdEstado(), entity.getNombre(), entity.getDescripcion());
+    }
+}
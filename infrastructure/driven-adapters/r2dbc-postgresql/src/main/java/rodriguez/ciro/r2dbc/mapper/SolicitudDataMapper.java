@@ -0,0 +1,41 @@
+package rodriguez.ciro.r2dbc.mapper;
+
+import rodriguez.ciro.model.solicitud.Solicitud;
+import rodriguez.ciro.r2dbc.entity.SolicitudEntity;
+import rodriguez.ciro.r2dbc.helper.DataMapper;
+
+public final class SolicitudDataMapper implements DataMapper<Solicitud, SolicitudEntity> {
+
+    public static final SolicitudDataMapper INSTANCE = new SolicitudDataMapper();
+
+    private SolicitudDataMapper() {
+    }
+
+    @Override
+    public SolicitudEntity toData(Solicitud solicitud) {
+        if (solicitud == null) {
+            return null;
+        }
+        return new SolicitudEntity(
+                solicitud.getIdSolicitud(),
+                solicitud.getMonto(),
+                solicitud.getPlazo(),
+                solicitud.getEmail(),
+                solicitud.getIdEstado(),
+                solicitud.getIdTipoPrestamo());
+    }
+
+    @Override
+    public Solicitud toEntity(SolicitudEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        return new Solicitud(
+                entity.getIdSolicitud(),
+                entity.getMonto(),
+                entity.getPlazo(),
+                entity.getEmail(),
+                entity.getIdEstado(),
+                entity.getIdTipoPrestamo());
+    }
+}
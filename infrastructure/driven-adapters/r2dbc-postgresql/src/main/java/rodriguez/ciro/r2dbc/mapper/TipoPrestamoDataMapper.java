@@ -0,0 +1,41 @@
+package rodriguez.ciro.r2dbc.mapper;
+
+import rodriguez.ciro.model.tipoprestamo.TipoPrestamo;
+import rodriguez.ciro.r2dbc.entity.TipoPrestamoEntity;
+import rodriguez.ciro.r2dbc.helper.DataMapper;
+
+public final class TipoPrestamoDataMapper implements DataMapper<TipoPrestamo, TipoPrestamoEntity> {
+
+    public static final TipoPrestamoDataMapper INSTANCE = new TipoPrestamoDataMapper();
+
+    private TipoPrestamoDataMapper() {
+    }
+
+    @Override
+    public TipoPrestamoEntity toData(TipoPrestamo tipoPrestamo) {
+        if (tipoPrestamo == null) {
+            return null;
+        }
+        return new TipoPrestamoEntity(
+                tipoPrestamo.getIdTipoPrestamo(),
+                tipoPrestamo.getNombre(),
+                tipoPrestamo.getMontoMinimo(),
+                tipoPrestamo.getMontoMaximo(),
+                tipoPrestamo.getTasaInteres(),
+                tipoPrestamo.getValidacionAutomatica());
+    }
+
+    @Override
+    public TipoPrestamo toEntity(TipoPrestamoEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+        return new TipoPrestamo(
+                entity.getIdTipoPrestamo(),
+                entity.getNombre(),
+                entity.getMontoMinimo(),
+                entity.getMontoMaximo(),
+                entity.getTasaInteres(),
+                entity.getValidacionAutomatica());
+    }
+}
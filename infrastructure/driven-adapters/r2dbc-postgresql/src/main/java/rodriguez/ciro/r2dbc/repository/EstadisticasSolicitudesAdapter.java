@@ -0,0 +1,79 @@
+package rodriguez.ciro.r2dbc.repository;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import rodriguez.ciro.model.estadistica.ResumenSolicitudes;
+import rodriguez.ciro.model.estadistica.gateways.EstadisticasSolicitudesGateway;
+import rodriguez.ciro.r2dbc.config.EstadisticasProperties;
+import rodriguez.ciro.r2dbc.helper.ContadorSolicitudesDelDia;
+import rodriguez.ciro.r2dbc.helper.ResumenDiarioCache;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Estadísticas servidas desde {@code solicitudes_resumen_diario}, que los triggers de {@code solicitudes}
+ * mantienen al día en la misma transacción de cada cambio; nunca se consulta la tabla de solicitudes. El día en
+ * curso sale de {@link ResumenDiarioCache}, que suma a la tabla lo registrado en {@link ContadorSolicitudesDelDia}.
+ */
+@Slf4j
+@Repository
+public class EstadisticasSolicitudesAdapter implements EstadisticasSolicitudesGateway {
+
+    // Suma las franjas de cada combinación
+    static final String SELECT_RESUMEN = "SELECT dia, id_estado, id_tipo_prestamo, "
+            + "CAST(SUM(cantidad) AS BIGINT) AS cantidad, SUM(monto_total) AS monto_total "
+            + "FROM solicitudes_resumen_diario WHERE dia BETWEEN $1 AND $2 "
+            + "GROUP BY dia, id_estado, id_tipo_prestamo HAVING SUM(cantidad) <> 0 "
+            + "ORDER BY dia, id_estado, id_tipo_prestamo";
+
+    private final DatabaseClient databaseClient;
+    private final ResumenDiarioCache cache;
+
+    public EstadisticasSolicitudesAdapter(DatabaseClient databaseClient, EstadisticasProperties properties,
+                                          ContadorSolicitudesDelDia contador) {
+        this.databaseClient = databaseClient;
+        this.cache = new ResumenDiarioCache(dia -> consultar(dia, dia), contador, properties.refreshInterval());
+    }
+
+    @PostConstruct
+    void iniciarCache() {
+        cache.start();
+    }
+
+    @PreDestroy
+    void detenerCache() {
+        cache.stop();
+    }
+
+    @Override
+    public Flux<ResumenSolicitudes> resumenDiario(LocalDate desde, LocalDate hasta) {
+        LocalDate hoy = cache.hoy();
+        Flux<ResumenSolicitudes> diasAnteriores = desde.isBefore(hoy)
+                ? consultar(desde, hasta.isBefore(hoy) ? hasta : hoy.minusDays(1))
+                : Flux.empty();
+        Flux<ResumenSolicitudes> deHoy = !desde.isAfter(hoy) && !hasta.isBefore(hoy)
+                ? cache.resumenDeHoy()
+                : Flux.empty();
+        return Flux.concat(diasAnteriores, deHoy);
+    }
+
+    private Flux<ResumenSolicitudes> consultar(LocalDate desde, LocalDate hasta) {
+        log.debug("Consultando resumen de solicitudes entre {} y {}", desde, hasta);
+        return databaseClient.sql(SELECT_RESUMEN)
+                .bind(0, desde)
+                .bind(1, hasta)
+                .map((row, metadata) -> ResumenSolicitudes.builder()
+                        .dia(row.get("dia", LocalDate.class))
+                        .idEstado(row.get("id_estado", Long.class))
+                        .idTipoPrestamo(row.get("id_tipo_prestamo", Long.class))
+                        .cantidad(row.get("cantidad", Long.class))
+                        .montoTotal(row.get("monto_total", BigDecimal.class))
+                        .build())
+                .all();
+    }
+}
@@ -1,12 +1,16 @@
 package rodriguez.ciro.r2dbc.repository;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 import rodriguez.ciro.model.estado.Estado;
 import rodriguez.ciro.model.estado.gateways.EstadoRepository;
+import rodriguez.ciro.r2dbc.config.ReferenceDataCacheProperties;
 import rodriguez.ciro.r2dbc.entity.EstadoEntity;
 import rodriguez.ciro.r2dbc.helper.ReactiveAdapterOperations;
-import org.reactivecommons.utils.ObjectMapper;
+import rodriguez.ciro.r2dbc.helper.ReferenceDataCache;
+import rodriguez.ciro.r2dbc.mapper.EstadoDataMapper;
 import org.springframework.stereotype.Repository;
 
 @Slf4j
@@ -17,16 +21,36 @@ public class EstadoRepositoryAdapter extends ReactiveAdapterOperations<
         Long,
         EstadoReactiveRepository
         > implements EstadoRepository {
-    public EstadoRepositoryAdapter(EstadoReactiveRepository repository, ObjectMapper mapper) {
-        super(repository, mapper, d -> mapper.map(d, Estado.class));
+
+    private final ReferenceDataCache<Long, Estado> cache;
+
+    public EstadoRepositoryAdapter(EstadoReactiveRepository repository, ReferenceDataCacheProperties cacheProperties) {
+        super(repository, EstadoDataMapper.INSTANCE);
+        this.cache = new ReferenceDataCache<>("estados", this::findAll,
+                Estado::getIdEstado, cacheProperties.refreshInterval(),
+                cacheProperties.missRefreshInterval());
+    }
+
+    @PostConstruct
+    void iniciarCache() {
+        cache.start();
+    }
+
+    @PreDestroy
+    void detenerCache() {
+        cache.stop();
     }
 
     @Override
     public Mono<Boolean> existePorId(Long idEstado) {
         log.debug("existePorId {}", idEstado);
-        if (idEstado == null) {
-            return Mono.just(false);
-        }
-        return repository.existsById(idEstado);
+        return cache.get(idEstado)
+                .hasElement();
+    }
+
+    @Override
+    public Mono<Estado> buscarPorId(Long idEstado) {
+        log.debug("buscarPorId {}", idEstado);
+        return cache.get(idEstado);
     }
 }
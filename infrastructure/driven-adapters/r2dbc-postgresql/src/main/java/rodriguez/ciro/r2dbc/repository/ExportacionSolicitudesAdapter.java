@@ -0,0 +1,133 @@
+package rodriguez.ciro.r2dbc.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
+import rodriguez.ciro.model.solicitud.FormatoExportacion;
+import rodriguez.ciro.model.solicitud.gateways.ExportacionSolicitudesGateway;
+import rodriguez.ciro.r2dbc.config.ExportacionProperties;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exportación de solicitudes leída con un cursor del driver: con {@code fetchSize} Postgres entrega las filas por
+ * bloques a medida que hay demanda, así que la contrapresión del cliente HTTP llega hasta la base de datos. Cada
+ * fila se codifica directamente desde el {@code Row}, sin pasar por la entidad ni por el modelo.
+ * <p>
+ * La conexión queda ocupada mientras dure la exportación.
+ */
+@Slf4j
+@Repository
+public class ExportacionSolicitudesAdapter implements ExportacionSolicitudesGateway {
+
+    static final String SELECT_EXPORTACION =
+            "SELECT id_solicitud, monto, plazo, email, id_estado, id_tipo_prestamo FROM solicitudes";
+    static final String ENCABEZADO_CSV = "id_solicitud,monto,plazo,email,id_estado,id_tipo_prestamo\n";
+
+    private final DatabaseClient databaseClient;
+    private final int fetchSize;
+
+    public ExportacionSolicitudesAdapter(DatabaseClient databaseClient, ExportacionProperties properties) {
+        this.databaseClient = databaseClient;
+        this.fetchSize = properties.fetchSize();
+    }
+
+    @Override
+    public Flux<ByteBuffer> exportar(FiltroSolicitudes filtro, FormatoExportacion formato) {
+        SolicitudRepositoryAdapter.Consulta consulta =
+                SolicitudRepositoryAdapter.construirConsulta(SELECT_EXPORTACION, filtro, null);
+        Flux<ByteBuffer> filas = consulta.vincular(databaseClient.sql(consulta.sql() + " ORDER BY id_solicitud"))
+                .filter(sentencia -> sentencia.fetchSize(fetchSize))
+                .map((row, metadata) -> codificar(row, formato))
+                .all()
+                .doOnSubscribe(s -> log.info("Exportando solicitudes en formato {}", formato));
+        return formato == FormatoExportacion.CSV
+                ? Flux.concat(Flux.just(utf8(ENCABEZADO_CSV)), filas)
+                : filas;
+    }
+
+    /**
+     * Las columnas se leen por posición en el orden de {@link #SELECT_EXPORTACION}.
+     */
+    static ByteBuffer codificar(Readable row, FormatoExportacion formato) {
+        Long idSolicitud = row.get(0, Long.class);
+        BigDecimal monto = row.get(1, BigDecimal.class);
+        Integer plazo = row.get(2, Integer.class);
+        String email = row.get(3, String.class);
+        Long idEstado = row.get(4, Long.class);
+        Long idTipoPrestamo = row.get(5, Long.class);
+        StringBuilder linea = new StringBuilder(128);
+        if (formato == FormatoExportacion.CSV) {
+            linea.append(idSolicitud).append(',')
+                    .append(monto != null ? monto.toPlainString() : "").append(',')
+                    .append(plazo != null ? plazo : "").append(',');
+            escaparCsv(linea, email);
+            linea.append(',').append(idEstado).append(',').append(idTipoPrestamo);
+        } else {
+            linea.append("{\"idSolicitud\":").append(idSolicitud)
+                    .append(",\"monto\":").append(monto != null ? monto.toPlainString() : "null")
+                    .append(",\"plazo\":").append(plazo)
+                    .append(",\"email\":");
+            escaparJson(linea, email);
+            linea.append(",\"idEstado\":").append(idEstado)
+                    .append(",\"idTipoPrestamo\":").append(idTipoPrestamo)
+                    .append('}');
+        }
+        return utf8(linea.append('\n'));
+    }
+
+    static void escaparCsv(StringBuilder destino, String valor) {
+        if (valor == null) {
+            return;
+        }
+        boolean entreComillas = valor.chars().anyMatch(c -> c == ',' || c == '"' || c == '\n' || c == '\r');
+        if (!entreComillas) {
+            destino.append(valor);
+            return;
+        }
+        destino.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c == '"') {
+                destino.append('"');
+            }
+            destino.append(c);
+        }
+        destino.append('"');
+    }
+
+    static void escaparJson(StringBuilder destino, String valor) {
+        if (valor == null) {
+            destino.append("null");
+            return;
+        }
+        destino.append('"');
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '"' -> destino.append("\\\"");
+                case '\\' -> destino.append("\\\\");
+                case '\n' -> destino.append("\\n");
+                case '\r' -> destino.append("\\r");
+                case '\t' -> destino.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        destino.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        destino.append(c);
+                    }
+                }
+            }
+        }
+        destino.append('"');
+    }
+
+    private static ByteBuffer utf8(CharSequence texto) {
+        return ByteBuffer.wrap(texto.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,158 @@
+package rodriguez.ciro.r2dbc.repository;
+
+import io.r2dbc.spi.R2dbcException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.idempotencia.RegistroIdempotente;
+import rodriguez.ciro.model.idempotencia.gateways.IdempotenciaGateway;
+import rodriguez.ciro.r2dbc.config.IdempotenciaProperties;
+
+import java.time.Instant;
+
+/**
+ * Claves de idempotencia en {@code solicitudes_idempotencia}. La llave primaria sobre {@code clave} decide qué
+ * ejecución reserva una clave cuando varias instancias la reciben a la vez.
+ */
+@Slf4j
+@Repository
+public class IdempotenciaAdapter implements IdempotenciaGateway {
+
+    static final String SQLSTATE_VIOLACION_UNICIDAD = "23505";
+    static final String SELECT_VIGENTE = "SELECT clave, huella, respuesta, expira_en FROM solicitudes_idempotencia "
+            + "WHERE clave = $1 AND expira_en > $2";
+    static final String INSERT_RESERVA =
+            "INSERT INTO solicitudes_idempotencia (clave, huella, expira_en) VALUES ($1, $2, $3)";
+    static final String DELETE_VENCIDA = "DELETE FROM solicitudes_idempotencia WHERE clave = $1 AND expira_en <= $2";
+    static final String UPDATE_RESPUESTA =
+            "UPDATE solicitudes_idempotencia SET respuesta = $1, expira_en = $2 WHERE clave = $3";
+    static final String DELETE_RESERVA =
+            "DELETE FROM solicitudes_idempotencia WHERE clave = $1 AND respuesta IS NULL";
+    static final String DELETE_LOTE_VENCIDAS = "DELETE FROM solicitudes_idempotencia WHERE clave IN "
+            + "(SELECT clave FROM solicitudes_idempotencia WHERE expira_en <= $1 LIMIT $2)";
+
+    private final DatabaseClient databaseClient;
+    private final IdempotenciaProperties properties;
+    private Disposable purgeTask;
+
+    public IdempotenciaAdapter(DatabaseClient databaseClient, IdempotenciaProperties properties) {
+        this.databaseClient = databaseClient;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    synchronized void iniciarPurga() {
+        purgeTask = Flux.interval(properties.purgeInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> purgarVencidas()
+                        .doOnNext(eliminadas -> log.debug("Claves de idempotencia vencidas purgadas: {}", eliminadas))
+                        .onErrorResume(error -> {
+                            log.warn("No fue posible purgar las claves de idempotencia vencidas: {}",
+                                    error.getMessage());
+                            return Mono.empty();
+                        }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    synchronized void detenerPurga() {
+        if (purgeTask != null) {
+            purgeTask.dispose();
+            purgeTask = null;
+        }
+    }
+
+    @Override
+    public Mono<RegistroIdempotente> buscar(String clave) {
+        return databaseClient.sql(SELECT_VIGENTE)
+                .bind(0, clave)
+                .bind(1, Instant.now())
+                .map((row, metadata) -> RegistroIdempotente.builder()
+                        .clave(row.get("clave", String.class))
+                        .huella(row.get("huella", String.class))
+                        .respuesta(row.get("respuesta", String.class))
+                        .expiraEn(row.get("expira_en", Instant.class))
+                        .build())
+                .one();
+    }
+
+    /**
+     * Si la clave existe pero ya venció y no se ha purgado, se borra y se reintenta la reserva una vez.
+     */
+    @Override
+    public Mono<Boolean> reservar(RegistroIdempotente registro) {
+        return insertarReserva(registro)
+                .onErrorResume(IdempotenciaAdapter::violaUnicidad, error -> databaseClient.sql(DELETE_VENCIDA)
+                        .bind(0, registro.getClave())
+                        .bind(1, Instant.now())
+                        .fetch()
+                        .rowsUpdated()
+                        .flatMap(eliminadas -> eliminadas > 0
+                                ? insertarReserva(registro).onErrorResume(IdempotenciaAdapter::violaUnicidad,
+                                        otroError -> Mono.just(false))
+                                : Mono.just(false)));
+    }
+
+    @Override
+    public Mono<Void> completar(String clave, String respuesta, Instant expiraEn) {
+        return databaseClient.sql(UPDATE_RESPUESTA)
+                .bind(0, respuesta)
+                .bind(1, expiraEn)
+                .bind(2, clave)
+                .then()
+                .doOnError(error -> log.warn("No fue posible guardar la respuesta de la clave de idempotencia {}; "
+                        + "otra petición podrá tomarla cuando venza su reserva: {}", clave, error.getMessage()));
+    }
+
+    @Override
+    public Mono<Void> liberar(String clave) {
+        return databaseClient.sql(DELETE_RESERVA)
+                .bind(0, clave)
+                .then();
+    }
+
+    /**
+     * Borra las claves vencidas por lotes hasta que un lote sale incompleto. Emite el total borrado.
+     */
+    Mono<Long> purgarVencidas() {
+        return Mono.defer(() -> {
+            Instant ahora = Instant.now();
+            int lote = properties.purgeBatchSize();
+            return eliminarLoteVencidas(ahora, lote)
+                    .expand(eliminadas -> eliminadas >= lote ? eliminarLoteVencidas(ahora, lote) : Mono.empty())
+                    .reduce(0L, Long::sum);
+        });
+    }
+
+    private Mono<Long> eliminarLoteVencidas(Instant ahora, int lote) {
+        return databaseClient.sql(DELETE_LOTE_VENCIDAS)
+                .bind(0, ahora)
+                .bind(1, lote)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private Mono<Boolean> insertarReserva(RegistroIdempotente registro) {
+        return databaseClient.sql(INSERT_RESERVA)
+                .bind(0, registro.getClave())
+                .bind(1, registro.getHuella())
+                .bind(2, registro.getExpiraEn())
+                .fetch()
+                .rowsUpdated()
+                .map(insertadas -> insertadas > 0);
+    }
+
+    static boolean violaUnicidad(Throwable error) {
+        for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+            if (causa instanceof R2dbcException r2dbc && SQLSTATE_VIOLACION_UNICIDAD.equals(r2dbc.getSqlState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
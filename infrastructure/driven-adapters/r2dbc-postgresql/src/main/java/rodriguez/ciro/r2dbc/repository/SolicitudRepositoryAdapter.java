@@ -1,14 +1,41 @@
 package rodriguez.ciro.r2dbc.repository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.R2dbcException;
+import io.r2dbc.spi.Statement;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+import rodriguez.ciro.model.exception.TipoPrestamoInexistenteException;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
 import rodriguez.ciro.model.solicitud.Solicitud;
 import rodriguez.ciro.model.solicitud.gateways.SolicitudRepository;
+import rodriguez.ciro.r2dbc.config.GroupCommitProperties;
 import rodriguez.ciro.r2dbc.entity.SolicitudEntity;
+import rodriguez.ciro.r2dbc.helper.ContadorSolicitudesDelDia;
 import rodriguez.ciro.r2dbc.helper.ReactiveAdapterOperations;
-import org.reactivecommons.utils.ObjectMapper;
+import rodriguez.ciro.r2dbc.helper.WriteCoalescer;
+import rodriguez.ciro.r2dbc.mapper.SolicitudDataMapper;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
 @Slf4j
 @Repository
 public class SolicitudRepositoryAdapter extends ReactiveAdapterOperations<
@@ -18,17 +45,321 @@ public class SolicitudRepositoryAdapter extends ReactiveAdapterOperations<
         SolicitudReactiveRepository
         > implements SolicitudRepository {
 
-    public SolicitudRepositoryAdapter(SolicitudReactiveRepository repository, ObjectMapper mapper) {
-        super(repository, mapper, d -> mapper.map(d, Solicitud.class));
+    private static final int COLUMNAS = 5;
+    private static final String POSTGRES = "PostgreSQL";
+    // Postgres admite hasta 65535 parámetros por sentencia
+    static final int MAX_FILAS_POR_INSERT = 1000;
+    static final String METRICA = "r2dbc.operacion";
+    static final String COLUMNA_ID = "id_solicitud";
+    static final String SQLSTATE_VIOLACION_LLAVE_FORANEA = "23503";
+    static final String LLAVE_FORANEA_TIPO_PRESTAMO = "fk_solicitudes_tipos_prestamo";
+    // Siempre el mismo texto: el driver reutiliza la sentencia preparada de la conexión
+    static final String INSERT_UNA = construirInsertMultiple(1);
+    // Un parámetro por columna con todas las filas: el mismo texto para cualquier tamaño de grupo. Cada fila toma
+    // su id de la secuencia junto a su posición en los arreglos y la consulta devuelve el par (posición, id)
+    static final String INSERT_ARREGLOS = "WITH filas AS ("
+            + "SELECT nextval(pg_get_serial_sequence('solicitudes', 'id_solicitud')) AS id_solicitud, f.* "
+            + "FROM unnest($1::numeric[], $2::int4[], $3::varchar[], $4::int8[], $5::int8[]) "
+            + "WITH ORDINALITY AS f(monto, plazo, email, id_estado, id_tipo_prestamo, orden)), "
+            + "insertadas AS (INSERT INTO solicitudes (id_solicitud, monto, plazo, email, id_estado, id_tipo_prestamo) "
+            + "SELECT id_solicitud, monto, plazo, email, id_estado, id_tipo_prestamo FROM filas RETURNING id_solicitud) "
+            + "SELECT filas.orden, insertadas.id_solicitud FROM insertadas JOIN filas USING (id_solicitud) "
+            + "ORDER BY filas.orden";
+    static final String SELECT_LISTADO =
+            "SELECT id_solicitud, monto, plazo, email, id_estado, id_tipo_prestamo FROM solicitudes";
+    private static final Pattern FILAS_ESTIMADAS = Pattern.compile("rows=(\\d+)");
+    private static final Duration[] SLO = {
+            Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25),
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofSeconds(1)
+    };
+
+    private final DatabaseClient databaseClient;
+    private final boolean postgres;
+    private final WriteCoalescer<Solicitud, Solicitud> groupCommit;
+    private final ContadorSolicitudesDelDia contador;
+    private final Timer guardarExito;
+    private final Timer guardarError;
+    private final Timer guardarTodosExito;
+    private final Timer guardarTodosError;
+
+    public SolicitudRepositoryAdapter(SolicitudReactiveRepository repository, DatabaseClient databaseClient,
+                                      GroupCommitProperties groupCommitProperties,
+                                      ContadorSolicitudesDelDia contador, MeterRegistry meterRegistry) {
+        super(repository, SolicitudDataMapper.INSTANCE);
+        this.databaseClient = databaseClient;
+        this.postgres = esPostgres(databaseClient);
+        this.groupCommit = groupCommitProperties.enabled()
+                ? new WriteCoalescer<>("solicitudes", groupCommitProperties.maxBatchSize(),
+                        groupCommitProperties.window(), this::guardarTodos, this::guardarIndividual,
+                        Schedulers.parallel(), meterRegistry)
+                : null;
+        this.contador = contador;
+        this.guardarExito = timer(meterRegistry, "guardar", "exito");
+        this.guardarError = timer(meterRegistry, "guardar", "error");
+        this.guardarTodosExito = timer(meterRegistry, "guardar_todos", "exito");
+        this.guardarTodosError = timer(meterRegistry, "guardar_todos", "error");
     }
 
+    /**
+     * Con group commit activo, las llamadas concurrentes se unen en un solo INSERT multi-fila; el tiempo
+     * medido incluye entonces la espera en cola.
+     */
     @Override
     public Mono<Solicitud> guardar(Solicitud solicitud) {
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            return (groupCommit != null ? groupCommit.escribir(solicitud) : guardarIndividual(solicitud))
+                    .doOnSuccess(s -> guardarExito.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS))
+                    .doOnError(error -> guardarError.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    /**
+     * INSERT preparado con parámetros posicionales directamente sobre la conexión, sin el mapeo genérico de
+     * Spring Data. Postgres devuelve el id generado en la misma respuesta ({@code RETURNING}).
+     * <p>
+     * Si la llave foránea del tipo de préstamo rechaza la fila, se informa como
+     * {@link TipoPrestamoInexistenteException}. Con group commit, un grupo que falla se reintenta solicitud por
+     * solicitud, así que cada llamada recibe el error traducido de la suya.
+     * <p>
+     * Cada solicitud confirmada se suma a {@link ContadorSolicitudesDelDia}.
+     */
+    private Mono<Solicitud> guardarIndividual(Solicitud solicitud) {
         log.debug("Guardando solicitud en base de datos");
-        return Mono.just(solicitud)
-                .map(s -> mapper.map(s, SolicitudEntity.class))
-                .flatMap(repository::save)
-                .map(solicitudData -> mapper.map(solicitudData, Solicitud.class))
-                .doOnSuccess(s -> log.debug("Solicitud guardada exitosamente con ID: {}", s.getIdSolicitud()));
+        return databaseClient.inConnection(conexion -> {
+                    Statement sentencia = conexion.createStatement(INSERT_UNA);
+                    bind(sentencia, 0, solicitud);
+                    return Mono.from(sentencia.returnGeneratedValues(COLUMNA_ID).execute())
+                            .flatMap(resultado -> Mono.from(resultado.map((row, metadata) -> row.get(0, Long.class))));
+                })
+                .map(id -> solicitud.toBuilder().idSolicitud(id).build())
+                .onErrorMap(SolicitudRepositoryAdapter::violaLlaveTipoPrestamo,
+                        error -> new TipoPrestamoInexistenteException(solicitud.getIdTipoPrestamo()))
+                .doOnSuccess(s -> {
+                    contador.registrar(s);
+                    log.debug("Solicitud guardada exitosamente con ID: {}", s.getIdSolicitud());
+                });
+    }
+
+    @Override
+    public Flux<Solicitud> guardarTodos(List<Solicitud> solicitudes) {
+        return Flux.defer(() -> {
+            long inicio = System.nanoTime();
+            return insertarPorPartes(solicitudes)
+                    .doOnComplete(() -> guardarTodosExito.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS))
+                    .doOnError(error -> guardarTodosError.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS));
+        });
+    }
+
+    /**
+     * Paginación por llave sobre la llave primaria: {@code id_solicitud < despuesDe} ordenado de forma
+     * descendente, que Postgres resuelve recorriendo el índice desde el cursor sin leer las páginas anteriores.
+     */
+    @Override
+    public Flux<Solicitud> listar(FiltroSolicitudes filtro, Long despuesDe, int limite) {
+        Consulta consulta = construirConsulta(SELECT_LISTADO, filtro, despuesDe);
+        return consulta.vincular(databaseClient.sql(consulta.sql() + " ORDER BY id_solicitud DESC LIMIT " + limite))
+                .map((row, metadata) -> Solicitud.builder()
+                        .idSolicitud(row.get("id_solicitud", Long.class))
+                        .monto(row.get("monto", BigDecimal.class))
+                        .plazo(row.get("plazo", Integer.class))
+                        .email(row.get("email", String.class))
+                        .idEstado(row.get("id_estado", Long.class))
+                        .idTipoPrestamo(row.get("id_tipo_prestamo", Long.class))
+                        .build())
+                .all();
+    }
+
+    /**
+     * Lee las filas que el planificador estima para la consulta con {@code EXPLAIN}, sin ejecutarla: el costo
+     * no depende del tamaño de la tabla, a cambio de la precisión de las estadísticas de {@code ANALYZE}.
+     */
+    @Override
+    public Mono<Long> estimarTotal(FiltroSolicitudes filtro) {
+        Consulta consulta = construirConsulta("EXPLAIN SELECT 1 FROM solicitudes", filtro, null);
+        return consulta.vincular(databaseClient.sql(consulta.sql()))
+                .map((row, metadata) -> row.get(0, String.class))
+                .first()
+                .mapNotNull(SolicitudRepositoryAdapter::filasEstimadas)
+                .onErrorResume(error -> {
+                    log.debug("No se pudo estimar el total de solicitudes: {}", error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Flux<Solicitud> insertarPorPartes(List<Solicitud> solicitudes) {
+        return Flux.range(0, (solicitudes.size() + MAX_FILAS_POR_INSERT - 1) / MAX_FILAS_POR_INSERT)
+                .concatMap(parte -> insertarGrupo(solicitudes.subList(parte * MAX_FILAS_POR_INSERT,
+                        Math.min(solicitudes.size(), (parte + 1) * MAX_FILAS_POR_INSERT))));
+    }
+
+    /**
+     * Un solo INSERT para todo el grupo. En Postgres las filas llegan como un arreglo por columna a
+     * {@link #INSERT_ARREGLOS}, cuyo texto no cambia con el tamaño del grupo y reutiliza la sentencia preparada
+     * de la conexión. Postgres no garantiza el orden de RETURNING, así que cada id vuelve con la posición
+     * ({@code WITH ORDINALITY}) de su fila en los arreglos y se asigna a la solicitud de esa posición.
+     * <p>
+     * En otras bases (H2 en las pruebas de carga, cuyo driver no vincula arreglos) es un {@code VALUES}
+     * multi-fila con las llaves generadas del driver, que H2 entrega en el orden de las filas.
+     * <p>
+     * Las filas se suman a {@link ContadorSolicitudesDelDia} cuando la sentencia termina: Postgres puede enviar
+     * filas de RETURNING antes de rechazar la sentencia completa en la verificación de llaves foráneas.
+     */
+    private Flux<Solicitud> insertarGrupo(List<Solicitud> grupo) {
+        log.debug("Guardando grupo de {} solicitudes en base de datos", grupo.size());
+        Flux<Tuple2<Long, Long>> ids = postgres
+                ? vincularArreglos(databaseClient.sql(INSERT_ARREGLOS), grupo)
+                        .map((row, metadata) -> Tuples.of(row.get(0, Long.class) - 1, row.get(1, Long.class)))
+                        .all()
+                : vincularFilas(databaseClient.sql(construirInsertMultiple(grupo.size())), grupo)
+                        .filter(sentencia -> sentencia.returnGeneratedValues(COLUMNA_ID))
+                        .map((row, metadata) -> row.get(0, Long.class))
+                        .all()
+                        .index();
+        return ids
+                .map(fila -> grupo.get(fila.getT1().intValue()).toBuilder().idSolicitud(fila.getT2()).build())
+                .collectList()
+                .doOnNext(guardadas -> guardadas.forEach(contador::registrar))
+                .flatMapIterable(Function.identity());
+    }
+
+    private static DatabaseClient.GenericExecuteSpec vincularArreglos(DatabaseClient.GenericExecuteSpec spec,
+                                                                      List<Solicitud> grupo) {
+        int filas = grupo.size();
+        BigDecimal[] montos = new BigDecimal[filas];
+        Integer[] plazos = new Integer[filas];
+        String[] emails = new String[filas];
+        Long[] estados = new Long[filas];
+        Long[] tipos = new Long[filas];
+        for (int fila = 0; fila < filas; fila++) {
+            Solicitud solicitud = grupo.get(fila);
+            montos[fila] = solicitud.getMonto();
+            plazos[fila] = solicitud.getPlazo();
+            emails[fila] = solicitud.getEmail();
+            estados[fila] = solicitud.getIdEstado();
+            tipos[fila] = solicitud.getIdTipoPrestamo();
+        }
+        return spec.bind(0, montos).bind(1, plazos).bind(2, emails).bind(3, estados).bind(4, tipos);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec vincularFilas(DatabaseClient.GenericExecuteSpec spec,
+                                                                   List<Solicitud> grupo) {
+        int indice = 0;
+        for (Solicitud solicitud : grupo) {
+            spec = bind(spec, indice++, solicitud.getMonto(), BigDecimal.class);
+            spec = bind(spec, indice++, solicitud.getPlazo(), Integer.class);
+            spec = bind(spec, indice++, solicitud.getEmail(), String.class);
+            spec = bind(spec, indice++, solicitud.getIdEstado(), Long.class);
+            spec = bind(spec, indice++, solicitud.getIdTipoPrestamo(), Long.class);
+        }
+        return spec;
+    }
+
+    /**
+     * El pool y el proxy de métricas exponen los metadatos del driver que envuelven.
+     */
+    static boolean esPostgres(DatabaseClient databaseClient) {
+        ConnectionFactory connectionFactory = databaseClient.getConnectionFactory();
+        return connectionFactory != null && POSTGRES.equals(connectionFactory.getMetadata().getName());
+    }
+
+    static String construirInsertMultiple(int filas) {
+        return IntStream.range(0, filas)
+                .mapToObj(fila -> IntStream.rangeClosed(1, COLUMNAS)
+                        .mapToObj(columna -> "$" + (fila * COLUMNAS + columna))
+                        .collect(Collectors.joining(", ", "(", ")")))
+                .collect(Collectors.joining(", ",
+                        "INSERT INTO solicitudes (monto, plazo, email, id_estado, id_tipo_prestamo) VALUES ", ""));
+    }
+
+    /**
+     * Agrega al {@code select} las condiciones de los criterios presentes, con parámetros posicionales.
+     */
+    static Consulta construirConsulta(String select, FiltroSolicitudes filtro, Long despuesDe) {
+        List<String> condiciones = new ArrayList<>();
+        List<Object> parametros = new ArrayList<>();
+        agregar(condiciones, parametros, "id_solicitud <", despuesDe);
+        agregar(condiciones, parametros, "id_estado =", filtro.getIdEstado());
+        agregar(condiciones, parametros, "id_tipo_prestamo =", filtro.getIdTipoPrestamo());
+        agregar(condiciones, parametros, "email =", filtro.getEmail());
+        agregar(condiciones, parametros, "monto >=", filtro.getMontoMinimo());
+        agregar(condiciones, parametros, "monto <=", filtro.getMontoMaximo());
+        String sql = condiciones.isEmpty() ? select : select + " WHERE " + String.join(" AND ", condiciones);
+        return new Consulta(sql, List.copyOf(parametros));
+    }
+
+    /**
+     * Filas estimadas del nodo raíz en la primera línea del plan, por ejemplo
+     * {@code Index Scan using ... (cost=0.29..8.31 rows=42 width=4)}.
+     */
+    static Long filasEstimadas(String plan) {
+        if (plan == null) {
+            return null;
+        }
+        Matcher matcher = FILAS_ESTIMADAS.matcher(plan);
+        return matcher.find() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
+    private static void agregar(List<String> condiciones, List<Object> parametros, String condicion, Object valor) {
+        if (valor != null) {
+            parametros.add(valor);
+            condiciones.add(condicion + " $" + parametros.size());
+        }
+    }
+
+    /**
+     * Spring puede envolver la excepción del driver en una {@code DataAccessException}, así que se recorre la causa.
+     */
+    static boolean violaLlaveTipoPrestamo(Throwable error) {
+        for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+            if (causa instanceof R2dbcException r2dbc
+                    && SQLSTATE_VIOLACION_LLAVE_FORANEA.equals(r2dbc.getSqlState())
+                    && r2dbc.getMessage() != null
+                    && r2dbc.getMessage().toLowerCase(Locale.ROOT).contains(LLAVE_FORANEA_TIPO_PRESTAMO)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void bind(Statement sentencia, int desde, Solicitud solicitud) {
+        bind(sentencia, desde, solicitud.getMonto(), BigDecimal.class);
+        bind(sentencia, desde + 1, solicitud.getPlazo(), Integer.class);
+        bind(sentencia, desde + 2, solicitud.getEmail(), String.class);
+        bind(sentencia, desde + 3, solicitud.getIdEstado(), Long.class);
+        bind(sentencia, desde + 4, solicitud.getIdTipoPrestamo(), Long.class);
+    }
+
+    private static void bind(Statement sentencia, int indice, Object valor, Class<?> tipo) {
+        if (valor != null) {
+            sentencia.bind(indice, valor);
+        } else {
+            sentencia.bindNull(indice, tipo);
+        }
+    }
+
+    private static Timer timer(MeterRegistry meterRegistry, String operacion, String resultado) {
+        return Timer.builder(METRICA)
+                .description("Duración de las escrituras de solicitudes en base de datos")
+                .tag("operacion", operacion)
+                .tag("resultado", resultado)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(SLO)
+                .register(meterRegistry);
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bind(DatabaseClient.GenericExecuteSpec spec, int indice,
+                                                          Object valor, Class<?> tipo) {
+        return valor != null ? spec.bind(indice, valor) : spec.bindNull(indice, tipo);
+    }
+
+    record Consulta(String sql, List<Object> parametros) {
+
+        DatabaseClient.GenericExecuteSpec vincular(DatabaseClient.GenericExecuteSpec spec) {
+            for (int indice = 0; indice < parametros.size(); indice++) {
+                spec = spec.bind(indice, parametros.get(indice));
+            }
+            return spec;
+        }
     }
 }
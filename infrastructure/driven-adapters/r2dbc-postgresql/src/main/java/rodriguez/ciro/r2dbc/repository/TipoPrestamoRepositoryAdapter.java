@@ -1,12 +1,16 @@
 package rodriguez.ciro.r2dbc.repository;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Mono;
 import rodriguez.ciro.model.tipoprestamo.TipoPrestamo;
 import rodriguez.ciro.model.tipoprestamo.gateways.TipoPrestamoRepository;
+import rodriguez.ciro.r2dbc.config.ReferenceDataCacheProperties;
 import rodriguez.ciro.r2dbc.entity.TipoPrestamoEntity;
 import rodriguez.ciro.r2dbc.helper.ReactiveAdapterOperations;
-import org.reactivecommons.utils.ObjectMapper;
+import rodriguez.ciro.r2dbc.helper.ReferenceDataCache;
+import rodriguez.ciro.r2dbc.mapper.TipoPrestamoDataMapper;
 import org.springframework.stereotype.Repository;
 
 @Slf4j
@@ -18,16 +22,35 @@ public class TipoPrestamoRepositoryAdapter extends ReactiveAdapterOperations<
         TipoPrestamoReactiveRepository
         > implements TipoPrestamoRepository {
 
-    public TipoPrestamoRepositoryAdapter(TipoPrestamoReactiveRepository repository, ObjectMapper mapper) {
-        super(repository, mapper, d -> mapper.map(d, TipoPrestamo.class));
+    private final ReferenceDataCache<Long, TipoPrestamo> cache;
+
+    public TipoPrestamoRepositoryAdapter(TipoPrestamoReactiveRepository repository, ReferenceDataCacheProperties cacheProperties) {
+        super(repository, TipoPrestamoDataMapper.INSTANCE);
+        this.cache = new ReferenceDataCache<>("tipos_prestamo", this::findAll,
+                TipoPrestamo::getIdTipoPrestamo, cacheProperties.refreshInterval(),
+                cacheProperties.missRefreshInterval());
+    }
+
+    @PostConstruct
+    void iniciarCache() {
+        cache.start();
+    }
+
+    @PreDestroy
+    void detenerCache() {
+        cache.stop();
     }
 
     @Override
     public Mono<Boolean> existePorId(Long idTipoPrestamo) {
         log.debug("existePorId {}", idTipoPrestamo);
-        if (idTipoPrestamo == null) {
-            return Mono.just(false);
-        }
-        return repository.existsById(idTipoPrestamo);
+        return cache.get(idTipoPrestamo)
+                .hasElement();
+    }
+
+    @Override
+    public Mono<TipoPrestamo> buscarPorId(Long idTipoPrestamo) {
+        log.debug("buscarPorId {}", idTipoPrestamo);
+        return cache.get(idTipoPrestamo);
     }
 }
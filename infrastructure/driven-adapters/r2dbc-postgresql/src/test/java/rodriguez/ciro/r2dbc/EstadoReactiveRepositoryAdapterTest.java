@@ -5,17 +5,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.reactivecommons.utils.ObjectMapper;
 import org.springframework.data.domain.Example;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
+import rodriguez.ciro.r2dbc.config.ReferenceDataCacheProperties;
 import rodriguez.ciro.r2dbc.entity.EstadoEntity;
 import rodriguez.ciro.r2dbc.repository.EstadoReactiveRepository;
 import rodriguez.ciro.r2dbc.repository.EstadoRepositoryAdapter;
 import rodriguez.ciro.model.estado.Estado;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,7 +31,7 @@ class EstadoReactiveRepositoryAdapterTest {
     EstadoReactiveRepository repository;
 
     @Mock
-    ObjectMapper mapper;
+    ReferenceDataCacheProperties cacheProperties;
 
     @Test
     void mustFindValueById() {
@@ -45,7 +47,6 @@ class EstadoReactiveRepositoryAdapterTest {
                 .build();
 
         when(repository.findById(1L)).thenReturn(Mono.just(entity));
-        when(mapper.map(entity, Estado.class)).thenReturn(estado);
 
         Mono<Estado> result = repositoryAdapter.findById(1L);
 
@@ -68,7 +69,6 @@ class EstadoReactiveRepositoryAdapterTest {
                 .build();
 
         when(repository.findAll()).thenReturn(Flux.just(entity));
-        when(mapper.map(entity, Estado.class)).thenReturn(estado);
 
         Flux<Estado> result = repositoryAdapter.findAll();
 
@@ -95,10 +95,7 @@ class EstadoReactiveRepositoryAdapterTest {
         EstadoEntity entityExample = EstadoEntity.builder()
                 .nombre("test")
                 .build();
-
-        when(mapper.map(estadoExample, EstadoEntity.class)).thenReturn(entityExample);
         when(repository.findAll(any(Example.class))).thenReturn(Flux.just(entity));
-        when(mapper.map(entity, Estado.class)).thenReturn(estado);
 
         Flux<Estado> result = repositoryAdapter.findByExample(estadoExample);
 
@@ -127,10 +124,7 @@ class EstadoReactiveRepositoryAdapterTest {
                 .nombre("test")
                 .descripcion("test description")
                 .build();
-
-        when(mapper.map(estado, EstadoEntity.class)).thenReturn(entityToSave);
         when(repository.save(entityToSave)).thenReturn(Mono.just(savedEntity));
-        when(mapper.map(savedEntity, Estado.class)).thenReturn(savedEstado);
 
         Mono<Estado> result = repositoryAdapter.save(estado);
 
@@ -138,4 +132,29 @@ class EstadoReactiveRepositoryAdapterTest {
                 .expectNextMatches(value -> value.getIdEstado().equals(1L))
                 .verifyComplete();
     }
+
+    @Test
+    void mustFindEstadoByIdFromCatalog() {
+        EstadoEntity entity = EstadoEntity.builder()
+                .idEstado(1L)
+                .nombre("PENDIENTE_REVISION")
+                .build();
+        Estado estado = Estado.builder()
+                .idEstado(1L)
+                .nombre("PENDIENTE_REVISION")
+                .build();
+
+        when(repository.findAll()).thenReturn(Flux.just(entity));
+
+        StepVerifier.create(repositoryAdapter.buscarPorId(1L))
+                .expectNextMatches(value -> value.getIdEstado().equals(1L)
+                        && value.getNombre().equals(estado.getNombre()))
+                .verifyComplete();
+        StepVerifier.create(repositoryAdapter.existePorId(2L))
+                .expectNext(false)
+                .verifyComplete();
+
+        // El id desconocido recarga el catálogo una vez antes de responder que no existe
+        verify(repository, times(2)).findAll();
+    }
 }
@@ -1,37 +1,53 @@
 package rodriguez.ciro.r2dbc.config;
 
-import org.junit.jupiter.api.BeforeEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
-import org.mockito.MockitoAnnotations;
 
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.mockito.Mockito.when;
 
 class PostgreSQLConnectionPoolTest {
 
-    @InjectMocks
-    private PostgreSQLConnectionPool connectionPool;
+    private final PostgreSQLConnectionPool connectionPool = new PostgreSQLConnectionPool();
 
-    @Mock
-    private PostgresqlConnectionProperties properties;
+    @Test
+    void getConnectionConfigSuccess() {
+        ConnectionPool pool = connectionPool.getConnectionConfig(properties(null), new SimpleMeterRegistry());
 
+        assertNotNull(pool);
+        assertEquals(PostgresqlConnectionProperties.Pool.DEFAULT_MAX_SIZE,
+                pool.getMetrics().map(PoolMetrics::getMaxAllocatedSize).orElseThrow());
+        pool.dispose();
+    }
 
-    @BeforeEach
-    void setUp() {
-        MockitoAnnotations.openMocks(this);
+    @Test
+    void poolAdaptativoArrancaConMaxSizeDentroDeLosLimites() {
+        PostgresqlConnectionProperties.Pool pool = new PostgresqlConnectionProperties.Pool(2, 80, null, null, null,
+                new PostgresqlConnectionProperties.Adaptive(true, 4, 30, Duration.ofMinutes(1)));
 
-        when(properties.host()).thenReturn("localhost");
-        when(properties.port()).thenReturn(5432);
-        when(properties.database()).thenReturn("dbName");
-        when(properties.schema()).thenReturn("schema");
-        when(properties.username()).thenReturn("username");
-        when(properties.password()).thenReturn("password");
+        ConnectionPool adaptativo = connectionPool.getConnectionConfig(properties(pool), new SimpleMeterRegistry());
+
+        assertEquals(30, adaptativo.getMetrics().map(PoolMetrics::getMaxAllocatedSize).orElseThrow());
+        adaptativo.dispose();
     }
 
     @Test
-    void getConnectionConfigSuccess() {
-        assertNotNull(connectionPool.getConnectionConfig(properties));
+    void propiedadesDelPoolTienenValoresPorDefecto() {
+        PostgresqlConnectionProperties.Pool pool = properties(null).pool();
+
+        assertEquals(PostgresqlConnectionProperties.Pool.DEFAULT_INITIAL_SIZE, pool.initialSize());
+        assertEquals(PostgresqlConnectionProperties.Pool.DEFAULT_MAX_IDLE_TIME, pool.maxIdleTime());
+        assertEquals("SELECT 1", pool.validationQuery());
+        assertEquals(false, pool.adaptive().enabled());
+        assertEquals(-1, properties(null).preparedStatementCacheQueries());
+    }
+
+    private static PostgresqlConnectionProperties properties(PostgresqlConnectionProperties.Pool pool) {
+        return new PostgresqlConnectionProperties("localhost", 5432, "dbName", "schema", "username", "password",
+                null, null, pool);
     }
 }
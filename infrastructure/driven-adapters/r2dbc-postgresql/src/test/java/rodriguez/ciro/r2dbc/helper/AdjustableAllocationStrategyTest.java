@@ -0,0 +1,61 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdjustableAllocationStrategyTest {
+
+    @Test
+    void concedeHastaElMinimoAunquePidanMenos() {
+        AdjustableAllocationStrategy estrategia = new AdjustableAllocationStrategy(3, 10);
+
+        assertEquals(3, estrategia.getPermits(1));
+        assertEquals(1, estrategia.getPermits(1));
+        assertEquals(4, estrategia.permitGranted());
+    }
+
+    @Test
+    void noSuperaElMaximoVigente() {
+        AdjustableAllocationStrategy estrategia = new AdjustableAllocationStrategy(0, 5);
+
+        assertEquals(5, estrategia.getPermits(8));
+        assertEquals(0, estrategia.getPermits(1));
+
+        estrategia.ajustarMaximo(7);
+        assertEquals(2, estrategia.estimatePermitCount());
+        assertEquals(2, estrategia.getPermits(3));
+    }
+
+    @Test
+    void reducirElMaximoSoloDejaDeConcederPermisos() {
+        AdjustableAllocationStrategy estrategia = new AdjustableAllocationStrategy(1, 6);
+        assertEquals(6, estrategia.getPermits(6));
+
+        estrategia.ajustarMaximo(4);
+        assertEquals(0, estrategia.estimatePermitCount());
+        assertEquals(0, estrategia.getPermits(1));
+
+        estrategia.returnPermits(3);
+        assertEquals(1, estrategia.getPermits(2));
+        assertEquals(4, estrategia.permitGranted());
+    }
+
+    @Test
+    void elMaximoNoBajaDelMinimo() {
+        AdjustableAllocationStrategy estrategia = new AdjustableAllocationStrategy(3, 10);
+
+        estrategia.ajustarMaximo(1);
+
+        assertEquals(3, estrategia.permitMaximum());
+    }
+
+    @Test
+    void devolverMasPermisosDeLosConcedidosFalla() {
+        AdjustableAllocationStrategy estrategia = new AdjustableAllocationStrategy(0, 5);
+        estrategia.getPermits(2);
+
+        assertThrows(IllegalArgumentException.class, () -> estrategia.returnPermits(3));
+    }
+}
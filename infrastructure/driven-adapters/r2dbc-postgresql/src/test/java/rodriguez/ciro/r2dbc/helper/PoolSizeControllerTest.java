@@ -0,0 +1,68 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PoolSizeControllerTest {
+
+    private final AtomicInteger adquiridas = new AtomicInteger();
+    private ConnectionPoolMetricsRecorder metricas;
+    private AdjustableAllocationStrategy estrategia;
+    private PoolSizeController controlador;
+
+    @BeforeEach
+    void setUp() {
+        metricas = new ConnectionPoolMetricsRecorder("prueba", new SimpleMeterRegistry());
+        estrategia = new AdjustableAllocationStrategy(2, 8);
+        controlador = new PoolSizeController(estrategia, metricas, adquiridas::get, 2, 20, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void creceCuandoLaEsperaEnColaSuperaLaLatenciaDeLaBase() {
+        metricas.registrarAdquisicion(TimeUnit.MILLISECONDS.toNanos(1), true, 8);
+        metricas.recordPendingSuccessAndLatency(20);
+        adquiridas.set(8);
+
+        assertEquals(10, controlador.revisar());
+    }
+
+    @Test
+    void noCreceSiLaEsperaEsMenorQueLaLatenciaDeLaBase() {
+        metricas.registrarAdquisicion(TimeUnit.MILLISECONDS.toNanos(30), true, 8);
+        metricas.recordPendingSuccessAndLatency(5);
+        adquiridas.set(8);
+
+        assertEquals(8, controlador.revisar());
+    }
+
+    @Test
+    void respetaElLimiteSuperior() {
+        estrategia.ajustarMaximo(19);
+        metricas.recordPendingSuccessAndLatency(50);
+
+        assertEquals(20, controlador.revisar());
+    }
+
+    @Test
+    void reduceDeAUnaSinEsperasYConPocoUso() {
+        metricas.registrarAdquisicion(TimeUnit.MILLISECONDS.toNanos(1), true, 3);
+        adquiridas.set(1);
+
+        assertEquals(7, controlador.revisar());
+        assertEquals(6, controlador.revisar());
+    }
+
+    @Test
+    void noReduceDelMinimo() {
+        estrategia.ajustarMaximo(2);
+
+        assertEquals(2, controlador.revisar());
+    }
+}
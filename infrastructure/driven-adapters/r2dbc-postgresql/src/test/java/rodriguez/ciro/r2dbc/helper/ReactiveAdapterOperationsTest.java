@@ -98,6 +98,22 @@ class ReactiveAdapterOperationsTest {
                 .verifyComplete();
     }
 
+    @Test
+    void saveWithDataMapperDoesNotUseObjectMapper() {
+        ReactiveAdapterOperations<DummyEntity, DummyData, String, DummyRepository> specialized =
+                new ReactiveAdapterOperations<DummyEntity, DummyData, String, DummyRepository>(repository,
+                        DataMapper.of(entity -> new DummyData(entity.getId(), entity.getName()), DummyEntity::toEntity)) {};
+        DummyEntity entity = new DummyEntity("1", "test");
+        DummyData data = new DummyData("1", "test");
+
+        when(repository.save(data)).thenReturn(Mono.just(data));
+
+        StepVerifier.create(specialized.save(entity))
+                .expectNext(entity)
+                .verifyComplete();
+        Mockito.verifyNoInteractions(mapper);
+    }
+
     static class DummyEntity {
         private String id;
         private String name;
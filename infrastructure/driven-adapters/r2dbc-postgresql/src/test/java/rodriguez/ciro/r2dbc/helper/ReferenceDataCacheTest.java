@@ -0,0 +1,134 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReferenceDataCacheTest {
+
+    private static final Duration INTERVALO = Duration.ofMinutes(5);
+
+    @Test
+    void getLoadsCatalogOnceAndServesFromSnapshot() {
+        AtomicInteger cargas = new AtomicInteger();
+        ReferenceDataCache<Long, String> cache = new ReferenceDataCache<>("test",
+                () -> Flux.defer(() -> {
+                    cargas.incrementAndGet();
+                    return Flux.just("1:uno", "2:dos");
+                }), ReferenceDataCacheTest::id, INTERVALO);
+
+        StepVerifier.create(cache.get(1L)).expectNext("1:uno").verifyComplete();
+        StepVerifier.create(cache.get(2L)).expectNext("2:dos").verifyComplete();
+        StepVerifier.create(cache.get(3L)).verifyComplete();
+
+        assertEquals(1, cargas.get());
+        assertTrue(cache.isLoaded());
+    }
+
+    @Test
+    void concurrentMissesShareSingleLoad() {
+        AtomicInteger cargas = new AtomicInteger();
+        Sinks.Many<String> filas = Sinks.many().replay().all();
+        ReferenceDataCache<Long, String> cache = new ReferenceDataCache<>("test",
+                () -> Flux.defer(() -> {
+                    cargas.incrementAndGet();
+                    return filas.asFlux();
+                }), ReferenceDataCacheTest::id, INTERVALO);
+
+        List<Mono<String>> consultas = List.of(cache.get(1L), cache.get(1L), cache.get(2L));
+        StepVerifier.create(Flux.merge(consultas).collectList())
+                .then(() -> {
+                    filas.tryEmitNext("1:uno");
+                    filas.tryEmitNext("2:dos");
+                    filas.tryEmitComplete();
+                })
+                .expectNextMatches(resultado -> resultado.size() == 3)
+                .verifyComplete();
+
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void failedRefreshKeepsPreviousSnapshot() {
+        AtomicInteger cargas = new AtomicInteger();
+        ReferenceDataCache<Long, String> cache = new ReferenceDataCache<>("test",
+                () -> cargas.incrementAndGet() == 1
+                        ? Flux.just("1:uno")
+                        : Flux.error(new IllegalStateException("db caída")),
+                ReferenceDataCacheTest::id, INTERVALO);
+
+        StepVerifier.create(cache.refresh()).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.refresh()).expectError(IllegalStateException.class).verify();
+
+        StepVerifier.create(cache.get(1L)).expectNext("1:uno").verifyComplete();
+    }
+
+    @Test
+    void missReloadsCatalogOnceBeforeAnsweringEmpty() {
+        AtomicInteger cargas = new AtomicInteger();
+        ReferenceDataCache<Long, String> cache = new ReferenceDataCache<>("test",
+                () -> Flux.defer(() -> cargas.incrementAndGet() == 1
+                        ? Flux.just("1:uno")
+                        : Flux.just("1:uno", "3:tres")),
+                ReferenceDataCacheTest::id, INTERVALO, Duration.ZERO);
+
+        StepVerifier.create(cache.get(1L)).expectNext("1:uno").verifyComplete();
+        StepVerifier.create(cache.get(3L)).expectNext("3:tres").verifyComplete();
+        StepVerifier.create(cache.get(3L)).expectNext("3:tres").verifyComplete();
+
+        assertEquals(2, cargas.get());
+    }
+
+    @Test
+    void missWithinIntervalDoesNotReload() {
+        AtomicInteger cargas = new AtomicInteger();
+        ReferenceDataCache<Long, String> cache = new ReferenceDataCache<>("test",
+                () -> Flux.defer(() -> {
+                    cargas.incrementAndGet();
+                    return Flux.just("1:uno");
+                }), ReferenceDataCacheTest::id, INTERVALO, Duration.ofMinutes(1));
+
+        StepVerifier.create(cache.get(1L)).expectNext("1:uno").verifyComplete();
+        StepVerifier.create(cache.get(3L)).verifyComplete();
+        StepVerifier.create(cache.get(4L)).verifyComplete();
+
+        assertEquals(1, cargas.get());
+    }
+
+    @Test
+    void failedMissReloadAnswersEmpty() {
+        AtomicInteger cargas = new AtomicInteger();
+        ReferenceDataCache<Long, String> cache = new ReferenceDataCache<>("test",
+                () -> cargas.incrementAndGet() == 1
+                        ? Flux.just("1:uno")
+                        : Flux.error(new IllegalStateException("db caída")),
+                ReferenceDataCacheTest::id, INTERVALO, Duration.ZERO);
+
+        StepVerifier.create(cache.get(1L)).expectNext("1:uno").verifyComplete();
+        StepVerifier.create(cache.get(3L)).verifyComplete();
+        StepVerifier.create(cache.get(1L)).expectNext("1:uno").verifyComplete();
+    }
+
+    @Test
+    void getWithNullKeyIsEmpty() {
+        ReferenceDataCache<Long, String> cache = new ReferenceDataCache<>("test",
+                Flux::empty, ReferenceDataCacheTest::id, INTERVALO);
+
+        StepVerifier.create(cache.get(null)).verifyComplete();
+        assertFalse(cache.isLoaded());
+    }
+
+    private static Long id(String valor) {
+        return Long.valueOf(valor.substring(0, valor.indexOf(':')));
+    }
+}
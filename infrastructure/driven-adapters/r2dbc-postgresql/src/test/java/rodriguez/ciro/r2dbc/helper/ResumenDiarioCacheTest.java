@@ -0,0 +1,203 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.estadistica.ResumenSolicitudes;
+import rodriguez.ciro.model.solicitud.Solicitud;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResumenDiarioCacheTest {
+
+    private static final Duration INTERVALO = Duration.ofMinutes(5);
+    private static final LocalDate HOY = LocalDate.of(2025, 1, 15);
+
+    @Test
+    void resumenDeHoyCargaUnaVezYConservaLosMontos() {
+        List<LocalDate> cargas = new ArrayList<>();
+        ResumenDiarioCache cache = new ResumenDiarioCache(dia -> {
+            cargas.add(dia);
+            return Flux.just(resumen(dia, 1L, 3, "30000.50"), resumen(dia, 2L, 1, "0.01"));
+        }, new ContadorSolicitudesDelDia(new RelojAjustable(HOY)), INTERVALO);
+
+        StepVerifier.create(cache.resumenDeHoy())
+                .expectNextMatches(resumen -> resumen.getDia().equals(HOY) && resumen.getIdEstado() == 1L
+                        && resumen.getCantidad() == 3 && resumen.getMontoTotal().equals(new BigDecimal("30000.50")))
+                .expectNextMatches(resumen -> resumen.getIdEstado() == 2L
+                        && resumen.getMontoTotal().equals(new BigDecimal("0.01")))
+                .verifyComplete();
+        StepVerifier.create(cache.resumenDeHoy()).expectNextCount(2).verifyComplete();
+
+        assertEquals(List.of(HOY), cargas);
+    }
+
+    @Test
+    void cambioDeDiaCargaElDiaNuevo() {
+        RelojAjustable reloj = new RelojAjustable(HOY);
+        List<LocalDate> cargas = new ArrayList<>();
+        ResumenDiarioCache cache = new ResumenDiarioCache(dia -> {
+            cargas.add(dia);
+            return Flux.just(resumen(dia, 1L, 1, "100.00"));
+        }, new ContadorSolicitudesDelDia(reloj), INTERVALO);
+
+        StepVerifier.create(cache.resumenDeHoy()).expectNextCount(1).verifyComplete();
+        reloj.dia = HOY.plusDays(1);
+        StepVerifier.create(cache.resumenDeHoy())
+                .expectNextMatches(resumen -> resumen.getDia().equals(HOY.plusDays(1)))
+                .verifyComplete();
+
+        assertEquals(List.of(HOY, HOY.plusDays(1)), cargas);
+    }
+
+    @Test
+    void recargaFallidaConservaLaLecturaAnterior() {
+        List<LocalDate> cargas = new ArrayList<>();
+        ResumenDiarioCache cache = new ResumenDiarioCache(dia -> {
+            cargas.add(dia);
+            return cargas.size() == 1
+                    ? Flux.just(resumen(dia, 1L, 4, "400.00"))
+                    : Flux.error(new IllegalStateException("db caída"));
+        }, new ContadorSolicitudesDelDia(new RelojAjustable(HOY)), INTERVALO);
+
+        StepVerifier.create(cache.refresh()).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.refresh()).expectError(IllegalStateException.class).verify();
+
+        StepVerifier.create(cache.resumenDeHoy())
+                .expectNextMatches(resumen -> resumen.getCantidad() == 4)
+                .verifyComplete();
+    }
+
+    @Test
+    void lasSolicitudesRegistradasSeSumanHastaQueLaTablaLasIncluye() {
+        ContadorSolicitudesDelDia contador = new ContadorSolicitudesDelDia(new RelojAjustable(HOY));
+        List<LocalDate> cargas = new ArrayList<>();
+        ResumenDiarioCache cache = new ResumenDiarioCache(dia -> {
+            cargas.add(dia);
+            return cargas.size() == 1
+                    ? Flux.just(resumen(dia, 1L, 3, "300.00"))
+                    : Flux.just(resumen(dia, 1L, 4, "400.25"), resumen(dia, 2L, 1, "10.00"));
+        }, contador, INTERVALO);
+
+        StepVerifier.create(cache.resumenDeHoy()).expectNextCount(1).verifyComplete();
+        contador.registrar(solicitud(1L, "100.25"));
+        contador.registrar(solicitud(2L, "10"));
+
+        StepVerifier.create(cache.resumenDeHoy())
+                .expectNextMatches(resumen -> resumen.getIdEstado() == 1L && resumen.getCantidad() == 4
+                        && resumen.getMontoTotal().equals(new BigDecimal("400.25")))
+                .expectNextMatches(resumen -> resumen.getIdEstado() == 2L && resumen.getCantidad() == 1
+                        && resumen.getMontoTotal().equals(new BigDecimal("10.00")))
+                .verifyComplete();
+
+        StepVerifier.create(cache.refresh()).expectNextCount(1).verifyComplete();
+        StepVerifier.create(cache.resumenDeHoy())
+                .expectNextMatches(resumen -> resumen.getCantidad() == 4)
+                .expectNextMatches(resumen -> resumen.getCantidad() == 1)
+                .verifyComplete();
+    }
+
+    @Test
+    void elPeriodoCerradoSeSumaMientrasLaRecargaNoTermina() {
+        ContadorSolicitudesDelDia contador = new ContadorSolicitudesDelDia(new RelojAjustable(HOY));
+        Sinks.One<ResumenSolicitudes> tabla = Sinks.one();
+        List<LocalDate> cargas = new ArrayList<>();
+        ResumenDiarioCache cache = new ResumenDiarioCache(dia -> {
+            cargas.add(dia);
+            return cargas.size() == 1 ? Flux.just(resumen(dia, 1L, 1, "100.00")) : tabla.asMono().flux();
+        }, contador, INTERVALO);
+        StepVerifier.create(cache.refresh()).expectNextCount(1).verifyComplete();
+        contador.registrar(solicitud(1L, "100.00"));
+
+        Disposable recarga = cache.refresh().subscribe();
+        Disposable concurrente = cache.refresh().subscribe();
+        contador.registrar(solicitud(1L, "100.00"));
+
+        StepVerifier.create(cache.resumenDeHoy())
+                .expectNextMatches(resumen -> resumen.getCantidad() == 3)
+                .verifyComplete();
+        tabla.tryEmitValue(resumen(HOY, 1L, 2, "200.00"));
+        StepVerifier.create(cache.resumenDeHoy())
+                .expectNextMatches(resumen -> resumen.getCantidad() == 3
+                        && resumen.getMontoTotal().equals(new BigDecimal("300.00")))
+                .verifyComplete();
+
+        assertEquals(2, cargas.size());
+        recarga.dispose();
+        concurrente.dispose();
+    }
+
+    @Test
+    void recargaFallidaDevuelveLoRegistradoAlContador() {
+        ContadorSolicitudesDelDia contador = new ContadorSolicitudesDelDia(new RelojAjustable(HOY));
+        List<LocalDate> cargas = new ArrayList<>();
+        ResumenDiarioCache cache = new ResumenDiarioCache(dia -> {
+            cargas.add(dia);
+            return cargas.size() == 2
+                    ? Flux.error(new IllegalStateException("db caída"))
+                    : Flux.just(resumen(dia, 1L, 1, "100.00"));
+        }, contador, INTERVALO);
+        StepVerifier.create(cache.refresh()).expectNextCount(1).verifyComplete();
+        contador.registrar(solicitud(1L, "100.00"));
+
+        StepVerifier.create(cache.refresh()).expectError(IllegalStateException.class).verify();
+
+        StepVerifier.create(cache.resumenDeHoy())
+                .expectNextMatches(resumen -> resumen.getCantidad() == 2)
+                .verifyComplete();
+    }
+
+    private static Solicitud solicitud(Long idEstado, String monto) {
+        return Solicitud.builder()
+                .idEstado(idEstado)
+                .idTipoPrestamo(1L)
+                .monto(new BigDecimal(monto))
+                .build();
+    }
+
+    private static ResumenSolicitudes resumen(LocalDate dia, Long idEstado, long cantidad, String monto) {
+        return ResumenSolicitudes.builder()
+                .dia(dia)
+                .idEstado(idEstado)
+                .idTipoPrestamo(1L)
+                .cantidad(cantidad)
+                .montoTotal(new BigDecimal(monto))
+                .build();
+    }
+
+    private static final class RelojAjustable extends Clock {
+
+        private LocalDate dia;
+
+        private RelojAjustable(LocalDate dia) {
+            this.dia = dia;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return dia.atTime(12, 0).toInstant(ZoneOffset.UTC);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package rodriguez.ciro.r2dbc.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WriteCoalescerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Integer>> grupos = new CopyOnWriteArrayList<>();
+
+    @Test
+    void llamadasConcurrentesSeEscribenEnUnSoloGrupo() {
+        WriteCoalescer<Integer, String> coalescer = crear(10, Duration.ofMillis(50), this::escribirGrupo);
+
+        StepVerifier.create(Flux.range(1, 5).flatMap(coalescer::escribir).collectSortedList())
+                .expectNext(List.of("id-1", "id-2", "id-3", "id-4", "id-5"))
+                .verifyComplete();
+
+        assertEquals(1, grupos.size());
+        assertEquals(5.0, meterRegistry.get("r2dbc.group.commit.batch.size").summary().totalAmount());
+        assertEquals(5, meterRegistry.get("r2dbc.group.commit.queue.wait").timer().count());
+    }
+
+    @Test
+    void grupoLlenoSeEnviaSinEsperarLaVentana() {
+        WriteCoalescer<Integer, String> coalescer = crear(3, Duration.ofHours(1), this::escribirGrupo);
+
+        StepVerifier.create(Flux.range(1, 6).flatMap(coalescer::escribir).collectList())
+                .expectNextMatches(resultados -> resultados.size() == 6)
+                .verifyComplete();
+
+        assertEquals(List.of(3, 3), grupos.stream().map(List::size).toList());
+    }
+
+    @Test
+    void cadaLlamadorRecibeSuPropioResultado() {
+        WriteCoalescer<Integer, String> coalescer = crear(10, Duration.ofMillis(20), this::escribirGrupo);
+
+        StepVerifier.create(Mono.zip(coalescer.escribir(7), coalescer.escribir(8)))
+                .expectNextMatches(par -> par.getT1().equals("id-7") && par.getT2().equals("id-8"))
+                .verifyComplete();
+    }
+
+    @Test
+    void fallaDelGrupoSoloAfectaAlValorInvalido() {
+        WriteCoalescer<Integer, String> coalescer = new WriteCoalescer<>("test", 10, Duration.ofMillis(20),
+                valores -> valores.contains(13)
+                        ? Flux.error(new IllegalArgumentException("violación de llave foránea"))
+                        : escribirGrupo(valores),
+                valor -> valor == 13
+                        ? Mono.error(new IllegalArgumentException("violación de llave foránea"))
+                        : Mono.just("id-" + valor),
+                Schedulers.parallel(), meterRegistry);
+
+        StepVerifier.create(Mono.zip(coalescer.escribir(1), coalescer.escribir(13).onErrorResume(e -> Mono.just("error"))))
+                .expectNextMatches(par -> par.getT1().equals("id-1") && par.getT2().equals("error"))
+                .verifyComplete();
+    }
+
+    @Test
+    void resultadosIncompletosFallanATodoElGrupo() {
+        WriteCoalescer<Integer, String> coalescer = crear(10, Duration.ofMillis(20), valores -> Flux.just("id"));
+
+        StepVerifier.create(Flux.merge(coalescer.escribir(1), coalescer.escribir(2)))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    private WriteCoalescer<Integer, String> crear(int tamanoMaximo, Duration ventana,
+                                                  Function<List<Integer>, Flux<String>> escritura) {
+        return new WriteCoalescer<>("test", tamanoMaximo, ventana, escritura,
+                valor -> Mono.just("id-" + valor), Schedulers.parallel(), meterRegistry);
+    }
+
+    private Flux<String> escribirGrupo(List<Integer> valores) {
+        grupos.add(valores);
+        return Flux.fromIterable(valores).map(valor -> "id-" + valor);
+    }
+}
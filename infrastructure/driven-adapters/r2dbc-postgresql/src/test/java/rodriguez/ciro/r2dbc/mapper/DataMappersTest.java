@@ -0,0 +1,76 @@
+package rodriguez.ciro.r2dbc.mapper;
+
+import org.junit.jupiter.api.Test;
+import rodriguez.ciro.model.estado.Estado;
+import rodriguez.ciro.model.solicitud.Solicitud;
+import rodriguez.ciro.model.tipoprestamo.TipoPrestamo;
+import rodriguez.ciro.r2dbc.entity.EstadoEntity;
+import rodriguez.ciro.r2dbc.entity.SolicitudEntity;
+import rodriguez.ciro.r2dbc.entity.TipoPrestamoEntity;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class DataMappersTest {
+
+    @Test
+    void solicitudCopiaTodosLosCampos() {
+        Solicitud solicitud = Solicitud.builder()
+                .idSolicitud(1L)
+                .monto(new BigDecimal("10000"))
+                .plazo(12)
+                .email("test@example.com")
+                .idEstado(2L)
+                .idTipoPrestamo(3L)
+                .build();
+
+        SolicitudEntity entity = SolicitudDataMapper.INSTANCE.toData(solicitud);
+        assertEquals(new SolicitudEntity(1L, new BigDecimal("10000"), 12, "test@example.com", 2L, 3L), entity);
+
+        Solicitud copia = SolicitudDataMapper.INSTANCE.toEntity(entity);
+        assertEquals(solicitud.getIdSolicitud(), copia.getIdSolicitud());
+        assertEquals(solicitud.getMonto(), copia.getMonto());
+        assertEquals(solicitud.getPlazo(), copia.getPlazo());
+        assertEquals(solicitud.getEmail(), copia.getEmail());
+        assertEquals(solicitud.getIdEstado(), copia.getIdEstado());
+        assertEquals(solicitud.getIdTipoPrestamo(), copia.getIdTipoPrestamo());
+    }
+
+    @Test
+    void tipoPrestamoCopiaTodosLosCampos() {
+        TipoPrestamoEntity entity = new TipoPrestamoEntity(1L, "PERSONAL", new BigDecimal("1000"),
+                new BigDecimal("50000"), new BigDecimal("5.00"), true);
+
+        TipoPrestamo tipoPrestamo = TipoPrestamoDataMapper.INSTANCE.toEntity(entity);
+        assertEquals(1L, tipoPrestamo.getIdTipoPrestamo());
+        assertEquals("PERSONAL", tipoPrestamo.getNombre());
+        assertEquals(new BigDecimal("1000"), tipoPrestamo.getMontoMinimo());
+        assertEquals(new BigDecimal("50000"), tipoPrestamo.getMontoMaximo());
+        assertEquals(new BigDecimal("5.00"), tipoPrestamo.getTasaInteres());
+        assertEquals(true, tipoPrestamo.getValidacionAutomatica());
+
+        assertEquals(entity, TipoPrestamoDataMapper.INSTANCE.toData(tipoPrestamo));
+    }
+
+    @Test
+    void estadoCopiaTodosLosCampos() {
+        EstadoEntity entity = new EstadoEntity(1L, "PENDIENTE_REVISION", "Pendiente de revisión");
+
+        Estado estado = EstadoDataMapper.INSTANCE.toEntity(entity);
+        assertEquals(1L, estado.getIdEstado());
+        assertEquals("PENDIENTE_REVISION", estado.getNombre());
+        assertEquals("Pendiente de revisión", estado.getDescripcion());
+
+        assertEquals(entity, EstadoDataMapper.INSTANCE.toData(estado));
+    }
+
+    @Test
+    void nullSeMapeaANull() {
+        assertNull(SolicitudDataMapper.INSTANCE.toData(null));
+        assertNull(SolicitudDataMapper.INSTANCE.toEntity(null));
+        assertNull(TipoPrestamoDataMapper.INSTANCE.toData(null));
+        assertNull(EstadoDataMapper.INSTANCE.toEntity(null));
+    }
+}
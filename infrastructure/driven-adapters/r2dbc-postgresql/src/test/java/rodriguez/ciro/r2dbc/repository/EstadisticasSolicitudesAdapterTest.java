@@ -0,0 +1,126 @@
+package rodriguez.ciro.r2dbc.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.estadistica.ResumenSolicitudes;
+import rodriguez.ciro.model.solicitud.Solicitud;
+import rodriguez.ciro.r2dbc.config.EstadisticasProperties;
+import rodriguez.ciro.r2dbc.helper.ContadorSolicitudesDelDia;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.function.BiFunction;
+
+import static org.mockito.Answers.RETURNS_SELF;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@ExtendWith(MockitoExtension.class)
+class EstadisticasSolicitudesAdapterTest {
+
+    @Mock
+    DatabaseClient databaseClient;
+
+    @Mock
+    FetchSpec<ResumenSolicitudes> fetchSpec;
+
+    DatabaseClient.GenericExecuteSpec executeSpec;
+
+    ContadorSolicitudesDelDia contador;
+
+    EstadisticasSolicitudesAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        executeSpec = mock(DatabaseClient.GenericExecuteSpec.class, withSettings().defaultAnswer(RETURNS_SELF));
+        contador = new ContadorSolicitudesDelDia();
+        adapter = new EstadisticasSolicitudesAdapter(databaseClient, new EstadisticasProperties(null), contador);
+    }
+
+    @Test
+    void diasAnterioresSeConsultanEnLaTablaDeResumen() {
+        LocalDate desde = LocalDate.of(2025, 1, 1);
+        LocalDate hasta = LocalDate.of(2025, 1, 31);
+        prepararConsulta();
+        when(fetchSpec.all()).thenReturn(Flux.just(resumen(desde)));
+
+        StepVerifier.create(adapter.resumenDiario(desde, hasta))
+                .expectNextMatches(resumen -> resumen.getDia().equals(desde))
+                .verifyComplete();
+
+        verify(executeSpec).bind(0, desde);
+        verify(executeSpec).bind(1, hasta);
+    }
+
+    @Test
+    void elDiaEnCursoSeServeDesdeLaCacheDespuesDeLosAnteriores() {
+        LocalDate hoy = LocalDate.now(ZoneOffset.UTC);
+        LocalDate desde = hoy.minusDays(2);
+        prepararConsulta();
+        when(fetchSpec.all()).thenReturn(Flux.just(resumen(desde)), Flux.just(resumen(hoy)));
+
+        StepVerifier.create(adapter.resumenDiario(desde, hoy))
+                .expectNextMatches(resumen -> resumen.getDia().equals(desde))
+                .expectNextMatches(resumen -> resumen.getDia().equals(hoy))
+                .verifyComplete();
+
+        verify(executeSpec).bind(0, desde);
+        verify(executeSpec).bind(1, hoy.minusDays(1));
+        verify(executeSpec).bind(0, hoy);
+        verify(executeSpec).bind(1, hoy);
+    }
+
+    @Test
+    void lasSolicitudesRegistradasSeSumanSinVolverAConsultar() {
+        LocalDate hoy = LocalDate.now(ZoneOffset.UTC);
+        prepararConsulta();
+        when(fetchSpec.all()).thenReturn(Flux.just(resumen(hoy)));
+
+        StepVerifier.create(adapter.resumenDiario(hoy, hoy)).expectNextCount(1).verifyComplete();
+        contador.registrar(Solicitud.builder().idEstado(1L).idTipoPrestamo(1L).monto(new BigDecimal("500.50")).build());
+
+        StepVerifier.create(adapter.resumenDiario(hoy, hoy))
+                .expectNextMatches(resumen -> resumen.getCantidad() == 3
+                        && resumen.getMontoTotal().equals(new BigDecimal("2500.50")))
+                .verifyComplete();
+
+        verify(fetchSpec).all();
+    }
+
+    @Test
+    void diasFuturosNoConsultanLaBaseDeDatos() {
+        LocalDate manana = LocalDate.now(ZoneOffset.UTC).plusDays(1);
+
+        StepVerifier.create(adapter.resumenDiario(manana, manana.plusDays(3))).verifyComplete();
+
+        verifyNoInteractions(databaseClient);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void prepararConsulta() {
+        when(databaseClient.sql(EstadisticasSolicitudesAdapter.SELECT_RESUMEN)).thenReturn(executeSpec);
+        when(executeSpec.map(any(BiFunction.class))).thenReturn(fetchSpec);
+    }
+
+    private static ResumenSolicitudes resumen(LocalDate dia) {
+        return ResumenSolicitudes.builder()
+                .dia(dia)
+                .idEstado(1L)
+                .idTipoPrestamo(1L)
+                .cantidad(2)
+                .montoTotal(new BigDecimal("2000.00"))
+                .build();
+    }
+}
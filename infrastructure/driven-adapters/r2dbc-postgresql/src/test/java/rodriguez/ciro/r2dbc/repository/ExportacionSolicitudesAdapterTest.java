@@ -0,0 +1,109 @@
+package rodriguez.ciro.r2dbc.repository;
+
+import io.r2dbc.spi.Readable;
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
+import rodriguez.ciro.model.solicitud.FormatoExportacion;
+import rodriguez.ciro.r2dbc.config.ExportacionProperties;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Answers.RETURNS_SELF;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@ExtendWith(MockitoExtension.class)
+class ExportacionSolicitudesAdapterTest {
+
+    @Mock
+    DatabaseClient databaseClient;
+
+    @Mock
+    FetchSpec<ByteBuffer> fetchSpec;
+
+    DatabaseClient.GenericExecuteSpec executeSpec;
+
+    ExportacionSolicitudesAdapter adapter;
+
+    @BeforeEach
+    void setUp() {
+        executeSpec = mock(DatabaseClient.GenericExecuteSpec.class, withSettings().defaultAnswer(RETURNS_SELF));
+        adapter = new ExportacionSolicitudesAdapter(databaseClient, new ExportacionProperties(250));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void exportarLeeConCursorYAntecedeElEncabezadoCsv() {
+        when(databaseClient.sql(ExportacionSolicitudesAdapter.SELECT_EXPORTACION
+                + " WHERE id_estado = $1 ORDER BY id_solicitud")).thenReturn(executeSpec);
+        when(executeSpec.map(any(BiFunction.class))).thenReturn(fetchSpec);
+        when(fetchSpec.all()).thenReturn(Flux.just(utf8("1,10000.00,12,a@example.com,1,1\n")));
+
+        StepVerifier.create(adapter.exportar(FiltroSolicitudes.builder().idEstado(1L).build(), FormatoExportacion.CSV)
+                        .map(ExportacionSolicitudesAdapterTest::texto))
+                .expectNext(ExportacionSolicitudesAdapter.ENCABEZADO_CSV)
+                .expectNext("1,10000.00,12,a@example.com,1,1\n")
+                .verifyComplete();
+
+        ArgumentCaptor<Function<Statement, Statement>> filtro = ArgumentCaptor.forClass(Function.class);
+        verify(executeSpec).filter(filtro.capture());
+        Statement sentencia = mock(Statement.class);
+        filtro.getValue().apply(sentencia);
+        verify(sentencia).fetchSize(250);
+        verify(executeSpec).bind(0, 1L);
+    }
+
+    @Test
+    void codificaNdjsonEscapandoTexto() {
+        Readable row = fila(7L, new BigDecimal("15000.50"), 24, "ana\"\\\n@example.com", 2L, 3L);
+
+        assertEquals("{\"idSolicitud\":7,\"monto\":15000.50,\"plazo\":24,\"email\":\"ana\\\"\\\\\\n@example.com\","
+                        + "\"idEstado\":2,\"idTipoPrestamo\":3}\n",
+                texto(ExportacionSolicitudesAdapter.codificar(row, FormatoExportacion.NDJSON)));
+    }
+
+    @Test
+    void codificaCsvEntreComillasSoloCuandoHaceFalta() {
+        assertEquals("7,15000.50,24,\"a,\"\"b\"\"@example.com\",2,3\n", texto(ExportacionSolicitudesAdapter.codificar(
+                fila(7L, new BigDecimal("15000.50"), 24, "a,\"b\"@example.com", 2L, 3L), FormatoExportacion.CSV)));
+        assertEquals("8,1000,12,,1,1\n", texto(ExportacionSolicitudesAdapter.codificar(
+                fila(8L, new BigDecimal("1E+3"), 12, null, 1L, 1L), FormatoExportacion.CSV)));
+    }
+
+    private static Readable fila(Long id, BigDecimal monto, Integer plazo, String email, Long estado, Long tipo) {
+        Readable row = mock(Readable.class);
+        when(row.get(0, Long.class)).thenReturn(id);
+        when(row.get(1, BigDecimal.class)).thenReturn(monto);
+        when(row.get(2, Integer.class)).thenReturn(plazo);
+        when(row.get(3, String.class)).thenReturn(email);
+        when(row.get(4, Long.class)).thenReturn(estado);
+        when(row.get(5, Long.class)).thenReturn(tipo);
+        return row;
+    }
+
+    private static ByteBuffer utf8(String texto) {
+        return ByteBuffer.wrap(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String texto(ByteBuffer buffer) {
+        return StandardCharsets.UTF_8.decode(buffer.duplicate()).toString();
+    }
+}
@@ -0,0 +1,123 @@
+package rodriguez.ciro.r2dbc.repository;
+
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.idempotencia.RegistroIdempotente;
+import rodriguez.ciro.r2dbc.config.IdempotenciaProperties;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Answers.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotenciaAdapterTest {
+
+    @Mock
+    DatabaseClient databaseClient;
+
+    IdempotenciaAdapter adapter;
+
+    private final RegistroIdempotente reserva = RegistroIdempotente.builder()
+            .clave("clave-1")
+            .huella("huella-1")
+            .expiraEn(Instant.now().plus(Duration.ofHours(24)))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        adapter = new IdempotenciaAdapter(databaseClient, new IdempotenciaProperties(null, 2));
+    }
+
+    @Test
+    void reservarClaveVencidaLaBorraYReintenta() {
+        FetchSpec<Map<String, Object>> insert = sentencia(IdempotenciaAdapter.INSERT_RESERVA);
+        FetchSpec<Map<String, Object>> delete = sentencia(IdempotenciaAdapter.DELETE_VENCIDA);
+        when(insert.rowsUpdated()).thenReturn(Mono.error(duplicada()), Mono.just(1L));
+        when(delete.rowsUpdated()).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(adapter.reservar(reserva))
+                .expectNext(true)
+                .verifyComplete();
+
+        verify(insert, times(2)).rowsUpdated();
+    }
+
+    @Test
+    void reservarClaveVigenteDeOtraEjecucionNoLaToma() {
+        FetchSpec<Map<String, Object>> insert = sentencia(IdempotenciaAdapter.INSERT_RESERVA);
+        FetchSpec<Map<String, Object>> delete = sentencia(IdempotenciaAdapter.DELETE_VENCIDA);
+        when(insert.rowsUpdated()).thenReturn(Mono.error(duplicada()));
+        when(delete.rowsUpdated()).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(adapter.reservar(reserva))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @Test
+    void completarGuardaLaRespuestaYExtiendeLaVigencia() {
+        DatabaseClient.GenericExecuteSpec executeSpec =
+                mock(DatabaseClient.GenericExecuteSpec.class, withSettings().defaultAnswer(RETURNS_SELF));
+        when(databaseClient.sql(IdempotenciaAdapter.UPDATE_RESPUESTA)).thenReturn(executeSpec);
+        when(executeSpec.then()).thenReturn(Mono.empty());
+        Instant expiraEn = Instant.now().plus(Duration.ofHours(24));
+
+        StepVerifier.create(adapter.completar("clave-1", "{}", expiraEn))
+                .verifyComplete();
+
+        verify(executeSpec).bind(0, "{}");
+        verify(executeSpec).bind(1, expiraEn);
+        verify(executeSpec).bind(2, "clave-1");
+    }
+
+    @Test
+    void purgarVencidasBorraPorLotesHastaUnLoteIncompleto() {
+        FetchSpec<Map<String, Object>> purga = sentencia(IdempotenciaAdapter.DELETE_LOTE_VENCIDAS);
+        when(purga.rowsUpdated()).thenReturn(Mono.just(2L), Mono.just(2L), Mono.just(1L));
+
+        StepVerifier.create(adapter.purgarVencidas())
+                .expectNext(5L)
+                .verifyComplete();
+
+        verify(purga, times(3)).rowsUpdated();
+    }
+
+    @Test
+    void violaUnicidadRevisaLaCadenaDeCausas() {
+        assertTrue(IdempotenciaAdapter.violaUnicidad(duplicada()));
+        assertFalse(IdempotenciaAdapter.violaUnicidad(new IllegalStateException("otro error")));
+    }
+
+    @SuppressWarnings("unchecked")
+    private FetchSpec<Map<String, Object>> sentencia(String sql) {
+        DatabaseClient.GenericExecuteSpec executeSpec =
+                mock(DatabaseClient.GenericExecuteSpec.class, withSettings().defaultAnswer(RETURNS_SELF));
+        FetchSpec<Map<String, Object>> fetchSpec = mock(FetchSpec.class);
+        when(databaseClient.sql(sql)).thenReturn(executeSpec);
+        when(executeSpec.fetch()).thenReturn(fetchSpec);
+        return fetchSpec;
+    }
+
+    private static DuplicateKeyException duplicada() {
+        return new DuplicateKeyException("llave duplicada", new R2dbcDataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"pk_solicitudes_idempotencia\"", "23505"));
+    }
+}
@@ -0,0 +1,361 @@
+package rodriguez.ciro.r2dbc.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.R2dbcDataIntegrityViolationException;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.FetchSpec;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+import rodriguez.ciro.model.exception.TipoPrestamoInexistenteException;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
+import rodriguez.ciro.model.solicitud.Solicitud;
+import rodriguez.ciro.r2dbc.config.GroupCommitProperties;
+import rodriguez.ciro.r2dbc.helper.ContadorSolicitudesDelDia;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Answers.RETURNS_SELF;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+@ExtendWith(MockitoExtension.class)
+class SolicitudRepositoryAdapterTest {
+
+    @Mock
+    SolicitudReactiveRepository repository;
+
+    @Mock
+    DatabaseClient databaseClient;
+
+    @Mock
+    FetchSpec<Long> fetchSpec;
+
+    @Mock
+    Connection conexion;
+
+    @Mock
+    Result resultado;
+
+    @Mock
+    ContadorSolicitudesDelDia contador;
+
+    DatabaseClient.GenericExecuteSpec executeSpec;
+
+    Statement sentencia;
+
+    SolicitudRepositoryAdapter adapter;
+
+    SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        executeSpec = mock(DatabaseClient.GenericExecuteSpec.class, withSettings().defaultAnswer(RETURNS_SELF));
+        sentencia = mock(Statement.class, withSettings().defaultAnswer(RETURNS_SELF));
+        meterRegistry = new SimpleMeterRegistry();
+        adapter = new SolicitudRepositoryAdapter(repository, databaseClient,
+                new GroupCommitProperties(false, null, null), contador, meterRegistry);
+    }
+
+    @Test
+    void construyeInsertMultiFilaConParametrosConsecutivos() {
+        assertEquals("INSERT INTO solicitudes (monto, plazo, email, id_estado, id_tipo_prestamo) VALUES "
+                        + "($1, $2, $3, $4, $5), ($6, $7, $8, $9, $10)",
+                SolicitudRepositoryAdapter.construirInsertMultiple(2));
+    }
+
+    @Test
+    void construyeConsultaSoloConLosFiltrosPresentes() {
+        FiltroSolicitudes filtro = FiltroSolicitudes.builder()
+                .idEstado(1L)
+                .email("a@example.com")
+                .montoMinimo(new BigDecimal("1000"))
+                .build();
+
+        SolicitudRepositoryAdapter.Consulta consulta =
+                SolicitudRepositoryAdapter.construirConsulta("SELECT 1 FROM solicitudes", filtro, 50L);
+
+        assertEquals("SELECT 1 FROM solicitudes WHERE id_solicitud < $1 AND id_estado = $2 AND email = $3 "
+                + "AND monto >= $4", consulta.sql());
+        assertEquals(List.of(50L, 1L, "a@example.com", new BigDecimal("1000")), consulta.parametros());
+        assertEquals("SELECT 1 FROM solicitudes", SolicitudRepositoryAdapter.construirConsulta(
+                "SELECT 1 FROM solicitudes", new FiltroSolicitudes(), null).sql());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void listarOrdenaPorIdDescendenteDesdeElCursor() {
+        FetchSpec<Solicitud> filas = mock(FetchSpec.class);
+        when(databaseClient.sql(SolicitudRepositoryAdapter.SELECT_LISTADO
+                + " WHERE id_solicitud < $1 AND id_tipo_prestamo = $2 ORDER BY id_solicitud DESC LIMIT 21"))
+                .thenReturn(executeSpec);
+        when(executeSpec.map(any(BiFunction.class))).thenReturn(filas);
+        when(filas.all()).thenReturn(Flux.just(solicitud(null).toBuilder().idSolicitud(99L).build()));
+
+        StepVerifier.create(adapter.listar(FiltroSolicitudes.builder().idTipoPrestamo(2L).build(), 100L, 21))
+                .expectNextMatches(s -> s.getIdSolicitud() == 99L)
+                .verifyComplete();
+
+        verify(executeSpec).bind(0, 100L);
+        verify(executeSpec).bind(1, 2L);
+    }
+
+    @Test
+    void leeLasFilasEstimadasDelPlan() {
+        assertEquals(42L, SolicitudRepositoryAdapter.filasEstimadas(
+                "Index Scan using idx_solicitudes_estado_id on solicitudes  (cost=0.29..8.31 rows=42 width=4)"));
+        assertNull(SolicitudRepositoryAdapter.filasEstimadas("SELECT 1 FROM PUBLIC.SOLICITUDES"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void estimarTotalVacioCuandoFallaElExplain() {
+        FetchSpec<String> plan = mock(FetchSpec.class);
+        when(databaseClient.sql("EXPLAIN SELECT 1 FROM solicitudes WHERE id_estado = $1")).thenReturn(executeSpec);
+        when(executeSpec.map(any(BiFunction.class))).thenReturn(plan);
+        when(plan.first()).thenReturn(Mono.error(new IllegalStateException("syntax error")));
+
+        StepVerifier.create(adapter.estimarTotal(FiltroSolicitudes.builder().idEstado(1L).build()))
+                .verifyComplete();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void guardarTodosAsignaIdsEnElOrdenRecibido() {
+        when(databaseClient.sql(anyString())).thenReturn(executeSpec);
+        when(executeSpec.map(any(BiFunction.class))).thenReturn(fetchSpec);
+        when(fetchSpec.all()).thenReturn(Flux.just(10L, 11L));
+
+        StepVerifier.create(adapter.guardarTodos(List.of(solicitud("a@example.com"), solicitud(null))))
+                .expectNextMatches(s -> s.getIdSolicitud() == 10L && "a@example.com".equals(s.getEmail()))
+                .expectNextMatches(s -> s.getIdSolicitud() == 11L && s.getEmail() == null)
+                .verifyComplete();
+
+        verify(executeSpec).bind(2, "a@example.com");
+        verify(executeSpec).bindNull(7, String.class);
+        verify(repository, never()).save(any());
+        verify(contador, times(2)).registrar(any());
+        assertEquals(1, meterRegistry.get(SolicitudRepositoryAdapter.METRICA)
+                .tag("operacion", "guardar_todos").tag("resultado", "exito").timer().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void guardarTodosEnPostgresEnviaUnArregloPorColumnaConElMismoTexto() {
+        ConnectionFactory postgres = mock(ConnectionFactory.class);
+        ConnectionFactoryMetadata metadata = mock(ConnectionFactoryMetadata.class);
+        when(metadata.getName()).thenReturn("PostgreSQL");
+        doReturn(metadata).when(postgres).getMetadata();
+        when(databaseClient.getConnectionFactory()).thenReturn(postgres);
+        adapter = new SolicitudRepositoryAdapter(repository, databaseClient,
+                new GroupCommitProperties(false, null, null), contador, meterRegistry);
+        FetchSpec<Tuple2<Long, Long>> ids = mock(FetchSpec.class);
+        ArgumentCaptor<BiFunction<Row, RowMetadata, Tuple2<Long, Long>>> mapeo = ArgumentCaptor.forClass(BiFunction.class);
+        when(databaseClient.sql(SolicitudRepositoryAdapter.INSERT_ARREGLOS)).thenReturn(executeSpec);
+        doReturn(ids).when(executeSpec).map(mapeo.capture());
+        // Los ids no siguen el orden de las filas: cada uno se asigna por su posición
+        when(ids.all()).thenReturn(Flux.just(Tuples.of(0L, 11L), Tuples.of(1L, 10L)), Flux.just(Tuples.of(0L, 12L)));
+
+        StepVerifier.create(adapter.guardarTodos(List.of(solicitud("a@example.com"), solicitud(null)))
+                        .concatWith(adapter.guardarTodos(List.of(solicitud("c@example.com")))))
+                .expectNextMatches(s -> s.getIdSolicitud() == 11L && "a@example.com".equals(s.getEmail()))
+                .expectNextMatches(s -> s.getIdSolicitud() == 10L && s.getEmail() == null)
+                .expectNextMatches(s -> s.getIdSolicitud() == 12L)
+                .verifyComplete();
+
+        // WITH ORDINALITY cuenta desde 1
+        Row fila = mock(Row.class);
+        when(fila.get(0, Long.class)).thenReturn(2L);
+        when(fila.get(1, Long.class)).thenReturn(10L);
+        assertEquals(Tuples.of(1L, 10L), mapeo.getValue().apply(fila, mock(RowMetadata.class)));
+        verify(executeSpec, never()).filter(any(Function.class));
+
+        verify(databaseClient, times(2)).sql(SolicitudRepositoryAdapter.INSERT_ARREGLOS);
+        verify(executeSpec).bind(2, new String[]{"a@example.com", null});
+        verify(executeSpec).bind(4, new Long[]{1L, 1L});
+        verify(executeSpec, times(10)).bind(anyInt(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void guardarTodosDivideGruposQueSuperanElLimiteDeParametros() {
+        int total = SolicitudRepositoryAdapter.MAX_FILAS_POR_INSERT + 1;
+        when(databaseClient.sql(anyString())).thenReturn(executeSpec);
+        when(executeSpec.map(any(BiFunction.class))).thenReturn(fetchSpec);
+        when(fetchSpec.all())
+                .thenReturn(Flux.fromStream(LongStream.rangeClosed(1, total - 1L).boxed()))
+                .thenReturn(Flux.just((long) total));
+
+        List<Solicitud> solicitudes = LongStream.range(0, total).mapToObj(i -> solicitud("x@example.com")).toList();
+
+        StepVerifier.create(adapter.guardarTodos(solicitudes))
+                .expectNextCount(total)
+                .verifyComplete();
+
+        verify(databaseClient, times(2)).sql(anyString());
+        verify(executeSpec, times(total * 5)).bind(anyInt(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void guardarTodosNoCuentaLasFilasDeUnaSentenciaRechazada() {
+        when(databaseClient.sql(anyString())).thenReturn(executeSpec);
+        when(executeSpec.map(any(BiFunction.class))).thenReturn(fetchSpec);
+        when(fetchSpec.all()).thenReturn(Flux.just(10L).concatWith(
+                Flux.error(new IllegalStateException("violates foreign key constraint"))));
+
+        StepVerifier.create(adapter.guardarTodos(List.of(solicitud("a@example.com"), solicitud("b@example.com"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(contador, never()).registrar(any());
+    }
+
+    @Test
+    void guardarTodosSinSolicitudesNoConsultaLaBase() {
+        StepVerifier.create(adapter.guardarTodos(List.of())).verifyComplete();
+
+        verify(databaseClient, never()).sql(anyString());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void guardarConGroupCommitUneLlamadasConcurrentesEnUnInsert() {
+        adapter = new SolicitudRepositoryAdapter(repository, databaseClient,
+                new GroupCommitProperties(true, 10, Duration.ofMillis(20)), contador,
+                new SimpleMeterRegistry());
+        when(databaseClient.sql(SolicitudRepositoryAdapter.construirInsertMultiple(2))).thenReturn(executeSpec);
+        when(executeSpec.map(any(BiFunction.class))).thenReturn(fetchSpec);
+        when(fetchSpec.all()).thenReturn(Flux.just(21L, 22L));
+
+        StepVerifier.create(Mono.zip(adapter.guardar(solicitud("a@example.com")), adapter.guardar(solicitud("b@example.com"))))
+                .expectNextMatches(par -> par.getT1().getIdSolicitud() == 21L && "a@example.com".equals(par.getT1().getEmail())
+                        && par.getT2().getIdSolicitud() == 22L && "b@example.com".equals(par.getT2().getEmail()))
+                .verifyComplete();
+
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void guardarConGroupCommitAislaElErrorDeCadaLlamador() {
+        adapter = new SolicitudRepositoryAdapter(repository, databaseClient,
+                new GroupCommitProperties(true, 10, Duration.ofMillis(20)), contador,
+                new SimpleMeterRegistry());
+        Solicitud valida = solicitud("a@example.com");
+        Solicitud invalida = solicitud("b@example.com").toBuilder().idTipoPrestamo(99L).build();
+        when(databaseClient.sql(anyString())).thenReturn(executeSpec);
+        when(executeSpec.map(any(BiFunction.class))).thenReturn(fetchSpec);
+        when(fetchSpec.all()).thenReturn(Flux.error(new IllegalStateException("violates foreign key constraint")));
+        // Los reintentos individuales se envían en el orden del grupo
+        conectarSentenciaIndividual();
+        doReturn(Mono.just(resultado), Mono.error(new IllegalStateException("violates foreign key constraint")))
+                .when(sentencia).execute();
+        when(resultado.map(any(BiFunction.class))).thenReturn(Flux.just(5L));
+
+        StepVerifier.create(Mono.zip(adapter.guardar(valida),
+                        adapter.guardar(invalida).map(s -> "guardada").onErrorResume(e -> Mono.just("error"))))
+                .expectNextMatches(par -> par.getT1().getIdSolicitud() == 5L && par.getT2().equals("error"))
+                .verifyComplete();
+
+        verify(contador).registrar(argThat(s -> s.getIdSolicitud() == 5L));
+        verify(contador, times(1)).registrar(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void guardarUsaElInsertPreparadoYLeeElIdPorIndice() {
+        conectarSentenciaIndividual();
+        doReturn(Mono.just(resultado)).when(sentencia).execute();
+        when(resultado.map(any(BiFunction.class))).thenReturn(Flux.just(42L));
+
+        StepVerifier.create(adapter.guardar(solicitud(null)))
+                .expectNextMatches(s -> s.getIdSolicitud() == 42L && s.getPlazo() == 12)
+                .verifyComplete();
+
+        verify(conexion).createStatement(SolicitudRepositoryAdapter.INSERT_UNA);
+        verify(sentencia).returnGeneratedValues("id_solicitud");
+        verify(sentencia).bind(0, new BigDecimal("10000"));
+        verify(sentencia).bindNull(2, String.class);
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void guardarTraduceLaViolacionDeLaLlaveDelTipoDePrestamo() {
+        conectarSentenciaIndividual();
+        // Spring envuelve la excepción del driver
+        doReturn(Mono.error(new DataIntegrityViolationException("insert", new R2dbcDataIntegrityViolationException(
+                "insert or update on table \"solicitudes\" violates foreign key constraint "
+                        + "\"fk_solicitudes_tipos_prestamo\"", "23503"))))
+                .when(sentencia).execute();
+
+        StepVerifier.create(adapter.guardar(solicitud(null)))
+                .expectErrorSatisfies(error -> {
+                    assertInstanceOf(TipoPrestamoInexistenteException.class, error);
+                    assertEquals("El tipo de préstamo con ID 1 no existe", error.getMessage());
+                })
+                .verify();
+    }
+
+    @Test
+    void guardarNoTraduceOtrasViolacionesDeIntegridad() {
+        conectarSentenciaIndividual();
+        R2dbcDataIntegrityViolationException otra = new R2dbcDataIntegrityViolationException(
+                "violates foreign key constraint \"fk_solicitudes_estados\"", "23503");
+        doReturn(Mono.error(otra)).when(sentencia).execute();
+
+        StepVerifier.create(adapter.guardar(solicitud(null)))
+                .expectErrorMatches(error -> error == otra)
+                .verify();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void conectarSentenciaIndividual() {
+        when(conexion.createStatement(anyString())).thenReturn(sentencia);
+        when(databaseClient.inConnection(any())).thenAnswer(invocacion ->
+                invocacion.<Function<Connection, Mono<Long>>>getArgument(0).apply(conexion));
+    }
+
+    private static Solicitud solicitud(String email) {
+        return Solicitud.builder()
+                .monto(new BigDecimal("10000"))
+                .plazo(12)
+                .email(email)
+                .idEstado(1L)
+                .idTipoPrestamo(1L)
+                .build();
+    }
+}
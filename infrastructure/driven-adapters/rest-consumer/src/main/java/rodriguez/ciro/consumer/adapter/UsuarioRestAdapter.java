@@ -1,50 +1,81 @@
 package rodriguez.ciro.consumer.adapter;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import rodriguez.ciro.consumer.api.UsuariosApi;
-import rodriguez.ciro.consumer.api.model.RegistrarUsuarioRequest;
-import rodriguez.ciro.consumer.api.model.RolDto;
+import rodriguez.ciro.consumer.api.model.DocumentoUsuarioRequest;
 import rodriguez.ciro.consumer.api.model.UsuarioResponse;
-import rodriguez.ciro.model.usuario.Rol;
+import rodriguez.ciro.consumer.cache.UsuarioCache;
+import rodriguez.ciro.consumer.config.LoteDocumentosProperties;
+import rodriguez.ciro.consumer.helper.MicroLote;
+import rodriguez.ciro.consumer.helper.SingleFlight;
+import rodriguez.ciro.consumer.mapper.UsuarioApiMapper;
 import rodriguez.ciro.model.usuario.Usuario;
 import rodriguez.ciro.model.usuario.gateways.UsuarioGateway;
 
-import java.math.BigDecimal;
-import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Slf4j
 @Repository
-@RequiredArgsConstructor
 public class UsuarioRestAdapter implements UsuarioGateway {
 
     private final UsuariosApi usuariosApi;
+    private final UsuarioCache usuarioCache;
+    private final SingleFlight<RegistroKey, Usuario> registrosEnCurso = new SingleFlight<>();
+    // null si las búsquedas por documento van una por una
+    private final MicroLote<DocumentoKey, Usuario> lotesDocumento;
+
+    public UsuarioRestAdapter(UsuariosApi usuariosApi, UsuarioCache usuarioCache,
+                              LoteDocumentosProperties loteDocumentos) {
+        this.usuariosApi = usuariosApi;
+        this.usuarioCache = usuarioCache;
+        this.lotesDocumento = loteDocumentos.enabled()
+                ? new MicroLote<>(loteDocumentos.ventana(), loteDocumentos.tamanoMaximo(), this::buscarLoteDocumentos)
+                : null;
+    }
 
+    /**
+     * Los registros concurrentes del mismo documento y email comparten una sola llamada remota,
+     * evitando registrar dos veces a la misma persona cuando un cliente reintenta.
+     * Las búsquedas ya comparten la carga en curso a través de {@link UsuarioCache}.
+     */
     @Override
     public Mono<Usuario> registrarUsuario(Usuario usuario) {
         log.debug("Registrando usuario en servicio externo: {}", usuario.getCorreoElectronico());
 
-        return Mono.just(usuario)
-                .map(this::mapToRegistrarUsuarioRequest)
-                .flatMap(usuariosApi::registrarUsuarioRequest)
-                .doOnNext(response -> log.info("Respuesta del servicio de usuarios: idUsuario={}, nombres={}", 
-                    response.getIdUsuario(), response.getNombres()))
-                .map(this::mapToUsuario)
+        RegistroKey key = new RegistroKey(usuario.getTipoDocumento(), usuario.getNumeroDocumento(),
+                usuario.getCorreoElectronico());
+        return registrosEnCurso.ejecutar(key, () -> Mono.just(usuario)
+                        .map(UsuarioApiMapper::mapToRegistrarUsuarioRequest)
+                        .flatMap(usuariosApi::registrarUsuarioRequest)
+                        .doOnNext(response -> log.info("Respuesta del servicio de usuarios: idUsuario={}, nombres={}",
+                            response.getIdUsuario(), response.getNombres()))
+                        .map(UsuarioApiMapper::mapToUsuario)
+                        .doOnNext(usuarioCache::registrar))
                 .doOnSuccess(u -> log.debug("Usuario registrado exitosamente con ID: {}", u.getIdUsuario()))
-                .doOnError(error -> log.error("Error al registrar usuario: {}", error.getMessage()));
+                .doOnError(error -> {
+                    usuarioCache.invalidar(usuario);
+                    log.error("Error al registrar usuario: {}", error.getMessage());
+                });
     }
 
     @Override
     public Mono<Usuario> buscarUsuarioPorDocumento(String tipoDocumento, String numeroDocumento) {
         log.debug("Buscando usuario por documento: {} - {}", tipoDocumento, numeroDocumento);
 
-        return usuariosApi.buscarUsuarioPorDocumentoRequest(tipoDocumento, numeroDocumento)
-                .doOnNext(response -> log.info("Usuario encontrado en servicio externo: idUsuario={}, nombres={}", 
-                    response.getIdUsuario(), response.getNombres()))
-                .map(this::mapToUsuario)
-                .doOnSuccess(u -> log.debug("Usuario encontrado con ID: {}", u.getIdUsuario()))
+        return usuarioCache.buscarPorDocumento(tipoDocumento, numeroDocumento, () -> lotesDocumento != null
+                        ? lotesDocumento.obtener(new DocumentoKey(tipoDocumento, numeroDocumento))
+                        : usuariosApi.buscarUsuarioPorDocumentoRequest(tipoDocumento, numeroDocumento)
+                                .doOnNext(response -> log.info("Usuario encontrado en servicio externo: idUsuario={}, nombres={}",
+                                    response.getIdUsuario(), response.getNombres()))
+                                .map(UsuarioApiMapper::mapToUsuario))
+                .doOnNext(u -> log.debug("Usuario encontrado con ID: {}", u.getIdUsuario()))
                 .doOnError(error -> log.error("Error al buscar usuario por documento: {}", error.getMessage()));
     }
 
@@ -52,105 +83,61 @@ public class UsuarioRestAdapter implements UsuarioGateway {
     public Mono<Usuario> buscarUsuarioPorEmail(String correoElectronico) {
         log.debug("Buscando usuario por email: {}", correoElectronico);
 
-        return usuariosApi.buscarUsuarioPorEmailRequest(correoElectronico)
-                .doOnNext(response -> log.info("Usuario encontrado por email en servicio externo: idUsuario={}, nombres={}", 
-                    response.getIdUsuario(), response.getNombres()))
-                .map(this::mapToUsuario)
-                .doOnSuccess(u -> log.debug("Usuario encontrado por email con ID: {}", u.getIdUsuario()))
+        return usuarioCache.buscarPorEmail(correoElectronico, () ->
+                        usuariosApi.buscarUsuarioPorEmailRequest(correoElectronico)
+                                .doOnNext(response -> log.info("Usuario encontrado por email en servicio externo: idUsuario={}, nombres={}",
+                                    response.getIdUsuario(), response.getNombres()))
+                                .map(UsuarioApiMapper::mapToUsuario))
+                .doOnNext(u -> log.debug("Usuario encontrado por email con ID: {}", u.getIdUsuario()))
                 .doOnError(error -> log.error("Error al buscar usuario por email: {}", error.getMessage()));
     }
 
-    private RegistrarUsuarioRequest mapToRegistrarUsuarioRequest(Usuario usuario) {
-        RegistrarUsuarioRequest request = new RegistrarUsuarioRequest();
-        request.setNombres(usuario.getNombres());
-        request.setApellidos(usuario.getApellidos());
-        request.setTipoDocumento(usuario.getTipoDocumento());
-        request.setNumeroDocumento(usuario.getNumeroDocumento());
-        request.setFechaNacimiento(usuario.getFechaNacimiento());
-        request.setDireccion(usuario.getDireccion());
-        request.setTelefono(usuario.getTelefono());
-        request.setCorreoElectronico(usuario.getCorreoElectronico());
-        request.setSalarioBase(usuario.getSalarioBase());
-
-        if (usuario.getRol() != null) {
-            RolDto rolDto = new RolDto();
-            rolDto.setIdRol(usuario.getRol().getIdRol());
-            rolDto.setNombre(usuario.getRol().getNombre());
-            request.setRol(rolDto);
-        }
-
-        return request;
-    }
-
-    private Usuario mapToUsuario(UsuarioResponse response) {
-        log.info("Mapeando UsuarioResponse: idUsuario raw={} (tipo={})", 
-            response.getIdUsuario(), 
-            response.getIdUsuario() != null ? response.getIdUsuario().getClass().getSimpleName() : "null");
-        
-        Long idUsuarioMapeado = mapToLong(response.getIdUsuario());
-        log.info("idUsuario después del mapeo: {}", idUsuarioMapeado);
-        
-        return Usuario.builder()
-                .idUsuario(idUsuarioMapeado)
-                .nombres(mapToString(response.getNombres()))
-                .apellidos(mapToString(response.getApellidos()))
-                .tipoDocumento(mapToString(response.getTipoDocumento()))
-                .numeroDocumento(mapToString(response.getNumeroDocumento()))
-                .fechaNacimiento(mapToLocalDate(response.getFechaNacimiento()))
-                .direccion(mapToString(response.getDireccion()))
-                .telefono(mapToString(response.getTelefono()))
-                .correoElectronico(mapToString(response.getCorreoElectronico()))
-                .salarioBase(mapToBigDecimal(response.getSalarioBase()))
-                .rol(mapToRol(response.getRol()))
-                .build();
-    }
-
-    private Rol mapToRol(RolDto rolDto) {
-        if (rolDto == null) {
-            return null;
-        }
-        return Rol.builder()
-                .idRol(mapToLong(rolDto.getIdRol()))
-                .nombre(mapToString(rolDto.getNombre()))
-                .build();
-    }
-
-    private Long mapToLong(Object obj) {
-        if (obj == null) {
-            log.info("mapToLong: objeto es null");
-            return null;
-        }
-        if (obj instanceof Long) return (Long) obj;
-        if (obj instanceof Integer) return ((Integer) obj).longValue();
-        if (obj instanceof Number) return ((Number) obj).longValue();
-        if (obj instanceof String) {
-            try {
-                return Long.valueOf((String) obj);
-            } catch (NumberFormatException e) {
-                log.info("Error al convertir string a Long: {}", obj);
-                return null;
-            }
-        }
-        log.info("Tipo no soportado para mapToLong: {} (valor={}, tipo={})", obj, obj, obj.getClass().getSimpleName());
-        return null;
+    /**
+     * Una sola llamada para los documentos que se juntaron en el lote; los que no vienen en la respuesta no existen.
+     * <p>
+     * Cada usuario de la respuesta se asigna al documento pedido con exactamente el mismo tipo y número. Si la
+     * respuesta trae algún documento que no se pidió así (el servicio lo devolvió en otra forma), no se adivina a
+     * qué búsqueda corresponde: los documentos pedidos que quedaron sin usuario se buscan uno por uno.
+     */
+    private Mono<Map<DocumentoKey, Usuario>> buscarLoteDocumentos(List<DocumentoKey> documentos) {
+        log.debug("Buscando {} usuarios por documento en lote", documentos.size());
+
+        Set<DocumentoKey> pedidos = new HashSet<>(documentos);
+        List<DocumentoUsuarioRequest> request = documentos.stream()
+                .map(documento -> new DocumentoUsuarioRequest(documento.tipoDocumento(), documento.numeroDocumento()))
+                .toList();
+        return usuariosApi.buscarUsuariosPorDocumentoRequest(request)
+                .flatMap(encontrados -> {
+                    Map<DocumentoKey, Usuario> porDocumento = new HashMap<>(documentos.size() * 2);
+                    boolean sinCorresponder = false;
+                    for (UsuarioResponse response : encontrados) {
+                        DocumentoKey documento = new DocumentoKey(response.getTipoDocumento(),
+                                response.getNumeroDocumento());
+                        if (pedidos.contains(documento)) {
+                            porDocumento.put(documento, UsuarioApiMapper.mapToUsuario(response));
+                        } else {
+                            log.warn("El lote de documentos respondió un documento que no se pidió: {} - {}",
+                                    response.getTipoDocumento(), response.getNumeroDocumento());
+                            sinCorresponder = true;
+                        }
+                    }
+                    return sinCorresponder ? buscarFaltantes(pedidos, porDocumento) : Mono.just(porDocumento);
+                });
     }
 
-    private String mapToString(Object obj) {
-        return obj != null ? obj.toString() : null;
+    private Mono<Map<DocumentoKey, Usuario>> buscarFaltantes(Set<DocumentoKey> pedidos,
+                                                            Map<DocumentoKey, Usuario> porDocumento) {
+        return Flux.fromIterable(pedidos)
+                .filter(documento -> !porDocumento.containsKey(documento))
+                .flatMap(documento -> usuariosApi.buscarUsuarioPorDocumentoRequest(documento.tipoDocumento(),
+                                documento.numeroDocumento())
+                        .map(response -> Map.entry(documento, UsuarioApiMapper.mapToUsuario(response))))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue, () -> porDocumento);
     }
 
-    private LocalDate mapToLocalDate(Object obj) {
-        if (obj == null) return null;
-        if (obj instanceof LocalDate) return (LocalDate) obj;
-        if (obj instanceof String) return LocalDate.parse((String) obj);
-        return null;
+    private record RegistroKey(String tipoDocumento, String numeroDocumento, String correoElectronico) {
     }
 
-    private BigDecimal mapToBigDecimal(Object obj) {
-        if (obj == null) return null;
-        if (obj instanceof BigDecimal) return (BigDecimal) obj;
-        if (obj instanceof Number) return BigDecimal.valueOf(((Number) obj).doubleValue());
-        if (obj instanceof String) return new BigDecimal((String) obj);
-        return null;
+    private record DocumentoKey(String tipoDocumento, String numeroDocumento) {
     }
 }
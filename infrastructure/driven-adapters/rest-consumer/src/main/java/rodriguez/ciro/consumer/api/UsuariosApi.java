@@ -1,37 +1,52 @@
 package rodriguez.ciro.consumer.api;
 
+import rodriguez.ciro.consumer.api.model.DocumentoUsuarioRequest;
 import rodriguez.ciro.consumer.api.model.RegistrarUsuarioRequest;
 import rodriguez.ciro.consumer.api.model.UsuarioResponse;
+import rodriguez.ciro.consumer.helper.Hedging;
+import rodriguez.ciro.consumer.helper.MedidorLlamadas;
+import rodriguez.ciro.consumer.helper.MedidorLlamadas.Operacion;
+import rodriguez.ciro.consumer.helper.ProteccionLlamadas;
+import rodriguez.ciro.consumer.helper.Reintentos;
 
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
 import lombok.extern.log4j.Log4j2;
 import lombok.AllArgsConstructor;
 
+import java.util.List;
+import java.util.function.Supplier;
+
 @Log4j2
 @AllArgsConstructor
 @Service
 public class UsuariosApi {
     private final WebClient client;
+    private final Hedging hedging;
+    private final Reintentos reintentos;
+    private final MedidorLlamadas medidor;
+    private final ProteccionLlamadas proteccion;
 
     /**
      * Build call for registrarUsuario
      *
      * @param body (required)
-     * @return Mono<UsuarioResponse> response
+     * @return Mono<UsuarioResponse> response, sin reintentos: el servicio no reconoce un registro repetido
      */
     public Mono<UsuarioResponse> registrarUsuarioRequest(RegistrarUsuarioRequest body) {
-        return client.method(HttpMethod.POST)
+        return intento(Operacion.REGISTRO, () -> client.method(HttpMethod.POST)
                 .uri("/api/v1/usuarios")
                 .contentType(MediaType.parseMediaType("application/json"))
                 .body(BodyInserters.fromValue(body))
                 .accept(MediaType.parseMediaType("application/json"))
                 .retrieve()
-                .bodyToMono(UsuarioResponse.class);
+                .bodyToMono(UsuarioResponse.class)).get();
     }
 
     /**
@@ -39,27 +54,74 @@ public class UsuariosApi {
      *
      * @param tipoDocumento (required)
      * @param numeroDocumento (required)
-     * @return Mono<UsuarioResponse> response
+     * @return Mono<UsuarioResponse> response, vacío si el usuario no existe (404)
      */
     public Mono<UsuarioResponse> buscarUsuarioPorDocumentoRequest(String tipoDocumento, String numeroDocumento) {
-        return client.method(HttpMethod.GET)
+        return consultar("documento", intento(Operacion.DOCUMENTO, () -> client.method(HttpMethod.GET)
                 .uri("/api/v1/usuarios/documento/{tipoDocumento}/{numeroDocumento}", tipoDocumento, numeroDocumento)
                 .accept(MediaType.parseMediaType("application/json"))
+                .exchangeToMono(this::usuarioOVacio)));
+    }
+
+    /**
+     * Build call for buscarUsuariosPorDocumento
+     *
+     * @param documentos (required)
+     * @return Mono<List<UsuarioResponse>> response, solo con los usuarios que existen
+     */
+    public Mono<List<UsuarioResponse>> buscarUsuariosPorDocumentoRequest(List<DocumentoUsuarioRequest> documentos) {
+        // Es una consulta: va por POST solo porque la lista de documentos no cabe en la URL, y el servicio no cambia
+        // nada al responderla, así que repetirla es tan seguro como repetir un GET
+        return reintentos.ejecutar("documento_lote", intento(Operacion.DOCUMENTO_LOTE, () -> client.method(HttpMethod.POST)
+                .uri("/api/v1/usuarios/documento/_bulk")
+                .contentType(MediaType.parseMediaType("application/json"))
+                .body(BodyInserters.fromValue(documentos))
+                .accept(MediaType.parseMediaType("application/json"))
                 .retrieve()
-                .bodyToMono(UsuarioResponse.class);
+                .bodyToFlux(UsuarioResponse.class)
+                .collectList()));
     }
 
     /**
      * Build call for buscarUsuarioPorEmail
      *
      * @param correoElectronico (required)
-     * @return Mono<UsuarioResponse> response
+     * @return Mono<UsuarioResponse> response, vacío si el usuario no existe (404)
      */
     public Mono<UsuarioResponse> buscarUsuarioPorEmailRequest(String correoElectronico) {
-        return client.method(HttpMethod.GET)
+        return consultar("email", intento(Operacion.EMAIL, () -> client.method(HttpMethod.GET)
                 .uri("/api/v1/usuarios/email/{correoElectronico}", correoElectronico)
                 .accept(MediaType.parseMediaType("application/json"))
-                .retrieve()
-                .bodyToMono(UsuarioResponse.class);
+                .exchangeToMono(this::usuarioOVacio)));
+    }
+
+    /**
+     * Las búsquedas son GET idempotentes: se reintentan y cada intento puede llevar un segundo envío de hedging.
+     */
+    private Mono<UsuarioResponse> consultar(String operacion, Supplier<Mono<UsuarioResponse>> llamada) {
+        return reintentos.ejecutar(operacion, () -> hedging.ejecutar(operacion, llamada));
+    }
+
+    /**
+     * Cada envío HTTP, incluidos los reintentos y los segundos intentos de hedging, pasa por su cuenta por el circuito
+     * y el bulkhead y se mide por separado. Así un segundo intento sin cupo solo se pierde él, y el circuito cuenta
+     * cada envío con su resultado. Los rechazos no se miden como llamadas: no llegan al servicio.
+     */
+    private <T> Supplier<Mono<T>> intento(Operacion operacion, Supplier<Mono<T>> envio) {
+        return () -> proteccion.proteger(operacion, medidor.medir(operacion, Mono.defer(envio)));
+    }
+
+    /**
+     * Un 404 en una búsqueda significa que el usuario no existe: se responde vacío sin construir
+     * una excepción. Los demás estados de error se propagan como {@code WebClientResponseException}.
+     */
+    private Mono<UsuarioResponse> usuarioOVacio(ClientResponse response) {
+        if (response.statusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+            return response.releaseBody().then(Mono.empty());
+        }
+        if (response.statusCode().isError()) {
+            return response.createError();
+        }
+        return response.bodyToMono(UsuarioResponse.class);
     }
 }
@@ -0,0 +1,19 @@
+package rodriguez.ciro.consumer.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DocumentoUsuarioRequest
+ */
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentoUsuarioRequest {
+    private String tipoDocumento = null;
+    private String numeroDocumento = null;
+}
@@ -0,0 +1,110 @@
+package rodriguez.ciro.consumer.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Cache asíncrona de consultas al servicio de usuarios, por documento y por email.
+ * <p>
+ * Los usuarios encontrados se guardan durante {@code ttl}; las búsquedas vacías (el usuario no existe)
+ * se guardan como ausencia durante {@code negative-ttl}. Los errores no se guardan.
+ */
+@Slf4j
+@Component
+public class UsuarioCache {
+
+    public static final String CACHE_DOCUMENTO = "usuarios.documento";
+    public static final String CACHE_EMAIL = "usuarios.email";
+
+    private final AsyncCache<DocumentoKey, Optional<Usuario>> porDocumento;
+    private final AsyncCache<String, Optional<Usuario>> porEmail;
+
+    public UsuarioCache(@Value("${adapter.restconsumer.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${adapter.restconsumer.cache.ttl:5m}") Duration ttl,
+                        @Value("${adapter.restconsumer.cache.negative-ttl:30s}") Duration negativeTtl,
+                        MeterRegistry meterRegistry) {
+        this.porDocumento = crearCache(maximumSize, ttl, negativeTtl);
+        this.porEmail = crearCache(maximumSize, ttl, negativeTtl);
+        CaffeineCacheMetrics.monitor(meterRegistry, porDocumento, CACHE_DOCUMENTO, List.of());
+        CaffeineCacheMetrics.monitor(meterRegistry, porEmail, CACHE_EMAIL, List.of());
+    }
+
+    public Mono<Usuario> buscarPorDocumento(String tipoDocumento, String numeroDocumento,
+                                            Supplier<Mono<Usuario>> consulta) {
+        return obtener(porDocumento, new DocumentoKey(tipoDocumento, numeroDocumento), consulta);
+    }
+
+    public Mono<Usuario> buscarPorEmail(String correoElectronico, Supplier<Mono<Usuario>> consulta) {
+        return obtener(porEmail, correoElectronico, consulta);
+    }
+
+    /**
+     * Reemplaza las entradas (incluidas las negativas) del usuario recién registrado.
+     */
+    public void registrar(Usuario usuario) {
+        CompletableFuture<Optional<Usuario>> valor = CompletableFuture.completedFuture(Optional.of(usuario));
+        if (usuario.getTipoDocumento() != null && usuario.getNumeroDocumento() != null) {
+            porDocumento.put(new DocumentoKey(usuario.getTipoDocumento(), usuario.getNumeroDocumento()), valor);
+        }
+        if (usuario.getCorreoElectronico() != null) {
+            porEmail.put(usuario.getCorreoElectronico(), valor);
+        }
+    }
+
+    public void invalidar(Usuario usuario) {
+        porDocumento.synchronous().invalidate(new DocumentoKey(usuario.getTipoDocumento(), usuario.getNumeroDocumento()));
+        if (usuario.getCorreoElectronico() != null) {
+            porEmail.synchronous().invalidate(usuario.getCorreoElectronico());
+        }
+    }
+
+    private <K> Mono<Usuario> obtener(AsyncCache<K, Optional<Usuario>> cache, K key,
+                                      Supplier<Mono<Usuario>> consulta) {
+        // suppressCancel: la cancelación de un suscriptor no cancela la carga que comparten los demás
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> consulta.get()
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .toFuture()), true)
+                .flatMap(Mono::justOrEmpty);
+    }
+
+    private static <K> AsyncCache<K, Optional<Usuario>> crearCache(long maximumSize, Duration ttl, Duration negativeTtl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<K, Optional<Usuario>>() {
+                    @Override
+                    public long expireAfterCreate(K key, Optional<Usuario> value, long currentTime) {
+                        return (value.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(K key, Optional<Usuario> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(K key, Optional<Usuario> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+
+    record DocumentoKey(String tipoDocumento, String numeroDocumento) {
+    }
+}
@@ -0,0 +1,44 @@
+package rodriguez.ciro.consumer.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+/**
+ * Cuando la aplicación ya arrancó, prepara los event loops y el resolvedor DNS del cliente del servicio de usuarios
+ * y abre {@code adapter.restconsumer.pool.warmup-connections} conexiones con un {@code HEAD /}. No retrasa el
+ * arranque ni lo hace depender del servicio: si no responde solo se registra y las conexiones se abren con las
+ * primeras peticiones.
+ */
+@Slf4j
+public class CalentamientoConexiones {
+
+    private final HttpClient cliente;
+    private final int conexiones;
+
+    public CalentamientoConexiones(HttpClient cliente, int conexiones) {
+        this.cliente = cliente;
+        this.conexiones = conexiones;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alArrancar() {
+        calentar().subscribe();
+    }
+
+    Mono<Void> calentar() {
+        if (conexiones == 0) {
+            return Mono.empty();
+        }
+        return cliente.warmup()
+                .thenMany(Flux.range(0, conexiones)
+                        .flatMap(i -> cliente.head().uri("/").response()
+                                .doOnError(error -> log.warn("No se pudo abrir una conexión al servicio de usuarios"
+                                        + " al arrancar: {}", error.getMessage()))
+                                .onErrorComplete(), conexiones))
+                .then();
+    }
+}
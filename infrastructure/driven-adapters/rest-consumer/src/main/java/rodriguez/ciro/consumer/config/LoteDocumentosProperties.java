@@ -0,0 +1,29 @@
+package rodriguez.ciro.consumer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Búsquedas por documento en lote: con {@code enabled} las búsquedas concurrentes se juntan durante {@code ventana}
+ * (o hasta {@code tamanoMaximo} documentos) en un solo {@code POST /api/v1/usuarios/documento/_bulk}. El servicio
+ * de usuarios debe exponer esa ruta.
+ */
+@ConfigurationProperties(prefix = "adapter.restconsumer.lote-documentos")
+public record LoteDocumentosProperties(
+        boolean enabled,
+        Duration ventana,
+        Integer tamanoMaximo) {
+
+    public static final Duration DEFAULT_VENTANA = Duration.ofMillis(5);
+    public static final int DEFAULT_TAMANO_MAXIMO = 100;
+
+    public LoteDocumentosProperties {
+        if (ventana == null || ventana.isNegative()) {
+            ventana = DEFAULT_VENTANA;
+        }
+        if (tamanoMaximo == null || tamanoMaximo < 1) {
+            tamanoMaximo = DEFAULT_TAMANO_MAXIMO;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package rodriguez.ciro.consumer.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Pool de conexiones del cliente del servicio de usuarios. {@code pendingAcquireMaxCount} es cuántas peticiones
+ * pueden esperar una conexión (-1 sin límite) y {@code pendingAcquireTimeout} cuánto esperan. Las conexiones se
+ * cierran tras {@code maxIdleTime} sin uso o {@code maxLifeTime} de vida, revisadas cada {@code evictInBackground}.
+ * Cuando la aplicación termina de arrancar se abren {@code warmupConnections} conexiones (ninguna por defecto).
+ */
+@ConfigurationProperties(prefix = "adapter.restconsumer.pool")
+public record PoolConexionesProperties(
+        String name,
+        Integer maxConnections,
+        Integer pendingAcquireMaxCount,
+        Duration pendingAcquireTimeout,
+        Duration maxIdleTime,
+        Duration maxLifeTime,
+        Duration evictInBackground,
+        Integer warmupConnections) {
+
+    public static final String DEFAULT_NAME = "usuarios";
+    public static final int DEFAULT_MAX_CONNECTIONS = 200;
+    public static final int DEFAULT_PENDING_ACQUIRE_MAX_COUNT = 1000;
+    public static final Duration DEFAULT_PENDING_ACQUIRE_TIMEOUT = Duration.ofSeconds(5);
+    public static final Duration DEFAULT_MAX_IDLE_TIME = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_MAX_LIFE_TIME = Duration.ofMinutes(5);
+    public static final Duration DEFAULT_EVICT_IN_BACKGROUND = Duration.ofSeconds(30);
+    public static final int DEFAULT_WARMUP_CONNECTIONS = 0;
+
+    public PoolConexionesProperties {
+        if (name == null || name.isBlank()) {
+            name = DEFAULT_NAME;
+        }
+        if (maxConnections == null || maxConnections < 1) {
+            maxConnections = DEFAULT_MAX_CONNECTIONS;
+        }
+        if (pendingAcquireMaxCount == null || pendingAcquireMaxCount < -1) {
+            pendingAcquireMaxCount = DEFAULT_PENDING_ACQUIRE_MAX_COUNT;
+        }
+        if (pendingAcquireTimeout == null) {
+            pendingAcquireTimeout = DEFAULT_PENDING_ACQUIRE_TIMEOUT;
+        }
+        if (maxIdleTime == null) {
+            maxIdleTime = DEFAULT_MAX_IDLE_TIME;
+        }
+        if (maxLifeTime == null) {
+            maxLifeTime = DEFAULT_MAX_LIFE_TIME;
+        }
+        if (evictInBackground == null) {
+            evictInBackground = DEFAULT_EVICT_IN_BACKGROUND;
+        }
+        if (warmupConnections == null || warmupConnections < 0) {
+            warmupConnections = DEFAULT_WARMUP_CONNECTIONS;
+        }
+        warmupConnections = Math.min(warmupConnections, maxConnections);
+    }
+}
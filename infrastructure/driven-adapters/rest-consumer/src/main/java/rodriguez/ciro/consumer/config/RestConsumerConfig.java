@@ -1,7 +1,5 @@
 package rodriguez.ciro.consumer.config;
 
-import io.netty.handler.timeout.ReadTimeoutHandler;
-import io.netty.handler.timeout.WriteTimeoutHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -9,10 +7,13 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
 import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
 
 import static io.netty.channel.ChannelOption.CONNECT_TIMEOUT_MILLIS;
-import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 @Configuration
 public class RestConsumerConfig {
@@ -21,33 +22,74 @@ public class RestConsumerConfig {
 
     private final int timeout;
 
+    private final boolean h2c;
+
     public RestConsumerConfig(@Value("${adapter.restconsumer.url}") String url,
-                              @Value("${adapter.restconsumer.timeout}") int timeout) {
+                              @Value("${adapter.restconsumer.timeout}") int timeout,
+                              @Value("${adapter.restconsumer.h2c:false}") boolean h2c) {
         this.url = url;
         this.timeout = timeout;
+        this.h2c = h2c;
+    }
+
+    /**
+     * Pool propio del servicio de usuarios, separado del global de reactor-netty. Publica sus métricas como
+     * {@code reactor.netty.connection.provider.*} con la etiqueta {@code name}.
+     */
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider usuariosConnectionProvider(PoolConexionesProperties pool) {
+        return ConnectionProvider.builder(pool.name())
+                .maxConnections(pool.maxConnections())
+                .pendingAcquireMaxCount(pool.pendingAcquireMaxCount())
+                .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+                .maxIdleTime(pool.maxIdleTime())
+                .maxLifeTime(pool.maxLifeTime())
+                .evictInBackground(pool.evictInBackground())
+                .metrics(true)
+                .build();
     }
 
     @Bean
-    public WebClient getWebClient(WebClient.Builder builder) {
+    public WebClient getWebClient(WebClient.Builder builder, HttpClient usuariosHttpClient) {
         return builder
             .baseUrl(url)
             .defaultHeader(HttpHeaders.CONTENT_TYPE, "application/json")
-            .clientConnector(getClientHttpConnector())
+            .clientConnector(getClientHttpConnector(usuariosHttpClient))
             .build();
     }
 
-    private ClientHttpConnector getClientHttpConnector() {
+    /**
+     * Las conexiones de calentamiento se abren con el mismo cliente que usa {@link WebClient}: con otra
+     * configuración quedarían en otro grupo del pool y las peticiones no las reutilizarían.
+     */
+    @Bean
+    public CalentamientoConexiones calentamientoConexiones(HttpClient usuariosHttpClient,
+                                                           PoolConexionesProperties pool) {
+        return new CalentamientoConexiones(usuariosHttpClient.baseUrl(url), pool.warmupConnections());
+    }
+
+    private ClientHttpConnector getClientHttpConnector(HttpClient httpClient) {
         /*
         IF YO REQUIRE APPEND SSL CERTIFICATE SELF SIGNED: this should be in the default cacerts trustore
         */
-        return new ReactorClientHttpConnector(HttpClient.create()
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    /**
+     * Con {@code adapter.restconsumer.h2c} se habla HTTP/2 sin TLS desde el primer byte (prior knowledge): una
+     * conexión lleva muchas búsquedas concurrentes, pero el servicio de usuarios debe aceptar h2c.
+     * <p>
+     * El timeout es por respuesta: los handlers agregados al conectar se quitan cuando la conexión vuelve al pool,
+     * así que solo cubrían la primera petición de cada conexión.
+     */
+    @Bean
+    public HttpClient usuariosHttpClient(ConnectionProvider usuariosConnectionProvider) {
+        return HttpClient.create(usuariosConnectionProvider)
+                .protocol(h2c ? HttpProtocol.H2C : HttpProtocol.HTTP11)
                 .compress(true)
                 .keepAlive(true)
                 .option(CONNECT_TIMEOUT_MILLIS, timeout)
-                .doOnConnected(connection -> {
-                    connection.addHandlerLast(new ReadTimeoutHandler(timeout, MILLISECONDS));
-                    connection.addHandlerLast(new WriteTimeoutHandler(timeout, MILLISECONDS));
-                }));
+                .responseTimeout(Duration.ofMillis(timeout));
     }
 
 }
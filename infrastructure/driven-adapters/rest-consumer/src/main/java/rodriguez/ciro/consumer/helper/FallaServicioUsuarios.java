@@ -0,0 +1,25 @@
+package rodriguez.ciro.consumer.helper;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.function.Predicate;
+
+/**
+ * Errores que cuentan como falla del servicio de usuarios para sus circuitos ({@code recordFailurePredicate}).
+ * Los 4xx distintos de 429 son respuestas del servicio a una petición inválida, y el bulkhead lleno es un
+ * rechazo local: ninguno indica que el servicio esté degradado.
+ */
+public class FallaServicioUsuarios implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable error) {
+        if (error instanceof BulkheadFullException) {
+            return false;
+        }
+        if (error instanceof WebClientResponseException respuesta) {
+            return respuesta.getStatusCode().is5xxServerError() || respuesta.getStatusCode().value() == 429;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,159 @@
+package rodriguez.ciro.consumer.helper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Hedging de consultas idempotentes: si el primer intento no responde dentro del percentil {@code percentil} de la
+ * latencia reciente de su operación (nunca antes de {@code retraso-minimo}), se envía un segundo intento igual y
+ * gana la primera respuesta, vacía incluida; el otro intento se cancela. Un intento que falla no decide mientras el
+ * otro siga en curso, y si fallan ambos se propaga el error del primero.
+ * <p>
+ * Los segundos intentos se pagan con un presupuesto: cada consulta suma {@code presupuesto} fichas (hasta
+ * {@value #FICHAS_MAXIMAS}) y cada segundo intento gasta una, así que la carga extra no pasa de esa fracción del
+ * tráfico. Se publican {@code usuarios.cliente.hedging.consultas}, {@code .enviados}, {@code .ganados},
+ * {@code .sin.presupuesto} y el retraso vigente en {@code .retraso}, por {@code operacion}.
+ */
+@Component
+public class Hedging {
+
+    public static final String METRICA = "usuarios.cliente.hedging";
+
+    static final int MUESTRAS = 1000;
+    static final int MUESTRAS_MINIMAS = 100;
+    static final int FICHAS_MAXIMAS = 10;
+    private static final int RECALCULO = 100;
+
+    private final boolean enabled;
+    private final double percentil;
+    private final long retrasoMinimo;
+    private final MeterRegistry meterRegistry;
+    private final Presupuesto presupuesto;
+    private final Map<String, Operacion> operaciones = new ConcurrentHashMap<>();
+
+    public Hedging(@Value("${adapter.restconsumer.hedging.enabled:false}") boolean enabled,
+                   @Value("${adapter.restconsumer.hedging.percentil:0.95}") double percentil,
+                   @Value("${adapter.restconsumer.hedging.retraso-minimo:20ms}") Duration retrasoMinimo,
+                   @Value("${adapter.restconsumer.hedging.presupuesto:0.05}") double presupuesto,
+                   MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.percentil = Math.clamp(percentil, 0.5, 0.999);
+        this.retrasoMinimo = retrasoMinimo.toNanos();
+        this.presupuesto = new Presupuesto(presupuesto, FICHAS_MAXIMAS, 0);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * {@code intento} debe crear una llamada nueva en cada invocación y ser seguro de repetir.
+     */
+    public <T> Mono<T> ejecutar(String operacion, Supplier<Mono<T>> intento) {
+        if (!enabled) {
+            return Mono.defer(intento);
+        }
+        Operacion estado = operaciones.computeIfAbsent(operacion, Operacion::new);
+        return Mono.defer(() -> {
+            estado.consultas.increment();
+            presupuesto.depositar();
+            long retraso = estado.retraso;
+            if (retraso == 0) {
+                return estado.medir(intento.get());
+            }
+            // Vacío es una respuesta (404) y gana como un valor; solo los errores esperan al otro intento
+            Sinks.One<Throwable> falloPrimero = Sinks.one();
+            Mono<Optional<T>> primero = estado.medir(intento.get())
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .doOnError(falloPrimero::tryEmitValue);
+            // Si el primero falla antes del retraso no se envía el segundo
+            Mono<Long> espera = Mono.firstWithSignal(Mono.delay(Duration.ofNanos(retraso)),
+                    falloPrimero.asMono().then(Mono.<Long>empty()));
+            Mono<Optional<T>> segundo = espera.flatMap(tick -> {
+                if (!presupuesto.gastar()) {
+                    estado.sinPresupuesto.increment();
+                    return Mono.empty();
+                }
+                estado.enviados.increment();
+                return estado.medir(intento.get())
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .doOnNext(respuesta -> estado.ganados.increment());
+            });
+            return Mono.firstWithValue(primero, segundo)
+                    // Ningún intento respondió: se propaga el error del primero, el que se hubiera visto sin hedging
+                    .onErrorResume(NoSuchElementException.class, error -> falloPrimero.asMono().flatMap(Mono::error))
+                    .flatMap(Mono::justOrEmpty);
+        });
+    }
+
+    private final class Operacion {
+
+        private final AtomicLongArray muestras = new AtomicLongArray(MUESTRAS);
+        private final AtomicLong registradas = new AtomicLong();
+        private final Counter consultas;
+        private final Counter enviados;
+        private final Counter ganados;
+        private final Counter sinPresupuesto;
+        // 0 mientras no haya suficientes muestras: sin retraso conocido no se envían segundos intentos
+        private volatile long retraso;
+
+        Operacion(String operacion) {
+            this.consultas = contador(operacion, "consultas", "Consultas que pueden llevar un segundo intento");
+            this.enviados = contador(operacion, "enviados", "Segundos intentos enviados");
+            this.ganados = contador(operacion, "ganados", "Segundos intentos que respondieron primero");
+            this.sinPresupuesto = contador(operacion, "sin.presupuesto",
+                    "Segundos intentos omitidos por falta de presupuesto");
+            TimeGauge.builder(METRICA + ".retraso", this, TimeUnit.NANOSECONDS, estado -> estado.retraso)
+                    .description("Espera antes de enviar un segundo intento")
+                    .tag("operacion", operacion)
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Registra la latencia de cada intento. Un intento cancelado registra lo que llevaba: es una cota inferior,
+         * pero descartarlo dejaría fuera justo las llamadas lentas.
+         */
+        <T> Mono<T> medir(Mono<T> llamada) {
+            return Mono.defer(() -> {
+                long inicio = System.nanoTime();
+                return llamada.doFinally(senal -> registrar(System.nanoTime() - inicio));
+            });
+        }
+
+        private void registrar(long latencia) {
+            long n = registradas.getAndIncrement();
+            muestras.set((int) (n % MUESTRAS), latencia);
+            if ((n + 1) % RECALCULO == 0 && n + 1 >= MUESTRAS_MINIMAS) {
+                int disponibles = (int) Math.min(n + 1, MUESTRAS);
+                long[] copia = new long[disponibles];
+                for (int i = 0; i < disponibles; i++) {
+                    copia[i] = muestras.get(i);
+                }
+                Arrays.sort(copia);
+                retraso = Math.max(retrasoMinimo, copia[(int) Math.ceil(percentil * disponibles) - 1]);
+            }
+        }
+
+        private Counter contador(String operacion, String nombre, String descripcion) {
+            return Counter.builder(METRICA + "." + nombre)
+                    .description(descripcion)
+                    .tag("operacion", operacion)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package rodriguez.ciro.consumer.helper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide cada envío al servicio de usuarios, reintentos y segundos intentos de hedging incluidos, como
+ * {@code usuarios.cliente}, con las etiquetas {@code operacion} y {@code resultado}. Las respuestas servidas por la
+ * cache no pasan por aquí.
+ * <p>
+ * Los timers se registran al arrancar y se buscan por ordinal, sin construir etiquetas por llamada.
+ */
+@Component
+public class MedidorLlamadas {
+
+    public static final String METRICA = "usuarios.cliente";
+
+    public enum Operacion { DOCUMENTO, DOCUMENTO_LOTE, EMAIL, REGISTRO }
+
+    public enum Resultado { ENCONTRADO, NO_ENCONTRADO, ERROR }
+
+    private static final Duration[] SLO = {
+            Duration.ofMillis(5), Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50),
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+            Duration.ofMillis(2500)
+    };
+
+    private final Timer[][] timers;
+
+    public MedidorLlamadas(MeterRegistry meterRegistry) {
+        this.timers = new Timer[Operacion.values().length][Resultado.values().length];
+        for (Operacion operacion : Operacion.values()) {
+            for (Resultado resultado : Resultado.values()) {
+                timers[operacion.ordinal()][resultado.ordinal()] = Timer.builder(METRICA)
+                        .description("Duración de las llamadas al servicio de usuarios")
+                        .tag("operacion", operacion.name().toLowerCase(Locale.ROOT))
+                        .tag("resultado", resultado.name().toLowerCase(Locale.ROOT))
+                        .publishPercentileHistogram()
+                        .serviceLevelObjectives(SLO)
+                        .register(meterRegistry);
+            }
+        }
+    }
+
+    /**
+     * Mide desde la suscripción hasta que la llamada emite, termina vacía o falla. Las cancelaciones no se miden.
+     */
+    public <T> Mono<T> medir(Operacion operacion, Mono<T> llamada) {
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            return llamada
+                    .doOnSuccess(valor -> registrar(operacion,
+                            valor != null ? Resultado.ENCONTRADO : Resultado.NO_ENCONTRADO, inicio))
+                    .doOnError(error -> registrar(operacion, Resultado.ERROR, inicio));
+        });
+    }
+
+    private void registrar(Operacion operacion, Resultado resultado, long inicio) {
+        timers[operacion.ordinal()][resultado.ordinal()].record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+    }
+}
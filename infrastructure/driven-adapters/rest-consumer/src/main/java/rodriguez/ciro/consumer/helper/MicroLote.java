@@ -0,0 +1,90 @@
+package rodriguez.ciro.consumer.helper;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Junta las búsquedas concurrentes por llave durante {@code ventana} (o hasta {@code tamanoMaximo} llaves
+ * distintas) y las resuelve con una sola consulta en lote.
+ * <p>
+ * Cada búsqueda recibe el valor de su llave en el resultado, o vacío si no está; si la consulta falla, fallan todas
+ * las del lote. Las búsquedas de la misma llave dentro de un lote comparten la entrada. Como en
+ * {@link SingleFlight}, el lote no depende de ningún suscriptor: cancelar una búsqueda no lo cancela.
+ */
+public class MicroLote<K, V> {
+
+    private final Duration ventana;
+    private final int tamanoMaximo;
+    private final Function<List<K>, Mono<Map<K, V>>> consulta;
+    private final Scheduler scheduler;
+    private Map<K, Sinks.One<V>> pendientes;
+
+    public MicroLote(Duration ventana, int tamanoMaximo, Function<List<K>, Mono<Map<K, V>>> consulta) {
+        this(ventana, tamanoMaximo, consulta, Schedulers.parallel());
+    }
+
+    MicroLote(Duration ventana, int tamanoMaximo, Function<List<K>, Mono<Map<K, V>>> consulta, Scheduler scheduler) {
+        this.ventana = ventana;
+        this.tamanoMaximo = Math.max(1, tamanoMaximo);
+        this.consulta = consulta;
+        this.scheduler = scheduler;
+    }
+
+    public Mono<V> obtener(K key) {
+        return Mono.defer(() -> {
+            Sinks.One<V> resultado;
+            Map<K, Sinks.One<V>> lleno = null;
+            synchronized (this) {
+                if (pendientes == null) {
+                    Map<K, Sinks.One<V>> lote = new LinkedHashMap<>();
+                    pendientes = lote;
+                    scheduler.schedule(() -> vencer(lote), ventana.toNanos(), TimeUnit.NANOSECONDS);
+                }
+                resultado = pendientes.computeIfAbsent(key, k -> Sinks.one());
+                if (pendientes.size() >= tamanoMaximo) {
+                    lleno = pendientes;
+                    pendientes = null;
+                }
+            }
+            if (lleno != null) {
+                enviar(lleno);
+            }
+            return resultado.asMono();
+        });
+    }
+
+    private void vencer(Map<K, Sinks.One<V>> lote) {
+        synchronized (this) {
+            // Ya se envió al llenarse
+            if (pendientes != lote) {
+                return;
+            }
+            pendientes = null;
+        }
+        enviar(lote);
+    }
+
+    private void enviar(Map<K, Sinks.One<V>> lote) {
+        Mono.defer(() -> consulta.apply(List.copyOf(lote.keySet())))
+                .subscribe(
+                        encontrados -> lote.forEach((key, resultado) -> {
+                            V valor = encontrados.get(key);
+                            if (valor != null) {
+                                resultado.tryEmitValue(valor);
+                            } else {
+                                resultado.tryEmitEmpty();
+                            }
+                        }),
+                        error -> lote.values().forEach(resultado -> resultado.tryEmitError(error)),
+                        () -> lote.values().forEach(Sinks.One::tryEmitEmpty));
+    }
+}
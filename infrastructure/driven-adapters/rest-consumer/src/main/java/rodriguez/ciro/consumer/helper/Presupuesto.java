@@ -0,0 +1,31 @@
+package rodriguez.ciro.consumer.helper;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cubeta de fichas para llamadas extra al servicio de usuarios: cada {@link #depositar()} suma {@code fraccion} de
+ * ficha hasta {@code maximo} y cada {@link #gastar()} consume una entera, así que las llamadas extra no superan esa
+ * fracción de los depósitos más el saldo acumulado.
+ */
+final class Presupuesto {
+
+    private static final long MILIFICHAS = 1000;
+
+    private final long deposito;
+    private final long maximo;
+    private final AtomicLong saldo;
+
+    Presupuesto(double fraccion, int maximo, int inicial) {
+        this.deposito = Math.round(Math.clamp(fraccion, 0.0, 1.0) * MILIFICHAS);
+        this.maximo = maximo * MILIFICHAS;
+        this.saldo = new AtomicLong(Math.min(inicial, maximo) * MILIFICHAS);
+    }
+
+    void depositar() {
+        saldo.getAndUpdate(actual -> Math.min(maximo, actual + deposito));
+    }
+
+    boolean gastar() {
+        return saldo.getAndUpdate(actual -> actual >= MILIFICHAS ? actual - MILIFICHAS : actual) >= MILIFICHAS;
+    }
+}
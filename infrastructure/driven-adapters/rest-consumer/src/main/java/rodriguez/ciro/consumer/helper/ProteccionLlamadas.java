@@ -0,0 +1,101 @@
+package rodriguez.ciro.consumer.helper;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.exception.ServicioUsuariosNoDisponibleException;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Circuito y bulkhead de semáforo alrededor de cada envío al servicio de usuarios: uno para las búsquedas
+ * ({@value #CONSULTA}) y otro para el registro ({@value #REGISTRO}), configurados en {@code resilience4j.circuitbreaker}
+ * y {@code resilience4j.bulkhead} con esos nombres.
+ * <p>
+ * Con el circuito abierto o sin cupo en el bulkhead la llamada falla de inmediato con
+ * {@link ServicioUsuariosNoDisponibleException} en lugar de esperar el timeout. Los rechazos se cuentan en
+ * {@code usuarios.cliente.rechazadas} y los cambios de estado en {@code usuarios.cliente.circuito.transiciones}.
+ */
+@Slf4j
+@Component
+public class ProteccionLlamadas {
+
+    public static final String CONSULTA = "usuariosConsulta";
+    public static final String REGISTRO = "usuariosRegistro";
+
+    private static final Duration REINTENTO_SIN_CUPO = Duration.ofSeconds(1);
+
+    private final Proteccion consulta;
+    private final Proteccion registro;
+
+    public ProteccionLlamadas(CircuitBreakerRegistry circuitos, BulkheadRegistry bulkheads,
+                              MeterRegistry meterRegistry) {
+        this.consulta = new Proteccion(circuitos.circuitBreaker(CONSULTA), bulkheads.bulkhead(CONSULTA), meterRegistry);
+        this.registro = new Proteccion(circuitos.circuitBreaker(REGISTRO), bulkheads.bulkhead(REGISTRO), meterRegistry);
+    }
+
+    /**
+     * El bulkhead envuelve la llamada y el circuito al bulkhead, así que con el circuito abierto no se ocupa cupo.
+     */
+    public <T> Mono<T> proteger(MedidorLlamadas.Operacion operacion, Mono<T> llamada) {
+        Proteccion proteccion = operacion == MedidorLlamadas.Operacion.REGISTRO ? registro : consulta;
+        return llamada
+                .transformDeferred(BulkheadOperator.of(proteccion.bulkhead))
+                .transformDeferred(CircuitBreakerOperator.of(proteccion.circuito))
+                .onErrorMap(CallNotPermittedException.class, error -> new ServicioUsuariosNoDisponibleException(
+                        "El servicio de usuarios no está disponible, intente más tarde",
+                        proteccion.esperaAbierto(), error))
+                .onErrorMap(BulkheadFullException.class, error -> new ServicioUsuariosNoDisponibleException(
+                        "El servicio de usuarios está ocupado, intente más tarde", REINTENTO_SIN_CUPO, error));
+    }
+
+    private static final class Proteccion {
+
+        private final CircuitBreaker circuito;
+        private final Bulkhead bulkhead;
+
+        Proteccion(CircuitBreaker circuito, Bulkhead bulkhead, MeterRegistry meterRegistry) {
+            this.circuito = circuito;
+            this.bulkhead = bulkhead;
+            Counter circuitoAbierto = rechazadas(meterRegistry, circuito.getName(), "circuito_abierto");
+            Counter sinCupo = rechazadas(meterRegistry, circuito.getName(), "sin_cupo");
+            circuito.getEventPublisher()
+                    .onCallNotPermitted(evento -> circuitoAbierto.increment())
+                    .onStateTransition(evento -> {
+                        CircuitBreaker.StateTransition transicion = evento.getStateTransition();
+                        log.warn("Circuito {} pasa de {} a {}", circuito.getName(), transicion.getFromState(),
+                                transicion.getToState());
+                        Counter.builder("usuarios.cliente.circuito.transiciones")
+                                .description("Cambios de estado de los circuitos del servicio de usuarios")
+                                .tag("circuito", circuito.getName())
+                                .tag("hacia", transicion.getToState().name().toLowerCase(Locale.ROOT))
+                                .register(meterRegistry)
+                                .increment();
+                    });
+            bulkhead.getEventPublisher().onCallRejected(evento -> sinCupo.increment());
+        }
+
+        Duration esperaAbierto() {
+            return Duration.ofMillis(circuito.getCircuitBreakerConfig().getWaitIntervalFunctionInOpenState().apply(1));
+        }
+
+        private static Counter rechazadas(MeterRegistry meterRegistry, String circuito, String motivo) {
+            return Counter.builder("usuarios.cliente.rechazadas")
+                    .description("Llamadas al servicio de usuarios rechazadas sin hacerse")
+                    .tag("circuito", circuito)
+                    .tag("motivo", motivo)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package rodriguez.ciro.consumer.helper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.handler.timeout.TimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.PrematureCloseException;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Reintentos de llamadas seguras de repetir ante 5xx, errores de conexión y timeouts del servicio de usuarios.
+ * <p>
+ * La espera antes del intento {@code n + 1} es aleatoria entre 0 y {@code backoff-inicial * 2^(n-1)}, acotada a
+ * {@code backoff-maximo} (full jitter). Cada reintento gasta una ficha de un presupuesto compartido al que cada
+ * respuesta exitosa suma {@code proporcion} (hasta {@value #FICHAS_MAXIMAS}, que es también el saldo inicial), así
+ * que durante una caída los reintentos se agotan en lugar de multiplicar la carga. Ningún reintento empieza si su
+ * espera no cabe en {@code plazo}, contado desde el primer intento, y los reintentos se cortan al cumplirse.
+ * <p>
+ * Se publican {@code usuarios.cliente.reintentos} y {@code usuarios.cliente.reintentos.omitidos} ({@code motivo}:
+ * {@code sin_presupuesto}, {@code sin_plazo}), por {@code operacion}.
+ */
+@Component
+public class Reintentos {
+
+    public static final String METRICA = "usuarios.cliente.reintentos";
+
+    static final int FICHAS_MAXIMAS = 10;
+    private static final int INTENTOS_TOPE = 10;
+
+    private final boolean enabled;
+    private final int maxIntentos;
+    private final long backoffInicial;
+    private final long backoffMaximo;
+    private final long plazo;
+    private final Presupuesto presupuesto;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Contadores> contadores = new ConcurrentHashMap<>();
+
+    public Reintentos(@Value("${adapter.restconsumer.reintentos.enabled:false}") boolean enabled,
+                      @Value("${adapter.restconsumer.reintentos.max-intentos:3}") int maxIntentos,
+                      @Value("${adapter.restconsumer.reintentos.backoff-inicial:50ms}") Duration backoffInicial,
+                      @Value("${adapter.restconsumer.reintentos.backoff-maximo:500ms}") Duration backoffMaximo,
+                      @Value("${adapter.restconsumer.reintentos.proporcion:0.1}") double proporcion,
+                      @Value("${adapter.restconsumer.reintentos.plazo:5s}") Duration plazo,
+                      MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxIntentos = Math.clamp(maxIntentos, 1, INTENTOS_TOPE);
+        this.backoffInicial = backoffInicial.toNanos();
+        this.backoffMaximo = Math.max(this.backoffInicial, backoffMaximo.toNanos());
+        this.plazo = plazo.toNanos();
+        this.presupuesto = new Presupuesto(proporcion, FICHAS_MAXIMAS, FICHAS_MAXIMAS);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * {@code llamada} debe crear una llamada nueva en cada invocación y ser segura de repetir.
+     */
+    public <T> Mono<T> ejecutar(String operacion, Supplier<Mono<T>> llamada) {
+        if (!enabled) {
+            return Mono.defer(llamada);
+        }
+        Contadores estado = contadores.computeIfAbsent(operacion, Contadores::new);
+        return Mono.defer(() -> intentar(estado, llamada, 1, System.nanoTime() + plazo));
+    }
+
+    private <T> Mono<T> intentar(Contadores estado, Supplier<Mono<T>> llamada, int intento, long limite) {
+        Mono<T> respuesta = llamada.get();
+        if (intento > 1) {
+            respuesta = respuesta.timeout(Duration.ofNanos(Math.max(0, limite - System.nanoTime())));
+        }
+        return respuesta
+                .doOnSuccess(valor -> presupuesto.depositar())
+                .onErrorResume(Reintentos::reintentable, error -> {
+                    if (intento >= maxIntentos) {
+                        return Mono.error(error);
+                    }
+                    long tope = Math.min(backoffMaximo, backoffInicial << (intento - 1));
+                    long espera = ThreadLocalRandom.current().nextLong(tope + 1);
+                    if (System.nanoTime() + espera >= limite) {
+                        estado.sinPlazo.increment();
+                        return Mono.error(error);
+                    }
+                    if (!presupuesto.gastar()) {
+                        estado.sinPresupuesto.increment();
+                        return Mono.error(error);
+                    }
+                    estado.enviados.increment();
+                    return Mono.delay(Duration.ofNanos(espera))
+                            .then(Mono.defer(() -> intentar(estado, llamada, intento + 1, limite)));
+                });
+    }
+
+    /**
+     * Los 4xx son respuestas definitivas; los 5xx, las conexiones fallidas o cerradas y los timeouts de lectura
+     * pueden ser transitorios.
+     */
+    static boolean reintentable(Throwable error) {
+        if (error instanceof WebClientResponseException respuesta) {
+            return respuesta.getStatusCode().is5xxServerError();
+        }
+        return error instanceof WebClientRequestException
+                || error instanceof PrematureCloseException
+                || error instanceof TimeoutException;
+    }
+
+    private final class Contadores {
+
+        private final Counter enviados;
+        private final Counter sinPresupuesto;
+        private final Counter sinPlazo;
+
+        Contadores(String operacion) {
+            this.enviados = Counter.builder(METRICA)
+                    .description("Reintentos enviados al servicio de usuarios")
+                    .tag("operacion", operacion)
+                    .register(meterRegistry);
+            this.sinPresupuesto = omitidos(operacion, "sin_presupuesto");
+            this.sinPlazo = omitidos(operacion, "sin_plazo");
+        }
+
+        private Counter omitidos(String operacion, String motivo) {
+            return Counter.builder(METRICA + ".omitidos")
+                    .description("Reintentos no enviados al servicio de usuarios")
+                    .tag("operacion", operacion)
+                    .tag("motivo", motivo)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package rodriguez.ciro.consumer.helper;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Agrupa llamadas concurrentes con la misma llave en una sola ejecución.
+ * <p>
+ * El primer suscriptor lanza la operación; los demás reciben el mismo resultado mientras siga en curso.
+ * La operación no depende de ningún suscriptor, así que cancelar uno no cancela a los demás.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, Mono<V>> enCurso = new ConcurrentHashMap<>();
+
+    public Mono<V> ejecutar(K key, Supplier<Mono<V>> operacion) {
+        return Mono.defer(() -> {
+            Mono<V> existente = enCurso.get(key);
+            if (existente != null) {
+                return existente;
+            }
+            Sinks.One<V> resultado = Sinks.one();
+            Mono<V> compartida = resultado.asMono();
+            existente = enCurso.putIfAbsent(key, compartida);
+            if (existente != null) {
+                return existente;
+            }
+            Mono.defer(operacion)
+                    .doFinally(signal -> enCurso.remove(key, compartida))
+                    .subscribe(resultado::tryEmitValue, resultado::tryEmitError, resultado::tryEmitEmpty);
+            return compartida;
+        });
+    }
+
+    public int enCurso() {
+        return enCurso.size();
+    }
+}
@@ -0,0 +1,115 @@
+package rodriguez.ciro.consumer.mapper;
+
+import lombok.extern.slf4j.Slf4j;
+import rodriguez.ciro.consumer.api.model.RegistrarUsuarioRequest;
+import rodriguez.ciro.consumer.api.model.RolDto;
+import rodriguez.ciro.consumer.api.model.UsuarioResponse;
+import rodriguez.ciro.model.usuario.Rol;
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Conversión entre el modelo de dominio y los DTOs del servicio de usuarios.
+ */
+@Slf4j
+public final class UsuarioApiMapper {
+
+    private UsuarioApiMapper() {
+    }
+
+    public static RegistrarUsuarioRequest mapToRegistrarUsuarioRequest(Usuario usuario) {
+        RegistrarUsuarioRequest request = new RegistrarUsuarioRequest();
+        request.setNombres(usuario.getNombres());
+        request.setApellidos(usuario.getApellidos());
+        request.setTipoDocumento(usuario.getTipoDocumento());
+        request.setNumeroDocumento(usuario.getNumeroDocumento());
+        request.setFechaNacimiento(usuario.getFechaNacimiento());
+        request.setDireccion(usuario.getDireccion());
+        request.setTelefono(usuario.getTelefono());
+        request.setCorreoElectronico(usuario.getCorreoElectronico());
+        request.setSalarioBase(usuario.getSalarioBase());
+
+        if (usuario.getRol() != null) {
+            RolDto rolDto = new RolDto();
+            rolDto.setIdRol(usuario.getRol().getIdRol());
+            rolDto.setNombre(usuario.getRol().getNombre());
+            request.setRol(rolDto);
+        }
+
+        return request;
+    }
+
+    public static Usuario mapToUsuario(UsuarioResponse response) {
+        log.info("Mapeando UsuarioResponse: idUsuario raw={} (tipo={})", 
+            response.getIdUsuario(), 
+            response.getIdUsuario() != null ? response.getIdUsuario().getClass().getSimpleName() : "null");
+        
+        Long idUsuarioMapeado = mapToLong(response.getIdUsuario());
+        log.info("idUsuario después del mapeo: {}", idUsuarioMapeado);
+        
+        return Usuario.builder()
+                .idUsuario(idUsuarioMapeado)
+                .nombres(mapToString(response.getNombres()))
+                .apellidos(mapToString(response.getApellidos()))
+                .tipoDocumento(mapToString(response.getTipoDocumento()))
+                .numeroDocumento(mapToString(response.getNumeroDocumento()))
+                .fechaNacimiento(mapToLocalDate(response.getFechaNacimiento()))
+                .direccion(mapToString(response.getDireccion()))
+                .telefono(mapToString(response.getTelefono()))
+                .correoElectronico(mapToString(response.getCorreoElectronico()))
+                .salarioBase(mapToBigDecimal(response.getSalarioBase()))
+                .rol(mapToRol(response.getRol()))
+                .build();
+    }
+
+    private static Rol mapToRol(RolDto rolDto) {
+        if (rolDto == null) {
+            return null;
+        }
+        return Rol.builder()
+                .idRol(mapToLong(rolDto.getIdRol()))
+                .nombre(mapToString(rolDto.getNombre()))
+                .build();
+    }
+
+    private static Long mapToLong(Object obj) {
+        if (obj == null) {
+            log.info("mapToLong: objeto es null");
+            return null;
+        }
+        if (obj instanceof Long) return (Long) obj;
+        if (obj instanceof Integer) return ((Integer) obj).longValue();
+        if (obj instanceof Number) return ((Number) obj).longValue();
+        if (obj instanceof String) {
+            try {
+                return Long.valueOf((String) obj);
+            } catch (NumberFormatException e) {
+                log.info("Error al convertir string a Long: {}", obj);
+                return null;
+            }
+        }
+        log.info("Tipo no soportado para mapToLong: {} (valor={}, tipo={})", obj, obj, obj.getClass().getSimpleName());
+        return null;
+    }
+
+    private static String mapToString(Object obj) {
+        return obj != null ? obj.toString() : null;
+    }
+
+    private static LocalDate mapToLocalDate(Object obj) {
+        if (obj == null) return null;
+        if (obj instanceof LocalDate) return (LocalDate) obj;
+        if (obj instanceof String) return LocalDate.parse((String) obj);
+        return null;
+    }
+
+    private static BigDecimal mapToBigDecimal(Object obj) {
+        if (obj == null) return null;
+        if (obj instanceof BigDecimal) return (BigDecimal) obj;
+        if (obj instanceof Number) return BigDecimal.valueOf(((Number) obj).doubleValue());
+        if (obj instanceof String) return new BigDecimal((String) obj);
+        return null;
+    }
+}
@@ -1,6 +1,9 @@
 package rodriguez.ciro.consumer;
 
 
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
 import org.junit.jupiter.api.AfterAll;
@@ -11,9 +14,19 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.test.StepVerifier;
 import rodriguez.ciro.consumer.adapter.UsuarioRestAdapter;
+import rodriguez.ciro.consumer.api.UsuariosApi;
+import rodriguez.ciro.consumer.cache.UsuarioCache;
+import rodriguez.ciro.consumer.config.LoteDocumentosProperties;
+import rodriguez.ciro.consumer.helper.Hedging;
+import rodriguez.ciro.consumer.helper.MedidorLlamadas;
+import rodriguez.ciro.consumer.helper.ProteccionLlamadas;
+import rodriguez.ciro.consumer.helper.Reintentos;
+
 import java.io.IOException;
+import java.time.Duration;
 
 
 class RestConsumerTest {
@@ -27,8 +40,19 @@ class RestConsumerTest {
     static void setUp() throws IOException {
         mockBackEnd = new MockWebServer();
         mockBackEnd.start();
-        // Este test necesita ser actualizado para usar UsuarioRestAdapter
-        // o crear un test más apropiado para el contexto actual
+        WebClient webClient = WebClient.builder()
+                .baseUrl(mockBackEnd.url("/").toString())
+                .build();
+        UsuarioCache usuarioCache = new UsuarioCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30),
+                new SimpleMeterRegistry());
+        usuarioRestAdapter = new UsuarioRestAdapter(new UsuariosApi(webClient,
+                new Hedging(false, 0.95, Duration.ofMillis(20), 0.05, new SimpleMeterRegistry()),
+                new Reintentos(false, 3, Duration.ofMillis(50), Duration.ofMillis(500), 0.1, Duration.ofSeconds(5),
+                        new SimpleMeterRegistry()),
+                new MedidorLlamadas(new SimpleMeterRegistry()),
+                new ProteccionLlamadas(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                        new SimpleMeterRegistry())), usuarioCache,
+                new LoteDocumentosProperties(false, null, null));
     }
 
     @AfterAll
@@ -45,4 +69,44 @@ class RestConsumerTest {
         // del adaptador de usuarios
     }
 
-}
\ No newline at end of file
+    @Test
+    void buscarUsuarioPorDocumentoDevuelveUsuario() {
+        mockBackEnd.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setResponseCode(HttpStatus.OK.value())
+                .setBody("{\"idUsuario\": 3, \"tipoDocumento\": \"CC\", \"numeroDocumento\": \"111\"}"));
+
+        StepVerifier.create(usuarioRestAdapter.buscarUsuarioPorDocumento("CC", "111"))
+                .expectNextMatches(usuario -> usuario.getIdUsuario().equals(3L))
+                .verifyComplete();
+    }
+
+    @Test
+    void buscarUsuarioPorDocumentoInexistenteCompletaVacio() {
+        mockBackEnd.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setResponseCode(HttpStatus.NOT_FOUND.value())
+                .setBody("{\"message\": \"Usuario no encontrado\"}"));
+
+        StepVerifier.create(usuarioRestAdapter.buscarUsuarioPorDocumento("CC", "222"))
+                .verifyComplete();
+    }
+
+    @Test
+    void buscarUsuarioPorEmailInexistenteCompletaVacio() {
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(HttpStatus.NOT_FOUND.value()));
+
+        StepVerifier.create(usuarioRestAdapter.buscarUsuarioPorEmail("nadie@example.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void buscarUsuarioPorEmailConErrorDelServicioPropagaError() {
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(HttpStatus.INTERNAL_SERVER_ERROR.value()));
+
+        StepVerifier.create(usuarioRestAdapter.buscarUsuarioPorEmail("error@example.com"))
+                .expectError(WebClientResponseException.InternalServerError.class)
+                .verify();
+    }
+
+}
@@ -0,0 +1,137 @@
+package rodriguez.ciro.consumer;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.consumer.adapter.UsuarioRestAdapter;
+import rodriguez.ciro.consumer.api.UsuariosApi;
+import rodriguez.ciro.consumer.cache.UsuarioCache;
+import rodriguez.ciro.consumer.config.LoteDocumentosProperties;
+import rodriguez.ciro.consumer.helper.Hedging;
+import rodriguez.ciro.consumer.helper.MedidorLlamadas;
+import rodriguez.ciro.consumer.helper.ProteccionLlamadas;
+import rodriguez.ciro.consumer.helper.Reintentos;
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mide cuántas llamadas remotas produce una ráfaga de solicitudes idénticas.
+ */
+class UsuarioRestAdapterConcurrencyTest {
+
+    private static final int RAFAGA = 50;
+    private static final String USUARIO_JSON = """
+            {"idUsuario": 7, "nombres": "Juan", "tipoDocumento": "CC", "numeroDocumento": "12345678",
+             "correoElectronico": "juan@example.com"}""";
+
+    private MockWebServer mockBackEnd;
+    private UsuarioRestAdapter adapter;
+    private final Map<String, AtomicInteger> llamadas = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockBackEnd = new MockWebServer();
+        mockBackEnd.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                String ruta = request.getMethod() + " " + request.getPath();
+                llamadas.computeIfAbsent(ruta, r -> new AtomicInteger()).incrementAndGet();
+                if ("POST".equals(request.getMethod())) {
+                    return new MockResponse()
+                            .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                            .setBody(USUARIO_JSON)
+                            .setBodyDelay(200, TimeUnit.MILLISECONDS);
+                }
+                return new MockResponse().setResponseCode(404)
+                        .setBodyDelay(200, TimeUnit.MILLISECONDS);
+            }
+        });
+        mockBackEnd.start();
+
+        WebClient client = WebClient.builder().baseUrl(mockBackEnd.url("/").toString()).build();
+        UsuarioCache cache = new UsuarioCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry());
+        adapter = new UsuarioRestAdapter(new UsuariosApi(client,
+                new Hedging(false, 0.95, Duration.ofMillis(20), 0.05, new SimpleMeterRegistry()),
+                new Reintentos(false, 3, Duration.ofMillis(50), Duration.ofMillis(500), 0.1, Duration.ofSeconds(5),
+                        new SimpleMeterRegistry()),
+                new MedidorLlamadas(new SimpleMeterRegistry()),
+                new ProteccionLlamadas(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                        new SimpleMeterRegistry())), cache,
+                new LoteDocumentosProperties(false, null, null));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockBackEnd.shutdown();
+    }
+
+    @Test
+    void rafagaDeBusquedasPorDocumentoHaceUnaSolaLlamada() {
+        StepVerifier.create(Flux.range(0, RAFAGA)
+                        .flatMap(i -> adapter.buscarUsuarioPorDocumento("CC", "12345678"), RAFAGA)
+                        .count())
+                .expectNext(0L)
+                .verifyComplete();
+
+        assertEquals(1, llamadas("GET /api/v1/usuarios/documento/CC/12345678"));
+    }
+
+    @Test
+    void rafagaDeRegistrosIdenticosRegistraUnaSolaVez() {
+        Usuario usuario = Usuario.builder()
+                .nombres("Juan")
+                .tipoDocumento("CC")
+                .numeroDocumento("12345678")
+                .correoElectronico("juan@example.com")
+                .build();
+
+        StepVerifier.create(Flux.range(0, RAFAGA)
+                        .flatMap(i -> adapter.registrarUsuario(usuario), RAFAGA)
+                        .map(Usuario::getIdUsuario)
+                        .distinct()
+                        .collectList())
+                .expectNextMatches(ids -> ids.size() == 1 && ids.get(0).equals(7L))
+                .verifyComplete();
+
+        assertEquals(1, llamadas("POST /api/v1/usuarios"));
+    }
+
+    @Test
+    void registroPosteriorNoReutilizaElResultadoAnterior() {
+        Usuario usuario = Usuario.builder()
+                .tipoDocumento("CC")
+                .numeroDocumento("12345678")
+                .correoElectronico("juan@example.com")
+                .build();
+
+        StepVerifier.create(adapter.registrarUsuario(usuario)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(adapter.registrarUsuario(usuario)).expectNextCount(1).verifyComplete();
+
+        assertEquals(2, llamadas("POST /api/v1/usuarios"));
+    }
+
+    private int llamadas(String ruta) {
+        AtomicInteger contador = llamadas.get(ruta);
+        return contador != null ? contador.get() : 0;
+    }
+}
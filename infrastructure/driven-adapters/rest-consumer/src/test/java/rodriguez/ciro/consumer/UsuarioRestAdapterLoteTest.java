@@ -0,0 +1,216 @@
+package rodriguez.ciro.consumer;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.consumer.adapter.UsuarioRestAdapter;
+import rodriguez.ciro.consumer.api.UsuariosApi;
+import rodriguez.ciro.consumer.api.model.DocumentoUsuarioRequest;
+import rodriguez.ciro.consumer.api.model.UsuarioResponse;
+import rodriguez.ciro.consumer.cache.UsuarioCache;
+import rodriguez.ciro.consumer.config.LoteDocumentosProperties;
+import rodriguez.ciro.consumer.helper.Hedging;
+import rodriguez.ciro.consumer.helper.MedidorLlamadas;
+import rodriguez.ciro.consumer.helper.ProteccionLlamadas;
+import rodriguez.ciro.consumer.helper.Reintentos;
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Búsquedas por documento en lote contra un doble del servicio de usuarios con la ruta {@code _bulk}.
+ */
+class UsuarioRestAdapterLoteTest {
+
+    private static final String BULK = "/api/v1/usuarios/documento/_bulk";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<String, UsuarioResponse> usuarios = new ConcurrentHashMap<>();
+    private final AtomicInteger lotes = new AtomicInteger();
+    private final AtomicInteger individuales = new AtomicInteger();
+    private volatile boolean fallar;
+    private volatile boolean normalizar;
+    private MockWebServer mockBackEnd;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        for (long i = 0; i < 10; i++) {
+            UsuarioResponse usuario = new UsuarioResponse();
+            usuario.setIdUsuario(i);
+            usuario.setTipoDocumento("CC");
+            usuario.setNumeroDocumento(String.valueOf(1000 + i));
+            usuarios.put("CC/" + usuario.getNumeroDocumento(), usuario);
+        }
+        mockBackEnd = new MockWebServer();
+        mockBackEnd.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if (!BULK.equals(request.getPath())) {
+                    individuales.incrementAndGet();
+                    String[] partes = request.getPath().split("/");
+                    UsuarioResponse usuario = usuarios.get(clave(partes[partes.length - 2], partes[partes.length - 1]));
+                    return usuario == null
+                            ? new MockResponse().setResponseCode(404)
+                            : new MockResponse()
+                                    .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .setBody(json(usuario));
+                }
+                lotes.incrementAndGet();
+                if (fallar) {
+                    return new MockResponse().setResponseCode(500);
+                }
+                return new MockResponse()
+                        .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .setBody(buscar(request.getBody().readUtf8()));
+            }
+        });
+        mockBackEnd.start();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockBackEnd.shutdown();
+    }
+
+    @Test
+    void busquedasConcurrentesUsanUnSoloLote() {
+        UsuarioRestAdapter adapter = adapter(100);
+
+        StepVerifier.create(Flux.range(0, 20)
+                        .flatMap(i -> adapter.buscarUsuarioPorDocumento("CC", String.valueOf(1000 + i))
+                                .map(Usuario::getIdUsuario), 20)
+                        .collectList())
+                .expectNextMatches(ids -> ids.size() == 10 && ids.stream().allMatch(id -> id < 10))
+                .verifyComplete();
+
+        assertEquals(1, lotes.get());
+        assertEquals(0, individuales.get());
+    }
+
+    @Test
+    void loteLlenoSeEnviaSinEsperarLaVentana() {
+        UsuarioRestAdapter adapter = adapter(4);
+
+        StepVerifier.create(Flux.range(0, 10)
+                        .flatMap(i -> adapter.buscarUsuarioPorDocumento("CC", String.valueOf(1000 + i)), 10)
+                        .count())
+                .expectNext(10L)
+                .verifyComplete();
+
+        // 4 + 4 llenos y el resto al vencer la ventana
+        assertEquals(3, lotes.get());
+    }
+
+    @Test
+    void documentoDevueltoEnOtraFormaSeBuscaUnoPorUno() {
+        UsuarioRestAdapter adapter = adapter(100);
+        normalizar = true;
+
+        StepVerifier.create(Flux.just("001000", "1001", "9999")
+                        .flatMap(numero -> adapter.buscarUsuarioPorDocumento("CC", numero).map(Usuario::getIdUsuario))
+                        .collectList())
+                .expectNextMatches(ids -> ids.size() == 2 && ids.containsAll(List.of(0L, 1L)))
+                .verifyComplete();
+
+        // 1001 vino tal como se pidió; 001000 y 9999 quedaron sin usuario y se buscaron aparte
+        assertEquals(1, lotes.get());
+        assertEquals(2, individuales.get());
+    }
+
+    @Test
+    void documentosEscritosDistintoNoCompartenUsuario() {
+        UsuarioRestAdapter adapter = adapter(100);
+
+        StepVerifier.create(Flux.just("1002", "01002")
+                        .flatMap(numero -> adapter.buscarUsuarioPorDocumento("CC", numero).map(Usuario::getIdUsuario))
+                        .collectList())
+                .expectNext(List.of(2L))
+                .verifyComplete();
+
+        // La respuesta solo trajo documentos pedidos: el que falta no existe y no se vuelve a buscar
+        assertEquals(1, lotes.get());
+        assertEquals(0, individuales.get());
+    }
+
+    @Test
+    void errorDelLoteFallaTodasLasBusquedas() {
+        UsuarioRestAdapter adapter = adapter(100);
+        fallar = true;
+
+        StepVerifier.create(Flux.range(0, 5)
+                        .flatMap(i -> adapter.buscarUsuarioPorDocumento("CC", String.valueOf(1000 + i))
+                                .materialize(), 5)
+                        .filter(senal -> senal.getThrowable() instanceof WebClientResponseException.InternalServerError)
+                        .count())
+                .expectNext(5L)
+                .verifyComplete();
+
+        assertEquals(1, lotes.get());
+    }
+
+    private UsuarioRestAdapter adapter(int tamanoMaximo) {
+        WebClient client = WebClient.builder().baseUrl(mockBackEnd.url("/").toString()).build();
+        UsuarioCache cache = new UsuarioCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), new SimpleMeterRegistry());
+        return new UsuarioRestAdapter(new UsuariosApi(client,
+                new Hedging(false, 0.95, Duration.ofMillis(20), 0.05, new SimpleMeterRegistry()),
+                new Reintentos(false, 3, Duration.ofMillis(50), Duration.ofMillis(500), 0.1, Duration.ofSeconds(5),
+                        new SimpleMeterRegistry()),
+                new MedidorLlamadas(new SimpleMeterRegistry()),
+                new ProteccionLlamadas(CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                        new SimpleMeterRegistry())), cache,
+                new LoteDocumentosProperties(true, Duration.ofMillis(100), tamanoMaximo));
+    }
+
+    private String buscar(String cuerpo) {
+        try {
+            List<DocumentoUsuarioRequest> documentos = mapper.readValue(cuerpo, new TypeReference<>() {
+            });
+            List<UsuarioResponse> encontrados = documentos.stream()
+                    .map(documento -> usuarios.get(clave(documento.getTipoDocumento(), documento.getNumeroDocumento())))
+                    .filter(Objects::nonNull)
+                    .toList();
+            return mapper.writeValueAsString(encontrados);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Con {@code normalizar}, como un servicio que responde con el documento que tiene guardado aunque se pida
+     * con ceros a la izquierda.
+     */
+    private String clave(String tipoDocumento, String numeroDocumento) {
+        return tipoDocumento + "/" + (normalizar ? numeroDocumento.replaceFirst("^0+(?=.)", "") : numeroDocumento);
+    }
+
+    private String json(UsuarioResponse usuario) {
+        try {
+            return mapper.writeValueAsString(usuario);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package rodriguez.ciro.consumer.api;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.consumer.api.model.DocumentoUsuarioRequest;
+import rodriguez.ciro.consumer.api.model.RegistrarUsuarioRequest;
+import rodriguez.ciro.consumer.helper.Hedging;
+import rodriguez.ciro.consumer.helper.MedidorLlamadas;
+import rodriguez.ciro.consumer.helper.ProteccionLlamadas;
+import rodriguez.ciro.consumer.helper.Reintentos;
+import rodriguez.ciro.model.exception.ServicioUsuariosNoDisponibleException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UsuariosApiTest {
+
+    private final CircuitBreakerRegistry circuitos = CircuitBreakerRegistry.ofDefaults();
+    private MockWebServer mockBackEnd;
+    private UsuariosApi usuariosApi;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockBackEnd = new MockWebServer();
+        mockBackEnd.start();
+        WebClient client = WebClient.builder().baseUrl(mockBackEnd.url("/").toString()).build();
+        usuariosApi = new UsuariosApi(client,
+                new Hedging(false, 0.95, Duration.ofMillis(20), 0.05, new SimpleMeterRegistry()),
+                new Reintentos(true, 3, Duration.ofMillis(1), Duration.ofMillis(5), 0.1, Duration.ofSeconds(5),
+                        new SimpleMeterRegistry()),
+                new MedidorLlamadas(new SimpleMeterRegistry()),
+                new ProteccionLlamadas(circuitos, BulkheadRegistry.ofDefaults(), new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        mockBackEnd.shutdown();
+    }
+
+    @Test
+    void cadaReintentoPasaPorElCircuito() {
+        for (int i = 0; i < 2; i++) {
+            mockBackEnd.enqueue(new MockResponse().setResponseCode(503));
+        }
+        mockBackEnd.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("{\"idUsuario\": 3}"));
+
+        StepVerifier.create(usuariosApi.buscarUsuarioPorEmailRequest("a@example.com"))
+                .expectNextMatches(usuario -> usuario.getIdUsuario().equals(3L))
+                .verifyComplete();
+
+        CircuitBreaker.Metrics metricas = circuitos.circuitBreaker(ProteccionLlamadas.CONSULTA).getMetrics();
+        assertEquals(2, metricas.getNumberOfFailedCalls());
+        assertEquals(1, metricas.getNumberOfSuccessfulCalls());
+    }
+
+    @Test
+    void conElCircuitoAbiertoNoSeReintenta() {
+        circuitos.circuitBreaker(ProteccionLlamadas.CONSULTA).transitionToOpenState();
+
+        StepVerifier.create(usuariosApi.buscarUsuarioPorEmailRequest("a@example.com"))
+                .expectError(ServicioUsuariosNoDisponibleException.class)
+                .verify(Duration.ofSeconds(2));
+
+        assertEquals(0, mockBackEnd.getRequestCount());
+    }
+
+    @Test
+    void losErroresDelServicioLleganSinEnvolver() {
+        for (int i = 0; i < 3; i++) {
+            mockBackEnd.enqueue(new MockResponse().setResponseCode(503));
+        }
+
+        StepVerifier.create(usuariosApi.buscarUsuarioPorEmailRequest("a@example.com"))
+                .expectError(WebClientResponseException.ServiceUnavailable.class)
+                .verify(Duration.ofSeconds(2));
+
+        assertEquals(3, mockBackEnd.getRequestCount());
+    }
+
+    @Test
+    void laBusquedaEnLoteSeReintentaPorqueNoCambiaNada() throws InterruptedException {
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(503));
+        mockBackEnd.enqueue(new MockResponse()
+                .setHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .setBody("[{\"idUsuario\": 3, \"tipoDocumento\": \"CC\", \"numeroDocumento\": \"111\"}]"));
+
+        StepVerifier.create(usuariosApi.buscarUsuariosPorDocumentoRequest(
+                        List.of(new DocumentoUsuarioRequest("CC", "111"), new DocumentoUsuarioRequest("CC", "222"))))
+                .expectNextMatches(usuarios -> usuarios.size() == 1 && usuarios.get(0).getIdUsuario().equals(3L))
+                .verifyComplete();
+
+        assertEquals(2, mockBackEnd.getRequestCount());
+        assertEquals(mockBackEnd.takeRequest().getBody().readUtf8(), mockBackEnd.takeRequest().getBody().readUtf8());
+    }
+
+    @Test
+    void elRegistroNoSeReintenta() {
+        mockBackEnd.enqueue(new MockResponse().setResponseCode(503));
+        RegistrarUsuarioRequest request = new RegistrarUsuarioRequest();
+        request.setTipoDocumento("CC");
+        request.setNumeroDocumento("111");
+
+        StepVerifier.create(usuariosApi.registrarUsuarioRequest(request))
+                .expectError(WebClientResponseException.ServiceUnavailable.class)
+                .verify(Duration.ofSeconds(2));
+
+        assertEquals(1, mockBackEnd.getRequestCount());
+    }
+}
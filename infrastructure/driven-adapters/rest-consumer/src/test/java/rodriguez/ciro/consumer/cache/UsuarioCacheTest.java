@@ -0,0 +1,106 @@
+package rodriguez.ciro.consumer.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.usuario.Usuario;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UsuarioCacheTest {
+
+    private MeterRegistry meterRegistry;
+    private UsuarioCache usuarioCache;
+    private AtomicInteger llamadas;
+    private Usuario usuario;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        usuarioCache = new UsuarioCache(100, Duration.ofMinutes(5), Duration.ofSeconds(30), meterRegistry);
+        llamadas = new AtomicInteger();
+        usuario = Usuario.builder()
+                .idUsuario(1L)
+                .tipoDocumento("CC")
+                .numeroDocumento("12345678")
+                .correoElectronico("juan@example.com")
+                .build();
+    }
+
+    @Test
+    void segundaConsultaPorDocumentoSeSirveDesdeCache() {
+        StepVerifier.create(usuarioCache.buscarPorDocumento("CC", "12345678", () -> contar(Mono.just(usuario))))
+                .expectNext(usuario)
+                .verifyComplete();
+        StepVerifier.create(usuarioCache.buscarPorDocumento("CC", "12345678", () -> contar(Mono.just(usuario))))
+                .expectNext(usuario)
+                .verifyComplete();
+
+        assertEquals(1, llamadas.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", UsuarioCache.CACHE_DOCUMENTO)
+                .tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void busquedaVaciaSeGuardaComoAusencia() {
+        StepVerifier.create(usuarioCache.buscarPorEmail("juan@example.com", () -> contar(Mono.empty())))
+                .verifyComplete();
+        StepVerifier.create(usuarioCache.buscarPorEmail("juan@example.com", () -> contar(Mono.empty())))
+                .verifyComplete();
+
+        assertEquals(1, llamadas.get());
+    }
+
+    @Test
+    void otrosErroresNoSeGuardan() {
+        StepVerifier.create(usuarioCache.buscarPorEmail("juan@example.com",
+                        () -> contar(Mono.error(new IllegalStateException("timeout")))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        StepVerifier.create(usuarioCache.buscarPorEmail("juan@example.com", () -> contar(Mono.just(usuario))))
+                .expectNext(usuario)
+                .verifyComplete();
+
+        assertEquals(2, llamadas.get());
+    }
+
+    @Test
+    void registrarReemplazaEntradasNegativas() {
+        StepVerifier.create(usuarioCache.buscarPorDocumento("CC", "12345678", () -> contar(Mono.empty())))
+                .verifyComplete();
+
+        usuarioCache.registrar(usuario);
+
+        StepVerifier.create(usuarioCache.buscarPorDocumento("CC", "12345678", () -> contar(Mono.empty())))
+                .expectNext(usuario)
+                .verifyComplete();
+        StepVerifier.create(usuarioCache.buscarPorEmail("juan@example.com", () -> contar(Mono.empty())))
+                .expectNext(usuario)
+                .verifyComplete();
+        assertEquals(1, llamadas.get());
+    }
+
+    @Test
+    void invalidarFuerzaNuevaConsulta() {
+        usuarioCache.registrar(usuario);
+        usuarioCache.invalidar(usuario);
+
+        StepVerifier.create(usuarioCache.buscarPorDocumento("CC", "12345678", () -> contar(Mono.just(usuario))))
+                .expectNext(usuario)
+                .verifyComplete();
+        assertEquals(1, llamadas.get());
+    }
+
+    private Mono<Usuario> contar(Mono<Usuario> respuesta) {
+        return Mono.defer(() -> {
+            llamadas.incrementAndGet();
+            return respuesta;
+        });
+    }
+}
@@ -0,0 +1,119 @@
+package rodriguez.ciro.consumer.config;
+
+import okhttp3.Protocol;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RestConsumerConfigTest {
+
+    private MockWebServer mockBackEnd;
+    private ConnectionProvider connectionProvider;
+
+    @BeforeEach
+    void setUp() {
+        mockBackEnd = new MockWebServer();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        mockBackEnd.shutdown();
+    }
+
+    @Test
+    void deberiaAbrirLasConexionesDeCalentamientoAlArrancar() throws Exception {
+        mockBackEnd.start();
+        mockBackEnd.enqueue(new MockResponse());
+        mockBackEnd.enqueue(new MockResponse());
+
+        StepVerifier.create(crearCalentamiento(2).calentar()).verifyComplete();
+
+        for (int i = 0; i < 2; i++) {
+            RecordedRequest request = mockBackEnd.takeRequest(5, TimeUnit.SECONDS);
+            assertNotNull(request);
+            assertEquals("HEAD", request.getMethod());
+        }
+    }
+
+    @Test
+    void crearLosBeansNoAbreConexiones() throws Exception {
+        mockBackEnd.start();
+
+        crearWebClient(false, 2);
+        crearCalentamiento(2);
+
+        assertNull(mockBackEnd.takeRequest(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void sinConexionesDeCalentamientoNoHaceNada() throws Exception {
+        mockBackEnd.start();
+
+        StepVerifier.create(crearCalentamiento(0).calentar()).verifyComplete();
+
+        assertEquals(0, mockBackEnd.getRequestCount());
+    }
+
+    @Test
+    void unServicioCaidoNoImpideArrancar() throws IOException {
+        mockBackEnd.start();
+        CalentamientoConexiones calentamiento = crearCalentamiento(2);
+        mockBackEnd.shutdown();
+
+        StepVerifier.create(calentamiento.calentar()).verifyComplete();
+    }
+
+    @Test
+    void deberiaHablarH2cConH2cHabilitado() throws Exception {
+        mockBackEnd.setProtocols(List.of(Protocol.H2_PRIOR_KNOWLEDGE));
+        mockBackEnd.start();
+        mockBackEnd.enqueue(new MockResponse().setBody("ok"));
+
+        WebClient webClient = crearWebClient(true, 0);
+
+        // El servidor solo acepta HTTP/2 sin negociación: con HTTP/1.1 la petición fallaría
+        StepVerifier.create(webClient.get().uri("/api/v1/usuarios/email/a@b.co").retrieve().bodyToMono(String.class))
+                .expectNext("ok")
+                .verifyComplete();
+        assertEquals("/api/v1/usuarios/email/a@b.co", mockBackEnd.takeRequest(5, TimeUnit.SECONDS).getPath());
+    }
+
+    private WebClient crearWebClient(boolean h2c, int warmupConnections) {
+        RestConsumerConfig config = new RestConsumerConfig(mockBackEnd.url("/").toString(), 5000, h2c);
+        return config.getWebClient(WebClient.builder(), config.usuariosHttpClient(crearPool(config, warmupConnections)));
+    }
+
+    private CalentamientoConexiones crearCalentamiento(int warmupConnections) {
+        RestConsumerConfig config = new RestConsumerConfig(mockBackEnd.url("/").toString(), 5000, false);
+        PoolConexionesProperties pool = propiedades(warmupConnections);
+        return config.calentamientoConexiones(config.usuariosHttpClient(crearPool(config, warmupConnections)), pool);
+    }
+
+    private ConnectionProvider crearPool(RestConsumerConfig config, int warmupConnections) {
+        if (connectionProvider == null) {
+            connectionProvider = config.usuariosConnectionProvider(propiedades(warmupConnections));
+        }
+        return connectionProvider;
+    }
+
+    private static PoolConexionesProperties propiedades(int warmupConnections) {
+        return new PoolConexionesProperties("usuarios-test", 4, null, null, null, null, null, warmupConnections);
+    }
+}
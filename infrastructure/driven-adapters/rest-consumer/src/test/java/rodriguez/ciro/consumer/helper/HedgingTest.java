@@ -0,0 +1,160 @@
+package rodriguez.ciro.consumer.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+class HedgingTest {
+
+    private static final Duration LENTO = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void deberiaResponderConElSegundoIntentoSiElPrimeroTarda() {
+        Hedging hedging = new Hedging(true, 0.95, Duration.ofMillis(20), 0.05, registry);
+        calentar(hedging, Hedging.MUESTRAS_MINIMAS);
+
+        AtomicInteger intentos = new AtomicInteger();
+        Supplier<Mono<String>> intento = () -> intentos.incrementAndGet() == 1
+                ? Mono.delay(LENTO).thenReturn("primero")
+                : Mono.just("segundo");
+
+        StepVerifier.create(hedging.ejecutar("documento", intento))
+                .expectNext("segundo")
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+        assertEquals(2, intentos.get());
+        assertEquals(1, contador("enviados"));
+        assertEquals(1, contador("ganados"));
+    }
+
+    @Test
+    void noDeberiaEnviarSegundosIntentosSinPresupuesto() {
+        Hedging hedging = new Hedging(true, 0.95, Duration.ofMillis(20), 0.0, registry);
+        calentar(hedging, Hedging.MUESTRAS_MINIMAS);
+
+        AtomicInteger intentos = new AtomicInteger();
+        StepVerifier.withVirtualTime(() -> hedging.ejecutar("documento", () -> {
+                    intentos.incrementAndGet();
+                    return Mono.delay(LENTO).thenReturn("primero");
+                }))
+                .thenAwait(LENTO)
+                .expectNext("primero")
+                .verifyComplete();
+
+        assertEquals(1, intentos.get());
+        assertEquals(0, contador("enviados"));
+        assertEquals(1, contador("sin.presupuesto"));
+    }
+
+    @Test
+    void noDeberiaEnviarSegundosIntentosSinMuestrasSuficientes() {
+        Hedging hedging = new Hedging(true, 0.95, Duration.ofMillis(20), 1.0, registry);
+        calentar(hedging, Hedging.MUESTRAS_MINIMAS - 1);
+
+        AtomicInteger intentos = new AtomicInteger();
+        StepVerifier.withVirtualTime(() -> hedging.ejecutar("documento", () -> {
+                    intentos.incrementAndGet();
+                    return Mono.delay(LENTO).then(Mono.<String>empty());
+                }))
+                .thenAwait(LENTO)
+                .verifyComplete();
+
+        assertEquals(1, intentos.get());
+    }
+
+    @Test
+    void deberiaEsperarAlSegundoIntentoSiElPrimeroFalla() {
+        Hedging hedging = new Hedging(true, 0.95, Duration.ofMillis(20), 1.0, registry);
+        calentar(hedging, Hedging.MUESTRAS_MINIMAS);
+
+        AtomicInteger intentos = new AtomicInteger();
+        Supplier<Mono<String>> intento = () -> intentos.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(200)).then(Mono.error(new IllegalStateException("primero")))
+                : Mono.delay(Duration.ofMillis(400)).thenReturn("segundo");
+
+        StepVerifier.create(hedging.ejecutar("documento", intento))
+                .expectNext("segundo")
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+        assertEquals(1, contador("ganados"));
+    }
+
+    @Test
+    void deberiaPropagarElErrorDelPrimeroSiFallanAmbos() {
+        Hedging hedging = new Hedging(true, 0.95, Duration.ofMillis(20), 1.0, registry);
+        calentar(hedging, Hedging.MUESTRAS_MINIMAS);
+
+        AtomicInteger intentos = new AtomicInteger();
+        Supplier<Mono<String>> intento = () -> intentos.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(200)).then(Mono.error(new IllegalStateException("primero")))
+                : Mono.error(new IllegalArgumentException("segundo"));
+
+        StepVerifier.create(hedging.ejecutar("documento", intento))
+                .expectErrorSatisfies(error -> {
+                    assertInstanceOf(IllegalStateException.class, error);
+                    assertEquals("primero", error.getMessage());
+                })
+                .verify(Duration.ofSeconds(2));
+
+        assertEquals(2, intentos.get());
+    }
+
+    @Test
+    void noDeberiaEnviarSegundoIntentoSiElPrimeroFallaAntes() {
+        Hedging hedging = new Hedging(true, 0.95, Duration.ofMillis(20), 1.0, registry);
+        calentar(hedging, Hedging.MUESTRAS_MINIMAS);
+
+        AtomicInteger intentos = new AtomicInteger();
+        StepVerifier.create(hedging.ejecutar("documento", () -> {
+                    intentos.incrementAndGet();
+                    return Mono.<String>error(new IllegalStateException("primero"));
+                }))
+                .expectErrorMessage("primero")
+                .verify(Duration.ofSeconds(2));
+
+        assertEquals(1, intentos.get());
+        assertEquals(0, contador("enviados"));
+    }
+
+    @Test
+    void unaRespuestaVaciaDelPrimeroDecide() {
+        Hedging hedging = new Hedging(true, 0.95, Duration.ofMillis(20), 1.0, registry);
+        calentar(hedging, Hedging.MUESTRAS_MINIMAS);
+
+        AtomicInteger intentos = new AtomicInteger();
+        Supplier<Mono<String>> intento = () -> intentos.incrementAndGet() == 1
+                ? Mono.delay(Duration.ofMillis(200)).then(Mono.<String>empty())
+                : Mono.delay(LENTO).thenReturn("segundo");
+
+        StepVerifier.create(hedging.ejecutar("documento", intento))
+                .expectComplete()
+                .verify(Duration.ofSeconds(2));
+
+        assertEquals(2, intentos.get());
+        assertEquals(0, contador("ganados"));
+    }
+
+    private void calentar(Hedging hedging, int consultas) {
+        for (int i = 0; i < consultas; i++) {
+            StepVerifier.create(hedging.ejecutar("documento", () -> Mono.just("rapido")))
+                    .expectNext("rapido")
+                    .verifyComplete();
+        }
+    }
+
+    private double contador(String nombre) {
+        return registry.get(Hedging.METRICA + "." + nombre).tag("operacion", "documento").counter().count();
+    }
+}
@@ -0,0 +1,47 @@
+package rodriguez.ciro.consumer.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MedidorLlamadasTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MedidorLlamadas medidor = new MedidorLlamadas(registry);
+
+    @Test
+    void deberiaEtiquetarCadaDesenlace() {
+        StepVerifier.create(medidor.medir(MedidorLlamadas.Operacion.DOCUMENTO, Mono.just("usuario")))
+                .expectNext("usuario")
+                .verifyComplete();
+        StepVerifier.create(medidor.medir(MedidorLlamadas.Operacion.DOCUMENTO, Mono.empty()))
+                .verifyComplete();
+        StepVerifier.create(medidor.medir(MedidorLlamadas.Operacion.REGISTRO, Mono.error(new IllegalStateException())))
+                .verifyError(IllegalStateException.class);
+
+        assertEquals(1, conteo("documento", "encontrado"));
+        assertEquals(1, conteo("documento", "no_encontrado"));
+        assertEquals(1, conteo("registro", "error"));
+        assertEquals(0, conteo("email", "encontrado"));
+    }
+
+    @Test
+    void noDeberiaMedirLlamadasCanceladas() {
+        StepVerifier.create(medidor.medir(MedidorLlamadas.Operacion.EMAIL, Mono.never()))
+                .thenCancel()
+                .verify();
+
+        registry.find(MedidorLlamadas.METRICA).timers()
+                .forEach(timer -> assertEquals(0, timer.count()));
+    }
+
+    private long conteo(String operacion, String resultado) {
+        return registry.get(MedidorLlamadas.METRICA)
+                .tag("operacion", operacion)
+                .tag("resultado", resultado)
+                .timer().count();
+    }
+}
@@ -0,0 +1,78 @@
+package rodriguez.ciro.consumer.helper;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MicroLoteTest {
+
+    private final VirtualTimeScheduler reloj = VirtualTimeScheduler.create();
+    private final List<List<String>> consultas = new ArrayList<>();
+
+    @Test
+    void deberiaJuntarLasLlavesDeLaVentanaYCompartirLasRepetidas() {
+        MicroLote<String, Integer> lote = new MicroLote<>(Duration.ofMillis(10), 100, this::consultar, reloj);
+
+        StepVerifier primera = StepVerifier.create(lote.obtener("uno")).expectNext(3).expectComplete().verifyLater();
+        StepVerifier repetida = StepVerifier.create(lote.obtener("uno")).expectNext(3).expectComplete().verifyLater();
+        StepVerifier ausente = StepVerifier.create(lote.obtener("no")).expectComplete().verifyLater();
+
+        assertEquals(0, consultas.size());
+        reloj.advanceTimeBy(Duration.ofMillis(10));
+
+        primera.verify(Duration.ofSeconds(1));
+        repetida.verify(Duration.ofSeconds(1));
+        ausente.verify(Duration.ofSeconds(1));
+        assertEquals(List.of(List.of("uno", "no")), consultas);
+    }
+
+    @Test
+    void deberiaEnviarAlLlenarseYEmpezarOtroLote() {
+        MicroLote<String, Integer> lote = new MicroLote<>(Duration.ofMillis(10), 2, this::consultar, reloj);
+
+        StepVerifier primera = StepVerifier.create(lote.obtener("a")).expectNext(1).expectComplete().verifyLater();
+        StepVerifier segunda = StepVerifier.create(lote.obtener("bb")).expectNext(2).expectComplete().verifyLater();
+        StepVerifier tercera = StepVerifier.create(lote.obtener("ccc")).expectNext(3).expectComplete().verifyLater();
+
+        primera.verify(Duration.ofSeconds(1));
+        segunda.verify(Duration.ofSeconds(1));
+        assertEquals(List.of(List.of("a", "bb")), consultas);
+        reloj.advanceTimeBy(Duration.ofMillis(10));
+        tercera.verify(Duration.ofSeconds(1));
+        assertEquals(List.of(List.of("a", "bb"), List.of("ccc")), consultas);
+    }
+
+    @Test
+    void deberiaPropagarElErrorATodoElLote() {
+        MicroLote<String, Integer> lote = new MicroLote<>(Duration.ofMillis(10), 100,
+                claves -> Mono.error(new IllegalStateException("caído")), reloj);
+
+        StepVerifier uno = StepVerifier.create(lote.obtener("uno")).expectError(IllegalStateException.class).verifyLater();
+        StepVerifier dos = StepVerifier.create(lote.obtener("dos")).expectError(IllegalStateException.class).verifyLater();
+        reloj.advanceTimeBy(Duration.ofMillis(10));
+
+        uno.verify(Duration.ofSeconds(1));
+        dos.verify(Duration.ofSeconds(1));
+    }
+
+    /**
+     * Encuentra las llaves de la forma a, bb, uno... con su longitud como valor; "no" no existe.
+     */
+    private Mono<Map<String, Integer>> consultar(List<String> claves) {
+        consultas.add(claves);
+        return Mono.fromSupplier(() -> {
+            Map<String, Integer> encontrados = new HashMap<>();
+            claves.stream().filter(clave -> !"no".equals(clave)).forEach(clave -> encontrados.put(clave, clave.length()));
+            return encontrados;
+        });
+    }
+}
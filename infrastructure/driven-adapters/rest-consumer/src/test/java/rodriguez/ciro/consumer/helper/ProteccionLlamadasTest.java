@@ -0,0 +1,106 @@
+package rodriguez.ciro.consumer.helper;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import rodriguez.ciro.model.exception.ServicioUsuariosNoDisponibleException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProteccionLlamadasTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ProteccionLlamadas proteccion = new ProteccionLlamadas(
+            CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                    .slidingWindowSize(4)
+                    .minimumNumberOfCalls(4)
+                    .failureRateThreshold(50)
+                    .waitDurationInOpenState(Duration.ofSeconds(30))
+                    .recordException(new FallaServicioUsuarios())
+                    .build()),
+            BulkheadRegistry.of(BulkheadConfig.custom()
+                    .maxConcurrentCalls(1)
+                    .maxWaitDuration(Duration.ZERO)
+                    .build()),
+            registry);
+
+    @Test
+    void deberiaFallarDeInmediatoConElCircuitoAbierto() {
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(proteccion.proteger(MedidorLlamadas.Operacion.DOCUMENTO,
+                            Mono.error(new IOException("conexión rechazada"))))
+                    .verifyError(IOException.class);
+        }
+
+        AtomicInteger llamadas = new AtomicInteger();
+        StepVerifier.create(proteccion.proteger(MedidorLlamadas.Operacion.EMAIL,
+                        Mono.fromSupplier(llamadas::incrementAndGet)))
+                .verifyErrorSatisfies(error -> assertEquals(Duration.ofSeconds(30),
+                        ((ServicioUsuariosNoDisponibleException) error).getReintentarEn()));
+
+        assertEquals(0, llamadas.get());
+        assertEquals(1, rechazadas(ProteccionLlamadas.CONSULTA, "circuito_abierto"));
+        assertEquals(1, registry.get("usuarios.cliente.circuito.transiciones")
+                .tag("circuito", ProteccionLlamadas.CONSULTA)
+                .tag("hacia", "open")
+                .counter().count());
+        // El registro tiene su propio circuito
+        StepVerifier.create(proteccion.proteger(MedidorLlamadas.Operacion.REGISTRO, Mono.just("usuario")))
+                .expectNext("usuario")
+                .verifyComplete();
+    }
+
+    @Test
+    void noDeberiaAbrirElCircuitoPorRespuestasDeCliente() {
+        for (int i = 0; i < 8; i++) {
+            StepVerifier.create(proteccion.proteger(MedidorLlamadas.Operacion.REGISTRO,
+                            Mono.error(WebClientResponseException.create(HttpStatus.CONFLICT.value(), "Conflict",
+                                    HttpHeaders.EMPTY, new byte[0], null))))
+                    .verifyError(WebClientResponseException.class);
+        }
+
+        StepVerifier.create(proteccion.proteger(MedidorLlamadas.Operacion.REGISTRO, Mono.just("usuario")))
+                .expectNext("usuario")
+                .verifyComplete();
+    }
+
+    @Test
+    void deberiaRechazarSinCupoEnElBulkhead() {
+        Sinks.One<String> enCurso = Sinks.one();
+        StepVerifier primera = StepVerifier.create(proteccion.proteger(MedidorLlamadas.Operacion.DOCUMENTO,
+                        enCurso.asMono()))
+                .expectNext("usuario")
+                .expectComplete()
+                .verifyLater();
+
+        StepVerifier.create(proteccion.proteger(MedidorLlamadas.Operacion.DOCUMENTO, Mono.just("otro")))
+                .verifyError(ServicioUsuariosNoDisponibleException.class);
+        assertEquals(1, rechazadas(ProteccionLlamadas.CONSULTA, "sin_cupo"));
+
+        enCurso.tryEmitValue("usuario");
+        primera.verify(Duration.ofSeconds(5));
+        StepVerifier.create(proteccion.proteger(MedidorLlamadas.Operacion.DOCUMENTO, Mono.just("otro")))
+                .expectNext("otro")
+                .verifyComplete();
+    }
+
+    private double rechazadas(String circuito, String motivo) {
+        return registry.get("usuarios.cliente.rechazadas")
+                .tag("circuito", circuito)
+                .tag("motivo", motivo)
+                .counter().count();
+    }
+}
@@ -0,0 +1,87 @@
+package rodriguez.ciro.consumer.helper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReintentosTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void deberiaReintentarErroresTransitorios() {
+        Reintentos reintentos = reintentos(3, Duration.ofSeconds(5));
+        AtomicInteger intentos = new AtomicInteger();
+
+        StepVerifier.create(reintentos.ejecutar("documento", fallaHasta(intentos, 2, 503)))
+                .expectNext("usuario")
+                .verifyComplete();
+
+        assertEquals(3, intentos.get());
+        assertEquals(2, registry.get(Reintentos.METRICA).tag("operacion", "documento").counter().count());
+    }
+
+    @Test
+    void noDeberiaReintentarRespuestasDeCliente() {
+        Reintentos reintentos = reintentos(3, Duration.ofSeconds(5));
+        AtomicInteger intentos = new AtomicInteger();
+
+        StepVerifier.create(reintentos.ejecutar("documento", fallaHasta(intentos, 1, 400)))
+                .verifyError(WebClientResponseException.BadRequest.class);
+
+        assertEquals(1, intentos.get());
+    }
+
+    @Test
+    void deberiaAgotarElPresupuestoDuranteUnaCaida() {
+        Reintentos reintentos = reintentos(2, Duration.ofSeconds(5));
+        AtomicInteger intentos = new AtomicInteger();
+
+        for (int i = 0; i < Reintentos.FICHAS_MAXIMAS + 5; i++) {
+            StepVerifier.create(reintentos.ejecutar("email", fallaHasta(intentos, Integer.MAX_VALUE, 503)))
+                    .verifyError(WebClientResponseException.ServiceUnavailable.class);
+        }
+
+        // Cada llamada hace un intento y, mientras queden fichas, un reintento
+        assertEquals(Reintentos.FICHAS_MAXIMAS * 2 + 5, intentos.get());
+        assertEquals(5, omitidos("email", "sin_presupuesto"));
+    }
+
+    @Test
+    void noDeberiaReintentarFueraDelPlazo() {
+        Reintentos reintentos = reintentos(3, Duration.ZERO);
+        AtomicInteger intentos = new AtomicInteger();
+
+        StepVerifier.create(reintentos.ejecutar("documento", fallaHasta(intentos, 1, 503)))
+                .verifyError(WebClientResponseException.ServiceUnavailable.class);
+
+        assertEquals(1, intentos.get());
+        assertEquals(1, omitidos("documento", "sin_plazo"));
+    }
+
+    private Reintentos reintentos(int maxIntentos, Duration plazo) {
+        return new Reintentos(true, maxIntentos, Duration.ofMillis(1), Duration.ofMillis(5), 0.1, plazo, registry);
+    }
+
+    private static Supplier<Mono<String>> fallaHasta(AtomicInteger intentos, int fallas, int estado) {
+        return () -> Mono.defer(() -> intentos.incrementAndGet() <= fallas
+                ? Mono.error(WebClientResponseException.create(estado, "Error", HttpHeaders.EMPTY, new byte[0], null))
+                : Mono.just("usuario"));
+    }
+
+    private double omitidos(String operacion, String motivo) {
+        return registry.get(Reintentos.METRICA + ".omitidos")
+                .tag("operacion", operacion)
+                .tag("motivo", motivo)
+                .counter().count();
+    }
+}
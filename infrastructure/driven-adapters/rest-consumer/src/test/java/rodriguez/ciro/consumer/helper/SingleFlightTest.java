@@ -0,0 +1,90 @@
+package rodriguez.ciro.consumer.helper;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class SingleFlightTest {
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final AtomicInteger ejecuciones = new AtomicInteger();
+
+    @Test
+    void llamadasConcurrentesConMismaLlaveCompartenEjecucion() {
+        Sinks.One<String> respuesta = Sinks.one();
+
+        Mono<String> primera = singleFlight.ejecutar("k", () -> contar(respuesta.asMono()));
+        Mono<String> segunda = singleFlight.ejecutar("k", () -> contar(respuesta.asMono()));
+
+        StepVerifier.create(Mono.zip(primera, segunda))
+                .then(() -> respuesta.tryEmitValue("ok"))
+                .expectNextMatches(t -> t.getT1().equals("ok") && t.getT2().equals("ok"))
+                .verifyComplete();
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(0, singleFlight.enCurso());
+    }
+
+    @Test
+    void llaveDistintaEjecutaPorSeparado() {
+        StepVerifier.create(Mono.zip(
+                        singleFlight.ejecutar("a", () -> contar(Mono.just("a"))),
+                        singleFlight.ejecutar("b", () -> contar(Mono.just("b")))))
+                .expectNextMatches(t -> t.getT1().equals("a") && t.getT2().equals("b"))
+                .verifyComplete();
+
+        assertEquals(2, ejecuciones.get());
+    }
+
+    @Test
+    void cancelarUnSuscriptorNoCancelaALosDemas() {
+        Sinks.One<String> respuesta = Sinks.one();
+
+        Disposable cancelado = singleFlight.ejecutar("k", () -> contar(respuesta.asMono())).subscribe();
+        Mono<String> superviviente = singleFlight.ejecutar("k", () -> contar(respuesta.asMono()));
+
+        StepVerifier.create(superviviente)
+                .then(cancelado::dispose)
+                .then(() -> respuesta.tryEmitValue("ok"))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertEquals(1, ejecuciones.get());
+    }
+
+    @Test
+    void errorSePropagaATodosYLiberaLaLlave() {
+        Sinks.One<String> respuesta = Sinks.one();
+        Mono<String> primera = singleFlight.ejecutar("k", () -> contar(respuesta.asMono()));
+        Mono<String> segunda = singleFlight.ejecutar("k", () -> contar(respuesta.asMono()));
+
+        StepVerifier.create(Mono.zipDelayError(primera.onErrorReturn("e1"), segunda.onErrorReturn("e2")))
+                .then(() -> respuesta.tryEmitError(new IllegalStateException("falla")))
+                .expectNextMatches(t -> t.getT1().equals("e1") && t.getT2().equals("e2"))
+                .verifyComplete();
+
+        StepVerifier.create(singleFlight.ejecutar("k", () -> contar(Mono.just("reintento"))))
+                .expectNext("reintento")
+                .verifyComplete();
+        assertEquals(2, ejecuciones.get());
+    }
+
+    @Test
+    void resultadoVacioSePropaga() {
+        StepVerifier.create(singleFlight.ejecutar("k", () -> contar(Mono.empty())))
+                .verifyComplete();
+        assertFalse(singleFlight.enCurso() > 0);
+    }
+
+    private Mono<String> contar(Mono<String> respuesta) {
+        ejecuciones.incrementAndGet();
+        return respuesta;
+    }
+}
@@ -1,5 +1,7 @@
 package rodriguez.ciro.api;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -8,19 +10,50 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import rodriguez.ciro.api.config.SolicitudLoteProperties;
+import rodriguez.ciro.api.dto.PaginaSolicitudesResponse;
 import rodriguez.ciro.api.dto.RegistrarSolicitudRequest;
+import rodriguez.ciro.api.dto.ResultadoLoteResponse;
+import rodriguez.ciro.api.dto.ResumenSolicitudesResponse;
 import rodriguez.ciro.api.dto.SolicitudResponse;
-import rodriguez.ciro.api.dto.UsuarioResponse;
+import rodriguez.ciro.api.mapper.SolicitudApiMapper;
+import rodriguez.ciro.model.exception.EmailEnUsoException;
+import rodriguez.ciro.model.exception.ServicioUsuariosNoDisponibleException;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
+import rodriguez.ciro.model.solicitud.FormatoExportacion;
 import rodriguez.ciro.model.solicitud.Solicitud;
 import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.usecase.consultarestadisticas.ConsultarEstadisticasUseCase;
+import rodriguez.ciro.usecase.consultarsolicitudes.ConsultarSolicitudesUseCase;
+import rodriguez.ciro.usecase.exportarsolicitudes.ExportarSolicitudesUseCase;
+import rodriguez.ciro.usecase.idempotencia.IdempotenciaUseCase;
 import rodriguez.ciro.usecase.registrarsolicitud.RegistrarSolicitudUseCase;
 
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static rodriguez.ciro.api.mapper.SolicitudApiMapper.mapToResponse;
+import static rodriguez.ciro.api.mapper.SolicitudApiMapper.mapToSolicitud;
+import static rodriguez.ciro.api.mapper.SolicitudApiMapper.mapToUsuario;
+
 @Slf4j
 @RestController
 @RequestMapping(value = "/api", produces = MediaType.APPLICATION_JSON_VALUE)
@@ -28,7 +61,19 @@ import rodriguez.ciro.usecase.registrarsolicitud.RegistrarSolicitudUseCase;
 @Tag(name = "Solicitudes", description = "API para gestión de solicitudes de préstamo")
 public class SolicitudController {
 
+    static final String MEDIA_TYPE_CSV = "text/csv";
+    static final String HEADER_IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String HEADER_IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    static final int LONGITUD_MAXIMA_CLAVE = 255;
+
     private final RegistrarSolicitudUseCase registrarSolicitudUseCase;
+    private final ConsultarSolicitudesUseCase consultarSolicitudesUseCase;
+    private final ExportarSolicitudesUseCase exportarSolicitudesUseCase;
+    private final ConsultarEstadisticasUseCase consultarEstadisticasUseCase;
+    private final IdempotenciaUseCase idempotenciaUseCase;
+    private final ObjectMapper objectMapper;
+    private final SolicitudLoteProperties loteProperties;
+    private final Validator validator;
 
     @Operation(
             summary = "Registrar una solicitud de préstamo",
@@ -40,7 +85,9 @@ public class SolicitudController {
                             schema = @Schema(implementation = SolicitudResponse.class))),
             @ApiResponse(responseCode = "400", description = "Datos de entrada inválidos o tipo de préstamo no existe",
                     content = @Content(mediaType = "application/json")),
-            @ApiResponse(responseCode = "409", description = "Error al registrar nuevo usuario (email ya existe con documento diferente)",
+            @ApiResponse(responseCode = "409", description = "Error al registrar nuevo usuario (email ya existe con documento diferente) o petición con la misma Idempotency-Key todavía en proceso",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "422", description = "Idempotency-Key ya usada con una solicitud distinta",
                     content = @Content(mediaType = "application/json")),
             @ApiResponse(responseCode = "500", description = "Error interno del servidor",
                     content = @Content(mediaType = "application/json"))
@@ -48,11 +95,173 @@ public class SolicitudController {
     @PostMapping(path = "/v1/solicitud", consumes = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
     public Mono<SolicitudResponse> registrarSolicitud(
+            @Parameter(description = "Clave única por intento lógico: los reintentos con la misma clave reciben la respuesta original sin registrar otra solicitud", example = "5f0c2a7e-8d1b-4c3e-9a61-2b7f4d8e9c10")
+            @RequestHeader(name = HEADER_IDEMPOTENCY_KEY, required = false) String claveIdempotencia,
             @Parameter(description = "Datos completos de la solicitud de préstamo incluyendo información del cliente (se validará automáticamente si ya existe por documento)", required = true)
-            @Valid @RequestBody RegistrarSolicitudRequest request) {
+            @Valid @RequestBody RegistrarSolicitudRequest request,
+            ServerHttpResponse response) {
         log.debug("Recibida solicitud de registro para documento: {} - {}", 
             request.getUsuario().getTipoDocumento(), request.getUsuario().getNumeroDocumento());
 
+        if (claveIdempotencia == null) {
+            return registrar(request);
+        }
+        // La primera ejecución responde con el objeto que produjo; el texto serializado solo se guarda para los
+        // reintentos
+        AtomicReference<SolicitudResponse> registrada = new AtomicReference<>();
+        return Mono.fromCallable(() -> validarClaveIdempotencia(claveIdempotencia))
+                .flatMap(clave -> idempotenciaUseCase.ejecutar(clave, huella(request),
+                        () -> registrar(request).doOnNext(registrada::set).map(this::escribir)))
+                .map(resultado -> {
+                    if (!resultado.isRepetida()) {
+                        return registrada.get();
+                    }
+                    log.info("Respuesta repetida para la clave de idempotencia {}", claveIdempotencia);
+                    response.getHeaders().set(HEADER_IDEMPOTENT_REPLAYED, "true");
+                    return leer(resultado.getRespuesta());
+                });
+    }
+
+    @Operation(
+            summary = "Registrar solicitudes por lotes",
+            description = "Recibe una solicitud por línea en formato NDJSON y responde, también en NDJSON, el resultado de cada línea a medida que se procesa. Las líneas inválidas o rechazadas no detienen el lote."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resultados por línea, en el orden en que terminan",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = ResultadoLoteResponse.class)))
+    })
+    @PostMapping(path = "/v1/solicitudes/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ResultadoLoteResponse> registrarLote(@RequestBody Flux<String> cuerpo) {
+        // Cada línea se lee por separado: una línea con JSON inválido es un resultado 400 más y no corta el lote
+        return cuerpo
+                .index()
+                .filter(linea -> !linea.getT2().isBlank())
+                .map(linea -> leerLinea(linea.getT1() + 1, linea.getT2()))
+                .publish(lineas -> Flux.merge(
+                        lineas.filter(linea -> linea.errorValidacion() != null)
+                                .map(linea -> resultadoFallido(linea.numero(), HttpStatus.BAD_REQUEST,
+                                        linea.errorValidacion())),
+                        registrarSolicitudUseCase.registrarLote(
+                                        lineas.filter(linea -> linea.errorValidacion() == null)
+                                                .map(linea -> new RegistrarSolicitudUseCase.ElementoLote(linea.numero(),
+                                                        mapToUsuario(linea.request()), mapToSolicitud(linea.request()))),
+                                        loteProperties.concurrencia(), loteProperties.tamanoGrupo())
+                                .map(this::mapToResultadoLote)))
+                .doOnComplete(() -> log.info("Lote de solicitudes procesado"));
+    }
+
+    @Operation(
+            summary = "Listar solicitudes de préstamo",
+            description = "Lista las solicitudes de la más reciente a la más antigua, con filtros opcionales. La página siguiente se pide enviando en despuesDe el valor de siguiente de la página anterior."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Página de solicitudes",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = PaginaSolicitudesResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Límite, cursor o rango de monto inválidos",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping(path = "/v1/solicitudes")
+    public Mono<PaginaSolicitudesResponse> listarSolicitudes(
+            @Parameter(description = "Estado de la solicitud", example = "1")
+            @RequestParam(name = "idEstado", required = false) Long idEstado,
+            @Parameter(description = "Tipo de préstamo", example = "1")
+            @RequestParam(name = "idTipoPrestamo", required = false) Long idTipoPrestamo,
+            @Parameter(description = "Correo electrónico del cliente", example = "cliente@example.com")
+            @RequestParam(name = "email", required = false) String email,
+            @Parameter(description = "Monto mínimo, inclusive", example = "1000")
+            @RequestParam(name = "montoMinimo", required = false) BigDecimal montoMinimo,
+            @Parameter(description = "Monto máximo, inclusive", example = "50000")
+            @RequestParam(name = "montoMaximo", required = false) BigDecimal montoMaximo,
+            @Parameter(description = "Cursor: ID de la última solicitud de la página anterior", example = "1021")
+            @RequestParam(name = "despuesDe", required = false) Long despuesDe,
+            @Parameter(description = "Tamaño de la página, hasta " + ConsultarSolicitudesUseCase.LIMITE_MAXIMO,
+                    example = "20")
+            @RequestParam(name = "limite", required = false) Integer limite,
+            @Parameter(description = "Incluir el total aproximado de solicitudes que cumplen los filtros")
+            @RequestParam(name = "incluirTotal", defaultValue = "false") boolean incluirTotal) {
+        FiltroSolicitudes filtro = FiltroSolicitudes.builder()
+                .idEstado(idEstado)
+                .idTipoPrestamo(idTipoPrestamo)
+                .email(email)
+                .montoMinimo(montoMinimo)
+                .montoMaximo(montoMaximo)
+                .build();
+        return consultarSolicitudesUseCase.consultar(filtro, despuesDe, limite, incluirTotal)
+                .map(SolicitudApiMapper::mapToPagina);
+    }
+
+    @Operation(
+            summary = "Exportar solicitudes",
+            description = "Descarga en NDJSON o CSV todas las solicitudes que cumplen los filtros, en orden de ID. El contenido se envía a medida que se lee de la base de datos."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Solicitudes exportadas",
+                    content = {@Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE),
+                            @Content(mediaType = MEDIA_TYPE_CSV)}),
+            @ApiResponse(responseCode = "400", description = "Formato o rango de monto inválidos",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping(path = "/v1/solicitudes/export",
+            produces = {MediaType.APPLICATION_NDJSON_VALUE, MEDIA_TYPE_CSV, MediaType.APPLICATION_JSON_VALUE})
+    public Mono<Void> exportarSolicitudes(
+            @Parameter(description = "Formato de salida: ndjson o csv", example = "csv")
+            @RequestParam(name = "formato", defaultValue = "ndjson") String formato,
+            @RequestParam(name = "idEstado", required = false) Long idEstado,
+            @RequestParam(name = "idTipoPrestamo", required = false) Long idTipoPrestamo,
+            @RequestParam(name = "email", required = false) String email,
+            @RequestParam(name = "montoMinimo", required = false) BigDecimal montoMinimo,
+            @RequestParam(name = "montoMaximo", required = false) BigDecimal montoMaximo,
+            ServerHttpResponse response) {
+        return Mono.fromCallable(() -> formatoExportacion(formato))
+                .flatMap(formatoExportacion -> {
+                    FiltroSolicitudes filtro = FiltroSolicitudes.builder()
+                            .idEstado(idEstado)
+                            .idTipoPrestamo(idTipoPrestamo)
+                            .email(email)
+                            .montoMinimo(montoMinimo)
+                            .montoMaximo(montoMaximo)
+                            .build();
+                    // Los encabezados se fijan con la primera señal: si la exportación falla al empezar,
+                    // la respuesta de error no sale como descarga
+                    return response.writeWith(exportarSolicitudesUseCase.exportar(filtro, formatoExportacion)
+                            .switchOnFirst((primera, contenido) -> {
+                                if (!primera.isOnError()) {
+                                    encabezadosDescarga(response, formatoExportacion);
+                                }
+                                return contenido;
+                            })
+                            // Cada bloque se envuelve sin copiarlo en un buffer del servidor
+                            .map(response.bufferFactory()::wrap));
+                });
+    }
+
+    @Operation(
+            summary = "Estadísticas de solicitudes",
+            description = "Cantidad y monto total de solicitudes por día (UTC), estado y tipo de préstamo. Sin fechas se devuelve el día en curso; sin desde, solo el día hasta."
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resumen por día, estado y tipo de préstamo",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ResumenSolicitudesResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Fechas inválidas o rango mayor a "
+                    + ConsultarEstadisticasUseCase.MAXIMO_DIAS + " días",
+                    content = @Content(mediaType = "application/json"))
+    })
+    @GetMapping(path = "/v1/solicitudes/estadisticas")
+    public Flux<ResumenSolicitudesResponse> consultarEstadisticas(
+            @Parameter(description = "Primer día, inclusive", example = "2025-01-01")
+            @RequestParam(name = "desde", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @Parameter(description = "Último día, inclusive", example = "2025-01-31")
+            @RequestParam(name = "hasta", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        LocalDate ultimoDia = hasta != null ? hasta : LocalDate.now(ZoneOffset.UTC);
+        return consultarEstadisticasUseCase.resumenDiario(desde != null ? desde : ultimoDia, ultimoDia)
+                .map(SolicitudApiMapper::mapToResumen);
+    }
+
+    private Mono<SolicitudResponse> registrar(RegistrarSolicitudRequest request) {
         return Mono.just(request)
                 .flatMap(req -> {
                     Usuario usuario = mapToUsuario(req);
@@ -60,56 +269,125 @@ public class SolicitudController {
                     log.info("Validando cliente y registrando solicitud");
                     return registrarSolicitudUseCase.registrarSolicitudConUsuario(usuario, solicitud);
                 })
-                .map(result -> mapToResponse(result.getSolicitud(), result.getUsuario()))
+                .map(result -> mapToResponse(result.getSolicitud(), result.getUsuario(), result.getEstado()))
                 .doOnSuccess(response -> log.info("Solicitud registrada exitosamente. Cliente ID: {}, Solicitud ID: {}",
                     response.getUsuario().getIdUsuario(), response.getIdSolicitud()));
     }
 
-    private Usuario mapToUsuario(RegistrarSolicitudRequest request) {
-        return Usuario.builder()
-                .nombres(request.getUsuario().getNombres())
-                .apellidos(request.getUsuario().getApellidos())
-                .tipoDocumento(request.getUsuario().getTipoDocumento())
-                .numeroDocumento(request.getUsuario().getNumeroDocumento())
-                .correoElectronico(request.getUsuario().getCorreoElectronico())
-                .fechaNacimiento(request.getUsuario().getFechaNacimiento())
-                .direccion(request.getUsuario().getDireccion())
-                .telefono(request.getUsuario().getTelefono())
-                .salarioBase(request.getUsuario().getSalarioBase())
-                .rol(rodriguez.ciro.model.usuario.Rol.builder()
-                        .idRol(request.getUsuario().getIdRol())
-                        .build())
-                .build();
+    private static String validarClaveIdempotencia(String clave) {
+        if (clave.isBlank() || clave.length() > LONGITUD_MAXIMA_CLAVE) {
+            throw new IllegalArgumentException("El encabezado " + HEADER_IDEMPOTENCY_KEY
+                    + " debe tener entre 1 y " + LONGITUD_MAXIMA_CLAVE + " caracteres");
+        }
+        return clave;
     }
 
-    private Solicitud mapToSolicitud(RegistrarSolicitudRequest request) {
-        return Solicitud.builder()
-                .monto(request.getMonto())
-                .plazo(request.getPlazo())
-                .idTipoPrestamo(request.getIdTipoPrestamo())
-                .build();
+    /**
+     * SHA-256 del cuerpo recibido, para detectar la misma clave de idempotencia con otra solicitud.
+     */
+    private String huella(RegistrarSolicitudRequest request) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("No fue posible calcular la huella de la solicitud", e);
+        }
     }
 
-    private SolicitudResponse mapToResponse(Solicitud solicitud, Usuario usuario) {
-        UsuarioResponse usuarioResponse = UsuarioResponse.builder()
-                .idUsuario(usuario.getIdUsuario())
-                .nombres(usuario.getNombres())
-                .apellidos(usuario.getApellidos())
-                .fechaNacimiento(usuario.getFechaNacimiento())
-                .direccion(usuario.getDireccion())
-                .telefono(usuario.getTelefono())
-                .salarioBase(usuario.getSalarioBase())
-                .build();
+    private String escribir(SolicitudResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No fue posible serializar la respuesta", e);
+        }
+    }
 
-        return SolicitudResponse.builder()
-                .idSolicitud(solicitud.getIdSolicitud())
-                .monto(solicitud.getMonto())
-                .plazo(solicitud.getPlazo())
-                .email(solicitud.getEmail())
-                .idTipoPrestamo(solicitud.getIdTipoPrestamo())
-                .idEstado(solicitud.getIdEstado())
-                .estado("Pendiente de revisión")
-                .usuario(usuarioResponse)
+    private SolicitudResponse leer(String respuesta) {
+        try {
+            return objectMapper.readValue(respuesta, SolicitudResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta guardada inválida", e);
+        }
+    }
+
+    private static void encabezadosDescarga(ServerHttpResponse response, FormatoExportacion formato) {
+        boolean csv = formato == FormatoExportacion.CSV;
+        response.getHeaders().setContentType(csv
+                ? MediaType.parseMediaType(MEDIA_TYPE_CSV + ";charset=UTF-8")
+                : MediaType.APPLICATION_NDJSON);
+        response.getHeaders().set(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"solicitudes." + (csv ? "csv" : "ndjson") + "\"");
+    }
+
+    private static FormatoExportacion formatoExportacion(String formato) {
+        try {
+            return FormatoExportacion.valueOf(formato.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Formato de exportación no soportado: " + formato);
+        }
+    }
+
+    private LineaLote leerLinea(long numero, String linea) {
+        RegistrarSolicitudRequest request;
+        try {
+            request = objectMapper.readValue(linea, RegistrarSolicitudRequest.class);
+        } catch (JsonProcessingException e) {
+            return new LineaLote(numero, null, "Línea con JSON inválido: " + e.getOriginalMessage());
+        }
+        if (request == null) {
+            return new LineaLote(numero, null, "La línea no contiene una solicitud");
+        }
+        return new LineaLote(numero, request, validar(request));
+    }
+
+    private String validar(RegistrarSolicitudRequest request) {
+        var violaciones = validator.validate(request);
+        if (violaciones.isEmpty()) {
+            return null;
+        }
+        return violaciones.stream()
+                .map(violacion -> violacion.getPropertyPath() + ": " + violacion.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private ResultadoLoteResponse mapToResultadoLote(RegistrarSolicitudUseCase.ResultadoLote resultado) {
+        if (resultado.isExitoso()) {
+            var registro = resultado.getResultado();
+            return ResultadoLoteResponse.builder()
+                    .linea(resultado.getLinea())
+                    .exitoso(true)
+                    .solicitud(mapToResponse(registro.getSolicitud(), registro.getUsuario(), registro.getEstado()))
+                    .build();
+        }
+        Throwable error = resultado.getError();
+        if (error instanceof EmailEnUsoException) {
+            return resultadoFallido(resultado.getLinea(), HttpStatus.CONFLICT, error.getMessage());
+        }
+        if (error instanceof IllegalArgumentException) {
+            return resultadoFallido(resultado.getLinea(), HttpStatus.BAD_REQUEST, error.getMessage());
+        }
+        if (error instanceof ServicioUsuariosNoDisponibleException noDisponible) {
+            ResultadoLoteResponse fallido = resultadoFallido(resultado.getLinea(), HttpStatus.SERVICE_UNAVAILABLE,
+                    error.getMessage());
+            fallido.setReintentable(true);
+            fallido.setReintentarEnSegundos(Math.max(1, noDisponible.getReintentarEn().toSeconds()));
+            return fallido;
+        }
+        log.error("Error interno registrando la línea {} del lote: {}", resultado.getLinea(), error.getMessage(), error);
+        return resultadoFallido(resultado.getLinea(), HttpStatus.INTERNAL_SERVER_ERROR, "Error interno del servidor");
+    }
+
+    private ResultadoLoteResponse resultadoFallido(Long linea, HttpStatus status, String mensaje) {
+        return ResultadoLoteResponse.builder()
+                .linea(linea)
+                .exitoso(false)
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message(mensaje)
                 .build();
     }
+
+    private record LineaLote(long numero, RegistrarSolicitudRequest request, String errorValidacion) {
+    }
 }
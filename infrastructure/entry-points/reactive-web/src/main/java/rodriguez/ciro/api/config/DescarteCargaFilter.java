@@ -0,0 +1,67 @@
+package rodriguez.ciro.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Si está habilitado, descarta con 503 los POST nuevos mientras la saturación supere el umbral, y cuenta para
+ * {@link MonitorSaturacion} los POST cortos en curso. Los lotes NDJSON no se cuentan: duran lo que tarde el cliente
+ * en enviar el cuerpo y no dicen cuántos registros más caben. Las consultas y exportaciones siguen pasando sin
+ * contarse: son baratas o ya están en curso, y sirven para ver el estado del servicio. Va primero para que lo
+ * descartado no consuma nada más.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DescarteCargaFilter implements WebFilter {
+
+    static final String RUTA_LOTE = "/api/v1/solicitudes/batch";
+
+    private final MonitorSaturacion monitor;
+    private final SaturacionProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Counter descartadas;
+
+    public DescarteCargaFilter(MonitorSaturacion monitor, SaturacionProperties properties,
+                               MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.monitor = monitor;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.descartadas = Counter.builder(MonitorSaturacion.METRICA + ".descartadas")
+                .description("POST descartados por saturación del servicio")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.POST) {
+            return chain.filter(exchange);
+        }
+        return Mono.defer(() -> {
+            double saturacion = monitor.getSaturacion();
+            if (properties.enabled() && saturacion >= properties.umbralDescarte()) {
+                descartadas.increment();
+                log.debug("POST descartado con saturación {}", saturacion);
+                return RespuestaServicioNoDisponible.escribir(exchange, objectMapper, properties.retryAfter(),
+                        "El servicio está saturado, intente más tarde");
+            }
+            if (RUTA_LOTE.equals(request.getPath().pathWithinApplication().value())) {
+                return chain.filter(exchange);
+            }
+            monitor.iniciarPeticion();
+            return chain.filter(exchange).doFinally(senal -> monitor.terminarPeticion());
+        });
+    }
+}
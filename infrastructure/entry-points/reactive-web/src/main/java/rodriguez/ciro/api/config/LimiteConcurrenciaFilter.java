@@ -0,0 +1,82 @@
+package rodriguez.ciro.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Limita los registros de solicitudes en curso con {@link LimiteConcurrenciaGradiente}. Cuando el servicio de
+ * usuarios se degrada y la latencia sube, el límite baja y el exceso se rechaza de inmediato con 503 y
+ * {@code Retry-After}, en lugar de acumularse hasta que todas las peticiones agoten el timeout.
+ * <p>
+ * Las peticiones canceladas por el cliente no se usan para ajustar el límite.
+ */
+@Slf4j
+@Component
+public class LimiteConcurrenciaFilter implements WebFilter {
+
+    public static final String METRICA = "solicitudes.concurrencia";
+    static final String RUTA = "/api/v1/solicitud";
+
+    private final LimiteConcurrenciaProperties properties;
+    private final ObjectMapper objectMapper;
+    private final LimiteConcurrenciaGradiente limite;
+    private final Counter rechazadas;
+
+    public LimiteConcurrenciaFilter(LimiteConcurrenciaProperties properties, MeterRegistry meterRegistry,
+                                    ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.limite = new LimiteConcurrenciaGradiente(properties.limiteInicial(), properties.limiteMinimo(),
+                properties.limiteMaximo());
+        Gauge.builder(METRICA + ".limite", limite, LimiteConcurrenciaGradiente::getLimite)
+                .description("Registros de solicitudes admitidos a la vez")
+                .register(meterRegistry);
+        Gauge.builder(METRICA + ".en.curso", limite, LimiteConcurrenciaGradiente::getEnCurso)
+                .description("Registros de solicitudes en curso")
+                .register(meterRegistry);
+        this.rechazadas = Counter.builder(METRICA + ".rechazadas")
+                .description("Registros de solicitudes rechazados por superar el límite de concurrencia")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.enabled() || request.getMethod() != HttpMethod.POST
+                || !RUTA.equals(request.getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        return Mono.defer(() -> {
+            int enCursoAlIniciar = limite.intentarAdquirir();
+            if (enCursoAlIniciar < 0) {
+                rechazadas.increment();
+                log.debug("Registro rechazado por límite de concurrencia ({})", limite.getLimite());
+                return rechazar(exchange);
+            }
+            long inicio = System.nanoTime();
+            return chain.filter(exchange)
+                    .doFinally(senal -> limite.liberar(System.nanoTime() - inicio, enCursoAlIniciar,
+                            senal != SignalType.CANCEL));
+        });
+    }
+
+    LimiteConcurrenciaGradiente getLimite() {
+        return limite;
+    }
+
+    private Mono<Void> rechazar(ServerWebExchange exchange) {
+        return RespuestaServicioNoDisponible.escribir(exchange, objectMapper, properties.retryAfter(),
+                "El servicio está al límite de solicitudes en proceso, intente más tarde");
+    }
+}
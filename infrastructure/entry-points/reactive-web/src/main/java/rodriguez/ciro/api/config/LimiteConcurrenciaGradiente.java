@@ -0,0 +1,83 @@
+package rodriguez.ciro.api.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de concurrencia por gradiente de latencia. Compara cada latencia observada con su promedio de largo
+ * plazo: si la latencia sube por encima de {@link #TOLERANCIA} veces el promedio, el límite baja en proporción
+ * (a lo sumo a la mitad por muestra); si se mantiene, crece en la raíz cuadrada del límite. Los cambios se
+ * suavizan para que una muestra aislada no mueva el límite.
+ * <p>
+ * El límite solo crece cuando se usa al menos la mitad: con poca carga la latencia no dice nada de cuánta
+ * concurrencia soporta la dependencia.
+ */
+final class LimiteConcurrenciaGradiente {
+
+    static final double TOLERANCIA = 1.5;
+    private static final double SUAVIZADO = 0.2;
+    private static final int MUESTRAS_PROMEDIO_LARGO = 600;
+    private static final double FACTOR_PROMEDIO_LARGO = 2.0 / (MUESTRAS_PROMEDIO_LARGO + 1);
+
+    private final int minimo;
+    private final int maximo;
+    private final AtomicInteger enCurso = new AtomicInteger();
+
+    private volatile int limite;
+    private double limiteEstimado;
+    private double rttLargo;
+
+    LimiteConcurrenciaGradiente(int inicial, int minimo, int maximo) {
+        this.minimo = minimo;
+        this.maximo = maximo;
+        this.limite = inicial;
+        this.limiteEstimado = inicial;
+    }
+
+    /**
+     * Ocupa un lugar si hay cupo. Devuelve las peticiones en curso contando esta, o -1 si se alcanzó el límite.
+     */
+    int intentarAdquirir() {
+        while (true) {
+            int actual = enCurso.get();
+            if (actual >= limite) {
+                return -1;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                return actual + 1;
+            }
+        }
+    }
+
+    /**
+     * Libera el lugar y, si {@code medir}, ajusta el límite con la latencia de la petición.
+     */
+    void liberar(long rttNanos, int enCursoAlIniciar, boolean medir) {
+        enCurso.decrementAndGet();
+        if (medir && rttNanos > 0) {
+            actualizar(rttNanos, enCursoAlIniciar);
+        }
+    }
+
+    int getLimite() {
+        return limite;
+    }
+
+    int getEnCurso() {
+        return enCurso.get();
+    }
+
+    private synchronized void actualizar(double rtt, int enCursoAlIniciar) {
+        rttLargo = rttLargo == 0 ? rtt : rttLargo + (rtt - rttLargo) * FACTOR_PROMEDIO_LARGO;
+        // Si la dependencia se recuperó, el promedio largo queda muy por encima: se acerca más rápido
+        if (rttLargo > 2 * rtt) {
+            rttLargo *= 0.95;
+        }
+        if (enCursoAlIniciar < limiteEstimado / 2) {
+            return;
+        }
+        double gradiente = Math.clamp(TOLERANCIA * rttLargo / rtt, 0.5, 1.0);
+        double nuevo = limiteEstimado * gradiente + Math.sqrt(limiteEstimado);
+        limiteEstimado = Math.clamp(limiteEstimado * (1 - SUAVIZADO) + nuevo * SUAVIZADO, minimo, maximo);
+        limite = (int) limiteEstimado;
+    }
+}
@@ -0,0 +1,40 @@
+package rodriguez.ciro.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Límite adaptativo de registros de solicitudes en curso: arranca en {@code limiteInicial} y se ajusta entre
+ * {@code limiteMinimo} y {@code limiteMaximo} según la latencia observada. {@code retryAfter} es la espera que se
+ * sugiere a las peticiones rechazadas.
+ */
+@ConfigurationProperties(prefix = "solicitudes.limite-concurrencia")
+public record LimiteConcurrenciaProperties(
+        boolean enabled,
+        Integer limiteInicial,
+        Integer limiteMinimo,
+        Integer limiteMaximo,
+        Duration retryAfter) {
+
+    public static final int DEFAULT_LIMITE_INICIAL = 50;
+    public static final int DEFAULT_LIMITE_MINIMO = 8;
+    public static final int DEFAULT_LIMITE_MAXIMO = 500;
+    public static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    public LimiteConcurrenciaProperties {
+        if (limiteMinimo == null || limiteMinimo < 1) {
+            limiteMinimo = DEFAULT_LIMITE_MINIMO;
+        }
+        if (limiteMaximo == null || limiteMaximo < limiteMinimo) {
+            limiteMaximo = Math.max(DEFAULT_LIMITE_MAXIMO, limiteMinimo);
+        }
+        if (limiteInicial == null) {
+            limiteInicial = DEFAULT_LIMITE_INICIAL;
+        }
+        limiteInicial = Math.clamp(limiteInicial, limiteMinimo, limiteMaximo);
+        if (retryAfter == null || retryAfter.isNegative()) {
+            retryAfter = DEFAULT_RETRY_AFTER;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package rodriguez.ciro.api.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Calcula una saturación única del servicio a partir de:
+ * <ul>
+ *     <li>el retraso de cada ejecutor de cada fuente (event loops de reactor-netty, schedulers de Reactor), medido
+ *     con {@link SondaRetraso} desde un hilo propio para que un event loop bloqueado no detenga la medición;</li>
+ *     <li>las conexiones en cola del pool de R2DBC sobre su máximo, que entrega {@code saturacionPool};</li>
+ *     <li>los POST cortos en curso, los que {@link DescarteCargaFilter} puede descartar.</li>
+ * </ul>
+ * Cada señal se normaliza contra su máximo y la saturación es la mayor: 1 significa que alguna llegó a su máximo.
+ * Se publica como {@code solicitudes.saturacion}, junto con el retraso por fuente en
+ * {@code solicitudes.saturacion.retraso}.
+ */
+@Slf4j
+public class MonitorSaturacion {
+
+    public static final String METRICA = "solicitudes.saturacion";
+
+    private final SaturacionProperties properties;
+    private final Map<String, Supplier<Iterable<? extends Executor>>> fuentes;
+    private final DoubleSupplier saturacionPool;
+    private final Map<String, Map<Executor, SondaRetraso>> sondas = new ConcurrentHashMap<>();
+    private final Map<String, Long> retrasoPorFuente = new ConcurrentHashMap<>();
+    private final AtomicInteger enCurso = new AtomicInteger();
+
+    private volatile double saturacion;
+    private ScheduledExecutorService reloj;
+
+    public MonitorSaturacion(SaturacionProperties properties, MeterRegistry meterRegistry,
+                             Map<String, Supplier<Iterable<? extends Executor>>> fuentes,
+                             DoubleSupplier saturacionPool) {
+        this.properties = properties;
+        this.fuentes = fuentes;
+        this.saturacionPool = saturacionPool;
+        Gauge.builder(METRICA, this, MonitorSaturacion::getSaturacion)
+                .description("Saturación del servicio: 1 cuando alguna señal llega a su máximo")
+                .register(meterRegistry);
+        fuentes.keySet().forEach(fuente -> TimeGauge.builder(METRICA + ".retraso", retrasoPorFuente,
+                        TimeUnit.NANOSECONDS, retrasos -> retrasos.getOrDefault(fuente, 0L))
+                .description("Mayor retraso para ejecutar una tarea entre los ejecutores de la fuente")
+                .tag("fuente", fuente)
+                .register(meterRegistry));
+    }
+
+    public synchronized void iniciar() {
+        if (reloj != null) {
+            return;
+        }
+        reloj = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "sonda-saturacion");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        long intervalo = properties.intervalo().toNanos();
+        reloj.scheduleAtFixedRate(this::medirSeguro, intervalo, intervalo, TimeUnit.NANOSECONDS);
+    }
+
+    public synchronized void detener() {
+        if (reloj != null) {
+            reloj.shutdownNow();
+            reloj = null;
+        }
+    }
+
+    public double getSaturacion() {
+        return saturacion;
+    }
+
+    void iniciarPeticion() {
+        enCurso.incrementAndGet();
+    }
+
+    void terminarPeticion() {
+        enCurso.decrementAndGet();
+    }
+
+    void medir() {
+        long retrasoMaximo = 0;
+        for (Map.Entry<String, Supplier<Iterable<? extends Executor>>> fuente : fuentes.entrySet()) {
+            Map<Executor, SondaRetraso> anteriores = sondas.getOrDefault(fuente.getKey(), Map.of());
+            Map<Executor, SondaRetraso> actuales = new HashMap<>();
+            long retrasoFuente = 0;
+            // Se reconstruye en cada medición por si los ejecutores de la fuente se reemplazaron
+            for (Executor ejecutor : fuente.getValue().get()) {
+                SondaRetraso sonda = anteriores.get(ejecutor);
+                if (sonda == null) {
+                    sonda = new SondaRetraso(ejecutor);
+                }
+                sonda.medir();
+                retrasoFuente = Math.max(retrasoFuente, sonda.retrasoNanos());
+                actuales.put(ejecutor, sonda);
+            }
+            sondas.put(fuente.getKey(), actuales);
+            retrasoPorFuente.put(fuente.getKey(), retrasoFuente);
+            retrasoMaximo = Math.max(retrasoMaximo, retrasoFuente);
+        }
+        saturacion = Math.max((double) retrasoMaximo / properties.retrasoMaximo().toNanos(),
+                Math.max(saturacionPool.getAsDouble(), (double) enCurso.get() / properties.enCursoMaximo()));
+    }
+
+    private void medirSeguro() {
+        try {
+            medir();
+        } catch (RuntimeException e) {
+            log.warn("No fue posible medir la saturación: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package rodriguez.ciro.api.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import rodriguez.ciro.api.exception.ErrorResponse;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Respuesta 503 con {@code Retry-After} para las peticiones que los filtros rechazan antes de llegar al
+ * controlador, con el mismo cuerpo que produce {@code GlobalExceptionHandler}.
+ */
+final class RespuestaServicioNoDisponible {
+
+    private RespuestaServicioNoDisponible() {
+    }
+
+    static Mono<Void> escribir(ServerWebExchange exchange, ObjectMapper objectMapper, Duration retryAfter,
+                               String mensaje) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        ErrorResponse error = ErrorResponse.builder()
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .message(mensaje)
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+        return response.writeWith(Mono.fromCallable(() -> response.bufferFactory().wrap(serializar(objectMapper, error))));
+    }
+
+    private static byte[] serializar(ObjectMapper objectMapper, ErrorResponse error) {
+        try {
+            return objectMapper.writeValueAsBytes(error);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No fue posible serializar el error", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package rodriguez.ciro.api.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.HttpResources;
+import reactor.netty.resources.LoopResources;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+@Slf4j
+@Configuration
+public class SaturacionConfig {
+
+    private static final Executor PARALLEL = tarea -> Schedulers.parallel().schedule(tarea);
+    private static final Executor BOUNDED_ELASTIC = tarea -> Schedulers.boundedElastic().schedule(tarea);
+
+    /**
+     * Mide los event loops de los recursos globales de reactor-netty, que comparten el servidor y los clientes
+     * HTTP, y los schedulers parallel y boundedElastic de Reactor, además de la cola del pool de R2DBC.
+     */
+    @Bean(initMethod = "iniciar", destroyMethod = "detener")
+    public MonitorSaturacion monitorSaturacion(SaturacionProperties properties, MeterRegistry meterRegistry,
+                                               ObjectProvider<ConnectionPool> connectionPool) {
+        Map<String, Supplier<Iterable<? extends Executor>>> fuentes = Map.of(
+                "netty", () -> HttpResources.get().onServer(LoopResources.DEFAULT_NATIVE),
+                "parallel", () -> List.of(PARALLEL),
+                "boundedElastic", () -> List.of(BOUNDED_ELASTIC));
+        return new MonitorSaturacion(properties, meterRegistry, fuentes,
+                saturacionPool(connectionPool.getIfUnique()));
+    }
+
+    /**
+     * Conexiones esperando en cola sobre el máximo del pool, leídas de sus {@link PoolMetrics}. Sin pool o sin
+     * métricas la señal vale 0, y se avisa al arrancar en lugar de medir en silencio sin ella.
+     */
+    static DoubleSupplier saturacionPool(ConnectionPool connectionPool) {
+        PoolMetrics metricas = connectionPool != null ? connectionPool.getMetrics().orElse(null) : null;
+        if (metricas == null) {
+            log.warn("Sin métricas del pool de R2DBC: la saturación no incluye las conexiones en cola");
+            return () -> 0;
+        }
+        return () -> metricas.getMaxAllocatedSize() > 0
+                ? (double) metricas.pendingAcquireSize() / metricas.getMaxAllocatedSize()
+                : 0;
+    }
+}
@@ -0,0 +1,45 @@
+package rodriguez.ciro.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * La saturación se mide siempre, cada {@code intervalo}, como el mayor de: retraso de los ejecutores sobre
+ * {@code retrasoMaximo}, conexiones en cola del pool sobre su tamaño máximo y POST cortos en curso (sin los lotes
+ * NDJSON) sobre {@code enCursoMaximo}. Con {@code enabled}, los POST nuevos se descartan con 503 mientras la saturación sea al
+ * menos {@code umbralDescarte}.
+ */
+@ConfigurationProperties(prefix = "solicitudes.saturacion")
+public record SaturacionProperties(
+        boolean enabled,
+        Duration intervalo,
+        Duration retrasoMaximo,
+        Integer enCursoMaximo,
+        Double umbralDescarte,
+        Duration retryAfter) {
+
+    public static final Duration DEFAULT_INTERVALO = Duration.ofMillis(100);
+    public static final Duration DEFAULT_RETRASO_MAXIMO = Duration.ofMillis(50);
+    public static final int DEFAULT_EN_CURSO_MAXIMO = 512;
+    public static final double DEFAULT_UMBRAL_DESCARTE = 1.0;
+    public static final Duration DEFAULT_RETRY_AFTER = Duration.ofSeconds(1);
+
+    public SaturacionProperties {
+        if (intervalo == null || intervalo.isZero() || intervalo.isNegative()) {
+            intervalo = DEFAULT_INTERVALO;
+        }
+        if (retrasoMaximo == null || retrasoMaximo.isZero() || retrasoMaximo.isNegative()) {
+            retrasoMaximo = DEFAULT_RETRASO_MAXIMO;
+        }
+        if (enCursoMaximo == null || enCursoMaximo < 1) {
+            enCursoMaximo = DEFAULT_EN_CURSO_MAXIMO;
+        }
+        if (umbralDescarte == null || umbralDescarte <= 0) {
+            umbralDescarte = DEFAULT_UMBRAL_DESCARTE;
+        }
+        if (retryAfter == null || retryAfter.isNegative()) {
+            retryAfter = DEFAULT_RETRY_AFTER;
+        }
+    }
+}
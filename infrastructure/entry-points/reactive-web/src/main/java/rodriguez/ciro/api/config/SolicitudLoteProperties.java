@@ -0,0 +1,24 @@
+package rodriguez.ciro.api.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Límites del registro por lotes: solicitudes procesándose a la vez y filas por cada insert agrupado.
+ */
+@ConfigurationProperties(prefix = "solicitudes.lote")
+public record SolicitudLoteProperties(
+        Integer concurrencia,
+        Integer tamanoGrupo) {
+
+    public static final int DEFAULT_CONCURRENCIA = 16;
+    public static final int DEFAULT_TAMANO_GRUPO = 100;
+
+    public SolicitudLoteProperties {
+        if (concurrencia == null || concurrencia < 1) {
+            concurrencia = DEFAULT_CONCURRENCIA;
+        }
+        if (tamanoGrupo == null || tamanoGrupo < 1) {
+            tamanoGrupo = DEFAULT_TAMANO_GRUPO;
+        }
+    }
+}
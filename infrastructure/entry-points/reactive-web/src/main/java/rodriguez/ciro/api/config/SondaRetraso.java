@@ -0,0 +1,41 @@
+package rodriguez.ciro.api.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Retraso de un ejecutor: cuánto tarda en correr una tarea vacía desde que se le entrega. Solo hay una tarea
+ * pendiente a la vez; si el ejecutor está bloqueado, el retraso es el tiempo que lleva esperando la pendiente,
+ * así que crece mientras dure el bloqueo en lugar de quedarse con la última medida.
+ */
+final class SondaRetraso {
+
+    private final Executor ejecutor;
+    private volatile long pendienteDesde;
+    private volatile long ultimoRetraso;
+
+    SondaRetraso(Executor ejecutor) {
+        this.ejecutor = ejecutor;
+    }
+
+    void medir() {
+        if (pendienteDesde != 0) {
+            return;
+        }
+        long entregada = System.nanoTime();
+        pendienteDesde = entregada;
+        try {
+            ejecutor.execute(() -> {
+                ultimoRetraso = System.nanoTime() - entregada;
+                pendienteDesde = 0;
+            });
+        } catch (RejectedExecutionException e) {
+            pendienteDesde = 0;
+        }
+    }
+
+    long retrasoNanos() {
+        long desde = pendienteDesde;
+        return desde == 0 ? ultimoRetraso : Math.max(ultimoRetraso, System.nanoTime() - desde);
+    }
+}
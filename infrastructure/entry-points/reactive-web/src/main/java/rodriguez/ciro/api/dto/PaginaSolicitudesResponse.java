@@ -0,0 +1,25 @@
+package rodriguez.ciro.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Página del listado de solicitudes, de la más reciente a la más antigua")
+public class PaginaSolicitudesResponse {
+
+    @Schema(description = "Solicitudes de la página")
+    private List<SolicitudResponse> solicitudes;
+
+    @Schema(description = "Valor de despuesDe para pedir la página siguiente; nulo en la última página", example = "1021")
+    private Long siguiente;
+
+    @Schema(description = "Total aproximado según las estadísticas de la base de datos, si se pidió con incluirTotal",
+            example = "15000")
+    private Long totalEstimado;
+}
@@ -0,0 +1,39 @@
+package rodriguez.ciro.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Resultado de una línea del registro por lotes")
+public class ResultadoLoteResponse {
+
+    @Schema(description = "Número de línea en el cuerpo NDJSON, empezando en 1", example = "1")
+    private Long linea;
+
+    @Schema(description = "Indica si la solicitud de la línea quedó registrada", example = "true")
+    private boolean exitoso;
+
+    @Schema(description = "Solicitud registrada, presente solo si la línea fue exitosa")
+    private SolicitudResponse solicitud;
+
+    @Schema(description = "Código HTTP equivalente al error de la línea", example = "400")
+    private Integer status;
+
+    @Schema(description = "Tipo de error de la línea", example = "Bad Request")
+    private String error;
+
+    @Schema(description = "Detalle del error de la línea", example = "El tipo de préstamo con ID 99 no existe")
+    private String message;
+
+    @Schema(description = "Indica que la línea falló por una indisponibilidad temporal y puede reenviarse tal cual",
+            example = "true")
+    private Boolean reintentable;
+
+    @Schema(description = "Segundos sugeridos antes de reenviar la línea, presente solo si es reintentable",
+            example = "10")
+    private Long reintentarEnSegundos;
+}
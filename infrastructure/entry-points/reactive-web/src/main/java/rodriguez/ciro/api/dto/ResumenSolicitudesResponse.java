@@ -0,0 +1,31 @@
+package rodriguez.ciro.api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Solicitudes de un día para una combinación de estado y tipo de préstamo")
+public class ResumenSolicitudesResponse {
+
+    @Schema(description = "Día de creación de las solicitudes, en UTC", example = "2025-01-15")
+    private LocalDate dia;
+
+    @Schema(description = "Estado de las solicitudes", example = "1")
+    private Long idEstado;
+
+    @Schema(description = "Tipo de préstamo de las solicitudes", example = "1")
+    private Long idTipoPrestamo;
+
+    @Schema(description = "Cantidad de solicitudes", example = "42")
+    private Long cantidad;
+
+    @Schema(description = "Suma de los montos solicitados", example = "1250000.00")
+    private BigDecimal montoTotal;
+}
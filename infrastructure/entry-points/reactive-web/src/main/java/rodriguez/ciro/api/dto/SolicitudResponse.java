@@ -31,7 +31,7 @@ public class SolicitudResponse {
     @Schema(description = "Identificador del estado actual", example = "1")
     private Long idEstado;
 
-    @Schema(description = "Descripción del estado actual", example = "Pendiente de revisión")
+    @Schema(description = "Nombre del estado actual", example = "PENDIENTE_REVISION")
     private String estado;
 
     // Información del usuario registrado
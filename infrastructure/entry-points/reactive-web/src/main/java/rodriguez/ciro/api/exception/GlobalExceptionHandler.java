@@ -1,13 +1,18 @@
 package rodriguez.ciro.api.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
 import reactor.core.publisher.Mono;
+import rodriguez.ciro.model.exception.ClaveIdempotenciaReutilizadaException;
 import rodriguez.ciro.model.exception.EmailEnUsoException;
+import rodriguez.ciro.model.exception.IdempotenciaEnCursoException;
+import rodriguez.ciro.model.exception.ServicioUsuariosNoDisponibleException;
 
 import java.time.LocalDateTime;
 
@@ -31,6 +36,59 @@ public class GlobalExceptionHandler {
         return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse));
     }
 
+    @ExceptionHandler(IdempotenciaEnCursoException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleIdempotenciaEnCursoException(
+            IdempotenciaEnCursoException ex, ServerWebExchange exchange) {
+        log.warn("Petición repetida en curso: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Conflict")
+                .message(ex.getMessage())
+                .status(HttpStatus.CONFLICT.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse));
+    }
+
+    @ExceptionHandler(ClaveIdempotenciaReutilizadaException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleClaveIdempotenciaReutilizadaException(
+            ClaveIdempotenciaReutilizadaException ex, ServerWebExchange exchange) {
+        log.warn("Clave de idempotencia reutilizada: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Unprocessable Entity")
+                .message(ex.getMessage())
+                .status(HttpStatus.UNPROCESSABLE_ENTITY.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body(errorResponse));
+    }
+
+    /**
+     * El circuito del servicio de usuarios está abierto o no hay cupo para llamarlo: se responde de inmediato.
+     */
+    @ExceptionHandler(ServicioUsuariosNoDisponibleException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleServicioUsuariosNoDisponibleException(
+            ServicioUsuariosNoDisponibleException ex, ServerWebExchange exchange) {
+        log.warn("Servicio de usuarios no disponible: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Service Unavailable")
+                .message(ex.getMessage())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getReintentarEn().toSeconds())))
+                .body(errorResponse));
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public Mono<ResponseEntity<ErrorResponse>> handleIllegalArgumentException(
             IllegalArgumentException ex, ServerWebExchange exchange) {
@@ -47,6 +105,25 @@ public class GlobalExceptionHandler {
         return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
     }
 
+    /**
+     * Parámetros de consulta con formato inválido o cuerpos que no se pueden leer.
+     */
+    @ExceptionHandler(ServerWebInputException.class)
+    public Mono<ResponseEntity<ErrorResponse>> handleServerWebInputException(
+            ServerWebInputException ex, ServerWebExchange exchange) {
+        log.warn("Entrada inválida: {}", ex.getReason());
+
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .error("Bad Request")
+                .message(ex.getReason())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .timestamp(LocalDateTime.now())
+                .path(exchange.getRequest().getPath().value())
+                .build();
+
+        return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
+    }
+
     @ExceptionHandler(Exception.class)
     public Mono<ResponseEntity<ErrorResponse>> handleGenericException(
             Exception ex, ServerWebExchange exchange) {
@@ -0,0 +1,99 @@
+package rodriguez.ciro.api.mapper;
+
+import rodriguez.ciro.api.dto.PaginaSolicitudesResponse;
+import rodriguez.ciro.api.dto.RegistrarSolicitudRequest;
+import rodriguez.ciro.api.dto.ResumenSolicitudesResponse;
+import rodriguez.ciro.api.dto.SolicitudResponse;
+import rodriguez.ciro.api.dto.UsuarioResponse;
+import rodriguez.ciro.model.estadistica.ResumenSolicitudes;
+import rodriguez.ciro.model.estado.Estado;
+import rodriguez.ciro.model.solicitud.Solicitud;
+import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.usecase.consultarsolicitudes.ConsultarSolicitudesUseCase;
+
+/**
+ * Conversión entre los DTOs de la API de solicitudes y el modelo de dominio.
+ */
+public final class SolicitudApiMapper {
+
+    private SolicitudApiMapper() {
+    }
+
+    public static Usuario mapToUsuario(RegistrarSolicitudRequest request) {
+        return Usuario.builder()
+                .nombres(request.getUsuario().getNombres())
+                .apellidos(request.getUsuario().getApellidos())
+                .tipoDocumento(request.getUsuario().getTipoDocumento())
+                .numeroDocumento(request.getUsuario().getNumeroDocumento())
+                .correoElectronico(request.getUsuario().getCorreoElectronico())
+                .fechaNacimiento(request.getUsuario().getFechaNacimiento())
+                .direccion(request.getUsuario().getDireccion())
+                .telefono(request.getUsuario().getTelefono())
+                .salarioBase(request.getUsuario().getSalarioBase())
+                .rol(rodriguez.ciro.model.usuario.Rol.builder()
+                        .idRol(request.getUsuario().getIdRol())
+                        .build())
+                .build();
+    }
+
+    public static Solicitud mapToSolicitud(RegistrarSolicitudRequest request) {
+        return Solicitud.builder()
+                .monto(request.getMonto())
+                .plazo(request.getPlazo())
+                .idTipoPrestamo(request.getIdTipoPrestamo())
+                .build();
+    }
+
+    /**
+     * {@code estado} es el nombre del estado en el catálogo, no su descripción.
+     */
+    public static SolicitudResponse mapToResponse(Solicitud solicitud, Usuario usuario, Estado estado) {
+        UsuarioResponse usuarioResponse = UsuarioResponse.builder()
+                .idUsuario(usuario.getIdUsuario())
+                .nombres(usuario.getNombres())
+                .apellidos(usuario.getApellidos())
+                .fechaNacimiento(usuario.getFechaNacimiento())
+                .direccion(usuario.getDireccion())
+                .telefono(usuario.getTelefono())
+                .salarioBase(usuario.getSalarioBase())
+                .build();
+
+        return SolicitudResponse.builder()
+                .idSolicitud(solicitud.getIdSolicitud())
+                .monto(solicitud.getMonto())
+                .plazo(solicitud.getPlazo())
+                .email(solicitud.getEmail())
+                .idTipoPrestamo(solicitud.getIdTipoPrestamo())
+                .idEstado(solicitud.getIdEstado())
+                .estado(estado.getNombre())
+                .usuario(usuarioResponse)
+                .build();
+    }
+
+    public static PaginaSolicitudesResponse mapToPagina(ConsultarSolicitudesUseCase.Pagina pagina) {
+        return PaginaSolicitudesResponse.builder()
+                .solicitudes(pagina.getSolicitudes().stream()
+                        .map(solicitud -> SolicitudResponse.builder()
+                                .idSolicitud(solicitud.getIdSolicitud())
+                                .monto(solicitud.getMonto())
+                                .plazo(solicitud.getPlazo())
+                                .email(solicitud.getEmail())
+                                .idTipoPrestamo(solicitud.getIdTipoPrestamo())
+                                .idEstado(solicitud.getIdEstado())
+                                .build())
+                        .toList())
+                .siguiente(pagina.getSiguiente())
+                .totalEstimado(pagina.getTotalEstimado())
+                .build();
+    }
+
+    public static ResumenSolicitudesResponse mapToResumen(ResumenSolicitudes resumen) {
+        return ResumenSolicitudesResponse.builder()
+                .dia(resumen.getDia())
+                .idEstado(resumen.getIdEstado())
+                .idTipoPrestamo(resumen.getIdTipoPrestamo())
+                .cantidad(resumen.getCantidad())
+                .montoTotal(resumen.getMontoTotal())
+                .build();
+    }
+}
@@ -2,33 +2,78 @@ package rodriguez.ciro.api;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import rodriguez.ciro.api.config.SolicitudLoteProperties;
 import rodriguez.ciro.api.dto.RegistrarSolicitudRequest;
+import rodriguez.ciro.api.dto.ResultadoLoteResponse;
 import rodriguez.ciro.api.dto.UsuarioRequest;
 import rodriguez.ciro.api.exception.GlobalExceptionHandler;
+import rodriguez.ciro.model.estadistica.ResumenSolicitudes;
+import rodriguez.ciro.model.estado.Estado;
 import rodriguez.ciro.model.exception.EmailEnUsoException;
+import rodriguez.ciro.model.exception.ServicioUsuariosNoDisponibleException;
+import rodriguez.ciro.model.solicitud.FiltroSolicitudes;
+import rodriguez.ciro.model.solicitud.FormatoExportacion;
 import rodriguez.ciro.model.solicitud.Solicitud;
 import rodriguez.ciro.model.usuario.Usuario;
+import rodriguez.ciro.usecase.consultarestadisticas.ConsultarEstadisticasUseCase;
+import rodriguez.ciro.usecase.consultarsolicitudes.ConsultarSolicitudesUseCase;
+import rodriguez.ciro.usecase.exportarsolicitudes.ExportarSolicitudesUseCase;
+import rodriguez.ciro.usecase.idempotencia.IdempotenciaUseCase;
 import rodriguez.ciro.usecase.registrarsolicitud.RegistrarSolicitudUseCase;
 
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Supplier;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ContextConfiguration(classes = {SolicitudController.class, GlobalExceptionHandler.class})
 @WebFluxTest
+@EnableConfigurationProperties(SolicitudLoteProperties.class)
 class ApiRestTest {
 
+    private static final Estado ESTADO_PENDIENTE = Estado.builder().idEstado(1L).nombre("PENDIENTE_REVISION").build();
+
     @MockBean
     private RegistrarSolicitudUseCase registrarSolicitudUseCase;
 
+    @MockBean
+    private ConsultarSolicitudesUseCase consultarSolicitudesUseCase;
+
+    @MockBean
+    private ExportarSolicitudesUseCase exportarSolicitudesUseCase;
+
+    @MockBean
+    private ConsultarEstadisticasUseCase consultarEstadisticasUseCase;
+
+    @MockBean
+    private IdempotenciaUseCase idempotenciaUseCase;
+
     @Autowired
     private WebTestClient webTestClient;
 
@@ -49,6 +94,11 @@ class ApiRestTest {
                     .nombres("Test")
                     .apellidos("User")
                     .correoElectronico("test@example.com")
+                    .build(),
+                Estado.builder()
+                    .idEstado(1L)
+                    .nombre("PENDIENTE_REVISION")
+                    .descripcion("Pendiente de revisión")
                     .build()
             );
 
@@ -80,7 +130,10 @@ class ApiRestTest {
                 .bodyValue(request)
                 .exchange()
                 .expectStatus().isCreated()
-                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.idEstado").isEqualTo(1)
+                .jsonPath("$.estado").isEqualTo("PENDIENTE_REVISION");
     }
 
     @Test
@@ -161,4 +214,377 @@ class ApiRestTest {
                 .jsonPath("$.path").isEqualTo("/api/v1/solicitud");
     }
 
+    @Test
+    void testRegistrarSolicitudConServicioUsuariosNoDisponible() {
+        when(registrarSolicitudUseCase.registrarSolicitudConUsuario(any(Usuario.class), any(Solicitud.class)))
+            .thenReturn(Mono.error(new ServicioUsuariosNoDisponibleException(
+                    "El servicio de usuarios no está disponible, intente más tarde", Duration.ofSeconds(10), null)));
+
+        RegistrarSolicitudRequest request = new RegistrarSolicitudRequest();
+        request.setMonto(new BigDecimal("10000"));
+        request.setPlazo(12);
+        request.setIdTipoPrestamo(1L);
+
+        UsuarioRequest usuarioRequest = new UsuarioRequest();
+        usuarioRequest.setNombres("Test");
+        usuarioRequest.setApellidos("User");
+        usuarioRequest.setCorreoElectronico("test@example.com");
+        usuarioRequest.setTipoDocumento("CC");
+        usuarioRequest.setNumeroDocumento("123456789");
+        usuarioRequest.setFechaNacimiento(LocalDate.of(1990, 1, 1));
+        usuarioRequest.setDireccion("Test Address");
+        usuarioRequest.setTelefono("1234567890");
+        usuarioRequest.setSalarioBase(new BigDecimal("2000"));
+        usuarioRequest.setIdRol(1L);
+
+        request.setUsuario(usuarioRequest);
+
+        webTestClient.post()
+                .uri("/api/v1/solicitud")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(request)
+                .exchange()
+                .expectStatus().isEqualTo(503)
+                .expectHeader().valueEquals("Retry-After", "10")
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(503)
+                .jsonPath("$.error").isEqualTo("Service Unavailable")
+                .jsonPath("$.path").isEqualTo("/api/v1/solicitud");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRegistrarLoteReportaCadaLineaSinDetenerse() {
+        when(registrarSolicitudUseCase.registrarLote(any(Flux.class), eq(SolicitudLoteProperties.DEFAULT_CONCURRENCIA),
+                eq(SolicitudLoteProperties.DEFAULT_TAMANO_GRUPO)))
+            .thenAnswer(invocation -> invocation.<Flux<RegistrarSolicitudUseCase.ElementoLote>>getArgument(0)
+                .map(elemento -> elemento.getSolicitud().getIdTipoPrestamo() == 99L
+                    ? RegistrarSolicitudUseCase.ResultadoLote.fallido(elemento.getLinea(),
+                        new IllegalArgumentException("El tipo de préstamo con ID 99 no existe"))
+                    : RegistrarSolicitudUseCase.ResultadoLote.exitoso(elemento.getLinea(),
+                        new RegistrarSolicitudUseCase.SolicitudConUsuarioResult(
+                            Solicitud.builder()
+                                .idSolicitud(elemento.getLinea())
+                                .monto(elemento.getSolicitud().getMonto())
+                                .idTipoPrestamo(elemento.getSolicitud().getIdTipoPrestamo())
+                                .idEstado(1L)
+                                .build(),
+                            elemento.getUsuario().toBuilder().idUsuario(7L).build(),
+                            ESTADO_PENDIENTE))));
+
+        String cuerpo = String.join("\n",
+            lineaNdjson("10000", 1L),
+            lineaNdjson(null, 1L),
+            lineaNdjson("20000", 99L)) + "\n";
+
+        List<ResultadoLoteResponse> resultados = webTestClient.post()
+                .uri("/api/v1/solicitudes/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(cuerpo)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ResultadoLoteResponse.class)
+                .getResponseBody()
+                .sort(Comparator.comparing(ResultadoLoteResponse::getLinea))
+                .collectList()
+                .block();
+
+        assertEquals(3, resultados.size());
+        assertTrue(resultados.get(0).isExitoso());
+        assertEquals(1L, resultados.get(0).getSolicitud().getIdSolicitud());
+        assertEquals(7L, resultados.get(0).getSolicitud().getUsuario().getIdUsuario());
+        assertFalse(resultados.get(1).isExitoso());
+        assertEquals(400, resultados.get(1).getStatus());
+        assertEquals("monto: El monto es obligatorio", resultados.get(1).getMessage());
+        assertFalse(resultados.get(2).isExitoso());
+        assertEquals(400, resultados.get(2).getStatus());
+        assertEquals("El tipo de préstamo con ID 99 no existe", resultados.get(2).getMessage());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRegistrarLoteMapeaErroresDelCasoDeUso() {
+        when(registrarSolicitudUseCase.registrarLote(any(Flux.class), anyInt(), anyInt()))
+            .thenAnswer(invocation -> invocation.<Flux<RegistrarSolicitudUseCase.ElementoLote>>getArgument(0)
+                .map(elemento -> RegistrarSolicitudUseCase.ResultadoLote.fallido(elemento.getLinea(),
+                    elemento.getLinea() == 1
+                        ? new EmailEnUsoException("El correo electrónico test@example.com ya está registrado con un documento diferente")
+                        : elemento.getLinea() == 2
+                        ? new IllegalStateException("conexión cerrada")
+                        : new ServicioUsuariosNoDisponibleException("Servicio de usuarios no disponible",
+                            Duration.ofSeconds(10), null))));
+
+        List<ResultadoLoteResponse> resultados = webTestClient.post()
+                .uri("/api/v1/solicitudes/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(lineaNdjson("10000", 1L) + "\n" + lineaNdjson("10000", 1L) + "\n"
+                    + lineaNdjson("10000", 1L) + "\n")
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ResultadoLoteResponse.class)
+                .getResponseBody()
+                .sort(Comparator.comparing(ResultadoLoteResponse::getLinea))
+                .collectList()
+                .block();
+
+        assertEquals(409, resultados.get(0).getStatus());
+        assertEquals("Conflict", resultados.get(0).getError());
+        assertEquals(500, resultados.get(1).getStatus());
+        assertEquals("Error interno del servidor", resultados.get(1).getMessage());
+        assertNull(resultados.get(1).getSolicitud());
+        assertNull(resultados.get(1).getReintentable());
+        assertEquals(503, resultados.get(2).getStatus());
+        assertEquals("Service Unavailable", resultados.get(2).getError());
+        assertTrue(resultados.get(2).getReintentable());
+        assertEquals(10L, resultados.get(2).getReintentarEnSegundos());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRegistrarLoteSigueDespuesDeUnaLineaConJsonInvalido() {
+        when(registrarSolicitudUseCase.registrarLote(any(Flux.class), anyInt(), anyInt()))
+            .thenAnswer(invocation -> invocation.<Flux<RegistrarSolicitudUseCase.ElementoLote>>getArgument(0)
+                .map(elemento -> RegistrarSolicitudUseCase.ResultadoLote.exitoso(elemento.getLinea(),
+                    new RegistrarSolicitudUseCase.SolicitudConUsuarioResult(
+                        Solicitud.builder().idSolicitud(elemento.getLinea()).idEstado(1L).build(),
+                        elemento.getUsuario().toBuilder().idUsuario(7L).build(),
+                        ESTADO_PENDIENTE))));
+
+        String cuerpo = String.join("\n",
+            lineaNdjson("10000", 1L),
+            "{\"monto\": 10000, \"plazo\":",
+            "",
+            lineaNdjson("20000", 1L)) + "\n";
+
+        List<ResultadoLoteResponse> resultados = webTestClient.post()
+                .uri("/api/v1/solicitudes/batch")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .bodyValue(cuerpo)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(ResultadoLoteResponse.class)
+                .getResponseBody()
+                .sort(Comparator.comparing(ResultadoLoteResponse::getLinea))
+                .collectList()
+                .block();
+
+        // La línea en blanco no produce resultado, pero cuenta para numerar las siguientes
+        assertEquals(3, resultados.size());
+        assertTrue(resultados.get(0).isExitoso());
+        assertEquals(1L, resultados.get(0).getLinea());
+        assertFalse(resultados.get(1).isExitoso());
+        assertEquals(2L, resultados.get(1).getLinea());
+        assertEquals(400, resultados.get(1).getStatus());
+        assertTrue(resultados.get(1).getMessage().startsWith("Línea con JSON inválido"));
+        assertTrue(resultados.get(2).isExitoso());
+        assertEquals(4L, resultados.get(2).getLinea());
+    }
+
+    @Test
+    void testListarSolicitudesPasaFiltrosYCursor() {
+        when(consultarSolicitudesUseCase.consultar(any(FiltroSolicitudes.class), eq(1021L), eq(2), eq(true)))
+            .thenReturn(Mono.just(new ConsultarSolicitudesUseCase.Pagina(List.of(
+                Solicitud.builder().idSolicitud(1020L).monto(new BigDecimal("15000")).idEstado(1L).idTipoPrestamo(2L).build(),
+                Solicitud.builder().idSolicitud(1018L).monto(new BigDecimal("12000")).idEstado(1L).idTipoPrestamo(2L).build()),
+                1018L, 340L)));
+
+        webTestClient.get()
+                .uri("/api/v1/solicitudes?idEstado=1&idTipoPrestamo=2&montoMinimo=10000&montoMaximo=20000"
+                    + "&despuesDe=1021&limite=2&incluirTotal=true")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.solicitudes.length()").isEqualTo(2)
+                .jsonPath("$.solicitudes[0].idSolicitud").isEqualTo(1020)
+                .jsonPath("$.siguiente").isEqualTo(1018)
+                .jsonPath("$.totalEstimado").isEqualTo(340);
+
+        verify(consultarSolicitudesUseCase).consultar(argThat(filtro -> filtro.getIdEstado() == 1L
+                && filtro.getIdTipoPrestamo() == 2L
+                && filtro.getEmail() == null
+                && filtro.getMontoMinimo().compareTo(new BigDecimal("10000")) == 0
+                && filtro.getMontoMaximo().compareTo(new BigDecimal("20000")) == 0),
+            eq(1021L), eq(2), eq(true));
+    }
+
+    @Test
+    void testListarSolicitudesRechazaParametrosConFormatoInvalido() {
+        webTestClient.get()
+                .uri("/api/v1/solicitudes?limite=muchos")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(400)
+                .jsonPath("$.path").isEqualTo("/api/v1/solicitudes");
+
+        verify(consultarSolicitudesUseCase, never()).consultar(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testExportarSolicitudesEnCsv() {
+        when(exportarSolicitudesUseCase.exportar(any(FiltroSolicitudes.class), eq(FormatoExportacion.CSV)))
+            .thenReturn(Flux.just("id_solicitud,monto\n", "1,10000\n", "2,20000\n")
+                .map(texto -> ByteBuffer.wrap(texto.getBytes(StandardCharsets.UTF_8))));
+
+        String cuerpo = webTestClient.get()
+                .uri("/api/v1/solicitudes/export?formato=csv&idEstado=1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.parseMediaType("text/csv"))
+                .expectHeader().valueEquals("Content-Disposition", "attachment; filename=\"solicitudes.csv\"")
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertEquals("id_solicitud,monto\n1,10000\n2,20000\n", cuerpo);
+        verify(exportarSolicitudesUseCase).exportar(argThat(filtro -> filtro.getIdEstado() == 1L),
+            eq(FormatoExportacion.CSV));
+    }
+
+    @Test
+    void testExportarSolicitudesRechazaErroresAntesDeEmpezarLaDescarga() {
+        when(exportarSolicitudesUseCase.exportar(any(FiltroSolicitudes.class), eq(FormatoExportacion.NDJSON)))
+            .thenReturn(Flux.error(new IllegalArgumentException("El monto mínimo no puede ser mayor que el monto máximo")));
+
+        webTestClient.get()
+                .uri("/api/v1/solicitudes/export?montoMinimo=5000&montoMaximo=1000")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectHeader().doesNotExist("Content-Disposition")
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("El monto mínimo no puede ser mayor que el monto máximo");
+
+        webTestClient.get()
+                .uri("/api/v1/solicitudes/export?formato=xml")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("Formato de exportación no soportado: xml");
+    }
+
+    @Test
+    void testConsultarEstadisticasPorRangoDeFechas() {
+        LocalDate desde = LocalDate.of(2025, 1, 1);
+        LocalDate hasta = LocalDate.of(2025, 1, 31);
+        when(consultarEstadisticasUseCase.resumenDiario(desde, hasta))
+            .thenReturn(Flux.just(ResumenSolicitudes.builder()
+                .dia(LocalDate.of(2025, 1, 15))
+                .idEstado(1L)
+                .idTipoPrestamo(2L)
+                .cantidad(42)
+                .montoTotal(new BigDecimal("1250000.00"))
+                .build()));
+
+        webTestClient.get()
+                .uri("/api/v1/solicitudes/estadisticas?desde=2025-01-01&hasta=2025-01-31")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[0].dia").isEqualTo("2025-01-15")
+                .jsonPath("$[0].idEstado").isEqualTo(1)
+                .jsonPath("$[0].idTipoPrestamo").isEqualTo(2)
+                .jsonPath("$[0].cantidad").isEqualTo(42)
+                .jsonPath("$[0].montoTotal").isEqualTo(1250000.00);
+    }
+
+    @Test
+    void testConsultarEstadisticasSinFechasUsaElDiaEnCurso() {
+        when(consultarEstadisticasUseCase.resumenDiario(any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(Flux.empty());
+
+        webTestClient.get()
+                .uri("/api/v1/solicitudes/estadisticas")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .json("[]");
+
+        verify(consultarEstadisticasUseCase).resumenDiario(
+            argThat(desde -> !desde.isBefore(LocalDate.now(ZoneOffset.UTC).minusDays(1))),
+            argThat(hasta -> !hasta.isBefore(LocalDate.now(ZoneOffset.UTC).minusDays(1))));
+    }
+
+    @Test
+    void testConsultarEstadisticasRechazaRangoInvalido() {
+        when(consultarEstadisticasUseCase.resumenDiario(any(LocalDate.class), any(LocalDate.class)))
+            .thenReturn(Flux.error(new IllegalArgumentException("La fecha inicial no puede ser posterior a la final")));
+
+        webTestClient.get()
+                .uri("/api/v1/solicitudes/estadisticas?desde=2025-02-01&hasta=2025-01-01")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.message").isEqualTo("La fecha inicial no puede ser posterior a la final");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRegistrarSolicitudConIdempotencyKeyEjecutaLaPrimeraVezYNoReleeLaRespuestaGuardada() {
+        when(registrarSolicitudUseCase.registrarSolicitudConUsuario(any(Usuario.class), any(Solicitud.class)))
+            .thenReturn(Mono.just(new RegistrarSolicitudUseCase.SolicitudConUsuarioResult(
+                Solicitud.builder().idSolicitud(5L).monto(new BigDecimal("10000")).plazo(12).idEstado(1L).build(),
+                Usuario.builder().idUsuario(1L).nombres("Test").build(),
+                ESTADO_PENDIENTE)));
+        when(idempotenciaUseCase.ejecutar(eq("clave-1"), argThat(huella -> huella.length() == 64), any()))
+            .thenAnswer(invocacion -> ((Supplier<Mono<String>>) invocacion.getArgument(2)).get()
+                // Un texto que no se puede leer: la primera ejecución responde con el objeto original
+                .map(respuesta -> new IdempotenciaUseCase.Resultado("no-es-json", false)));
+
+        webTestClient.post()
+                .uri("/api/v1/solicitud")
+                .header("Idempotency-Key", "clave-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(lineaNdjson("10000", 1L))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().doesNotExist("Idempotent-Replayed")
+                .expectBody()
+                .jsonPath("$.idSolicitud").isEqualTo(5);
+    }
+
+    @Test
+    void testRegistrarSolicitudConIdempotencyKeyRepetidaDevuelveLaRespuestaGuardada() {
+        when(idempotenciaUseCase.ejecutar(eq("clave-1"), any(), any()))
+            .thenReturn(Mono.just(new IdempotenciaUseCase.Resultado(
+                "{\"idSolicitud\":5,\"monto\":10000,\"plazo\":12,\"idEstado\":1}", true)));
+
+        webTestClient.post()
+                .uri("/api/v1/solicitud")
+                .header("Idempotency-Key", "clave-1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(lineaNdjson("10000", 1L))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals("Idempotent-Replayed", "true")
+                .expectBody()
+                .jsonPath("$.idSolicitud").isEqualTo(5)
+                .jsonPath("$.plazo").isEqualTo(12);
+
+        verify(registrarSolicitudUseCase, never()).registrarSolicitudConUsuario(any(), any());
+    }
+
+    @Test
+    void testRegistrarSolicitudRechazaIdempotencyKeyInvalida() {
+        webTestClient.post()
+                .uri("/api/v1/solicitud")
+                .header("Idempotency-Key", "x".repeat(256))
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(lineaNdjson("10000", 1L))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        verify(idempotenciaUseCase, never()).ejecutar(any(), any(), any());
+    }
+
+    private static String lineaNdjson(String monto, Long idTipoPrestamo) {
+        return "{" + (monto != null ? "\"monto\":" + monto + "," : "")
+                + "\"plazo\":12,\"idTipoPrestamo\":" + idTipoPrestamo + ","
+                + "\"usuario\":{\"nombres\":\"Test\",\"apellidos\":\"User\",\"tipoDocumento\":\"CC\","
+                + "\"numeroDocumento\":\"123456789\",\"correoElectronico\":\"test@example.com\","
+                + "\"fechaNacimiento\":\"1990-01-01\",\"direccion\":\"Test Address\",\"telefono\":\"1234567890\","
+                + "\"salarioBase\":2000,\"idRol\":1}}";
+    }
 }
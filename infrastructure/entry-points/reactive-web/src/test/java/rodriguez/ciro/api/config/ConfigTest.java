@@ -1,9 +1,14 @@
 package rodriguez.ciro.api.config;
 
 import rodriguez.ciro.api.SolicitudController;
+import rodriguez.ciro.usecase.consultarestadisticas.ConsultarEstadisticasUseCase;
+import rodriguez.ciro.usecase.consultarsolicitudes.ConsultarSolicitudesUseCase;
+import rodriguez.ciro.usecase.exportarsolicitudes.ExportarSolicitudesUseCase;
+import rodriguez.ciro.usecase.idempotencia.IdempotenciaUseCase;
 import rodriguez.ciro.usecase.registrarsolicitud.RegistrarSolicitudUseCase;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.context.annotation.Import;
@@ -13,11 +18,24 @@ import org.springframework.test.web.reactive.server.WebTestClient;
 @ContextConfiguration(classes = {SolicitudController.class})
 @WebFluxTest
 @Import({CorsConfig.class, SecurityHeadersConfig.class})
+@EnableConfigurationProperties(SolicitudLoteProperties.class)
 class ConfigTest {
 
     @MockBean
     private RegistrarSolicitudUseCase registrarSolicitudUseCase;
 
+    @MockBean
+    private ConsultarSolicitudesUseCase consultarSolicitudesUseCase;
+
+    @MockBean
+    private ExportarSolicitudesUseCase exportarSolicitudesUseCase;
+
+    @MockBean
+    private ConsultarEstadisticasUseCase consultarEstadisticasUseCase;
+
+    @MockBean
+    private IdempotenciaUseCase idempotenciaUseCase;
+
     @Autowired
     private WebTestClient webTestClient;
 
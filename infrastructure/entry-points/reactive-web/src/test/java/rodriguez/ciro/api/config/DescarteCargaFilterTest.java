@@ -0,0 +1,128 @@
+package rodriguez.ciro.api.config;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.PoolMetrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DescarteCargaFilterTest {
+
+    private static final SaturacionProperties PROPERTIES =
+            new SaturacionProperties(true, null, Duration.ofMillis(20), 2, null, Duration.ofSeconds(3));
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void ejecutorBloqueadoSaturaYDescartaLosPost() throws InterruptedException {
+        // Un ejecutor que nunca corre sus tareas se comporta como un event loop bloqueado
+        Executor bloqueado = tarea -> { };
+        MonitorSaturacion monitor = monitor(bloqueado);
+        DescarteCargaFilter filter = filter(monitor);
+
+        monitor.medir();
+        TimeUnit.MILLISECONDS.sleep(40);
+        monitor.medir();
+
+        assertTrue(monitor.getSaturacion() >= 1.0, "Saturación: " + monitor.getSaturacion());
+        assertTrue(meterRegistry.get(MonitorSaturacion.METRICA + ".retraso").tag("fuente", "prueba").timeGauge()
+                .value(TimeUnit.MILLISECONDS) >= 20);
+
+        MockServerWebExchange post = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/solicitud"));
+        StepVerifier.create(filter.filter(post, exchange -> Mono.error(new AssertionError()))).verifyComplete();
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, post.getResponse().getStatusCode());
+        assertEquals("3", post.getResponse().getHeaders().getFirst("Retry-After"));
+
+        MockServerWebExchange get = MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/solicitudes"));
+        StepVerifier.create(filter.filter(get, exchange -> Mono.empty())).verifyComplete();
+        assertNull(get.getResponse().getStatusCode());
+
+        assertEquals(1.0, meterRegistry.get(MonitorSaturacion.METRICA + ".descartadas").counter().count());
+    }
+
+    @Test
+    void ejecutorLibreNoSatura() {
+        MonitorSaturacion monitor = monitor(Runnable::run);
+        DescarteCargaFilter filter = filter(monitor);
+
+        monitor.medir();
+
+        assertTrue(monitor.getSaturacion() < 1.0, "Saturación: " + monitor.getSaturacion());
+        MockServerWebExchange post = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/solicitud"));
+        StepVerifier.create(filter.filter(post, exchange -> Mono.empty())).verifyComplete();
+        assertNull(post.getResponse().getStatusCode());
+    }
+
+    @Test
+    void conexionesEnColaYPeticionesEnCursoCuentanEnLaSaturacion() {
+        PoolMetrics metricas = mock(PoolMetrics.class);
+        when(metricas.pendingAcquireSize()).thenReturn(5);
+        when(metricas.getMaxAllocatedSize()).thenReturn(10);
+        ConnectionPool pool = mock(ConnectionPool.class);
+        when(pool.getMetrics()).thenReturn(Optional.of(metricas));
+        MonitorSaturacion monitor = new MonitorSaturacion(PROPERTIES, meterRegistry,
+                Map.of("prueba", () -> List.of(Runnable::run)), SaturacionConfig.saturacionPool(pool));
+
+        monitor.medir();
+        assertEquals(0.5, monitor.getSaturacion(), 0.01);
+
+        monitor.iniciarPeticion();
+        monitor.iniciarPeticion();
+        monitor.medir();
+        assertEquals(1.0, monitor.getSaturacion(), 0.01);
+    }
+
+    @Test
+    void sinPoolLaColaDeConexionesNoCuenta() {
+        assertEquals(0.0, SaturacionConfig.saturacionPool(null).getAsDouble());
+    }
+
+    @Test
+    void soloLosPostCortosCuentanComoEnCurso() {
+        MonitorSaturacion monitor = monitor(Runnable::run);
+        DescarteCargaFilter filter = filter(monitor);
+        Sinks.Empty<Void> respuesta = Sinks.empty();
+
+        for (MockServerHttpRequest request : List.of(MockServerHttpRequest.post("/api/v1/solicitud").build(),
+                MockServerHttpRequest.post(DescarteCargaFilter.RUTA_LOTE).build(),
+                MockServerHttpRequest.get("/api/v1/solicitudes/export").build())) {
+            filter.filter(MockServerWebExchange.from(request), exchange -> respuesta.asMono()).subscribe();
+        }
+        monitor.medir();
+
+        // 1 POST corto en curso sobre en-curso-maximo=2
+        assertEquals(0.5, monitor.getSaturacion(), 0.01);
+        respuesta.tryEmitEmpty();
+        monitor.medir();
+        assertEquals(0.0, monitor.getSaturacion(), 0.01);
+    }
+
+    private MonitorSaturacion monitor(Executor ejecutor) {
+        return new MonitorSaturacion(PROPERTIES, meterRegistry, Map.of("prueba", () -> List.of(ejecutor)), () -> 0);
+    }
+
+    private DescarteCargaFilter filter(MonitorSaturacion monitor) {
+        return new DescarteCargaFilter(monitor, PROPERTIES, meterRegistry,
+                JsonMapper.builder().addModule(new JavaTimeModule()).build());
+    }
+}
@@ -0,0 +1,104 @@
+package rodriguez.ciro.api.config;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LimiteConcurrenciaFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private LimiteConcurrenciaFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new LimiteConcurrenciaFilter(
+                new LimiteConcurrenciaProperties(true, 1, 1, 10, Duration.ofSeconds(2)), meterRegistry,
+                JsonMapper.builder().addModule(new JavaTimeModule()).build());
+    }
+
+    @Test
+    void rechazaConRetryAfterLoQueSuperaElLimite() {
+        Sinks.Empty<Void> primera = Sinks.empty();
+        WebFilterChain pendiente = exchange -> primera.asMono();
+        MockServerWebExchange enCurso = registro();
+        MockServerWebExchange rechazada = registro();
+
+        StepVerifier.create(filter.filter(enCurso, pendiente))
+                .then(() -> StepVerifier.create(filter.filter(rechazada, exchange -> Mono.error(new AssertionError())))
+                        .verifyComplete())
+                .then(primera::tryEmitEmpty)
+                .verifyComplete();
+
+        assertNull(enCurso.getResponse().getStatusCode());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rechazada.getResponse().getStatusCode());
+        assertEquals("2", rechazada.getResponse().getHeaders().getFirst("Retry-After"));
+        StepVerifier.create(rechazada.getResponse().getBodyAsString())
+                .expectNextMatches(cuerpo -> cuerpo.contains("\"status\":503"))
+                .verifyComplete();
+        assertEquals(1.0, meterRegistry.get(LimiteConcurrenciaFilter.METRICA + ".rechazadas").counter().count());
+        assertEquals(0.0, meterRegistry.get(LimiteConcurrenciaFilter.METRICA + ".en.curso").gauge().value());
+    }
+
+    @Test
+    void otrasRutasNoSeLimitan() {
+        Sinks.Empty<Void> pendiente = Sinks.empty();
+        filter.filter(registro(), exchange -> pendiente.asMono()).subscribe();
+
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/solicitudes")),
+                        exchange -> Mono.empty()))
+                .verifyComplete();
+        StepVerifier.create(filter.filter(MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/solicitudes/batch")),
+                        exchange -> Mono.empty()))
+                .verifyComplete();
+
+        assertEquals(0.0, meterRegistry.get(LimiteConcurrenciaFilter.METRICA + ".rechazadas").counter().count());
+        pendiente.tryEmitEmpty();
+    }
+
+    @Test
+    void elLimiteCreceConLatenciaEstableYBajaCuandoLaLatenciaSube() {
+        LimiteConcurrenciaGradiente limite = new LimiteConcurrenciaGradiente(20, 4, 200);
+
+        for (int i = 0; i < 200; i++) {
+            limite.liberar(TimeUnit.MILLISECONDS.toNanos(10), limite.getLimite(), true);
+        }
+        int conLatenciaEstable = limite.getLimite();
+        assertTrue(conLatenciaEstable > 20, "El límite debió crecer: " + conLatenciaEstable);
+
+        for (int i = 0; i < 50; i++) {
+            limite.liberar(TimeUnit.MILLISECONDS.toNanos(200), limite.getLimite(), true);
+        }
+        assertTrue(limite.getLimite() < conLatenciaEstable / 2, "El límite debió bajar: " + limite.getLimite());
+    }
+
+    @Test
+    void elLimiteNoCreceSinCarga() {
+        LimiteConcurrenciaGradiente limite = new LimiteConcurrenciaGradiente(20, 4, 200);
+
+        for (int i = 0; i < 200; i++) {
+            limite.liberar(TimeUnit.MILLISECONDS.toNanos(10), 1, true);
+        }
+
+        assertEquals(20, limite.getLimite());
+    }
+
+    private static MockServerWebExchange registro() {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/solicitud"));
+    }
+}